@@ -0,0 +1,57 @@
+package com.company.analyzer.benchmark;
+
+import com.company.analyzer.model.Employee;
+import com.company.analyzer.service.CsvReaderService;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parse throughput of the CSV ingestion modes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class CsvReaderBenchmark {
+
+    @Param({"FLAT", "DEEP", "BALANCED", "RANDOM"})
+    public OrgShape shape;
+
+    @Param({"10000", "100000", "1000000", "10000000"})
+    public int size;
+
+    private final CsvReaderService reader = new CsvReaderService();
+    private String file;
+
+    @Setup(Level.Trial)
+    public void writeFile() throws IOException {
+        file = OrgGenerator.writeCsv(OrgGenerator.employees(shape, size)).toString();
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteFile() throws IOException {
+        Files.deleteIfExists(Path.of(file));
+    }
+
+    @Benchmark
+    public List<Employee> readEmployees() throws IOException {
+        return reader.readEmployees(file);
+    }
+
+    @Benchmark
+    public List<Employee> readEmployeesMapped() throws IOException {
+        return reader.readEmployeesMapped(file);
+    }
+
+    @Benchmark
+    public List<Employee> readEmployeesParallel() throws IOException {
+        return reader.readEmployeesParallel(file);
+    }
+}
@@ -0,0 +1,66 @@
+package com.company.analyzer.benchmark;
+
+import com.company.analyzer.model.Employee;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates reproducible synthetic organizations for the benchmarks.
+ */
+final class OrgGenerator {
+
+    private static final String[] FIRST_NAMES = {
+        "Joe", "Martin", "Bob", "Alice", "Brett", "Maria", "Wei", "Aisha", "Olga", "Raj"
+    };
+    private static final String[] LAST_NAMES = {
+        "Doe", "Chekov", "Ronstad", "Hasacat", "Hardleaf", "Garcia", "Zhang", "Khan", "Ivanova", "Patel"
+    };
+
+    private OrgGenerator() {
+    }
+
+    static List<Employee> employees(OrgShape shape, int size) {
+        Random random = new Random(size);
+        List<Employee> employees = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            String managerId = i == 0 ? null : id(shape.managerOf(i, random));
+            employees.add(new Employee(id(i), FIRST_NAMES[random.nextInt(FIRST_NAMES.length)],
+                LAST_NAMES[random.nextInt(LAST_NAMES.length)], 30000 + random.nextInt(120000), managerId));
+        }
+        return employees;
+    }
+
+    static Path writeCsv(List<Employee> employees) throws IOException {
+        Path file = Files.createTempFile("employees-", ".csv");
+        file.toFile().deleteOnExit();
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("Id,firstName,lastName,salary,managerId\n");
+            for (Employee employee : employees) {
+                writer.write(employee.getId());
+                writer.write(',');
+                writer.write(employee.getFirstName());
+                writer.write(',');
+                writer.write(employee.getLastName());
+                writer.write(',');
+                writer.write(Long.toString((long) employee.getSalary()));
+                writer.write(',');
+                if (employee.getManagerId() != null) {
+                    writer.write(employee.getManagerId());
+                }
+                writer.write('\n');
+            }
+        }
+        return file;
+    }
+
+    private static String id(int index) {
+        return Integer.toString(100_000 + index);
+    }
+}
@@ -0,0 +1,47 @@
+package com.company.analyzer.benchmark;
+
+import java.util.Random;
+
+/**
+ * Organization shapes used by the benchmarks. Employee 0 is always the CEO and
+ * every other employee's manager has a lower index.
+ */
+public enum OrgShape {
+
+    /** Everyone reports straight to the CEO: one huge team, reporting lines of 1. */
+    FLAT {
+        @Override
+        int managerOf(int employee, Random random) {
+            return 0;
+        }
+    },
+
+    /** A single chain: maximal reporting line lengths, one report per manager. */
+    DEEP {
+        @Override
+        int managerOf(int employee, Random random) {
+            return employee - 1;
+        }
+    },
+
+    /** Complete tree with eight reports per manager. */
+    BALANCED {
+        @Override
+        int managerOf(int employee, Random random) {
+            return (employee - 1) / 8;
+        }
+    },
+
+    /** Random recursive tree: each employee reports to a uniformly chosen earlier one. */
+    RANDOM {
+        @Override
+        int managerOf(int employee, Random random) {
+            return random.nextInt(employee);
+        }
+    };
+
+    /**
+     * Returns the index of the manager of an employee with index greater than 0.
+     */
+    abstract int managerOf(int employee, Random random);
+}
@@ -0,0 +1,70 @@
+package com.company.analyzer.benchmark;
+
+import com.company.analyzer.model.Employee;
+import com.company.analyzer.service.OrganizationalAnalyzer;
+import com.company.analyzer.service.OrganizationalAnalyzer.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Index build and analysis cost over generated organization shapes.
+ *
+ * The analyses share one analyzer per trial, so with {@code -t N} they also show
+ * how concurrent readers of the same analyzer scale.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class OrganizationalAnalyzerBenchmark {
+
+    @Param({"FLAT", "DEEP", "BALANCED", "RANDOM"})
+    public OrgShape shape;
+
+    @Param({"10000", "100000", "1000000", "10000000"})
+    public int size;
+
+    private List<Employee> employees;
+    private OrganizationalAnalyzer analyzer;
+
+    @Setup(Level.Trial)
+    public void generate() {
+        employees = OrgGenerator.employees(shape, size);
+        analyzer = new OrganizationalAnalyzer(employees);
+    }
+
+    @Benchmark
+    public OrganizationalAnalyzer buildIndex() {
+        return new OrganizationalAnalyzer(employees);
+    }
+
+    @Benchmark
+    public SalaryAnalysisReport analyzeSalaries() {
+        return analyzer.analyzeSalaries();
+    }
+
+    /**
+     * Reporting line lengths are memoized per analyzer, so each invocation gets a
+     * fresh one, built outside the measurement, to time the length resolution
+     * rather than a cached lookup.
+     */
+    @Benchmark
+    public ReportingLineAnalysisReport analyzeReportingLines(FreshAnalyzer fresh) {
+        return fresh.analyzer.analyzeReportingLines();
+    }
+
+    @State(Scope.Thread)
+    public static class FreshAnalyzer {
+
+        private OrganizationalAnalyzer analyzer;
+
+        @Setup(Level.Invocation)
+        public void build(OrganizationalAnalyzerBenchmark benchmark) {
+            analyzer = new OrganizationalAnalyzer(benchmark.employees);
+        }
+    }
+}
@@ -0,0 +1,330 @@
+package com.company.analyzer;
+
+import com.company.analyzer.report.ReportFormat;
+import com.company.analyzer.service.DataQualityValidator;
+import com.company.analyzer.service.ExternalOrganizationalAnalyzer;
+import com.company.analyzer.service.OrgSnapshot;
+import com.company.analyzer.service.ShardedCsvLoader;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Parsed command line of {@link CompanyAnalyzerApp}.
+ */
+final class CommandLineOptions {
+
+    static final String USAGE =
+        "Usage: java -jar company-analyzer.jar [--format=text|csv|jsonl] [--metrics[=json]] [--metrics-alloc]\n"
+        + "           [--lazy] <path-to-csv-file>\n"
+        + "       java -jar company-analyzer.jar [--format=text|csv|jsonl] [--metrics[=json]] [--metrics-alloc]\n"
+        + "           <snapshot-file-or-csv-directory-or-glob>\n"
+        + "       java -jar company-analyzer.jar --write-snapshot <path-to-csv-file> <path-to-snapshot-file>\n"
+        + "       java -jar company-analyzer.jar --serve=<port> <path-to-csv-or-snapshot-file>\n"
+        + "       java -jar company-analyzer.jar --rules=<rules.properties> <path-to-csv-or-snapshot-file>\n"
+        + "       java -jar company-analyzer.jar --watch <path-to-csv-file>\n"
+        + "       java -jar company-analyzer.jar --validate[=text|json] [--max-problems=<n>] <path-to-csv-file>\n"
+        + "       java -jar company-analyzer.jar [--lazy] [--metrics[=json]] [--metrics-alloc]\n"
+        + "           --diff <before-csv-or-snapshot> <after-csv-or-snapshot>\n"
+        + "       java -jar company-analyzer.jar [--format=text|csv|jsonl] [--metrics[=json]] [--metrics-alloc]\n"
+        + "           --out-of-core [--run-size=<rows>] <path-to-csv-file>";
+
+    private ReportFormat format = ReportFormat.TEXT;
+    private boolean writeSnapshot;
+    private int servePort = -1;
+    private String rulesFile;
+    private boolean watch;
+    private String metricsFormat;
+    private boolean sampleAllocations;
+    private boolean lazy;
+    private boolean diff;
+    private String validateFormat;
+    private boolean outOfCore;
+    private int runSize = ExternalOrganizationalAnalyzer.DEFAULT_RUN_SIZE;
+    private int maxProblems = DataQualityValidator.DEFAULT_MAX_PROBLEMS;
+    private final List<String> files = new ArrayList<>();
+
+    private CommandLineOptions() {
+    }
+
+    /**
+     * @throws IllegalArgumentException if the arguments do not match the usage
+     */
+    static CommandLineOptions parse(String[] args) {
+        CommandLineOptions options = new CommandLineOptions();
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (arg.equals("--write-snapshot")) {
+                options.writeSnapshot = true;
+            } else if (arg.equals("--watch")) {
+                options.watch = true;
+            } else if (arg.equals("--metrics")) {
+                options.metricsFormat = "text";
+            } else if (arg.startsWith("--metrics=")) {
+                options.metricsFormat = arg.substring("--metrics=".length());
+                if (!options.metricsFormat.equals("text") && !options.metricsFormat.equals("json")) {
+                    throw new IllegalArgumentException("Unknown metrics format: " + options.metricsFormat);
+                }
+            } else if (arg.equals("--metrics-alloc")) {
+                options.sampleAllocations = true;
+            } else if (arg.equals("--lazy")) {
+                options.lazy = true;
+            } else if (arg.equals("--diff")) {
+                options.diff = true;
+            } else if (arg.equals("--validate")) {
+                options.validateFormat = "text";
+            } else if (arg.startsWith("--validate=")) {
+                options.validateFormat = arg.substring("--validate=".length());
+                if (!options.validateFormat.equals("text") && !options.validateFormat.equals("json")) {
+                    throw new IllegalArgumentException("Unknown validation format: " + options.validateFormat);
+                }
+            } else if (arg.equals("--out-of-core")) {
+                options.outOfCore = true;
+            } else if (arg.startsWith("--run-size=")) {
+                options.runSize = parseRunSize(arg.substring("--run-size=".length()));
+            } else if (arg.startsWith("--max-problems=")) {
+                options.maxProblems = parseMaxProblems(arg.substring("--max-problems=".length()));
+            } else if (arg.equals("--format")) {
+                if (i + 1 == args.length) {
+                    throw new IllegalArgumentException("Missing value for --format");
+                }
+                options.format = ReportFormat.fromName(args[++i]);
+            } else if (arg.startsWith("--format=")) {
+                options.format = ReportFormat.fromName(arg.substring("--format=".length()));
+            } else if (arg.equals("--serve")) {
+                if (i + 1 == args.length) {
+                    throw new IllegalArgumentException("Missing value for --serve");
+                }
+                options.servePort = parsePort(args[++i]);
+            } else if (arg.startsWith("--serve=")) {
+                options.servePort = parsePort(arg.substring("--serve=".length()));
+            } else if (arg.equals("--rules")) {
+                if (i + 1 == args.length) {
+                    throw new IllegalArgumentException("Missing value for --rules");
+                }
+                options.rulesFile = args[++i];
+            } else if (arg.startsWith("--rules=")) {
+                options.rulesFile = arg.substring("--rules=".length());
+            } else if (arg.startsWith("--")) {
+                throw new IllegalArgumentException("Unknown option: " + arg);
+            } else {
+                options.files.add(arg);
+            }
+        }
+
+        int modes = (options.writeSnapshot ? 1 : 0)
+            + (options.isServe() ? 1 : 0)
+            + (options.rulesFile != null ? 1 : 0)
+            + (options.watch ? 1 : 0)
+            + (options.validateFormat != null ? 1 : 0)
+            + (options.diff ? 1 : 0)
+            + (options.outOfCore ? 1 : 0);
+        if (modes > 1) {
+            throw new IllegalArgumentException("Only one of --write-snapshot, --serve, --rules, --watch, "
+                + "--validate, --diff and --out-of-core can be used");
+        }
+        // Only the report writer knows the machine-readable formats
+        String mode = options.getModeOption();
+        if (mode != null && options.format != ReportFormat.TEXT) {
+            throw new IllegalArgumentException("--format cannot be combined with " + mode);
+        }
+        if (mode != null && !options.diff && (options.metricsFormat != null || options.sampleAllocations)) {
+            throw new IllegalArgumentException("--metrics and --metrics-alloc cannot be combined with " + mode);
+        }
+        if (options.lazy && (options.outOfCore || options.watch || options.validateFormat != null)) {
+            // These read the whole file themselves
+            throw new IllegalArgumentException("--lazy cannot be combined with "
+                + (options.outOfCore ? "--out-of-core" : mode));
+        }
+        int expectedFiles = options.writeSnapshot || options.diff ? 2 : 1;
+        if (options.files.size() != expectedFiles) {
+            throw new IllegalArgumentException("Expected " + expectedFiles + " file argument(s)");
+        }
+        if (options.lazy) {
+            checkLazyInput(options.files.get(0));
+            if (options.diff) {
+                checkLazyInput(options.files.get(1));
+            }
+        }
+        return options;
+    }
+
+    /**
+     * Returns the option selecting a mode other than the issue report, or null when
+     * the report is written, in memory or out of core.
+     */
+    private String getModeOption() {
+        if (writeSnapshot) {
+            return "--write-snapshot";
+        } else if (isServe()) {
+            return "--serve";
+        } else if (rulesFile != null) {
+            return "--rules";
+        } else if (watch) {
+            return "--watch";
+        } else if (validateFormat != null) {
+            return "--validate";
+        } else if (diff) {
+            return "--diff";
+        }
+        return null;
+    }
+
+    /**
+     * Rejects inputs that are always loaded in full, so --lazy is not silently ignored.
+     */
+    private static void checkLazyInput(String file) {
+        if (ShardedCsvLoader.isSharded(file)) {
+            throw new IllegalArgumentException("--lazy needs a single CSV file, not a directory or glob: " + file);
+        }
+        try {
+            if (OrgSnapshot.isSnapshot(Path.of(file))) {
+                throw new IllegalArgumentException("--lazy needs a CSV file, not a snapshot: " + file);
+            }
+        } catch (IOException e) {
+            // Unreadable files are reported when they are loaded
+        }
+    }
+
+    private static int parsePort(String value) {
+        try {
+            int port = Integer.parseInt(value);
+            if (port >= 0 && port <= 65535) {
+                return port;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below
+        }
+        throw new IllegalArgumentException("Invalid port: " + value);
+    }
+
+    private static int parseMaxProblems(String value) {
+        try {
+            int maxProblems = Integer.parseInt(value);
+            if (maxProblems >= 0) {
+                return maxProblems;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below
+        }
+        throw new IllegalArgumentException("Invalid --max-problems value: " + value);
+    }
+
+    private static int parseRunSize(String value) {
+        try {
+            int runSize = Integer.parseInt(value);
+            if (runSize > 0) {
+                return runSize;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below
+        }
+        throw new IllegalArgumentException("Invalid --run-size value: " + value);
+    }
+
+    ReportFormat getFormat() {
+        return format;
+    }
+
+    boolean isWriteSnapshot() {
+        return writeSnapshot;
+    }
+
+    /**
+     * Returns "text" or "json" when metrics should be printed, otherwise null.
+     */
+    String getMetricsFormat() {
+        return metricsFormat;
+    }
+
+    boolean isSampleAllocations() {
+        return sampleAllocations;
+    }
+
+    /**
+     * Returns true if names of a single CSV file should be decoded only when reported.
+     */
+    boolean isLazy() {
+        return lazy;
+    }
+
+    /**
+     * Returns true if the two input files should be compared.
+     */
+    boolean isDiff() {
+        return diff;
+    }
+
+    /**
+     * Returns true if the file should be analyzed in sorted runs on disk instead of in memory.
+     */
+    boolean isOutOfCore() {
+        return outOfCore;
+    }
+
+    /**
+     * Returns the number of rows per sorted run, when {@link #isOutOfCore()}.
+     */
+    int getRunSize() {
+        return runSize;
+    }
+
+    boolean isWatch() {
+        return watch;
+    }
+
+    boolean isServe() {
+        return servePort >= 0;
+    }
+
+    /**
+     * Returns the port to serve queries on, when {@link #isServe()}.
+     */
+    int getServePort() {
+        return servePort;
+    }
+
+    /**
+     * Returns the rule configuration to evaluate, or null for the standard report.
+     */
+    String getRulesFile() {
+        return rulesFile;
+    }
+
+    /**
+     * Returns "text" or "json" when the file should only be validated, otherwise null.
+     */
+    String getValidateFormat() {
+        return validateFormat;
+    }
+
+    /**
+     * Returns the number of examples to list per kind of data-quality problem.
+     */
+    int getMaxProblems() {
+        return maxProblems;
+    }
+
+    /**
+     * Returns the CSV or snapshot file to analyze.
+     */
+    String getInputFile() {
+        return files.get(0);
+    }
+
+    /**
+     * Returns the newer organization to compare with the input file, when {@link #isDiff()}.
+     */
+    String getDiffFile() {
+        return files.get(1);
+    }
+
+    /**
+     * Returns the snapshot file to write, when {@link #isWriteSnapshot()}.
+     */
+    String getSnapshotFile() {
+        return files.get(1);
+    }
+}
@@ -1,58 +1,140 @@
 package com.company.analyzer;
 
+import com.company.analyzer.metrics.Metrics;
 import com.company.analyzer.model.Employee;
+import com.company.analyzer.report.ReportFormat;
+import com.company.analyzer.report.ReportGenerator;
+import com.company.analyzer.rules.RuleEngine;
+import com.company.analyzer.server.OrgQueryServer;
 import com.company.analyzer.service.CsvReaderService;
+import com.company.analyzer.service.CsvWatcher;
+import com.company.analyzer.service.DataQualityReport;
+import com.company.analyzer.service.DataQualityValidator;
+import com.company.analyzer.service.ExternalOrganizationalAnalyzer;
+import com.company.analyzer.service.IncrementalOrganizationalAnalyzer.IssueChanges;
+import com.company.analyzer.service.OrgDiff;
+import com.company.analyzer.service.OrgHierarchy;
+import com.company.analyzer.service.OrgSnapshot;
+import com.company.analyzer.service.ShardedCsvLoader;
+import com.company.analyzer.service.SymbolTable;
 import com.company.analyzer.service.OrganizationalAnalyzer;
 import com.company.analyzer.service.OrganizationalAnalyzer.*;
 
+import java.io.BufferedWriter;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.InputStream;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * Main application to analyze company organizational structure.
  * 
- * Usage: java -jar company-analyzer.jar <path-to-csv-file>
+ * Usage: java -jar company-analyzer.jar [--format=text|csv|jsonl] [--metrics[=json]] [--metrics-alloc]
+ *            [--lazy] <path-to-csv-file>
+ *        java -jar company-analyzer.jar [--format=text|csv|jsonl] [--metrics[=json]] [--metrics-alloc]
+ *            <snapshot-file-or-csv-directory-or-glob>
+ *        java -jar company-analyzer.jar --write-snapshot <path-to-csv-file> <path-to-snapshot-file>
+ *        java -jar company-analyzer.jar --serve=<port> <path-to-csv-or-snapshot-file>
+ *        java -jar company-analyzer.jar --rules=<rules.properties> <path-to-csv-or-snapshot-file>
+ *        java -jar company-analyzer.jar --watch <path-to-csv-file>
+ *        java -jar company-analyzer.jar --validate[=text|json] [--max-problems=<n>] <path-to-csv-file>
+ *        java -jar company-analyzer.jar [--lazy] [--metrics[=json]] [--metrics-alloc]
+ *            --diff <before-csv-or-snapshot> <after-csv-or-snapshot>
+ *        java -jar company-analyzer.jar [--format=text|csv|jsonl] [--metrics[=json]] [--metrics-alloc]
+ *            --out-of-core [--run-size=<rows>] <path-to-csv-file>
  */
 public class CompanyAnalyzerApp {
 
     public static void main(String[] args) {
-        if (args.length != 1) {
-            System.err.println("Usage: java -jar company-analyzer.jar <path-to-csv-file>");
+        CommandLineOptions options;
+        try {
+            options = CommandLineOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(CommandLineOptions.USAGE);
             System.exit(1);
+            return;
         }
 
-        String filePath = args[0];
+        String filePath = options.getInputFile();
         
         try {
-            // Read employees from CSV
-            CsvReaderService csvReader = new CsvReaderService();
-            List<Employee> employees = csvReader.readEmployees(filePath);
-            
-            if (employees.isEmpty()) {
-                System.out.println("No employees found in the file.");
+            if (options.isWatch()) {
+                watch(filePath);
+                return;
+            }
+
+            if (options.getValidateFormat() != null) {
+                DataQualityReport report = new DataQualityValidator(options.getMaxProblems()).validate(filePath);
+                System.out.print(options.getValidateFormat().equals("json")
+                    ? report.toJson() + System.lineSeparator() : report.toSummary());
+                if (!report.isClean()) {
+                    System.exit(2);
+                }
                 return;
             }
 
-            System.out.println("Analyzing organizational structure for " + employees.size() + " employees...");
-            System.out.println();
+            // Always collected, since the phases are also Flight Recorder events
+            Metrics metrics = new Metrics(options.isSampleAllocations());
 
-            // Analyze organizational structure
-            OrganizationalAnalyzer analyzer = new OrganizationalAnalyzer(employees);
-            
-            // Analyze salaries
-            SalaryAnalysisReport salaryReport = analyzer.analyzeSalaries();
-            printSalaryReport(salaryReport);
+            if (options.isOutOfCore()) {
+                analyzeOutOfCore(filePath, options, metrics);
+                return;
+            }
+
+            if (options.isDiff()) {
+                OrganizationalAnalyzer after = diff(filePath, options.getDiffFile(), options.isLazy(), metrics);
+                if (options.getMetricsFormat() != null) {
+                    printMetrics(after, metrics, options.getMetricsFormat());
+                }
+                return;
+            }
+
+            OrganizationalAnalyzer analyzer = load(filePath, options.isLazy(), metrics);
+
+            if (options.isWriteSnapshot()) {
+                OrgSnapshot.write(analyzer, Path.of(options.getSnapshotFile()));
+                System.out.println("Wrote snapshot of " + analyzer.getEmployeeCount() + " employees to "
+                    + options.getSnapshotFile());
+                return;
+            }
+
+            if (options.isServe()) {
+                OrgQueryServer server = new OrgQueryServer(analyzer);
+                server.start(options.getServePort());
+                Runtime.getRuntime().addShutdownHook(new Thread(server::stop));
+                System.out.println("Serving " + analyzer.getEmployeeCount() + " employees on port "
+                    + server.getPort());
+                return;
+            }
             
-            // Analyze reporting lines
-            ReportingLineAnalysisReport reportingLineReport = analyzer.analyzeReportingLines();
-            printReportingLineReport(reportingLineReport);
+            if (options.getRulesFile() != null) {
+                evaluateRules(analyzer, options.getRulesFile());
+                return;
+            }
+
+            if (analyzer.getEmployeeCount() == 0 && options.getFormat() == ReportFormat.TEXT) {
+                System.out.println("No employees found in the file.");
+                return;
+            }
+
+            // Issues are streamed into one large buffer while the analyses run
+            Writer stdout = new OutputStreamWriter(new FileOutputStream(FileDescriptor.out), Charset.defaultCharset());
+            ReportGenerator.writeReport(analyzer, options.getFormat().createWriter(stdout), metrics);
 
-            // Summary
-            System.out.println();
-            if (!salaryReport.hasIssues() && !reportingLineReport.hasIssues()) {
-                System.out.println("No issues found. Organizational structure looks good!");
-            } else {
-                System.out.println("Analysis complete. Please review the issues above.");
+            if (options.getMetricsFormat() != null) {
+                printMetrics(analyzer, metrics, options.getMetricsFormat());
             }
 
         } catch (IOException e) {
@@ -68,69 +150,251 @@ public class CompanyAnalyzerApp {
         }
     }
 
-    private static void printSalaryReport(SalaryAnalysisReport report) {
-        // Managers earning less than they should
-        List<ManagerSalaryIssue> underpaid = report.getUnderpaidManagers();
-        if (!underpaid.isEmpty()) {
-            System.out.println("MANAGERS EARNING LESS THAN THEY SHOULD:");
-            System.out.println("========================================");
-            for (ManagerSalaryIssue issue : underpaid) {
-                Employee manager = issue.getManager();
-                System.out.printf("%s %s (ID: %s)%n", 
-                    manager.getFirstName(), manager.getLastName(), manager.getId());
-                System.out.printf("  Current salary: $%.2f%n", manager.getSalary());
-                System.out.printf("  Avg subordinate salary: $%.2f%n", issue.getAvgSubordinateSalary());
-                System.out.printf("  Should earn at least: $%.2f%n", 
-                    issue.getAvgSubordinateSalary() * 1.20);
-                System.out.printf("  Short by: $%.2f%n", issue.getDifference());
-                System.out.println();
+    /**
+     * Loads and merges the CSV shards of a directory or glob, opens a snapshot
+     * directly, or streams a single CSV file into the analyzer's indexes, in
+     * lazy mode leaving its names in the file until they are reported.
+     */
+    @SuppressWarnings("try")
+    private static OrganizationalAnalyzer load(String filePath, boolean lazy, Metrics metrics)
+            throws IOException {
+        if (ShardedCsvLoader.isSharded(filePath)) {
+            ShardedCsvLoader.Result result;
+            try (Metrics.Phase phase = metrics.phase("parse")) {
+                List<Path> shards = ShardedCsvLoader.resolveShards(filePath);
+                for (Path shard : shards) {
+                    metrics.count(Metrics.BYTES_READ, Files.size(shard));
+                }
+                result = new ShardedCsvLoader().load(shards);
             }
-        } else {
-            System.out.println("No managers earning less than they should.");
-            System.out.println();
-        }
-
-        // Managers earning more than they should
-        List<ManagerSalaryIssue> overpaid = report.getOverpaidManagers();
-        if (!overpaid.isEmpty()) {
-            System.out.println("MANAGERS EARNING MORE THAN THEY SHOULD:");
-            System.out.println("========================================");
-            for (ManagerSalaryIssue issue : overpaid) {
-                Employee manager = issue.getManager();
-                System.out.printf("%s %s (ID: %s)%n", 
-                    manager.getFirstName(), manager.getLastName(), manager.getId());
-                System.out.printf("  Current salary: $%.2f%n", manager.getSalary());
-                System.out.printf("  Avg subordinate salary: $%.2f%n", issue.getAvgSubordinateSalary());
-                System.out.printf("  Should earn at most: $%.2f%n", 
-                    issue.getAvgSubordinateSalary() * 1.50);
-                System.out.printf("  Over by: $%.2f%n", issue.getDifference());
-                System.out.println();
+            metrics.count(Metrics.ROWS, result.getRowCount());
+            for (ShardedCsvLoader.DuplicateId duplicate : result.getDuplicates()) {
+                if (duplicate.getFirstFile().equals(duplicate.getDuplicateFile())) {
+                    System.err.println("Warning: employee ID " + duplicate.getId() + " appears more than once in "
+                        + duplicate.getFirstFile() + "; keeping the last row");
+                } else {
+                    System.err.println("Warning: employee ID " + duplicate.getId() + " appears in both "
+                        + duplicate.getFirstFile() + " and " + duplicate.getDuplicateFile() + "; keeping the latter");
+                }
             }
-        } else {
-            System.out.println("No managers earning more than they should.");
-            System.out.println();
+            return result.getAnalyzer();
+        }
+
+        metrics.count(Metrics.BYTES_READ, Files.size(Path.of(filePath)));
+        if (OrgSnapshot.isSnapshot(Path.of(filePath))) {
+            try (Metrics.Phase phase = metrics.phase("snapshot-open")) {
+                return OrgSnapshot.open(Path.of(filePath));
+            }
+        }
+
+        CsvReaderService csvReader = new CsvReaderService();
+        if (lazy) {
+            try (Metrics.Phase phase = metrics.phase("parse")) {
+                return csvReader.readOrganizationLazy(filePath);
+            }
+        }
+        OrganizationalAnalyzer.Builder builder = OrganizationalAnalyzer.builder();
+        SymbolTable symbols = new SymbolTable();
+        long[] rows = {0};
+        long lines;
+        try (Metrics.Phase phase = metrics.phase("parse")) {
+            lines = csvReader.readEmployees(filePath, employee -> {
+                builder.accept(employee);
+                rows[0]++;
+            }, symbols);
+        }
+        metrics.count(Metrics.ROWS, rows[0]);
+        // The header is counted in the lines read but is not a skipped line
+        metrics.count(Metrics.SKIPPED_LINES, lines - 1 - rows[0]);
+        metrics.count(Metrics.SYMBOLS, symbols.size());
+        metrics.count(Metrics.SYMBOL_HITS, symbols.getHits());
+        metrics.count(Metrics.SYMBOL_SAVED_BYTES, symbols.getSavedBytes());
+        try (Metrics.Phase phase = metrics.phase("index-build")) {
+            return builder.build();
         }
     }
 
-    private static void printReportingLineReport(ReportingLineAnalysisReport report) {
-        List<ReportingLineIssue> issues = report.getIssues();
-        
-        if (!issues.isEmpty()) {
-            System.out.println("EMPLOYEES WITH REPORTING LINES TOO LONG:");
-            System.out.println("=========================================");
-            for (ReportingLineIssue issue : issues) {
-                Employee employee = issue.getEmployee();
-                System.out.printf("%s %s (ID: %s)%n", 
-                    employee.getFirstName(), employee.getLastName(), employee.getId());
-                System.out.printf("  Reporting line length: %d managers%n", 
-                    issue.getReportingLineLength());
-                System.out.printf("  Maximum allowed: 4 managers%n");
-                System.out.printf("  Too long by: %d manager(s)%n", issue.getExcess());
-                System.out.println();
+    /**
+     * Analyzes a CSV file in sorted runs under the temporary directory, holding at
+     * most the configured number of rows per run in memory, and prints the report.
+     */
+    @SuppressWarnings("try")
+    private static void analyzeOutOfCore(String filePath, CommandLineOptions options, Metrics metrics)
+            throws IOException {
+        metrics.count(Metrics.BYTES_READ, Files.size(Path.of(filePath)));
+        ExternalOrganizationalAnalyzer analyzer =
+            new ExternalOrganizationalAnalyzer(Path.of(System.getProperty("java.io.tmpdir")), options.getRunSize());
+        ExternalOrganizationalAnalyzer.Result result;
+        try (Metrics.Phase phase = metrics.phase("external-analysis")) {
+            result = analyzer.analyze(filePath);
+        }
+        metrics.count(Metrics.EMPLOYEES, result.getEmployeeCount());
+        metrics.count(Metrics.SPILLED_BYTES, result.getBytesSpilled());
+
+        if (result.getEmployeeCount() == 0 && options.getFormat() == ReportFormat.TEXT) {
+            System.out.println("No employees found in the file.");
+            return;
+        }
+        Writer stdout = new OutputStreamWriter(new FileOutputStream(FileDescriptor.out), Charset.defaultCharset());
+        ReportGenerator.writeReport(result.getEmployeeCount(), result.getSalaryReport(),
+                                    result.getReportingLineReport(), options.getFormat().createWriter(stdout), metrics);
+
+        if (options.getMetricsFormat() != null) {
+            printMetrics(metrics, options.getMetricsFormat());
+        }
+    }
+
+    private static void printMetrics(OrganizationalAnalyzer analyzer, Metrics metrics, String format) {
+        OrgHierarchy hierarchy = analyzer.getHierarchy();
+        int managers = 0;
+        for (int i = 0; i < hierarchy.size(); i++) {
+            if (hierarchy.getDirectReportCount(i) > 0) {
+                managers++;
             }
+        }
+        metrics.count(Metrics.EMPLOYEES, hierarchy.size());
+        metrics.count(Metrics.MANAGERS_EVALUATED, managers);
+        printMetrics(metrics, format);
+    }
+
+    private static void printMetrics(Metrics metrics, String format) {
+        // Standard error keeps the report itself machine-readable
+        if (format.equals("json")) {
+            System.err.println(metrics.toJson());
         } else {
-            System.out.println("No employees with reporting lines too long.");
-            System.out.println();
+            System.err.print(metrics.toSummary());
+        }
+    }
+
+    /**
+     * Evaluates the configured rules in one pass and prints every violation.
+     */
+    private static void evaluateRules(OrganizationalAnalyzer analyzer, String rulesFile) throws IOException {
+        Properties config = new Properties();
+        try (InputStream in = Files.newInputStream(Path.of(rulesFile))) {
+            config.load(in);
+        }
+        RuleEngine engine = RuleEngine.fromProperties(config);
+
+        int[] count = {0};
+        engine.evaluate(analyzer, violation -> {
+            System.out.println("[" + violation.getRule() + "] " + violation.getEmployee().getFullName()
+                + " (ID: " + violation.getEmployee().getId() + "): " + violation.getMessage());
+            count[0]++;
+        });
+        System.out.println(count[0] + " rule violation(s) found");
+    }
+
+    /**
+     * Loads both organizations at the same time and prints one line per change,
+     * marked + for hires and new issues, - for leavers and resolved issues and ~
+     * for moves and salary changes. Returns the newer organization.
+     */
+    @SuppressWarnings("try")
+    private static OrganizationalAnalyzer diff(String beforePath, String afterPath, boolean lazy, Metrics metrics)
+            throws IOException {
+        CompletableFuture<OrganizationalAnalyzer> loadingBefore = CompletableFuture.supplyAsync(() -> {
+            try {
+                return load(beforePath, lazy, metrics);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        OrganizationalAnalyzer after = load(afterPath, lazy, metrics);
+        OrganizationalAnalyzer before;
+        try {
+            before = loadingBefore.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) e.getCause()).getCause();
+            }
+            if (e.getCause() instanceof IllegalArgumentException) {
+                throw (IllegalArgumentException) e.getCause();
+            }
+            throw e;
+        }
+
+        // Changes are buffered rather than written to the console one at a time
+        PrintWriter out = new PrintWriter(new BufferedWriter(
+            new OutputStreamWriter(new FileOutputStream(FileDescriptor.out), Charset.defaultCharset())));
+        long[] count = {0};
+        try (Metrics.Phase phase = metrics.phase("diff")) {
+            OrgDiff.diff(before, after, change -> {
+                Employee employee = change.getEmployee();
+                String who = employee.getFullName() + " (ID: " + employee.getId() + ")";
+                switch (change.getKind()) {
+                    case HIRED -> out.println("+ HIRED " + who);
+                    case LEFT -> out.println("- LEFT " + who);
+                    case MOVED -> out.println("~ MOVED " + who + " from manager "
+                        + managerOf(change.getBefore()) + " to " + managerOf(change.getAfter()));
+                    case SALARY_CHANGED -> out.printf("~ SALARY %s from %.2f to %.2f%n", who,
+                        change.getBefore().getSalary(), change.getAfter().getSalary());
+                    case NEW_UNDERPAID, RESOLVED_UNDERPAID -> out.printf(
+                        "%s UNDERPAID %s earns %.2f less than expected%n",
+                        change.getKind() == OrgDiff.Kind.NEW_UNDERPAID ? "+" : "-", who, change.getAmount());
+                    case NEW_OVERPAID, RESOLVED_OVERPAID -> out.printf(
+                        "%s OVERPAID %s earns %.2f more than expected%n",
+                        change.getKind() == OrgDiff.Kind.NEW_OVERPAID ? "+" : "-", who, change.getAmount());
+                    case NEW_LONG_REPORTING_LINE, RESOLVED_LONG_REPORTING_LINE -> out.printf(
+                        "%s REPORTING_LINE %s has a reporting line too long by %d%n",
+                        change.getKind() == OrgDiff.Kind.NEW_LONG_REPORTING_LINE ? "+" : "-", who,
+                        (int) change.getAmount());
+                }
+                count[0]++;
+            });
+        }
+        out.println(count[0] + " change(s) found");
+        out.flush();
+        return after;
+    }
+
+    private static String managerOf(Employee employee) {
+        return employee.getManagerId() == null ? "none" : employee.getManagerId();
+    }
+
+    /**
+     * Prints the full report once, then a line per new or resolved issue whenever
+     * the file changes. Runs until the process is stopped.
+     */
+    private static void watch(String filePath) throws IOException, InterruptedException {
+        CsvWatcher watcher = new CsvWatcher(Path.of(filePath));
+        OrganizationalAnalyzer initial = OrganizationalAnalyzer.builder()
+            .addAll(watcher.getAnalyzer().getEmployees()).build();
+        Writer stdout = new OutputStreamWriter(new FileOutputStream(FileDescriptor.out), Charset.defaultCharset());
+        ReportGenerator.writeReport(initial, ReportFormat.TEXT.createWriter(stdout));
+        System.out.println("Watching " + filePath + " for changes...");
+
+        watcher.watch(update -> {
+            if (update.isReloaded()) {
+                System.out.println("Reloaded " + update.getRowsApplied() + " employees");
+            }
+            update.getRejectedRows().forEach(message -> System.err.println("Rejected row: " + message));
+            printChanges(update.getChanges());
+        }, error -> System.err.println("Error reading changes: " + error.getMessage()));
+    }
+
+    private static void printChanges(IssueChanges changes) {
+        printSalaryIssues("+", changes.getNewSalaryIssues());
+        printSalaryIssues("-", changes.getResolvedSalaryIssues());
+        printReportingLineIssues("+", changes.getNewReportingLineIssues());
+        printReportingLineIssues("-", changes.getResolvedReportingLineIssues());
+    }
+
+    private static void printSalaryIssues(String marker, SalaryAnalysisReport report) {
+        for (ManagerSalaryIssue issue : report.getUnderpaidManagers()) {
+            System.out.printf("%s UNDERPAID %s (ID: %s) earns %.2f less than expected%n", marker,
+                issue.getManager().getFullName(), issue.getManager().getId(), issue.getDifference());
+        }
+        for (ManagerSalaryIssue issue : report.getOverpaidManagers()) {
+            System.out.printf("%s OVERPAID %s (ID: %s) earns %.2f more than expected%n", marker,
+                issue.getManager().getFullName(), issue.getManager().getId(), issue.getDifference());
+        }
+    }
+
+    private static void printReportingLineIssues(String marker, ReportingLineAnalysisReport report) {
+        for (ReportingLineIssue issue : report.getIssues()) {
+            System.out.printf("%s REPORTING_LINE %s (ID: %s) has a reporting line too long by %d%n", marker,
+                issue.getEmployee().getFullName(), issue.getEmployee().getId(), issue.getExcess());
         }
     }
 }
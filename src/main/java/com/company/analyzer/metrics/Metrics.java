@@ -0,0 +1,236 @@
+package com.company.analyzer.metrics;
+
+import com.company.analyzer.report.JsonLinesReportWriter;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Wall-clock phase timings and counters of one run.
+ *
+ * Every phase is also emitted as a {@link PhaseEvent}, so a Flight Recorder
+ * recording shows the phases next to GC and allocation data. Allocation sampling
+ * counts the bytes allocated by the thread that runs a phase, so phases running
+ * at the same time on other threads are not mixed in; work a phase hands to
+ * other threads is not counted either. A phase must be closed on the thread that
+ * started it.
+ *
+ * Phases and counters may be recorded from several threads.
+ */
+public final class Metrics {
+
+    /** Counter names used by the application. */
+    public static final String ROWS = "rows";
+    public static final String BYTES_READ = "bytesRead";
+    public static final String SKIPPED_LINES = "skippedLines";
+    public static final String EMPLOYEES = "employees";
+    public static final String MANAGERS_EVALUATED = "managersEvaluated";
+    public static final String ISSUES = "issues";
+    public static final String SYMBOLS = "symbols";
+    public static final String SYMBOL_HITS = "symbolHits";
+    public static final String SYMBOL_SAVED_BYTES = "symbolSavedBytes";
+    public static final String SPILLED_BYTES = "spilledBytes";
+
+    private final boolean sampleAllocations;
+    private final List<PhaseTiming> phases = new ArrayList<>();
+    private final Map<String, Long> counters = new LinkedHashMap<>();
+
+    /**
+     * @param sampleAllocations whether to measure allocated bytes per phase
+     */
+    public Metrics(boolean sampleAllocations) {
+        this.sampleAllocations = sampleAllocations && allocationTracking() != null;
+    }
+
+    /**
+     * Starts timing a phase; closing the returned phase records it. Meant for a
+     * try-with-resources block that never references the phase, so callers
+     * suppress javac's "try" lint.
+     */
+    public Phase phase(String name) {
+        return new Phase(name);
+    }
+
+    public synchronized void count(String counter, long delta) {
+        counters.merge(counter, delta, Long::sum);
+    }
+
+    public synchronized List<PhaseTiming> getPhases() {
+        return new ArrayList<>(phases);
+    }
+
+    public synchronized Map<String, Long> getCounters() {
+        return Collections.unmodifiableMap(new LinkedHashMap<>(counters));
+    }
+
+    /**
+     * Returns a human-readable summary, one phase or counter per line.
+     */
+    public String toSummary() {
+        StringBuilder summary = new StringBuilder("Metrics:\n");
+        List<PhaseTiming> timings = getPhases();
+        for (PhaseTiming phase : timings) {
+            summary.append(String.format(Locale.ROOT, "  %-26s %10.3f ms", phase.getName(), phase.getNanos() / 1e6));
+            if (phase.getAllocatedBytes() >= 0) {
+                summary.append(String.format(Locale.ROOT, " %12.1f MB allocated", phase.getAllocatedBytes() / 1048576.0));
+            }
+            summary.append('\n');
+        }
+        summary.append(String.format(Locale.ROOT, "  %-26s %10.3f ms%n", "total", wallNanos(timings) / 1e6));
+        for (Map.Entry<String, Long> counter : getCounters().entrySet()) {
+            summary.append(String.format(Locale.ROOT, "  %-26s %10d%n", counter.getKey(), counter.getValue()));
+        }
+        return summary.toString();
+    }
+
+    /**
+     * Returns the metrics as one JSON object.
+     */
+    public String toJson() {
+        StringBuilder json = new StringBuilder("{\"phases\":[");
+        List<PhaseTiming> timings = getPhases();
+        for (int i = 0; i < timings.size(); i++) {
+            PhaseTiming phase = timings.get(i);
+            json.append(i == 0 ? "{\"name\":" : ",{\"name\":");
+            JsonLinesReportWriter.appendString(json, phase.getName());
+            json.append(",\"nanos\":").append(phase.getNanos());
+            if (phase.getAllocatedBytes() >= 0) {
+                json.append(",\"allocatedBytes\":").append(phase.getAllocatedBytes());
+            }
+            json.append('}');
+        }
+        json.append("],\"counters\":{");
+        boolean first = true;
+        for (Map.Entry<String, Long> counter : getCounters().entrySet()) {
+            if (!first) {
+                json.append(',');
+            }
+            JsonLinesReportWriter.appendString(json, counter.getKey());
+            json.append(':').append(counter.getValue());
+            first = false;
+        }
+        return json.append("}}").toString();
+    }
+
+    /**
+     * Returns the wall time covered by the phases, counting time in which several
+     * phases ran at the same time, e.g. two parses in diff mode, only once.
+     */
+    static long wallNanos(List<PhaseTiming> timings) {
+        List<PhaseTiming> byStart = new ArrayList<>(timings);
+        byStart.sort(Comparator.comparingLong(PhaseTiming::getStartNanos));
+        long total = 0;
+        long coveredUntil = Long.MIN_VALUE;
+        for (PhaseTiming phase : byStart) {
+            long start = phase.getStartNanos();
+            long end = start + phase.getNanos();
+            if (coveredUntil == Long.MIN_VALUE || start - coveredUntil > 0) {
+                total += end - start;
+                coveredUntil = end;
+            } else if (end - coveredUntil > 0) {
+                total += end - coveredUntil;
+                coveredUntil = end;
+            }
+        }
+        return total;
+    }
+
+    private synchronized void record(PhaseTiming timing) {
+        phases.add(timing);
+    }
+
+    private long allocatedBytes() {
+        if (!sampleAllocations) {
+            return -1;
+        }
+        return allocationTracking().getCurrentThreadAllocatedBytes();
+    }
+
+    /**
+     * The HotSpot extension of ThreadMXBean, or null on VMs without allocation tracking.
+     */
+    private static com.sun.management.ThreadMXBean allocationTracking() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean
+                && ((com.sun.management.ThreadMXBean) threads).isThreadAllocatedMemorySupported()) {
+            return (com.sun.management.ThreadMXBean) threads;
+        }
+        return null;
+    }
+
+    /**
+     * A running phase.
+     */
+    public final class Phase implements AutoCloseable {
+        private final String name;
+        private final PhaseEvent event = new PhaseEvent();
+        private final long startAllocated;
+        private final long start;
+
+        private Phase(String name) {
+            this.name = name;
+            this.startAllocated = allocatedBytes();
+            event.begin();
+            this.start = System.nanoTime();
+        }
+
+        @Override
+        public void close() {
+            long nanos = System.nanoTime() - start;
+            event.end();
+            long allocated = startAllocated < 0 ? -1 : allocatedBytes() - startAllocated;
+            if (event.shouldCommit()) {
+                event.phase = name;
+                event.allocatedBytes = allocated;
+                event.commit();
+            }
+            record(new PhaseTiming(name, start, nanos, allocated));
+        }
+    }
+
+    /**
+     * Duration of one finished phase.
+     */
+    public static class PhaseTiming {
+        private final String name;
+        private final long startNanos;
+        private final long nanos;
+        private final long allocatedBytes;
+
+        public PhaseTiming(String name, long startNanos, long nanos, long allocatedBytes) {
+            this.name = name;
+            this.startNanos = startNanos;
+            this.nanos = nanos;
+            this.allocatedBytes = allocatedBytes;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Returns the {@link System#nanoTime()} at which the phase started.
+         */
+        public long getStartNanos() {
+            return startNanos;
+        }
+
+        public long getNanos() {
+            return nanos;
+        }
+
+        /**
+         * Returns the bytes allocated during the phase, or -1 when allocations were not sampled.
+         */
+        public long getAllocatedBytes() {
+            return allocatedBytes;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.company.analyzer.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event spanning one phase of a run. Costs next to nothing
+ * unless a recording with this event enabled is running.
+ */
+@Name("com.company.analyzer.Phase")
+@Label("Analyzer Phase")
+@Category("Company Analyzer")
+@Description("One phase of loading, analyzing or reporting")
+class PhaseEvent extends Event {
+
+    @Label("Phase")
+    String phase;
+
+    @Label("Allocated")
+    @Description("Bytes allocated by the thread running the phase, or -1 when not sampled")
+    @DataAmount
+    long allocatedBytes;
+}
@@ -0,0 +1,61 @@
+package com.company.analyzer.report;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Base class for report writers: one large output buffer and one reusable line
+ * buffer, with allocation-light helpers instead of format strings.
+ */
+public abstract class AbstractReportWriter implements ReportWriter {
+
+    static final int BUFFER_SIZE = 1 << 16;
+    private static final String NEWLINE = System.lineSeparator();
+    private static final double MAX_EXACT_LONG = 1e15;
+
+    private final Writer out;
+    private char[] chars = new char[256];
+
+    /** Line being assembled; written out by {@link #endLine()}. */
+    protected final StringBuilder line = new StringBuilder(256);
+
+    protected AbstractReportWriter(Writer out) {
+        this.out = out instanceof BufferedWriter ? out : new BufferedWriter(out, BUFFER_SIZE);
+    }
+
+    /**
+     * Terminates the current line and moves it into the output buffer.
+     */
+    protected void endLine() throws IOException {
+        line.append(NEWLINE);
+        int length = line.length();
+        if (chars.length < length) {
+            chars = new char[Math.max(length, chars.length * 2)];
+        }
+        line.getChars(0, length, chars, 0);
+        out.write(chars, 0, length);
+        line.setLength(0);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    /**
+     * Appends a value with two decimals, rounded exactly like {@code String.format("%.2f")}.
+     */
+    static StringBuilder appendAmount(StringBuilder target, double value) {
+        if (!Double.isFinite(value)) {
+            return target.append(value);
+        }
+        if (value == Math.rint(value) && Math.abs(value) < MAX_EXACT_LONG) {
+            return target.append((long) value).append(".00");
+        }
+        // Formatter rounds the shortest decimal representation half-up, as does this
+        return target.append(BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP).toPlainString());
+    }
+}
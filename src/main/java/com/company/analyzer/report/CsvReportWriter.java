@@ -0,0 +1,98 @@
+package com.company.analyzer.report;
+
+import com.company.analyzer.model.Employee;
+import com.company.analyzer.service.OrganizationalAnalyzer;
+import com.company.analyzer.service.OrganizationalAnalyzer.*;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * One CSV row per issue under a fixed header; columns that do not apply to an
+ * issue type are left empty. Amounts keep full double precision.
+ */
+public class CsvReportWriter extends AbstractReportWriter {
+
+    static final String HEADER = "type,id,firstName,lastName,salary,avgSubordinateSalary,expectedSalary,"
+        + "difference,reportingLineLength,excess";
+
+    public CsvReportWriter(Writer out) {
+        super(out);
+    }
+
+    @Override
+    public void begin(int employeeCount) throws IOException {
+        line.append(HEADER);
+        endLine();
+    }
+
+    @Override
+    public void beginSection(IssueType type) {
+        // Rows carry their own type
+    }
+
+    @Override
+    public void writeSalaryIssue(IssueType type, ManagerSalaryIssue issue) throws IOException {
+        double ratio = type == IssueType.UNDERPAID
+            ? OrganizationalAnalyzer.MIN_MANAGER_SALARY_RATIO : OrganizationalAnalyzer.MAX_MANAGER_SALARY_RATIO;
+        appendEmployee(type, issue.getManager());
+        line.append(',').append(issue.getManager().getSalary())
+            .append(',').append(issue.getAvgSubordinateSalary())
+            .append(',').append(issue.getAvgSubordinateSalary() * ratio)
+            .append(',').append(issue.getDifference())
+            .append(",,");
+        endLine();
+    }
+
+    @Override
+    public void writeReportingLineIssue(ReportingLineIssue issue) throws IOException {
+        appendEmployee(IssueType.REPORTING_LINE, issue.getEmployee());
+        line.append(',').append(issue.getEmployee().getSalary())
+            .append(",,,,").append(issue.getReportingLineLength())
+            .append(',').append(issue.getExcess());
+        endLine();
+    }
+
+    @Override
+    public void endSection(IssueType type, int issueCount) {
+        // No section footers
+    }
+
+    @Override
+    public void end(int issueCount) {
+        // No trailer
+    }
+
+    private void appendEmployee(IssueType type, Employee employee) {
+        line.append(type.name()).append(',');
+        appendField(employee.getId());
+        line.append(',');
+        appendField(employee.getFirstName());
+        line.append(',');
+        appendField(employee.getLastName());
+    }
+
+    /**
+     * Quotes a field (RFC 4180) only if it contains a delimiter, quote or line break.
+     */
+    private void appendField(String value) {
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            line.append(value);
+            return;
+        }
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                line.append('"');
+            }
+            line.append(c);
+        }
+        line.append('"');
+    }
+}
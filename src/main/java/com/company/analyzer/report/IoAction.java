@@ -0,0 +1,26 @@
+package com.company.analyzer.report;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * A write to a {@link ReportWriter}, which may fail with an {@link IOException},
+ * made from the {@code Consumer} callbacks the analyses report issues through.
+ */
+@FunctionalInterface
+public interface IoAction {
+
+    void run() throws IOException;
+
+    /**
+     * Runs the action, rethrowing an {@link IOException} as an
+     * {@link UncheckedIOException} for the caller outside the callback to unwrap.
+     */
+    static void unchecked(IoAction action) {
+        try {
+            action.run();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.company.analyzer.report;
+
+/**
+ * Kinds of issues a report contains, in the order they are written.
+ */
+public enum IssueType {
+    UNDERPAID,
+    OVERPAID,
+    REPORTING_LINE
+}
@@ -0,0 +1,110 @@
+package com.company.analyzer.report;
+
+import com.company.analyzer.model.Employee;
+import com.company.analyzer.service.OrganizationalAnalyzer;
+import com.company.analyzer.service.OrganizationalAnalyzer.*;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * One JSON object per line for each issue, followed by a summary object.
+ * Amounts keep full double precision.
+ */
+public class JsonLinesReportWriter extends AbstractReportWriter {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private int employeeCount;
+
+    public JsonLinesReportWriter(Writer out) {
+        super(out);
+    }
+
+    @Override
+    public void begin(int employeeCount) {
+        this.employeeCount = employeeCount;
+    }
+
+    @Override
+    public void beginSection(IssueType type) {
+        // Objects carry their own type
+    }
+
+    @Override
+    public void writeSalaryIssue(IssueType type, ManagerSalaryIssue issue) throws IOException {
+        boolean underpaid = type == IssueType.UNDERPAID;
+        appendEmployee(type, issue.getManager());
+        line.append(",\"salary\":");
+        appendNumber(line, issue.getManager().getSalary());
+        line.append(",\"avgSubordinateSalary\":");
+        appendNumber(line, issue.getAvgSubordinateSalary());
+        line.append(underpaid ? ",\"minExpectedSalary\":" : ",\"maxExpectedSalary\":");
+        appendNumber(line, issue.getAvgSubordinateSalary() * (underpaid
+            ? OrganizationalAnalyzer.MIN_MANAGER_SALARY_RATIO : OrganizationalAnalyzer.MAX_MANAGER_SALARY_RATIO));
+        line.append(",\"difference\":");
+        appendNumber(line, issue.getDifference());
+        line.append('}');
+        endLine();
+    }
+
+    @Override
+    public void writeReportingLineIssue(ReportingLineIssue issue) throws IOException {
+        appendEmployee(IssueType.REPORTING_LINE, issue.getEmployee());
+        line.append(",\"reportingLineLength\":").append(issue.getReportingLineLength())
+            .append(",\"maxReportingLineLength\":").append(OrganizationalAnalyzer.MAX_REPORTING_LINE_LENGTH)
+            .append(",\"excess\":").append(issue.getExcess())
+            .append('}');
+        endLine();
+    }
+
+    @Override
+    public void endSection(IssueType type, int issueCount) {
+        // Counts are reported in the summary
+    }
+
+    @Override
+    public void end(int issueCount) throws IOException {
+        line.append("{\"type\":\"SUMMARY\",\"employees\":").append(employeeCount)
+            .append(",\"issues\":").append(issueCount).append('}');
+        endLine();
+    }
+
+    private void appendEmployee(IssueType type, Employee employee) {
+        line.append("{\"type\":\"").append(type.name()).append("\",\"id\":");
+        appendString(line, employee.getId());
+        line.append(",\"firstName\":");
+        appendString(line, employee.getFirstName());
+        line.append(",\"lastName\":");
+        appendString(line, employee.getLastName());
+    }
+
+    /**
+     * Appends a JSON number; JSON has no NaN or infinities, so those become null.
+     */
+    public static void appendNumber(StringBuilder target, double value) {
+        if (Double.isFinite(value)) {
+            target.append(value);
+        } else {
+            target.append("null");
+        }
+    }
+
+    /**
+     * Appends a JSON string literal, escaping quotes, backslashes and control characters.
+     */
+    public static void appendString(StringBuilder target, String value) {
+        target.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                target.append('\\').append(c);
+            } else if (c < ' ') {
+                target.append("\\u00").append(HEX[c >> 4]).append(HEX[c & 0xF]);
+            } else {
+                target.append(c);
+            }
+        }
+        target.append('"');
+    }
+}
@@ -0,0 +1,34 @@
+package com.company.analyzer.report;
+
+import java.io.Writer;
+import java.util.Locale;
+
+/**
+ * Output formats selectable on the command line.
+ */
+public enum ReportFormat {
+    TEXT,
+    CSV,
+    JSONL;
+
+    public ReportWriter createWriter(Writer out) {
+        return switch (this) {
+            case TEXT -> new TextReportWriter(out);
+            case CSV -> new CsvReportWriter(out);
+            case JSONL -> new JsonLinesReportWriter(out);
+        };
+    }
+
+    /**
+     * Parses a format name case-insensitively.
+     *
+     * @throws IllegalArgumentException if the name is not a known format
+     */
+    public static ReportFormat fromName(String name) {
+        try {
+            return valueOf(name.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown report format: " + name + " (expected text, csv or jsonl)");
+        }
+    }
+}
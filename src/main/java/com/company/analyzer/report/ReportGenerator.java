@@ -0,0 +1,125 @@
+package com.company.analyzer.report;
+
+import com.company.analyzer.metrics.Metrics;
+import com.company.analyzer.service.OrganizationalAnalyzer;
+import com.company.analyzer.service.OrganizationalAnalyzer.ManagerSalaryIssue;
+import com.company.analyzer.service.OrganizationalAnalyzer.ReportingLineAnalysisReport;
+import com.company.analyzer.service.OrganizationalAnalyzer.ReportingLineIssue;
+import com.company.analyzer.service.OrganizationalAnalyzer.SalaryAnalysisReport;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Locale;
+import java.util.function.Consumer;
+
+/**
+ * Runs both analyses and streams their issues into a {@link ReportWriter} as they
+ * are found, so no issue list is ever materialized.
+ */
+public final class ReportGenerator {
+
+    private ReportGenerator() {
+    }
+
+    /**
+     * Writes the full report and flushes the writer.
+     *
+     * @return total number of issues written
+     * @throws IOException if the writer fails
+     */
+    public static int writeReport(OrganizationalAnalyzer analyzer, ReportWriter writer) throws IOException {
+        return writeReport(analyzer, writer, null);
+    }
+
+    /**
+     * Writes the full report and flushes the writer, recording each analysis as a
+     * phase of {@code metrics} when it is not null. Issues are formatted while they
+     * are found, so the analysis phases include formatting into the writer's buffer.
+     *
+     * @return total number of issues written
+     * @throws IOException if the writer fails
+     */
+    public static int writeReport(OrganizationalAnalyzer analyzer, ReportWriter writer, Metrics metrics)
+            throws IOException {
+        return writeReport(analyzer.getEmployeeCount(), analyzer::findUnderpaidManagers,
+                           analyzer::findOverpaidManagers, analyzer::findReportingLineIssues, writer, metrics);
+    }
+
+    /**
+     * Writes a full report of analyses that already ran, e.g. on disk by
+     * {@link com.company.analyzer.service.ExternalOrganizationalAnalyzer}, and flushes the writer.
+     *
+     * @return total number of issues written
+     * @throws IOException if the writer fails
+     */
+    public static int writeReport(int employeeCount, SalaryAnalysisReport salaryReport,
+                                  ReportingLineAnalysisReport reportingLineReport, ReportWriter writer,
+                                  Metrics metrics) throws IOException {
+        return writeReport(employeeCount, salaryReport.getUnderpaidManagers()::forEach,
+                           salaryReport.getOverpaidManagers()::forEach,
+                           reportingLineReport.getIssues()::forEach, writer, metrics);
+    }
+
+    @SuppressWarnings("try")
+    private static int writeReport(int employeeCount, IssueSource<ManagerSalaryIssue> underpaid,
+                                   IssueSource<ManagerSalaryIssue> overpaid,
+                                   IssueSource<ReportingLineIssue> reportingLines, ReportWriter writer,
+                                   Metrics metrics) throws IOException {
+        int[] counts = new int[IssueType.values().length];
+        try {
+            writer.begin(employeeCount);
+
+            try (Metrics.Phase phase = phase(metrics, "salary-analysis")) {
+                writer.beginSection(IssueType.UNDERPAID);
+                underpaid.find(issue -> {
+                    counts[IssueType.UNDERPAID.ordinal()]++;
+                    IoAction.unchecked(() -> writer.writeSalaryIssue(IssueType.UNDERPAID, issue));
+                });
+                writer.endSection(IssueType.UNDERPAID, counts[IssueType.UNDERPAID.ordinal()]);
+
+                writer.beginSection(IssueType.OVERPAID);
+                overpaid.find(issue -> {
+                    counts[IssueType.OVERPAID.ordinal()]++;
+                    IoAction.unchecked(() -> writer.writeSalaryIssue(IssueType.OVERPAID, issue));
+                });
+                writer.endSection(IssueType.OVERPAID, counts[IssueType.OVERPAID.ordinal()]);
+            }
+
+            try (Metrics.Phase phase = phase(metrics, "reporting-line-analysis")) {
+                writer.beginSection(IssueType.REPORTING_LINE);
+                reportingLines.find(issue -> {
+                    counts[IssueType.REPORTING_LINE.ordinal()]++;
+                    IoAction.unchecked(() -> writer.writeReportingLineIssue(issue));
+                });
+                writer.endSection(IssueType.REPORTING_LINE, counts[IssueType.REPORTING_LINE.ordinal()]);
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        int total = 0;
+        for (IssueType type : IssueType.values()) {
+            total += counts[type.ordinal()];
+            if (metrics != null) {
+                metrics.count(Metrics.ISSUES + "." + type.name().toLowerCase(Locale.ROOT), counts[type.ordinal()]);
+            }
+        }
+        try (Metrics.Phase phase = phase(metrics, "report-output")) {
+            writer.end(total);
+            writer.flush();
+        }
+        if (metrics != null) {
+            metrics.count(Metrics.ISSUES, total);
+        }
+        return total;
+    }
+
+    private static Metrics.Phase phase(Metrics metrics, String name) {
+        return metrics == null ? null : metrics.phase(name);
+    }
+
+    @FunctionalInterface
+    private interface IssueSource<T> {
+        void find(Consumer<? super T> sink);
+    }
+}
@@ -0,0 +1,31 @@
+package com.company.analyzer.report;
+
+import com.company.analyzer.service.OrganizationalAnalyzer.*;
+
+import java.io.Flushable;
+import java.io.IOException;
+
+/**
+ * Receives analysis results as they are produced and renders them in one format.
+ *
+ * Calls arrive in this order: {@link #begin}, then for each {@link IssueType} in
+ * declaration order a {@link #beginSection}, its issues and an {@link #endSection},
+ * and finally {@link #end}. Output is buffered until {@link #flush()}.
+ */
+public interface ReportWriter extends Flushable {
+
+    void begin(int employeeCount) throws IOException;
+
+    void beginSection(IssueType type) throws IOException;
+
+    /**
+     * Writes one salary issue of an {@link IssueType#UNDERPAID} or {@link IssueType#OVERPAID} section.
+     */
+    void writeSalaryIssue(IssueType type, ManagerSalaryIssue issue) throws IOException;
+
+    void writeReportingLineIssue(ReportingLineIssue issue) throws IOException;
+
+    void endSection(IssueType type, int issueCount) throws IOException;
+
+    void end(int issueCount) throws IOException;
+}
@@ -0,0 +1,126 @@
+package com.company.analyzer.report;
+
+import com.company.analyzer.model.Employee;
+import com.company.analyzer.service.OrganizationalAnalyzer;
+import com.company.analyzer.service.OrganizationalAnalyzer.*;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Human-readable report, the application's original console output.
+ */
+public class TextReportWriter extends AbstractReportWriter {
+
+    private IssueType pendingHeading;
+
+    public TextReportWriter(Writer out) {
+        super(out);
+    }
+
+    @Override
+    public void begin(int employeeCount) throws IOException {
+        line.append("Analyzing organizational structure for ").append(employeeCount).append(" employees...");
+        endLine();
+        endLine();
+    }
+
+    @Override
+    public void beginSection(IssueType type) {
+        // The heading is written with the first issue, so empty sections get a single line instead
+        pendingHeading = type;
+    }
+
+    @Override
+    public void writeSalaryIssue(IssueType type, ManagerSalaryIssue issue) throws IOException {
+        writePendingHeading();
+        boolean underpaid = type == IssueType.UNDERPAID;
+        Employee manager = issue.getManager();
+        appendName(manager);
+        line.append("  Current salary: $");
+        appendAmount(line, manager.getSalary());
+        endLine();
+        line.append("  Avg subordinate salary: $");
+        appendAmount(line, issue.getAvgSubordinateSalary());
+        endLine();
+        if (underpaid) {
+            line.append("  Should earn at least: $");
+            appendAmount(line, issue.getAvgSubordinateSalary() * OrganizationalAnalyzer.MIN_MANAGER_SALARY_RATIO);
+        } else {
+            line.append("  Should earn at most: $");
+            appendAmount(line, issue.getAvgSubordinateSalary() * OrganizationalAnalyzer.MAX_MANAGER_SALARY_RATIO);
+        }
+        endLine();
+        line.append(underpaid ? "  Short by: $" : "  Over by: $");
+        appendAmount(line, issue.getDifference());
+        endLine();
+        endLine();
+    }
+
+    @Override
+    public void writeReportingLineIssue(ReportingLineIssue issue) throws IOException {
+        writePendingHeading();
+        appendName(issue.getEmployee());
+        line.append("  Reporting line length: ").append(issue.getReportingLineLength()).append(" managers");
+        endLine();
+        line.append("  Maximum allowed: ").append(OrganizationalAnalyzer.MAX_REPORTING_LINE_LENGTH).append(" managers");
+        endLine();
+        line.append("  Too long by: ").append(issue.getExcess()).append(" manager(s)");
+        endLine();
+        endLine();
+    }
+
+    @Override
+    public void endSection(IssueType type, int issueCount) throws IOException {
+        if (issueCount == 0) {
+            line.append(switch (type) {
+                case UNDERPAID -> "No managers earning less than they should.";
+                case OVERPAID -> "No managers earning more than they should.";
+                case REPORTING_LINE -> "No employees with reporting lines too long.";
+            });
+            endLine();
+            endLine();
+        }
+    }
+
+    @Override
+    public void end(int issueCount) throws IOException {
+        endLine();
+        line.append(issueCount == 0
+            ? "No issues found. Organizational structure looks good!"
+            : "Analysis complete. Please review the issues above.");
+        endLine();
+    }
+
+    private void writePendingHeading() throws IOException {
+        if (pendingHeading == null) {
+            return;
+        }
+        IssueType type = pendingHeading;
+        pendingHeading = null;
+        switch (type) {
+            case UNDERPAID -> {
+                line.append("MANAGERS EARNING LESS THAN THEY SHOULD:");
+                endLine();
+                line.append("========================================");
+            }
+            case OVERPAID -> {
+                line.append("MANAGERS EARNING MORE THAN THEY SHOULD:");
+                endLine();
+                line.append("========================================");
+            }
+            case REPORTING_LINE -> {
+                line.append("EMPLOYEES WITH REPORTING LINES TOO LONG:");
+                endLine();
+                line.append("=========================================");
+            }
+        }
+        endLine();
+    }
+
+    private void appendName(Employee employee) throws IOException {
+        line.append(employee.getFirstName()).append(' ').append(employee.getLastName())
+            .append(" (ID: ").append(employee.getId()).append(')');
+        endLine();
+    }
+}
@@ -0,0 +1,73 @@
+package com.company.analyzer.rules;
+
+import com.company.analyzer.service.OrganizationalAnalyzer;
+
+import java.util.Locale;
+import java.util.function.Consumer;
+
+/**
+ * Managers must earn between {@code minRatio} and {@code maxRatio} times the
+ * average salary of their direct reports. Same check as
+ * {@link OrganizationalAnalyzer#analyzeSalaries()} with configurable ratios.
+ */
+public class ManagerSalaryRule implements OrgRule {
+
+    public static final String NAME = "manager-salary";
+
+    private final double minRatio;
+    private final double maxRatio;
+
+    public ManagerSalaryRule(double minRatio, double maxRatio) {
+        if (minRatio > maxRatio) {
+            throw new IllegalArgumentException("Minimum ratio exceeds maximum ratio");
+        }
+        this.minRatio = minRatio;
+        this.maxRatio = maxRatio;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public void check(NodeContext node, Consumer<? super RuleViolation> violations) {
+        if (node.getDirectReportCount() == 0) {
+            return;
+        }
+
+        double average = node.getAverageDirectReportSalary();
+        double min = average * minRatio;
+        double max = average * maxRatio;
+        double salary = node.getSalary();
+        if (salary < min) {
+            violations.accept(new RuleViolation(NAME, node.getEmployee(),
+                String.format(Locale.ROOT, "Salary %.2f is below %.2f (%.2f x average of direct reports)",
+                    salary, min, minRatio),
+                min - salary));
+        } else if (salary > max) {
+            violations.accept(new RuleViolation(NAME, node.getEmployee(),
+                String.format(Locale.ROOT, "Salary %.2f is above %.2f (%.2f x average of direct reports)",
+                    salary, max, maxRatio),
+                salary - max));
+        }
+    }
+
+    /**
+     * Settings: {@code minRatio} and {@code maxRatio}, defaulting to the analyzer's.
+     */
+    public static class Provider implements OrgRuleProvider {
+
+        @Override
+        public String getName() {
+            return NAME;
+        }
+
+        @Override
+        public OrgRule create(RuleSettings settings) {
+            return new ManagerSalaryRule(
+                settings.getDouble("minRatio", OrganizationalAnalyzer.MIN_MANAGER_SALARY_RATIO),
+                settings.getDouble("maxRatio", OrganizationalAnalyzer.MAX_MANAGER_SALARY_RATIO));
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.company.analyzer.rules;
+
+import com.company.analyzer.model.Employee;
+import com.company.analyzer.service.OrgHierarchy;
+
+/**
+ * The employee currently visited by a {@link RuleEngine}, with the aggregates rules
+ * usually need. One instance is reused for the whole traversal, so rules must not
+ * keep a reference to it.
+ */
+public final class NodeContext {
+
+    private final OrgHierarchy hierarchy;
+    private int index;
+
+    NodeContext(OrgHierarchy hierarchy) {
+        this.hierarchy = hierarchy;
+    }
+
+    void moveTo(int index) {
+        this.index = index;
+    }
+
+    public OrgHierarchy getHierarchy() {
+        return hierarchy;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public Employee getEmployee() {
+        return hierarchy.getEmployee(index);
+    }
+
+    public double getSalary() {
+        return hierarchy.getSalary(index);
+    }
+
+    /**
+     * Returns the number of managers between the employee and the CEO.
+     */
+    public int getReportingLineLength() {
+        return hierarchy.getReportingLineLength(index);
+    }
+
+    /**
+     * Returns true for the CEO and employees whose manager is not in the organization.
+     */
+    public boolean isTopLevel() {
+        return hierarchy.getParent(index) == OrgHierarchy.NO_PARENT;
+    }
+
+    /**
+     * Returns the manager's index, or {@link OrgHierarchy#NO_PARENT}.
+     */
+    public int getManagerIndex() {
+        return hierarchy.getParent(index);
+    }
+
+    public int getDirectReportCount() {
+        return hierarchy.getDirectReportCount(index);
+    }
+
+    public double getDirectReportSalaryTotal() {
+        return hierarchy.getDirectReportSalaryTotal(index);
+    }
+
+    /**
+     * Returns the average salary of the direct reports, or 0 if there are none.
+     */
+    public double getAverageDirectReportSalary() {
+        int count = getDirectReportCount();
+        return count == 0 ? 0 : getDirectReportSalaryTotal() / count;
+    }
+}
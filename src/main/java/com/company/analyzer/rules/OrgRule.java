@@ -0,0 +1,22 @@
+package com.company.analyzer.rules;
+
+import java.util.function.Consumer;
+
+/**
+ * A check applied to every employee during the shared traversal of a {@link RuleEngine}.
+ *
+ * Implementations should keep per-node work O(1) and read everything they need from
+ * the context; materializing the employee is only worthwhile once a violation is found.
+ */
+public interface OrgRule {
+
+    /**
+     * Returns the name violations are reported under.
+     */
+    String getName();
+
+    /**
+     * Checks one employee and reports any violations to the sink.
+     */
+    void check(NodeContext node, Consumer<? super RuleViolation> violations);
+}
@@ -0,0 +1,18 @@
+package com.company.analyzer.rules;
+
+/**
+ * Service provider creating an {@link OrgRule} from its settings.
+ *
+ * Providers are discovered with {@link java.util.ServiceLoader}, so a rule packaged
+ * in its own jar becomes available by listing its provider in
+ * {@code META-INF/services/com.company.analyzer.rules.OrgRuleProvider}.
+ */
+public interface OrgRuleProvider {
+
+    /**
+     * Returns the name the rule is enabled under in a rule configuration.
+     */
+    String getName();
+
+    OrgRule create(RuleSettings settings);
+}
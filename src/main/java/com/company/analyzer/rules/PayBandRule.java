@@ -0,0 +1,83 @@
+package com.company.analyzer.rules;
+
+import java.util.Locale;
+import java.util.function.Consumer;
+
+/**
+ * Salaries must fall inside the pay band of the employee's level, where the
+ * level is the reporting line length (0 for the CEO). Levels without a band
+ * are not checked.
+ */
+public class PayBandRule implements OrgRule {
+
+    public static final String NAME = "pay-band";
+
+    private final double[] min;
+    private final double[] max;
+
+    /**
+     * @param min lowest salary per level, NaN for no lower bound
+     * @param max highest salary per level, NaN for no upper bound
+     */
+    public PayBandRule(double[] min, double[] max) {
+        if (min.length != max.length) {
+            throw new IllegalArgumentException("Pay band bounds differ in length");
+        }
+        this.min = min.clone();
+        this.max = max.clone();
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public void check(NodeContext node, Consumer<? super RuleViolation> violations) {
+        int level = node.getReportingLineLength();
+        if (level >= min.length) {
+            return;
+        }
+
+        double salary = node.getSalary();
+        // Comparisons with NaN are false, so a missing bound never matches
+        if (salary < min[level]) {
+            violations.accept(new RuleViolation(NAME, node.getEmployee(),
+                String.format(Locale.ROOT, "Salary %.2f is below the level %d band minimum %.2f",
+                    salary, level, min[level]),
+                min[level] - salary));
+        } else if (salary > max[level]) {
+            violations.accept(new RuleViolation(NAME, node.getEmployee(),
+                String.format(Locale.ROOT, "Salary %.2f is above the level %d band maximum %.2f",
+                    salary, level, max[level]),
+                salary - max[level]));
+        }
+    }
+
+    /**
+     * Settings: {@code levels} (number of levels with bands), then
+     * {@code level.<n>.min} and {@code level.<n>.max} for each of them.
+     */
+    public static class Provider implements OrgRuleProvider {
+
+        @Override
+        public String getName() {
+            return NAME;
+        }
+
+        @Override
+        public OrgRule create(RuleSettings settings) {
+            int levels = settings.getInt("levels", 0);
+            if (levels < 0) {
+                throw new IllegalArgumentException("Invalid level count for " + NAME + ".levels: " + levels);
+            }
+            double[] min = new double[levels];
+            double[] max = new double[levels];
+            for (int level = 0; level < levels; level++) {
+                min[level] = settings.getDouble("level." + level + ".min", Double.NaN);
+                max[level] = settings.getDouble("level." + level + ".max", Double.NaN);
+            }
+            return new PayBandRule(min, max);
+        }
+    }
+}
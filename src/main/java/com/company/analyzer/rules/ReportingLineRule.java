@@ -0,0 +1,55 @@
+package com.company.analyzer.rules;
+
+import com.company.analyzer.service.OrganizationalAnalyzer;
+
+import java.util.function.Consumer;
+
+/**
+ * At most {@code maxLength} managers between an employee and the CEO. Same check
+ * as {@link OrganizationalAnalyzer#analyzeReportingLines()} with a configurable limit.
+ */
+public class ReportingLineRule implements OrgRule {
+
+    public static final String NAME = "reporting-line";
+
+    private final int maxLength;
+
+    public ReportingLineRule(int maxLength) {
+        this.maxLength = maxLength;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public void check(NodeContext node, Consumer<? super RuleViolation> violations) {
+        if (node.isTopLevel()) {
+            return; // CEO has no reporting line
+        }
+
+        int length = node.getReportingLineLength();
+        if (length > maxLength) {
+            violations.accept(new RuleViolation(NAME, node.getEmployee(),
+                "Reporting line of " + length + " managers exceeds " + maxLength, length - maxLength));
+        }
+    }
+
+    /**
+     * Settings: {@code maxLength}, defaulting to the analyzer's.
+     */
+    public static class Provider implements OrgRuleProvider {
+
+        @Override
+        public String getName() {
+            return NAME;
+        }
+
+        @Override
+        public OrgRule create(RuleSettings settings) {
+            return new ReportingLineRule(
+                settings.getInt("maxLength", OrganizationalAnalyzer.MAX_REPORTING_LINE_LENGTH));
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.company.analyzer.rules;
+
+import com.company.analyzer.service.OrgHierarchy;
+import com.company.analyzer.service.OrganizationalAnalyzer;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.ServiceLoader;
+import java.util.function.Consumer;
+
+/**
+ * Evaluates any number of rules in a single pass over the organization.
+ *
+ * Each employee is visited once and every rule is checked against the same
+ * {@link NodeContext}, so enabling another rule adds a constant per employee
+ * instead of another traversal. Violations are reported in employee index order
+ * and, per employee, in rule order.
+ */
+public class RuleEngine {
+
+    /** Rules enabled when a configuration does not list any. */
+    public static final String DEFAULT_RULES = ManagerSalaryRule.NAME + "," + ReportingLineRule.NAME;
+
+    private final List<OrgRule> rules;
+
+    public RuleEngine(List<OrgRule> rules) {
+        this.rules = new ArrayList<>(rules);
+    }
+
+    /**
+     * Builds the engine from a rule configuration: {@code rules} lists rule names
+     * separated by commas and {@code <rule-name>.<key>} entries set thresholds.
+     * Rules are looked up among the {@link OrgRuleProvider}s on the class path.
+     *
+     * @throws IllegalArgumentException for unknown rules or invalid thresholds
+     */
+    public static RuleEngine fromProperties(Properties config) {
+        Map<String, OrgRuleProvider> providers = new HashMap<>();
+        for (OrgRuleProvider provider : ServiceLoader.load(OrgRuleProvider.class)) {
+            providers.putIfAbsent(provider.getName(), provider);
+        }
+
+        List<OrgRule> rules = new ArrayList<>();
+        for (String name : config.getProperty("rules", DEFAULT_RULES).split(",")) {
+            name = name.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            OrgRuleProvider provider = providers.get(name);
+            if (provider == null) {
+                throw new IllegalArgumentException("Unknown rule: " + name);
+            }
+            rules.add(provider.create(new RuleSettings(name, config)));
+        }
+        return new RuleEngine(rules);
+    }
+
+    public List<OrgRule> getRules() {
+        return rules;
+    }
+
+    /**
+     * Streams every violation to the sink as it is found.
+     */
+    public void evaluate(OrganizationalAnalyzer analyzer, Consumer<? super RuleViolation> violations) {
+        OrgHierarchy hierarchy = analyzer.getHierarchy();
+        NodeContext node = new NodeContext(hierarchy);
+        OrgRule[] active = rules.toArray(new OrgRule[0]);
+        for (int i = 0; i < hierarchy.size(); i++) {
+            node.moveTo(i);
+            for (OrgRule rule : active) {
+                rule.check(node, violations);
+            }
+        }
+    }
+
+    public List<RuleViolation> evaluate(OrganizationalAnalyzer analyzer) {
+        List<RuleViolation> violations = new ArrayList<>();
+        evaluate(analyzer, violations::add);
+        return violations;
+    }
+}
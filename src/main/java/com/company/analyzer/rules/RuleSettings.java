@@ -0,0 +1,55 @@
+package com.company.analyzer.rules;
+
+import java.util.Properties;
+
+/**
+ * Thresholds of one rule, read from {@code <rule-name>.<key>} entries of a rule configuration.
+ */
+public final class RuleSettings {
+
+    private final String prefix;
+    private final Properties properties;
+
+    RuleSettings(String ruleName, Properties properties) {
+        this.prefix = ruleName + ".";
+        this.properties = properties;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the value is not a number
+     */
+    public double getDouble(String key, double defaultValue) {
+        String value = get(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid number for " + prefix + key + ": " + value);
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException if the value is not an integer
+     */
+    public int getInt(String key, int defaultValue) {
+        String value = get(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid integer for " + prefix + key + ": " + value);
+        }
+    }
+
+    /**
+     * Returns the trimmed value, or null if it is not set.
+     */
+    public String get(String key) {
+        String value = properties.getProperty(prefix + key);
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+}
@@ -0,0 +1,39 @@
+package com.company.analyzer.rules;
+
+import com.company.analyzer.model.Employee;
+
+/**
+ * One employee breaking one rule.
+ */
+public class RuleViolation {
+    private final String rule;
+    private final Employee employee;
+    private final String message;
+    private final double amount;
+
+    /**
+     * @param amount how far the employee is past the threshold, in the rule's unit
+     */
+    public RuleViolation(String rule, Employee employee, String message, double amount) {
+        this.rule = rule;
+        this.employee = employee;
+        this.message = message;
+        this.amount = amount;
+    }
+
+    public String getRule() {
+        return rule;
+    }
+
+    public Employee getEmployee() {
+        return employee;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public double getAmount() {
+        return amount;
+    }
+}
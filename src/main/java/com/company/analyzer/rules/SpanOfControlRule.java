@@ -0,0 +1,60 @@
+package com.company.analyzer.rules;
+
+import java.util.function.Consumer;
+
+/**
+ * Managers must have between {@code min} and {@code max} direct reports.
+ * Employees without reports are not managers and are not checked.
+ */
+public class SpanOfControlRule implements OrgRule {
+
+    public static final String NAME = "span-of-control";
+
+    private final int min;
+    private final int max;
+
+    public SpanOfControlRule(int min, int max) {
+        if (min > max) {
+            throw new IllegalArgumentException("Minimum span exceeds maximum span");
+        }
+        this.min = min;
+        this.max = max;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public void check(NodeContext node, Consumer<? super RuleViolation> violations) {
+        int reports = node.getDirectReportCount();
+        if (reports == 0) {
+            return;
+        }
+
+        if (reports < min) {
+            violations.accept(new RuleViolation(NAME, node.getEmployee(),
+                reports + " direct reports, fewer than " + min, min - reports));
+        } else if (reports > max) {
+            violations.accept(new RuleViolation(NAME, node.getEmployee(),
+                reports + " direct reports, more than " + max, reports - max));
+        }
+    }
+
+    /**
+     * Settings: {@code min} (default 1) and {@code max} (default 10).
+     */
+    public static class Provider implements OrgRuleProvider {
+
+        @Override
+        public String getName() {
+            return NAME;
+        }
+
+        @Override
+        public OrgRule create(RuleSettings settings) {
+            return new SpanOfControlRule(settings.getInt("min", 1), settings.getInt("max", 10));
+        }
+    }
+}
@@ -0,0 +1,279 @@
+package com.company.analyzer.server;
+
+import com.company.analyzer.model.Employee;
+import com.company.analyzer.report.IoAction;
+import com.company.analyzer.report.IssueType;
+import com.company.analyzer.report.JsonLinesReportWriter;
+import com.company.analyzer.service.KllSketch;
+import com.company.analyzer.service.OrgHierarchy;
+import com.company.analyzer.service.OrganizationalAnalyzer;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Long-running HTTP server answering queries against an organization kept in memory.
+ *
+ * The organization is analyzed once; issue lists are rendered once and served as
+ * bytes, and employee lookups go through the hierarchy's ID index. Requests run on
+ * a bounded thread pool with a bounded queue, so a burst of concurrent queries is
+ * absorbed without unbounded thread or memory growth; requests beyond the queue
+ * are answered with 503 right away.
+ *
+ * Endpoints (all GET, JSON or JSON Lines):
+ * - /salary-issues: one object per underpaid or overpaid manager
+ * - /reporting-line-issues: one object per employee with a too long reporting line
+ * - /employees/{id}: one employee with their reporting line length and direct report count
+ * - /salary-distribution: median, p90 and histogram of all salaries
+ * - /salary-distribution/{id}: the same for the direct reports of one manager
+ */
+public class OrgQueryServer {
+
+    private static final String JSON = "application/json; charset=utf-8";
+    private static final String JSON_LINES = "application/x-ndjson; charset=utf-8";
+    private static final int QUEUE_CAPACITY = 10_000;
+    private static final int HISTOGRAM_BUCKETS = 10;
+
+    private final OrganizationalAnalyzer analyzer;
+    private final byte[] salaryIssues;
+    private final byte[] reportingLineIssues;
+    private final byte[] salaryDistribution;
+    private HttpServer server;
+    private ThreadPoolExecutor executor;
+
+    public OrgQueryServer(OrganizationalAnalyzer analyzer) {
+        this.analyzer = analyzer;
+        this.salaryIssues = render(writer -> {
+            analyzer.findUnderpaidManagers(issue ->
+                IoAction.unchecked(() -> writer.writeSalaryIssue(IssueType.UNDERPAID, issue)));
+            analyzer.findOverpaidManagers(issue ->
+                IoAction.unchecked(() -> writer.writeSalaryIssue(IssueType.OVERPAID, issue)));
+        });
+        this.reportingLineIssues = render(writer ->
+            analyzer.findReportingLineIssues(issue -> IoAction.unchecked(() -> writer.writeReportingLineIssue(issue))));
+        this.salaryDistribution = distribution(
+            analyzer.getHierarchy().getSalaryDistributionIndex().getOrganizationDistribution());
+    }
+
+    /**
+     * Starts serving on the given port (0 picks a free one) with one worker per processor.
+     */
+    public void start(int port) throws IOException {
+        start(port, Runtime.getRuntime().availableProcessors());
+    }
+
+    public void start(int port, int threads) throws IOException {
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(QUEUE_CAPACITY), new ThreadPoolExecutor.AbortPolicy());
+        server = HttpServer.create(new InetSocketAddress(port), 0);
+        // Exchanges are handed to the pool from the dispatcher thread, which must never run a query itself
+        server.createContext("/", this::dispatch);
+        server.start();
+    }
+
+    /**
+     * Returns the port the server listens on.
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdown();
+    }
+
+    private void dispatch(HttpExchange exchange) throws IOException {
+        try {
+            executor.execute(() -> {
+                try {
+                    handle(exchange);
+                } catch (IOException e) {
+                    // The client went away; the exchange is already closed
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            try (exchange) {
+                send(exchange, 503, JSON, error("Server busy"));
+            }
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            try {
+                route(exchange);
+            } catch (IllegalArgumentException e) {
+                send(exchange, 400, JSON, error("Bad request: " + e.getMessage()));
+            } catch (RuntimeException e) {
+                send(exchange, 500, JSON, error("Internal error"));
+            }
+        }
+    }
+
+    private void route(HttpExchange exchange) throws IOException {
+        if (!exchange.getRequestMethod().equals("GET")) {
+            send(exchange, 405, JSON, error("Method not allowed"));
+            return;
+        }
+
+        // Already percent-decoded; a '+' is part of the ID, not a space
+        String path = exchange.getRequestURI().getPath();
+        if (path.equals("/salary-issues")) {
+            send(exchange, 200, JSON_LINES, salaryIssues);
+        } else if (path.equals("/reporting-line-issues")) {
+            send(exchange, 200, JSON_LINES, reportingLineIssues);
+        } else if (path.equals("/salary-distribution")) {
+            send(exchange, 200, JSON, salaryDistribution);
+        } else if (path.startsWith("/salary-distribution/")) {
+            String id = path.substring("/salary-distribution/".length());
+            int index = analyzer.getHierarchy().indexOf(id);
+            if (index < 0) {
+                send(exchange, 404, JSON, error("Unknown employee: " + id));
+            } else {
+                send(exchange, 200, JSON, distribution(
+                    analyzer.getHierarchy().getSalaryDistributionIndex().getTeamDistribution(index)));
+            }
+        } else if (path.startsWith("/employees/")) {
+            String id = path.substring("/employees/".length());
+            byte[] employee = employee(id);
+            if (employee == null) {
+                send(exchange, 404, JSON, error("Unknown employee: " + id));
+            } else {
+                send(exchange, 200, JSON, employee);
+            }
+        } else {
+            send(exchange, 404, JSON, error("Unknown path: " + path));
+        }
+    }
+
+    private byte[] employee(String id) {
+        OrgHierarchy hierarchy = analyzer.getHierarchy();
+        int index = hierarchy.indexOf(id);
+        if (index < 0) {
+            return null;
+        }
+
+        Employee employee = hierarchy.getEmployee(index);
+        StringBuilder json = new StringBuilder(160);
+        json.append("{\"id\":");
+        JsonLinesReportWriter.appendString(json, employee.getId());
+        json.append(",\"firstName\":");
+        JsonLinesReportWriter.appendString(json, employee.getFirstName());
+        json.append(",\"lastName\":");
+        JsonLinesReportWriter.appendString(json, employee.getLastName());
+        json.append(",\"salary\":");
+        JsonLinesReportWriter.appendNumber(json, employee.getSalary());
+        json.append(",\"managerId\":");
+        if (employee.getManagerId() == null) {
+            json.append("null");
+        } else {
+            JsonLinesReportWriter.appendString(json, employee.getManagerId());
+        }
+        json.append(",\"reportingLineLength\":").append(hierarchy.getReportingLineLength(index))
+            .append(",\"directReports\":").append(hierarchy.getDirectReportCount(index))
+            .append("}\n");
+        return json.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Renders count, exact minimum and maximum, median, p90 and a histogram of equal-width
+     * buckets from the minimum to the maximum, each bucket including its lower bound.
+     */
+    private static byte[] distribution(KllSketch sketch) {
+        StringBuilder json = new StringBuilder(512);
+        json.append("{\"count\":").append(sketch.getN());
+        if (!sketch.isEmpty()) {
+            double min = sketch.getMin();
+            double max = sketch.getMax();
+            json.append(",\"exact\":").append(sketch.isExact()).append(",\"rankError\":");
+            JsonLinesReportWriter.appendNumber(json, sketch.getNormalizedRankError());
+            json.append(",\"min\":");
+            JsonLinesReportWriter.appendNumber(json, min);
+            json.append(",\"median\":");
+            JsonLinesReportWriter.appendNumber(json, sketch.getQuantile(0.5));
+            json.append(",\"p90\":");
+            JsonLinesReportWriter.appendNumber(json, sketch.getQuantile(0.9));
+            json.append(",\"max\":");
+            JsonLinesReportWriter.appendNumber(json, max);
+            json.append(",\"histogram\":[");
+            double[] bounds = bucketBounds(min, max, min < max ? HISTOGRAM_BUCKETS : 1);
+            int buckets = bounds.length - 1;
+            long[] counts = sketch.getHistogram(Arrays.copyOfRange(bounds, 1, buckets));
+            for (int i = 0; i < buckets; i++) {
+                if (i > 0) {
+                    json.append(',');
+                }
+                json.append("{\"from\":");
+                JsonLinesReportWriter.appendNumber(json, bounds[i]);
+                json.append(",\"to\":");
+                JsonLinesReportWriter.appendNumber(json, bounds[i + 1]);
+                json.append(",\"count\":").append(counts[i]).append('}');
+            }
+            json.append(']');
+        }
+        return json.append("}\n").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns equal-width bucket bounds from min to max, or a single bucket when
+     * min and max are so close that the bounds would not all differ.
+     */
+    private static double[] bucketBounds(double min, double max, int buckets) {
+        double[] bounds = new double[buckets + 1];
+        for (int i = 0; i <= buckets; i++) {
+            bounds[i] = i == buckets ? max : min + (max - min) * i / buckets;
+            if (i > 0 && bounds[i] <= bounds[i - 1]) {
+                return new double[] {min, max};
+            }
+        }
+        return bounds;
+    }
+
+    private static void send(HttpExchange exchange, int status, String contentType, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+        if (body.length > 0) {
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+
+    private static byte[] error(String message) {
+        StringBuilder json = new StringBuilder("{\"error\":");
+        JsonLinesReportWriter.appendString(json, message);
+        return json.append("}\n").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] render(Renderer renderer) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        JsonLinesReportWriter writer = new JsonLinesReportWriter(new OutputStreamWriter(bytes, StandardCharsets.UTF_8));
+        try {
+            renderer.render(writer);
+            writer.flush();
+        } catch (UncheckedIOException e) {
+            throw new IllegalStateException("In-memory rendering failed", e.getCause());
+        } catch (IOException e) {
+            throw new IllegalStateException("In-memory rendering failed", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    @FunctionalInterface
+    private interface Renderer {
+        void render(JsonLinesReportWriter writer) throws IOException;
+    }
+}
@@ -0,0 +1,130 @@
+package com.company.analyzer.service;
+
+import com.company.analyzer.model.Employee;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Chain of command queries: the manager k levels up, the lowest common manager
+ * of two employees, and the full path to the top.
+ *
+ * Each employee stores one jump pointer besides their manager, chosen so that the
+ * jump lengths along any chain form a skew-binary decomposition of its depth
+ * (Myers' jump pointers). Level and common-manager queries then take O(log n)
+ * steps with O(n) memory, where classic binary lifting needs O(n log n).
+ *
+ * Works on the same tree as {@link SubtreeIndex}: employees with an unknown
+ * manager are at the top of their own chain and a reporting cycle is cut above
+ * one of its members. Outside cycles, {@link #getDepth(int)} equals the
+ * reporting line length.
+ */
+public final class AncestorIndex {
+
+    private final OrgHierarchy hierarchy;
+    private final int[] manager;
+    private final int[] jump;
+    private final int[] depth;
+
+    AncestorIndex(OrgHierarchy hierarchy, SubtreeIndex subtrees) {
+        int n = hierarchy.size();
+        this.hierarchy = hierarchy;
+        this.manager = new int[n];
+        this.jump = new int[n];
+        this.depth = new int[n];
+
+        // Managers precede their reports in the tour, so their pointers are ready in time
+        for (int employee : subtrees.order) {
+            int m = subtrees.treeParent(employee);
+            manager[employee] = m;
+            if (m == OrgHierarchy.NO_PARENT) {
+                jump[employee] = employee;
+                continue;
+            }
+            depth[employee] = depth[m] + 1;
+            int j = jump[m];
+            // Two equal jumps above the manager merge into one, like a carry in skew binary
+            jump[employee] = depth[m] - depth[j] == depth[j] - depth[jump[j]] ? jump[j] : m;
+        }
+    }
+
+    /**
+     * Returns the number of managers above the employee.
+     */
+    public int getDepth(int index) {
+        return depth[index];
+    }
+
+    /**
+     * Returns the manager {@code levels} steps up the chain (1 is the direct
+     * manager, 0 the employee), or {@link OrgHierarchy#NO_PARENT} past the top.
+     */
+    public int getManagerAtLevel(int index, int levels) {
+        if (levels < 0) {
+            throw new IllegalArgumentException("Levels cannot be negative");
+        }
+        if (levels > depth[index]) {
+            return OrgHierarchy.NO_PARENT;
+        }
+        return ancestorAtDepth(index, depth[index] - levels);
+    }
+
+    /**
+     * Returns the lowest manager both employees report to, or
+     * {@link OrgHierarchy#NO_PARENT} if their chains never meet. An employee
+     * counts as their own manager here, so for an employee and one of their
+     * reports the result is the employee.
+     */
+    public int getLowestCommonManager(int a, int b) {
+        if (depth[a] > depth[b]) {
+            a = ancestorAtDepth(a, depth[b]);
+        } else if (depth[b] > depth[a]) {
+            b = ancestorAtDepth(b, depth[a]);
+        }
+        // At equal depth both jump pointers cover the same distance
+        while (a != b) {
+            if (manager[a] == OrgHierarchy.NO_PARENT) {
+                return OrgHierarchy.NO_PARENT;
+            }
+            if (jump[a] != jump[b]) {
+                a = jump[a];
+                b = jump[b];
+            } else {
+                a = manager[a];
+                b = manager[b];
+            }
+        }
+        return a;
+    }
+
+    /**
+     * Returns the indexes of the employee's managers, from the direct manager to the top.
+     */
+    public int[] getChain(int index) {
+        int[] chain = new int[depth[index]];
+        for (int k = 0, m = manager[index]; k < chain.length; k++, m = manager[m]) {
+            chain[k] = m;
+        }
+        return chain;
+    }
+
+    /**
+     * Returns the employee's managers, from the direct manager to the top.
+     */
+    public List<Employee> getChainOfCommand(int index) {
+        int[] chain = getChain(index);
+        List<Employee> managers = new ArrayList<>(chain.length);
+        for (int m : chain) {
+            managers.add(hierarchy.getEmployee(m));
+        }
+        return managers;
+    }
+
+    private int ancestorAtDepth(int index, int targetDepth) {
+        int current = index;
+        while (depth[current] > targetDepth) {
+            current = depth[jump[current]] >= targetDepth ? jump[current] : manager[current];
+        }
+        return current;
+    }
+}
@@ -0,0 +1,49 @@
+package com.company.analyzer.service;
+
+/**
+ * Running sum with the Kahan compensation of {@code DoubleStream.sum()} and
+ * {@code average()}, so team averages come out bit for bit as the original
+ * stream-based analysis computed them.
+ *
+ * The static methods keep many sums in parallel arrays, one slot per sum.
+ *
+ * Not thread-safe.
+ */
+final class CompensatedSum {
+
+    private double sum;
+    private double compensation;
+    private double simpleSum;
+
+    void add(double value) {
+        double corrected = value - compensation;
+        double next = sum + corrected;
+        compensation = (next - sum) - corrected;
+        sum = next;
+        simpleSum += value;
+    }
+
+    double get() {
+        return result(sum, compensation, simpleSum);
+    }
+
+    /**
+     * Adds a value to slot {@code i} of sums kept in three arrays of the same length.
+     */
+    static void add(double[] sums, double[] compensations, double[] simpleSums, int i, double value) {
+        double corrected = value - compensations[i];
+        double next = sums[i] + corrected;
+        compensations[i] = (next - sums[i]) - corrected;
+        sums[i] = next;
+        simpleSums[i] += value;
+    }
+
+    /**
+     * Returns the compensated sum; infinite inputs make the compensation NaN, in
+     * which case the plain sum is the answer, as in the streams.
+     */
+    static double result(double sum, double compensation, double simpleSum) {
+        double result = sum - compensation;
+        return Double.isNaN(result) && Double.isInfinite(simpleSum) ? simpleSum : result;
+    }
+}
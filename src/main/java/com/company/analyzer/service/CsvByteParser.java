@@ -0,0 +1,303 @@
+package com.company.analyzer.service;
+
+import com.company.analyzer.model.Employee;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+/**
+ * Byte-level parser for employee CSV rows.
+ *
+ * Scans raw UTF-8 bytes directly instead of decoding whole lines, so the only
+ * objects created per row are the kept String fields and the Employee itself.
+ * Line splitting, trimming, validation and error messages mirror
+ * {@link CsvReaderService#readEmployees(String)}.
+ */
+final class CsvByteParser {
+
+    private static final int EXPECTED_FIELDS = 5;
+    private static final int MAX_FAST_DIGITS = 15; // keeps the mantissa below 2^53
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private final RowSink rows;
+    private final SymbolTable symbols;
+    private final int[] fieldStart = new int[EXPECTED_FIELDS];
+    private final int[] fieldEnd = new int[EXPECTED_FIELDS];
+    private Consumer<? super IllegalArgumentException> errors;
+    private boolean headerPending;
+    private long lineNumber;
+    private byte[] scratch = new byte[64];
+
+    /**
+     * @param sink receives every parsed employee in input order
+     * @param skipHeader whether the first line consumed is the header row
+     */
+    CsvByteParser(Consumer<? super Employee> sink, boolean skipHeader) {
+        this(sink, skipHeader, 0, new SymbolTable());
+    }
+
+    /**
+     * @param sink receives every parsed employee in input order
+     * @param skipHeader whether the first line consumed is the header row
+     * @param linesBefore lines already consumed, when continuing a file part way
+     * @param symbols table that names and manager IDs are deduplicated through
+     */
+    CsvByteParser(Consumer<? super Employee> sink, boolean skipHeader, long linesBefore, SymbolTable symbols) {
+        this.rows = (buffer, start, end, salary) -> sink.accept(toEmployee(buffer, start, end, salary));
+        this.symbols = symbols;
+        this.headerPending = skipHeader;
+        this.lineNumber = linesBefore;
+    }
+
+    /**
+     * Parser that hands over the validated field positions instead of building
+     * employees, for callers that decode fields selectively.
+     *
+     * @param rows receives every valid row in input order
+     * @param skipHeader whether the first line consumed is the header row
+     */
+    CsvByteParser(RowSink rows, boolean skipHeader) {
+        this.rows = rows;
+        this.symbols = null;
+        this.headerPending = skipHeader;
+    }
+
+    /**
+     * Makes the parser report invalid rows to {@code errors} and carry on with
+     * the next line instead of throwing.
+     */
+    void continueOnError(Consumer<? super IllegalArgumentException> errors) {
+        this.errors = errors;
+    }
+
+    /**
+     * Returns the number of lines consumed so far, including the header.
+     */
+    long getLineNumber() {
+        return lineNumber;
+    }
+
+    /**
+     * Parses every line in {@code buffer[from, to)}. Lines end with \n, \r or \r\n,
+     * just like {@link java.io.BufferedReader#readLine()}; the last line does not
+     * need a terminator. The range must not end in the middle of a line.
+     *
+     * @throws IllegalArgumentException if a row is invalid, with its line number
+     */
+    void parse(ByteBuffer buffer, int from, int to) {
+        int lineStart = from;
+        int pos = from;
+        while (pos < to) {
+            byte b = buffer.get(pos);
+            if (b == '\n' || b == '\r') {
+                parseLine(buffer, lineStart, pos);
+                pos++;
+                if (b == '\r' && pos < to && buffer.get(pos) == '\n') {
+                    pos++;
+                }
+                lineStart = pos;
+            } else {
+                pos++;
+            }
+        }
+        if (lineStart < to) {
+            parseLine(buffer, lineStart, to);
+        }
+    }
+
+    /**
+     * Returns the offset just past the last complete line terminator in
+     * {@code buffer[0, length)}, or 0 if there is none. A trailing \r is not
+     * treated as a boundary because its \n may follow in the next window.
+     */
+    static int lastLineBoundary(ByteBuffer buffer, int length) {
+        for (int i = length - 1; i >= 0; i--) {
+            byte b = buffer.get(i);
+            if (b == '\n' || (b == '\r' && i < length - 1)) {
+                return i + 1;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Builds the exception reported for an invalid row.
+     */
+    static IllegalArgumentException rowError(long lineNumber, Throwable cause) {
+        return new IllegalArgumentException(
+            "Invalid CSV format at line " + lineNumber + ": " + cause.getMessage(), cause);
+    }
+
+    /**
+     * Consumes the next line as failed because it does not fit in one window.
+     */
+    IllegalArgumentException lineTooLong(long limit) {
+        lineNumber++;
+        return rowError(lineNumber, new IllegalArgumentException("Line exceeds " + limit + " bytes"));
+    }
+
+    private void parseLine(ByteBuffer buffer, int start, int end) {
+        lineNumber++;
+        if (headerPending) {
+            headerPending = false;
+            return;
+        }
+
+        // Skip empty lines
+        if (isBlank(buffer, start, end)) {
+            return;
+        }
+
+        double salary;
+        try {
+            salary = parseFields(buffer, start, end);
+        } catch (Exception e) {
+            if (errors == null) {
+                throw rowError(lineNumber, e);
+            }
+            errors.accept(rowError(lineNumber, e));
+            return;
+        }
+        rows.accept(buffer, fieldStart, fieldEnd, salary);
+    }
+
+    /**
+     * Splits and validates one row into {@code fieldStart}/{@code fieldEnd}, returning its salary.
+     */
+    private double parseFields(ByteBuffer buffer, int start, int end) {
+        int fields = 1;
+        for (int i = start; i < end; i++) {
+            if (buffer.get(i) == ',') {
+                fields++;
+            }
+        }
+        if (fields != EXPECTED_FIELDS) {
+            throw new IllegalArgumentException(
+                "Expected 5 fields but found " + fields);
+        }
+
+        int field = 0;
+        int fieldFrom = start;
+        for (int i = start; i <= end; i++) {
+            if (i == end || buffer.get(i) == ',') {
+                int s = fieldFrom;
+                int e = i;
+                while (s < e && isWhitespace(buffer.get(s))) {
+                    s++;
+                }
+                while (e > s && isWhitespace(buffer.get(e - 1))) {
+                    e--;
+                }
+                fieldStart[field] = s;
+                fieldEnd[field] = e;
+                field++;
+                fieldFrom = i + 1;
+            }
+        }
+
+        if (fieldStart[0] == fieldEnd[0]) {
+            throw new IllegalArgumentException("Employee ID cannot be empty");
+        }
+
+        if (fieldStart[1] == fieldEnd[1] || fieldStart[2] == fieldEnd[2]) {
+            throw new IllegalArgumentException("Employee name cannot be empty");
+        }
+
+        return parseSalary(buffer, fieldStart[3], fieldEnd[3]);
+    }
+
+    private Employee toEmployee(ByteBuffer buffer, int[] fieldStart, int[] fieldEnd, double salary) {
+        // IDs are unique, while names and manager IDs repeat across rows
+        String id = decode(buffer, fieldStart[0], fieldEnd[0]);
+        String firstName = symbols.intern(buffer, fieldStart[1], fieldEnd[1]);
+        String lastName = symbols.intern(buffer, fieldStart[2], fieldEnd[2]);
+        // Empty managerId is valid (CEO case)
+        String managerId = fieldStart[4] == fieldEnd[4]
+            ? null : symbols.intern(buffer, fieldStart[4], fieldEnd[4]);
+
+        return new Employee(id, firstName, lastName, salary, managerId);
+    }
+
+    /**
+     * Parses plain decimal salaries straight from the digits. Anything else
+     * (signs, exponents, very long mantissas) falls back to Double.parseDouble
+     * so that accepted values and error messages stay identical.
+     */
+    private double parseSalary(ByteBuffer buffer, int start, int end) {
+        long mantissa = 0;
+        int digits = 0;
+        int fractionDigits = 0;
+        boolean seenPoint = false;
+        boolean fast = start < end;
+        for (int i = start; i < end && fast; i++) {
+            byte b = buffer.get(i);
+            if (b >= '0' && b <= '9') {
+                mantissa = mantissa * 10 + (b - '0');
+                digits++;
+                if (seenPoint) {
+                    fractionDigits++;
+                }
+            } else if (b == '.' && !seenPoint) {
+                seenPoint = true;
+            } else {
+                fast = false;
+            }
+        }
+        if (fast && digits > 0 && digits <= MAX_FAST_DIGITS
+                && fractionDigits < POWERS_OF_TEN.length) {
+            // Both operands are exact, so one division is correctly rounded
+            return mantissa / POWERS_OF_TEN[fractionDigits];
+        }
+
+        String salaryStr = decode(buffer, start, end);
+        double salary;
+        try {
+            salary = Double.parseDouble(salaryStr);
+            if (salary < 0) {
+                throw new IllegalArgumentException("Salary cannot be negative");
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid salary value: " + salaryStr);
+        }
+        return salary;
+    }
+
+    private String decode(ByteBuffer buffer, int start, int end) {
+        int length = end - start;
+        if (scratch.length < length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+        buffer.get(start, scratch, 0, length);
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+
+    private static boolean isBlank(ByteBuffer buffer, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (!isWhitespace(buffer.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Same rule as String.trim(): every code unit up to and including space.
+     * UTF-8 continuation bytes are negative, so they never match.
+     */
+    private static boolean isWhitespace(byte b) {
+        return b >= 0 && b <= ' ';
+    }
+
+    /**
+     * Receives the trimmed field ranges of each valid row. The arrays hold the
+     * five fields in file order and are reused for the next row.
+     */
+    interface RowSink {
+
+        void accept(ByteBuffer buffer, int[] fieldStart, int[] fieldEnd, double salary);
+    }
+}
@@ -5,14 +5,33 @@ import com.company.analyzer.model.Employee;
 import java.io.BufferedReader;
 import java.io.FileReader;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 /**
  * Service to read and parse employee data from CSV file.
  */
 public class CsvReaderService {
 
+    /** Largest region mapped at once; FileChannel.map is limited to 2 GB per mapping. */
+    static final long MAX_MAPPED_WINDOW = 1L << 30;
+
+    /** Smallest chunk worth handing to another thread in parallel mode. */
+    static final long MIN_PARALLEL_CHUNK = 4L << 20;
+
+    /** Chunks per worker thread, so that uneven chunks still balance out. */
+    private static final int CHUNKS_PER_THREAD = 4;
+
     /**
      * Reads employees from a CSV file.
      * 
@@ -29,7 +48,44 @@ public class CsvReaderService {
      */
     public List<Employee> readEmployees(String filePath) throws IOException {
         List<Employee> employees = new ArrayList<>();
+        readEmployees(filePath, employees::add);
+        return employees;
+    }
 
+    /**
+     * Reads employees from a CSV file, handing each one to the sink as soon as its
+     * row is parsed, so the caller decides what (if anything) is retained.
+     * 
+     * Rows before an invalid line have already been delivered when the exception
+     * is thrown.
+     * 
+     * @param filePath path to the CSV file
+     * @param sink receives employees in file order
+     * @return number of lines read, including the header and empty lines
+     * @throws IOException if file cannot be read
+     * @throws IllegalArgumentException if CSV format is invalid
+     * @see OrganizationalAnalyzer#builder()
+     */
+    public long readEmployees(String filePath, Consumer<? super Employee> sink) throws IOException {
+        return readEmployees(filePath, sink, new SymbolTable());
+    }
+
+    /**
+     * Streaming read that deduplicates names and manager IDs through the given
+     * table, e.g. to size it up front or to inspect its hit rate afterwards.
+     * 
+     * @param filePath path to the CSV file
+     * @param sink receives employees in file order
+     * @param symbols table for repeated field values
+     * @return number of lines read, including the header and empty lines
+     * @throws IOException if file cannot be read
+     * @throws IllegalArgumentException if CSV format is invalid
+     */
+    public long readEmployees(String filePath, Consumer<? super Employee> sink, SymbolTable symbols)
+            throws IOException {
+        if (GzipPipeline.isGzip(Path.of(filePath))) {
+            return readGzip(Path.of(filePath), new CsvByteParser(sink, true, 0, symbols));
+        }
         try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
             String line = reader.readLine(); // Skip header
             
@@ -37,7 +93,7 @@ public class CsvReaderService {
                 throw new IllegalArgumentException("CSV file is empty");
             }
 
-            int lineNumber = 1;
+            long lineNumber = 1;
             while ((line = reader.readLine()) != null) {
                 lineNumber++;
                 
@@ -46,23 +102,329 @@ public class CsvReaderService {
                     continue;
                 }
 
+                Employee employee;
                 try {
-                    Employee employee = parseLine(line);
-                    employees.add(employee);
+                    employee = parseLine(line, symbols);
                 } catch (Exception e) {
                     throw new IllegalArgumentException(
                         "Invalid CSV format at line " + lineNumber + ": " + e.getMessage(), e);
                 }
+                sink.accept(employee);
+            }
+            return lineNumber;
+        }
+    }
+
+    /**
+     * Reads employees from a CSV file through a memory-mapped view of it.
+     * 
+     * The file is scanned byte by byte without building intermediate line or
+     * field Strings, and plain decimal salaries are parsed straight from their
+     * digits. Produces the same employees and the same line-numbered errors as
+     * {@link #readEmployees(String)}. The file is decoded as UTF-8.
+     * 
+     * @param filePath path to the CSV file
+     * @return list of employees
+     * @throws IOException if file cannot be read
+     * @throws IllegalArgumentException if CSV format is invalid
+     */
+    public List<Employee> readEmployeesMapped(String filePath) throws IOException {
+        List<Employee> employees = new ArrayList<>();
+        readEmployeesMapped(filePath, employees::add);
+        return employees;
+    }
+
+    /**
+     * Streaming form of {@link #readEmployeesMapped(String)}: each employee is handed
+     * to the sink as soon as its row is parsed.
+     * 
+     * @param filePath path to the CSV file
+     * @param sink receives employees in file order
+     * @throws IOException if file cannot be read
+     * @throws IllegalArgumentException if CSV format is invalid
+     */
+    public void readEmployeesMapped(String filePath, Consumer<? super Employee> sink) throws IOException {
+        readEmployeesMapped(filePath, sink, new SymbolTable());
+    }
+
+    /**
+     * Mapped streaming read that deduplicates names and manager IDs through the given table.
+     * 
+     * @param filePath path to the CSV file
+     * @param sink receives employees in file order
+     * @param symbols table for repeated field values
+     * @throws IOException if file cannot be read
+     * @throws IllegalArgumentException if CSV format is invalid
+     */
+    public void readEmployeesMapped(String filePath, Consumer<? super Employee> sink, SymbolTable symbols)
+            throws IOException {
+        if (GzipPipeline.isGzip(Path.of(filePath))) {
+            readGzip(Path.of(filePath), new CsvByteParser(sink, true, 0, symbols));
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(Path.of(filePath), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size == 0) {
+                throw new IllegalArgumentException("CSV file is empty");
+            }
+
+            CsvByteParser parser = new CsvByteParser(sink, true, 0, symbols);
+            parseRegion(channel, 0, size, parser);
+        }
+    }
+
+    /**
+     * Reads a CSV file straight into an analyzer, decoding names only on demand.
+     * 
+     * IDs, manager IDs and salaries are parsed as usual, but first and last names
+     * are kept as positions in the memory-mapped file and decoded only when an
+     * employee is looked up, e.g. for the few that end up in a report. Parsing
+     * skips the name columns entirely and no name Strings stay on the heap; the
+     * file must not change while the analyzer is in use.
+     * 
+     * @param filePath path to the CSV file
+     * @return analyzer over the file's employees
+     * @throws IOException if file cannot be read
+     * @throws IllegalArgumentException if CSV format is invalid
+     */
+    public OrganizationalAnalyzer readOrganizationLazy(String filePath) throws IOException {
+        if (GzipPipeline.isGzip(Path.of(filePath))) {
+            // Decompressed buffers are reused, so names are decoded while parsing
+            OrganizationalAnalyzer.Builder builder = OrganizationalAnalyzer.builder();
+            readGzip(Path.of(filePath), new CsvByteParser(builder, true));
+            return builder.build();
+        }
+        try (FileChannel channel = FileChannel.open(Path.of(filePath), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size == 0) {
+                throw new IllegalArgumentException("CSV file is empty");
+            }
+
+            LazyEmployeeTable table = new LazyEmployeeTable();
+            parseRegion(channel, 0, size, new CsvByteParser(table, true));
+            return table.build();
+        }
+    }
+
+    /**
+     * Reads employees from a CSV file using all cores of the common ForkJoinPool.
+     * 
+     * @see #readEmployeesParallel(String, ForkJoinPool)
+     */
+    public List<Employee> readEmployeesParallel(String filePath) throws IOException {
+        return readEmployeesParallel(filePath, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Reads employees from a CSV file by parsing newline-aligned chunks in parallel.
+     * 
+     * The file is split at \n boundaries into chunks sized from the file length and
+     * the pool's parallelism; each chunk is memory-mapped and parsed independently,
+     * then the results are concatenated in file order. Errors report the same global
+     * line number and message as {@link #readEmployees(String)}; when several chunks
+     * fail, the one earliest in the file wins. Once a chunk fails, the chunks after it
+     * are cancelled or skipped rather than parsed to the end.
+     * 
+     * @param filePath path to the CSV file
+     * @param pool pool to run the chunk parsers on
+     * @return list of employees
+     * @throws IOException if file cannot be read
+     * @throws IllegalArgumentException if CSV format is invalid
+     */
+    public List<Employee> readEmployeesParallel(String filePath, ForkJoinPool pool) throws IOException {
+        return readEmployeesParallel(filePath, pool, MIN_PARALLEL_CHUNK);
+    }
+
+    List<Employee> readEmployeesParallel(String filePath, ForkJoinPool pool, long minChunkSize)
+            throws IOException {
+        if (GzipPipeline.isGzip(Path.of(filePath))) {
+            // A gzip stream cannot be split, so decompression is the only other thread
+            return readEmployeesMapped(filePath);
+        }
+        try (FileChannel channel = FileChannel.open(Path.of(filePath), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size == 0) {
+                throw new IllegalArgumentException("CSV file is empty");
+            }
+
+            long[] bounds = chunkBoundaries(channel, size, pool.getParallelism(), minChunkSize);
+            List<ForkJoinTask<ChunkResult>> tasks = new ArrayList<>(bounds.length - 1);
+            AtomicInteger firstFailed = new AtomicInteger(Integer.MAX_VALUE);
+            for (int i = 0; i + 1 < bounds.length; i++) {
+                long start = bounds[i];
+                long end = bounds[i + 1];
+                int chunk = i;
+                tasks.add(pool.submit(() -> parseChunk(channel, start, end, chunk, firstFailed)));
+            }
+
+            List<ChunkResult> results = new ArrayList<>(tasks.size());
+            for (ForkJoinTask<ChunkResult> task : tasks) {
+                ChunkResult result;
+                try {
+                    result = task.join();
+                } catch (UncheckedIOException e) {
+                    throw e.getCause();
+                }
+                results.add(result);
+                if (result.failure != null) {
+                    // Only the earliest failure is reported, so later chunks are not needed
+                    for (ForkJoinTask<ChunkResult> later : tasks.subList(results.size(), tasks.size())) {
+                        later.cancel(false);
+                    }
+                    break;
+                }
+            }
+            return mergeChunks(results);
+        }
+    }
+
+    /**
+     * Line counts are known only per chunk, so failures are rebased here: the first
+     * failing chunk in file order is preceded only by chunks that parsed completely.
+     */
+    private static List<Employee> mergeChunks(List<ChunkResult> results) {
+        long linesBefore = 0;
+        int total = 0;
+        for (ChunkResult result : results) {
+            if (result.failure != null) {
+                throw CsvByteParser.rowError(linesBefore + result.lineCount, result.failure);
             }
+            linesBefore += result.lineCount;
+            total += result.employees.size();
         }
 
+        List<Employee> employees = new ArrayList<>(total);
+        for (ChunkResult result : results) {
+            employees.addAll(result.employees);
+        }
         return employees;
     }
 
+    /**
+     * Parses one chunk unless an earlier chunk already failed, in which case the
+     * result is never looked at and an empty one is returned.
+     */
+    private static ChunkResult parseChunk(FileChannel channel, long start, long end, int chunk,
+                                          AtomicInteger firstFailed) {
+        List<Employee> employees = new ArrayList<>();
+        if (firstFailed.get() < chunk) {
+            return new ChunkResult(employees, 0, null);
+        }
+        CsvByteParser parser = new CsvByteParser(employees::add, chunk == 0);
+        try {
+            parseRegion(channel, start, end, parser);
+            return new ChunkResult(employees, parser.getLineNumber(), null);
+        } catch (IllegalArgumentException e) {
+            firstFailed.accumulateAndGet(chunk, Math::min);
+            // Line number is relative to the chunk until the merge rebases it
+            return new ChunkResult(employees, parser.getLineNumber(), e.getCause());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Picks chunk start offsets: roughly equal slices, each moved forward to just past
+     * the next \n. Cutting only after \n keeps \r\n pairs within one chunk.
+     */
+    static long[] chunkBoundaries(FileChannel channel, long size, int parallelism, long minChunkSize)
+            throws IOException {
+        long chunks = Math.max(1, Math.min(size / minChunkSize, (long) parallelism * CHUNKS_PER_THREAD));
+        long chunkSize = size / chunks;
+
+        List<Long> bounds = new ArrayList<>();
+        bounds.add(0L);
+        ByteBuffer probe = ByteBuffer.allocate(8192);
+        for (long target = chunkSize; target < size; target += chunkSize) {
+            long previous = bounds.get(bounds.size() - 1);
+            long boundary = nextLineStart(channel, Math.max(target, previous), size, probe);
+            if (boundary > previous && boundary < size) {
+                bounds.add(boundary);
+            }
+        }
+        bounds.add(size);
+
+        long[] result = new long[bounds.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = bounds.get(i);
+        }
+        return result;
+    }
+
+    private static long nextLineStart(FileChannel channel, long from, long size, ByteBuffer probe)
+            throws IOException {
+        long position = from;
+        while (position < size) {
+            probe.clear();
+            int read = channel.read(probe, position);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (probe.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    /**
+     * Outcome of parsing one chunk; {@code lineCount} is the failing line when
+     * {@code failure} is set.
+     */
+    private static final class ChunkResult {
+        private final List<Employee> employees;
+        private final long lineCount;
+        private final Throwable failure;
+
+        private ChunkResult(List<Employee> employees, long lineCount, Throwable failure) {
+            this.employees = employees;
+            this.lineCount = lineCount;
+            this.failure = failure;
+        }
+    }
+
+    /**
+     * Parses a gzip-compressed file, returning the number of lines read.
+     */
+    static long readGzip(Path path, CsvByteParser parser) throws IOException {
+        GzipPipeline.parse(path, parser);
+        if (parser.getLineNumber() == 0) {
+            throw new IllegalArgumentException("CSV file is empty");
+        }
+        return parser.getLineNumber();
+    }
+
+    /**
+     * Feeds {@code [start, end)} of the file to the parser, one mapped window at a time.
+     * Windows are cut after a line terminator so that no line spans two mappings.
+     */
+    static void parseRegion(FileChannel channel, long start, long end, CsvByteParser parser)
+            throws IOException {
+        long position = start;
+        while (position < end) {
+            long length = Math.min(end - position, MAX_MAPPED_WINDOW);
+            MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+
+            int limit = (int) length;
+            if (position + length < end) {
+                limit = CsvByteParser.lastLineBoundary(window, limit);
+                if (limit == 0) {
+                    throw parser.lineTooLong(MAX_MAPPED_WINDOW);
+                }
+            }
+
+            parser.parse(window, 0, limit);
+            position += limit;
+        }
+    }
+
     /**
      * Parses a single CSV line into an Employee object.
      */
-    private Employee parseLine(String line) {
+    private Employee parseLine(String line, SymbolTable symbols) {
         String[] parts = line.split(",", -1); // -1 keeps trailing empty strings
         
         if (parts.length != 5) {
@@ -95,7 +457,7 @@ public class CsvReaderService {
         }
 
         // Empty managerId is valid (CEO case)
-        return new Employee(id, firstName, lastName, salary, 
-                           managerId.isEmpty() ? null : managerId);
+        return new Employee(id, symbols.intern(firstName), symbols.intern(lastName), salary, 
+                           managerId.isEmpty() ? null : symbols.intern(managerId));
     }
 }
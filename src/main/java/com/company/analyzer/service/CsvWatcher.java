@@ -0,0 +1,292 @@
+package com.company.analyzer.service;
+
+import com.company.analyzer.model.Employee;
+import com.company.analyzer.service.IncrementalOrganizationalAnalyzer.IssueChanges;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Keeps an {@link IncrementalOrganizationalAnalyzer} in step with a CSV file
+ * that other systems append to.
+ *
+ * The watcher remembers how many bytes it has consumed. When the file grows and
+ * the bytes just before that offset are unchanged, only the new complete lines
+ * are parsed and applied as events; a trailing partial line waits for its
+ * terminator. A file that shrank, changed before the offset, or grew while its
+ * last line had no terminator is reloaded in full instead.
+ *
+ * An appended row with a new ID is a hire. A row repeating an ID updates that
+ * employee, as a repeated row does in the batch analysis. Rows that cannot be
+ * parsed or would close a reporting cycle are rejected and reported, and the
+ * rows after them are still applied. Cycles already in the file when it is
+ * loaded are analyzed as in the batch analysis.
+ *
+ * Not thread-safe.
+ */
+public class CsvWatcher {
+
+    private static final int GUARD_SIZE = 64;
+    private static final int SCAN_BUFFER_SIZE = 8192;
+
+    private final Path file;
+    private IncrementalOrganizationalAnalyzer analyzer;
+    private long offset;
+    private long linesConsumed;
+    private boolean endsMidLine;
+    private byte[] guard = new byte[0];
+
+    /**
+     * Loads the file.
+     *
+     * @throws IOException if the file cannot be read
+     * @throws IllegalArgumentException if the CSV is invalid or gzip-compressed
+     */
+    public CsvWatcher(Path file) throws IOException {
+        if (GzipPipeline.isGzip(file)) {
+            // Appended rows are read from byte offsets, which a compressed stream does not have
+            throw new IllegalArgumentException("A gzip-compressed file cannot be watched: " + file);
+        }
+        this.file = file;
+        this.analyzer = loadAll();
+    }
+
+    public IncrementalOrganizationalAnalyzer getAnalyzer() {
+        return analyzer;
+    }
+
+    /**
+     * Brings the analyzer up to date with the file.
+     *
+     * @return what changed; empty when the file has no new complete lines
+     * @throws IOException if the file cannot be read
+     * @throws IllegalArgumentException if the file was rewritten and is invalid
+     */
+    public Update refresh() throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            boolean appendOnly = size >= offset && Arrays.equals(guard, read(channel, offset - guard.length, guard.length))
+                && !(size > offset && endsMidLine);
+            if (!appendOnly) {
+                IncrementalOrganizationalAnalyzer previous = analyzer;
+                IncrementalOrganizationalAnalyzer reloaded = loadAll();
+                analyzer = reloaded;
+                return new Update(IncrementalOrganizationalAnalyzer.compare(previous, reloaded),
+                                  reloaded.getEmployees().size(), true, Collections.emptyList());
+            }
+
+            long boundary = lastLineBoundary(channel, offset, size);
+            if (boundary == offset) {
+                return new Update(analyzer.drainChanges(), 0, false, Collections.emptyList());
+            }
+
+            // Unparsable rows are rejected like rows that cannot be applied, in line order,
+            // so the offset still moves past them and later rows are not held up
+            List<Employee> rows = new ArrayList<>();
+            List<Long> rowLines = new ArrayList<>();
+            List<String> parseErrors = new ArrayList<>();
+            CsvByteParser[] parser = new CsvByteParser[1];
+            parser[0] = new CsvByteParser(employee -> {
+                rows.add(employee);
+                rowLines.add(parser[0].getLineNumber());
+                parseErrors.add(null);
+            }, false, linesConsumed, new SymbolTable());
+            parser[0].continueOnError(e -> {
+                rows.add(null);
+                rowLines.add(parser[0].getLineNumber());
+                parseErrors.add(e.getCause().getMessage());
+            });
+            CsvReaderService.parseRegion(channel, offset, boundary, parser[0]);
+
+            List<String> rejected = new ArrayList<>();
+            for (int i = 0; i < rows.size(); i++) {
+                if (parseErrors.get(i) != null) {
+                    rejected.add("Line " + rowLines.get(i) + ": " + parseErrors.get(i));
+                    continue;
+                }
+                try {
+                    apply(rows.get(i));
+                } catch (IllegalArgumentException e) {
+                    rejected.add("Line " + rowLines.get(i) + ": " + e.getMessage());
+                }
+            }
+
+            offset = boundary;
+            endsMidLine = false;
+            linesConsumed = parser[0].getLineNumber();
+            guard = read(channel, Math.max(0, offset - GUARD_SIZE), (int) Math.min(offset, GUARD_SIZE));
+            return new Update(analyzer.drainChanges(), rows.size() - rejected.size(), false, rejected);
+        }
+    }
+
+    /**
+     * Refreshes whenever the file is modified or replaced, and hands every
+     * non-empty update to the listener. Runs until the thread is interrupted.
+     *
+     * @param errors receives read and parse failures; watching continues after them
+     * @throws IOException if the directory cannot be watched
+     */
+    public void watch(Consumer<? super Update> listener, Consumer<? super Exception> errors)
+            throws IOException, InterruptedException {
+        Path directory = file.toAbsolutePath().getParent();
+        try (WatchService watchService = FileSystems.getDefault().newWatchService()) {
+            directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                               StandardWatchEventKinds.ENTRY_MODIFY);
+            while (true) {
+                WatchKey key = watchService.take();
+                boolean relevant = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    relevant |= event.kind() == StandardWatchEventKinds.OVERFLOW
+                        || file.getFileName().equals(event.context());
+                }
+                key.reset();
+
+                if (relevant) {
+                    try {
+                        Update update = refresh();
+                        if (update.isReloaded() || update.getRowsApplied() > 0 || !update.getRejectedRows().isEmpty()) {
+                            listener.accept(update);
+                        }
+                    } catch (IOException | IllegalArgumentException e) {
+                        errors.accept(e);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Applies one appended row. A manager change is tried first, since it is the
+     * only part that can be rejected, so a rejected row changes nothing.
+     */
+    private void apply(Employee row) {
+        Employee current = analyzer.getEmployee(row.getId());
+        if (current == null) {
+            analyzer.hire(row);
+            return;
+        }
+
+        if (!Objects.equals(current.getManagerId(), row.getManagerId())) {
+            analyzer.reassign(row.getId(), row.getManagerId());
+        }
+        if (current.getSalary() != row.getSalary()) {
+            analyzer.changeSalary(row.getId(), row.getSalary());
+        }
+        if (!current.getFirstName().equals(row.getFirstName()) || !current.getLastName().equals(row.getLastName())) {
+            analyzer.terminate(row.getId());
+            analyzer.hire(row);
+        }
+    }
+
+    private IncrementalOrganizationalAnalyzer loadAll() throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size == 0) {
+                throw new IllegalArgumentException("CSV file is empty");
+            }
+
+            // The builder applies the batch rule for repeated IDs before events take over
+            OrganizationalAnalyzer.Builder builder = OrganizationalAnalyzer.builder();
+            CsvByteParser parser = new CsvByteParser(builder, true);
+            CsvReaderService.parseRegion(channel, 0, size, parser);
+            OrgHierarchy hierarchy = builder.build().getHierarchy();
+            List<Employee> employees = new ArrayList<>(hierarchy.size());
+            for (int i = 0; i < hierarchy.size(); i++) {
+                employees.add(hierarchy.getEmployee(i));
+            }
+            IncrementalOrganizationalAnalyzer loaded = new IncrementalOrganizationalAnalyzer(employees);
+
+            byte last = read(channel, size - 1, 1)[0];
+            offset = size;
+            linesConsumed = parser.getLineNumber();
+            endsMidLine = last != '\n' && last != '\r';
+            guard = read(channel, Math.max(0, size - GUARD_SIZE), (int) Math.min(size, GUARD_SIZE));
+            return loaded;
+        }
+    }
+
+    /**
+     * Returns the offset just past the last line terminator in {@code [from, to)},
+     * or {@code from} if there is none. A \r in the last byte may still get its \n,
+     * so it only counts once something follows it.
+     */
+    private static long lastLineBoundary(FileChannel channel, long from, long to) throws IOException {
+        long end = to;
+        while (end > from) {
+            long start = Math.max(from, end - SCAN_BUFFER_SIZE);
+            byte[] bytes = read(channel, start, (int) (end - start));
+            for (int i = bytes.length - 1; i >= 0; i--) {
+                long position = start + i;
+                if (bytes[i] == '\n' || (bytes[i] == '\r' && position < to - 1)) {
+                    return position + 1;
+                }
+            }
+            end = start;
+        }
+        return from;
+    }
+
+    private static byte[] read(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                // The file shrank; a short read never matches the guard
+                return Arrays.copyOf(buffer.array(), buffer.position());
+            }
+        }
+        return buffer.array();
+    }
+
+    /**
+     * Result of one refresh.
+     */
+    public static class Update {
+        private final IssueChanges changes;
+        private final int rowsApplied;
+        private final boolean reloaded;
+        private final List<String> rejectedRows;
+
+        public Update(IssueChanges changes, int rowsApplied, boolean reloaded, List<String> rejectedRows) {
+            this.changes = changes;
+            this.rowsApplied = rowsApplied;
+            this.reloaded = reloaded;
+            this.rejectedRows = rejectedRows;
+        }
+
+        public IssueChanges getChanges() {
+            return changes;
+        }
+
+        /**
+         * Returns the number of rows applied, or after a reload the number of employees.
+         */
+        public int getRowsApplied() {
+            return rowsApplied;
+        }
+
+        public boolean isReloaded() {
+            return reloaded;
+        }
+
+        /**
+         * Returns why appended rows were rejected, one message per row.
+         */
+        public List<String> getRejectedRows() {
+            return rejectedRows;
+        }
+    }
+}
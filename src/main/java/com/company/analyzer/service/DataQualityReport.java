@@ -0,0 +1,321 @@
+package com.company.analyzer.service;
+
+import com.company.analyzer.report.JsonLinesReportWriter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Every data-quality problem found in one CSV file by {@link DataQualityValidator}.
+ *
+ * Each kind of problem keeps at most {@code maxItems} examples, in file order, and
+ * counts the rest. A single CEO is expected; several CEOs or none are problems.
+ */
+public final class DataQualityReport {
+
+    private final int maxItems;
+    private long rows;
+    private final Problems<RowError> rowErrors = new Problems<>();
+    private final Problems<DuplicateId> duplicateIds = new Problems<>();
+    private final Problems<DanglingManager> danglingManagers = new Problems<>();
+    private final Problems<String> ceoIds = new Problems<>();
+    private final Problems<List<String>> cycles = new Problems<>();
+
+    DataQualityReport(int maxItems) {
+        this.maxItems = maxItems;
+    }
+
+    /**
+     * Returns the number of rows that parsed, including ones with structural problems.
+     */
+    public long getRows() {
+        return rows;
+    }
+
+    /**
+     * Returns true if no problem of any kind was found.
+     */
+    public boolean isClean() {
+        return getProblemCount() == 0;
+    }
+
+    /**
+     * Returns the total number of problems, counting every CEO when there is
+     * more than one and a missing CEO as one.
+     */
+    public long getProblemCount() {
+        long ceoProblems = rows == 0 || ceoIds.count == 1 ? 0 : Math.max(1, ceoIds.count);
+        return rowErrors.count + duplicateIds.count + danglingManagers.count + ceoProblems + cycles.count;
+    }
+
+    public List<RowError> getRowErrors() {
+        return rowErrors.view();
+    }
+
+    public long getRowErrorCount() {
+        return rowErrors.count;
+    }
+
+    public List<DuplicateId> getDuplicateIds() {
+        return duplicateIds.view();
+    }
+
+    public long getDuplicateIdCount() {
+        return duplicateIds.count;
+    }
+
+    public List<DanglingManager> getDanglingManagers() {
+        return danglingManagers.view();
+    }
+
+    public long getDanglingManagerCount() {
+        return danglingManagers.count;
+    }
+
+    /**
+     * Returns the IDs of employees without a manager ID.
+     */
+    public List<String> getCeoIds() {
+        return ceoIds.view();
+    }
+
+    public long getCeoCount() {
+        return ceoIds.count;
+    }
+
+    /**
+     * Returns reporting cycles as employee IDs, each followed by its manager;
+     * the manager of the last one is the first.
+     */
+    public List<List<String>> getCycles() {
+        return cycles.view();
+    }
+
+    public long getCycleCount() {
+        return cycles.count;
+    }
+
+    /**
+     * Returns the report as human-readable text.
+     */
+    public String toSummary() {
+        StringBuilder summary = new StringBuilder("Data quality report: ")
+            .append(rows).append(" row(s), ").append(getProblemCount()).append(" problem(s)\n");
+        section(summary, "Row errors", rowErrors,
+            error -> "line " + error.getLine() + ": " + error.getMessage());
+        section(summary, "Duplicate IDs", duplicateIds,
+            duplicate -> duplicate.getId() + " at lines " + duplicate.getFirstLine() + " and "
+                + duplicate.getDuplicateLine() + "; the later row is kept");
+        section(summary, "Dangling managers", danglingManagers,
+            dangling -> dangling.getId() + " (line " + dangling.getLine() + ") reports to unknown manager "
+                + dangling.getManagerId());
+        if (rows > 0 && ceoIds.count == 0) {
+            summary.append("No CEO found\n");
+        } else if (ceoIds.count > 1) {
+            section(summary, "Multiple CEOs", ceoIds, id -> id);
+        }
+        section(summary, "Reporting cycles", cycles,
+            cycle -> String.join(" -> ", cycle) + " -> " + cycle.get(0));
+        return summary.toString();
+    }
+
+    /**
+     * Returns the report as one JSON object.
+     */
+    public String toJson() {
+        StringBuilder json = new StringBuilder("{\"rows\":").append(rows)
+            .append(",\"problems\":").append(getProblemCount());
+        json.append(",\"rowErrors\":");
+        list(json, rowErrors, (target, error) -> {
+            target.append("{\"line\":").append(error.getLine()).append(",\"message\":");
+            JsonLinesReportWriter.appendString(target, error.getMessage());
+            target.append('}');
+        });
+        json.append(",\"duplicateIds\":");
+        list(json, duplicateIds, (target, duplicate) -> {
+            target.append("{\"id\":");
+            JsonLinesReportWriter.appendString(target, duplicate.getId());
+            target.append(",\"firstLine\":").append(duplicate.getFirstLine())
+                  .append(",\"duplicateLine\":").append(duplicate.getDuplicateLine()).append('}');
+        });
+        json.append(",\"danglingManagers\":");
+        list(json, danglingManagers, (target, dangling) -> {
+            target.append("{\"id\":");
+            JsonLinesReportWriter.appendString(target, dangling.getId());
+            target.append(",\"managerId\":");
+            JsonLinesReportWriter.appendString(target, dangling.getManagerId());
+            target.append(",\"line\":").append(dangling.getLine()).append('}');
+        });
+        json.append(",\"ceos\":");
+        list(json, ceoIds, JsonLinesReportWriter::appendString);
+        json.append(",\"cycles\":");
+        list(json, cycles, (target, cycle) -> {
+            target.append('[');
+            for (int i = 0; i < cycle.size(); i++) {
+                if (i > 0) {
+                    target.append(',');
+                }
+                JsonLinesReportWriter.appendString(target, cycle.get(i));
+            }
+            target.append(']');
+        });
+        return json.append('}').toString();
+    }
+
+    void addRow() {
+        rows++;
+    }
+
+    void addRowError(long line, String message) {
+        rowErrors.add(new RowError(line, message), maxItems);
+    }
+
+    void addDuplicateId(String id, long firstLine, long duplicateLine) {
+        duplicateIds.add(new DuplicateId(id, firstLine, duplicateLine), maxItems);
+    }
+
+    void addDanglingManager(String id, String managerId, long line) {
+        danglingManagers.add(new DanglingManager(id, managerId, line), maxItems);
+    }
+
+    void addCeo(String id) {
+        ceoIds.add(id, maxItems);
+    }
+
+    /**
+     * Returns false once enough cycles are kept, so that further ones need only be counted.
+     */
+    boolean keepsMoreCycles() {
+        return cycles.items.size() < maxItems;
+    }
+
+    /**
+     * @param cycle member IDs, or null if the cycle is only counted
+     */
+    void addCycle(List<String> cycle) {
+        cycles.add(cycle == null ? null : Collections.unmodifiableList(cycle), maxItems);
+    }
+
+    private static <T> void section(StringBuilder summary, String title, Problems<T> problems,
+                                    Function<T, String> format) {
+        if (problems.count == 0) {
+            return;
+        }
+        summary.append(title).append(" (").append(problems.count).append("):\n");
+        for (T item : problems.items) {
+            summary.append("  ").append(format.apply(item)).append('\n');
+        }
+        if (problems.count > problems.items.size()) {
+            summary.append("  ... and ").append(problems.count - problems.items.size()).append(" more\n");
+        }
+    }
+
+    private static <T> void list(StringBuilder json, Problems<T> problems,
+                                 BiConsumer<StringBuilder, T> item) {
+        json.append("{\"count\":").append(problems.count).append(",\"items\":[");
+        for (int i = 0; i < problems.items.size(); i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            item.accept(json, problems.items.get(i));
+        }
+        json.append("]}");
+    }
+
+    /**
+     * First examples of one kind of problem plus the total count.
+     */
+    private static final class Problems<T> {
+        private final List<T> items = new ArrayList<>();
+        private long count;
+
+        void add(T item, int maxItems) {
+            if (items.size() < maxItems) {
+                items.add(item);
+            }
+            count++;
+        }
+
+        List<T> view() {
+            return Collections.unmodifiableList(items);
+        }
+    }
+
+    /**
+     * A row that could not be parsed.
+     */
+    public static class RowError {
+        private final long line;
+        private final String message;
+
+        public RowError(long line, String message) {
+            this.line = line;
+            this.message = message;
+        }
+
+        public long getLine() {
+            return line;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+
+    /**
+     * An employee ID on more than one row. The later row is the one analyzed.
+     */
+    public static class DuplicateId {
+        private final String id;
+        private final long firstLine;
+        private final long duplicateLine;
+
+        public DuplicateId(String id, long firstLine, long duplicateLine) {
+            this.id = id;
+            this.firstLine = firstLine;
+            this.duplicateLine = duplicateLine;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public long getFirstLine() {
+            return firstLine;
+        }
+
+        public long getDuplicateLine() {
+            return duplicateLine;
+        }
+    }
+
+    /**
+     * An employee whose manager ID matches no employee.
+     */
+    public static class DanglingManager {
+        private final String id;
+        private final String managerId;
+        private final long line;
+
+        public DanglingManager(String id, String managerId, long line) {
+            this.id = id;
+            this.managerId = managerId;
+            this.line = line;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public String getManagerId() {
+            return managerId;
+        }
+
+        public long getLine() {
+            return line;
+        }
+    }
+}
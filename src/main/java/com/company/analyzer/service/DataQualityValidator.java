@@ -0,0 +1,175 @@
+package com.company.analyzer.service;
+
+import com.company.analyzer.model.Employee;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Lenient CSV check that reports every data-quality problem of a file at once.
+ *
+ * Unlike {@link CsvReaderService}, an invalid row is recorded and parsing carries
+ * on. The structural checks then run in one linear pass over the parsed rows:
+ * duplicate IDs while indexing, dangling managers and CEOs while resolving
+ * managers, and reporting cycles by colouring each walk up the hierarchy, so
+ * that every employee is visited once.
+ */
+public class DataQualityValidator {
+
+    /** Examples kept per kind of problem by default. */
+    public static final int DEFAULT_MAX_PROBLEMS = 100;
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    // Node colours of the cycle search
+    private static final byte WHITE = 0;
+    private static final byte GREY = 1;
+    private static final byte BLACK = 2;
+
+    private final int maxProblems;
+
+    public DataQualityValidator() {
+        this(DEFAULT_MAX_PROBLEMS);
+    }
+
+    /**
+     * @param maxProblems examples kept per kind of problem; the rest are only counted
+     * @throws IllegalArgumentException if {@code maxProblems} is negative
+     */
+    public DataQualityValidator(int maxProblems) {
+        if (maxProblems < 0) {
+            throw new IllegalArgumentException("maxProblems must not be negative: " + maxProblems);
+        }
+        this.maxProblems = maxProblems;
+    }
+
+    /**
+     * Checks a CSV file.
+     *
+     * @param filePath path to the CSV file
+     * @return every problem found
+     * @throws IOException if file cannot be read
+     * @throws IllegalArgumentException if the file is empty or a line is too long
+     */
+    public DataQualityReport validate(String filePath) throws IOException {
+        DataQualityReport report = new DataQualityReport(maxProblems);
+        Rows rows = new Rows(report);
+        CsvByteParser parser = new CsvByteParser(rows, true);
+        rows.parser = parser;
+        parser.continueOnError(e -> report.addRowError(parser.getLineNumber(), e.getCause().getMessage()));
+        if (GzipPipeline.isGzip(Path.of(filePath))) {
+            CsvReaderService.readGzip(Path.of(filePath), parser);
+        } else {
+            try (FileChannel channel = FileChannel.open(Path.of(filePath), StandardOpenOption.READ)) {
+                long size = channel.size();
+                if (size == 0) {
+                    throw new IllegalArgumentException("CSV file is empty");
+                }
+                CsvReaderService.parseRegion(channel, 0, size, parser);
+            }
+        }
+
+        int[] parent = resolveManagers(rows, report);
+        findCycles(parent, rows.ids, report);
+        return report;
+    }
+
+    private static int[] resolveManagers(Rows rows, DataQualityReport report) {
+        int n = rows.index.size();
+        int[] parent = new int[n];
+        for (int i = 0; i < n; i++) {
+            String managerId = rows.managerIds[i];
+            if (managerId == null) {
+                parent[i] = OrgHierarchy.NO_PARENT;
+                report.addCeo(rows.ids[i]);
+            } else {
+                parent[i] = rows.index.indexOf(managerId);
+                if (parent[i] == OrgHierarchy.NO_PARENT) {
+                    report.addDanglingManager(rows.ids[i], managerId, rows.lines[i]);
+                }
+            }
+        }
+        return parent;
+    }
+
+    /**
+     * Walks up from every white employee, greying the path. Reaching a grey node
+     * closes a cycle through it; the path then turns black, so no employee is
+     * walked twice and each cycle is reported once.
+     */
+    private static void findCycles(int[] parent, String[] ids, DataQualityReport report) {
+        int n = parent.length;
+        byte[] colour = new byte[n];
+        int[] path = new int[n];
+        int[] pathPosition = new int[n];
+
+        for (int start = 0; start < n; start++) {
+            if (colour[start] != WHITE) {
+                continue;
+            }
+
+            int top = 0;
+            int node = start;
+            while (node != OrgHierarchy.NO_PARENT && colour[node] == WHITE) {
+                colour[node] = GREY;
+                pathPosition[node] = top;
+                path[top++] = node;
+                node = parent[node];
+            }
+
+            if (node != OrgHierarchy.NO_PARENT && colour[node] == GREY) {
+                List<String> cycle = null;
+                if (report.keepsMoreCycles()) {
+                    cycle = new ArrayList<>(top - pathPosition[node]);
+                    for (int k = pathPosition[node]; k < top; k++) {
+                        cycle.add(ids[path[k]]);
+                    }
+                }
+                report.addCycle(cycle);
+            }
+
+            for (int k = 0; k < top; k++) {
+                colour[path[k]] = BLACK;
+            }
+        }
+    }
+
+    /**
+     * Indexes parsed rows by ID, keeping the later of two rows with the same ID.
+     */
+    private static final class Rows implements Consumer<Employee> {
+        private final DataQualityReport report;
+        private final IdIndex index = new IdIndex();
+        private CsvByteParser parser;
+        private String[] ids = new String[INITIAL_CAPACITY];
+        private String[] managerIds = new String[INITIAL_CAPACITY];
+        private long[] lines = new long[INITIAL_CAPACITY];
+
+        private Rows(DataQualityReport report) {
+            this.report = report;
+        }
+
+        @Override
+        public void accept(Employee employee) {
+            report.addRow();
+            long line = parser.getLineNumber();
+            int i = index.getOrAdd(employee.getId());
+            if (i == ids.length) {
+                ids = Arrays.copyOf(ids, i * 2);
+                managerIds = Arrays.copyOf(managerIds, i * 2);
+                lines = Arrays.copyOf(lines, i * 2);
+            } else if (ids[i] != null) {
+                report.addDuplicateId(employee.getId(), lines[i], line);
+            }
+            ids[i] = employee.getId();
+            managerIds[i] = employee.getManagerId();
+            lines[i] = line;
+        }
+    }
+}
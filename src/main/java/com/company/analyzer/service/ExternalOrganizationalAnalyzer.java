@@ -0,0 +1,653 @@
+package com.company.analyzer.service;
+
+import com.company.analyzer.model.Employee;
+import com.company.analyzer.service.OrganizationalAnalyzer.ManagerSalaryIssue;
+import com.company.analyzer.service.OrganizationalAnalyzer.ReportingLineAnalysisReport;
+import com.company.analyzer.service.OrganizationalAnalyzer.ReportingLineIssue;
+import com.company.analyzer.service.OrganizationalAnalyzer.SalaryAnalysisReport;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Runs both analyses on a CSV file that does not fit in memory, with the same
+ * results as {@link OrganizationalAnalyzer}.
+ *
+ * Rows are spilled into sorted runs of at most {@code runSize} rows and every step
+ * is a sequential merge pass over sorted files:
+ * <ol>
+ *   <li>rows sorted by ID are merged into one row per employee, keeping the
+ *       first position and the data of the last row, as the in-memory builder does;</li>
+ *   <li>employees sorted by manager ID are merge-joined with employees sorted by ID,
+ *       which yields each manager's direct report count and salary total and so the
+ *       salary issues;</li>
+ *   <li>reporting line lengths are resolved by pointer doubling: every employee
+ *       points at an ancestor, and each pass sorts the pending pointers by ancestor
+ *       and merge-joins them with all pointers sorted by ID, so that a pointer jumps
+ *       to its ancestor's ancestor and the distance it covers doubles.</li>
+ * </ol>
+ * When only employees in or below reporting cycles are left, the cycle members are
+ * resolved in memory to the cycle length and everyone below them goes on from there
+ * in further passes. Once at most {@code runSize} pointers are pending, they are
+ * resolved in memory. Issues are sorted back into input order before they are returned.
+ *
+ * Each sorter holds at most {@code runSize} rows and a handful are filled at once,
+ * and at most {@code runSize} distinct names and IDs are interned while reading, so
+ * memory use is bounded by a small multiple of the run size plus the issues found.
+ * Disk I/O is a fixed number of sort and merge passes over the data plus, for
+ * reporting lines, {@code ceil(log2(d + 1))} passes over the pointers for a deepest
+ * reporting line of d, and never more than {@code log2(n) + 1} for n employees, or
+ * twice that when there are reporting cycles. Only the members of reporting cycles,
+ * not the employees below them, must fit in one run.
+ */
+public final class ExternalOrganizationalAnalyzer {
+
+    /** Rows per sorted run, about 100 MB of heap for typical rows. */
+    public static final int DEFAULT_RUN_SIZE = 1 << 20;
+
+    private static final Comparator<Row> BY_ID = Comparator.comparing(row -> row.id);
+    private static final Comparator<Row> BY_ID_AND_ORDER = BY_ID.thenComparingInt(row -> row.order);
+    private static final Comparator<Row> BY_MANAGER_AND_ORDER =
+        Comparator.<Row, String>comparing(row -> row.managerId).thenComparingInt(row -> row.order);
+    private static final Comparator<Row> BY_ORDER = Comparator.comparingInt(row -> row.order);
+    private static final Comparator<Link> BY_LINK_ID = Comparator.comparing(link -> link.id);
+    private static final Comparator<Link> BY_ANCESTOR = Comparator.comparing(link -> link.ancestor);
+
+    private final Path tempDirectory;
+    private final int runSize;
+
+    /**
+     * @param tempDirectory where a working directory for the sorted runs is created
+     * @param runSize rows held in memory per sorted run
+     * @throws IllegalArgumentException if the run size is not positive
+     */
+    public ExternalOrganizationalAnalyzer(Path tempDirectory, int runSize) {
+        if (runSize <= 0) {
+            throw new IllegalArgumentException("Run size must be positive: " + runSize);
+        }
+        this.tempDirectory = tempDirectory;
+        this.runSize = runSize;
+    }
+
+    /**
+     * Analyzes the CSV file, which may be gzip-compressed. The working directory
+     * is deleted afterwards, also on failure.
+     *
+     * @throws IOException if the file or the working directory cannot be read or written
+     * @throws IllegalArgumentException if a row is invalid, the file has more than
+     *         {@code Integer.MAX_VALUE} rows, or more than {@code runSize} employees
+     *         are in reporting cycles
+     */
+    public Result analyze(String filePath) throws IOException {
+        Path directory = Files.createTempDirectory(tempDirectory, "org-analysis");
+        try {
+            return new Run(directory).analyze(filePath);
+        } finally {
+            try (Stream<Path> files = Files.list(directory)) {
+                for (Path file : (Iterable<Path>) files::iterator) {
+                    Files.deleteIfExists(file);
+                }
+            }
+            Files.deleteIfExists(directory);
+        }
+    }
+
+    /**
+     * State of one analysis and its working directory.
+     */
+    private final class Run {
+        private final Path directory;
+        private final List<ExternalSorter<?>> sorters = new ArrayList<>();
+        private long bytesSpilled;
+        private long pending;
+
+        private Run(Path directory) {
+            this.directory = directory;
+        }
+
+        private Result analyze(String filePath) throws IOException {
+            ExternalSorter<Row> rows = sorter("rows", Row.CODEC, BY_ID_AND_ORDER);
+            int[] position = {0};
+            // Interning is bounded by the run size like everything else held in memory
+            SymbolTable symbols = new SymbolTable(0, runSize);
+            try {
+                new CsvReaderService().readEmployees(filePath, employee -> {
+                    if (position[0] == Integer.MAX_VALUE) {
+                        // Row positions are the int order keys of every sort below
+                        throw new IllegalArgumentException("Too many rows: more than " + Integer.MAX_VALUE);
+                    }
+                    try {
+                        rows.add(new Row(employee, position[0]++));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }, symbols);
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+
+            // One row per employee; the top level holds the CEO and employees of unknown managers
+            ExternalSorter<Row> top = sorter("level", Row.CODEC, BY_ID);
+            ExternalSorter<Row> byManager = sorter("by-manager", Row.CODEC, BY_MANAGER_AND_ORDER);
+            SpillFile<Row> employees;
+            try (SpillFile.Cursor<Row> cursor = rows.sorted();
+                 SpillFile.Writer<Row> writer = SpillFile.create(directory, "employees", Row.CODEC)) {
+                while (cursor.hasNext()) {
+                    Row first = cursor.next();
+                    Row last = first;
+                    while (cursor.hasNext() && cursor.peek().id.equals(first.id)) {
+                        last = cursor.next();
+                    }
+                    Row employee = last.withOrder(first.order);
+                    writer.write(employee);
+                    if (employee.managerId == null || employee.managerId.isEmpty()) {
+                        top.add(employee);
+                    } else {
+                        byManager.add(employee);
+                    }
+                }
+                employees = writer.finish();
+            }
+            bytesSpilled += employees.bytes();
+
+            ExternalSorter<Row> underpaid = sorter("underpaid", Row.CODEC, BY_ORDER);
+            ExternalSorter<Row> overpaid = sorter("overpaid", Row.CODEC, BY_ORDER);
+            SpillFile<Row> reports = aggregateDirectReports(employees, byManager, top, underpaid, overpaid);
+
+            ExternalSorter<Row> longLines = sorter("long-lines", Row.CODEC, BY_ORDER);
+            int passes = resolveReportingLines((int) employees.size(), employees, reports, top, longLines);
+
+            List<ManagerSalaryIssue> underpaidManagers = new ArrayList<>();
+            drain(underpaid, row -> underpaidManagers.add(
+                new ManagerSalaryIssue(row.toEmployee(), row.average, row.amount)));
+            List<ManagerSalaryIssue> overpaidManagers = new ArrayList<>();
+            drain(overpaid, row -> overpaidManagers.add(
+                new ManagerSalaryIssue(row.toEmployee(), row.average, row.amount)));
+            List<ReportingLineIssue> lineIssues = new ArrayList<>();
+            drain(longLines, row -> lineIssues.add(new ReportingLineIssue(
+                row.toEmployee(), row.depth, row.depth - OrganizationalAnalyzer.MAX_REPORTING_LINE_LENGTH)));
+
+            for (ExternalSorter<?> sorter : sorters) {
+                bytesSpilled += sorter.getBytesWritten();
+            }
+            return new Result((int) employees.size(), new SalaryAnalysisReport(underpaidManagers, overpaidManagers),
+                              new ReportingLineAnalysisReport(lineIssues), bytesSpilled, passes);
+        }
+
+        /**
+         * Merge-joins employees by manager ID with employees by ID. Employees of
+         * known managers are written to the returned file, still by manager ID;
+         * employees of unknown managers join the top level.
+         */
+        private SpillFile<Row> aggregateDirectReports(SpillFile<Row> employees, ExternalSorter<Row> byManager,
+                                                      ExternalSorter<Row> top, ExternalSorter<Row> underpaid,
+                                                      ExternalSorter<Row> overpaid) throws IOException {
+            SpillFile<Row> reports;
+            try (SpillFile.Cursor<Row> children = byManager.sorted();
+                 SpillFile.Cursor<Row> managers = employees.open();
+                 SpillFile.Writer<Row> writer = SpillFile.create(directory, "reports", Row.CODEC)) {
+                while (children.hasNext()) {
+                    String managerId = children.peek().managerId;
+                    while (managers.hasNext() && managers.peek().id.compareTo(managerId) < 0) {
+                        managers.next();
+                    }
+                    Row manager = managers.hasNext() && managers.peek().id.equals(managerId) ? managers.peek() : null;
+
+                    // Summed in input order, like the in-memory aggregation
+                    int count = 0;
+                    CompensatedSum total = new CompensatedSum();
+                    while (children.hasNext() && children.peek().managerId.equals(managerId)) {
+                        Row child = children.next();
+                        if (manager == null) {
+                            top.add(child);
+                        } else {
+                            writer.write(child);
+                            count++;
+                            total.add(child.salary);
+                        }
+                    }
+
+                    if (manager != null) {
+                        double average = total.get() / count;
+                        if (manager.salary < average * OrganizationalAnalyzer.MIN_MANAGER_SALARY_RATIO) {
+                            underpaid.add(manager.withIssue(average,
+                                average * OrganizationalAnalyzer.MIN_MANAGER_SALARY_RATIO - manager.salary));
+                        } else if (manager.salary > average * OrganizationalAnalyzer.MAX_MANAGER_SALARY_RATIO) {
+                            overpaid.add(manager.withIssue(average,
+                                manager.salary - average * OrganizationalAnalyzer.MAX_MANAGER_SALARY_RATIO));
+                        }
+                    }
+                }
+                reports = writer.finish();
+            }
+            bytesSpilled += reports.bytes();
+            return reports;
+        }
+
+        /**
+         * Resolves reporting line lengths by pointer doubling and collects the
+         * employees whose lines are too long. Every employee points at an ancestor
+         * some distance up; each pass merge-joins the pending pointers, sorted by
+         * ancestor, with all pointers sorted by ID and replaces each pointer by its
+         * ancestor's, doubling the distance covered until the top is reached. Returns
+         * the number of passes made on disk.
+         */
+        private int resolveReportingLines(int employeeCount, SpillFile<Row> employees, SpillFile<Row> reports,
+                                          ExternalSorter<Row> top, ExternalSorter<Row> longLines)
+                throws IOException {
+            ExternalSorter<Link> initial = new ExternalSorter<>(directory, "links", Link.CODEC, BY_LINK_ID, runSize);
+            try (SpillFile.Cursor<Row> cursor = top.sorted()) {
+                while (cursor.hasNext()) {
+                    initial.add(Link.resolved(cursor.next().id, 0));
+                }
+            }
+            pending = 0;
+            try (SpillFile.Cursor<Row> cursor = reports.open()) {
+                while (cursor.hasNext()) {
+                    Row row = cursor.next();
+                    initial.add(new Link(row.id, row.managerId, row.managerId, 1));
+                    pending++;
+                }
+            }
+            SpillFile<Link> links = sortedLinks(initial);
+
+            // After p passes every employee at most 2^p - 1 levels down is resolved, so
+            // only employees in or below reporting cycles are left after this many
+            int maxPasses = Integer.SIZE - Integer.numberOfLeadingZeros(employeeCount);
+            int passes = 0;
+            int phasePasses = 0;
+            while (pending > runSize) {
+                if (phasePasses == maxPasses) {
+                    // Only employees in or below reporting cycles are left; cut the cycles and go on
+                    links = cutCycles(links);
+                    phasePasses = 0;
+                    continue;
+                }
+                ExternalSorter<Link> byAncestor =
+                    new ExternalSorter<>(directory, "pending", Link.CODEC, BY_ANCESTOR, runSize);
+                ExternalSorter<Link> next = new ExternalSorter<>(directory, "links", Link.CODEC, BY_LINK_ID, runSize);
+                try (SpillFile.Cursor<Link> cursor = links.open()) {
+                    while (cursor.hasNext()) {
+                        Link link = cursor.next();
+                        if (link.isResolved()) {
+                            next.add(link);
+                        } else {
+                            byAncestor.add(link);
+                        }
+                    }
+                }
+
+                pending = 0;
+                try (SpillFile.Cursor<Link> cursor = byAncestor.sorted();
+                     SpillFile.Cursor<Link> ancestors = links.open()) {
+                    while (cursor.hasNext()) {
+                        Link link = cursor.next();
+                        while (ancestors.peek().id.compareTo(link.ancestor) < 0) {
+                            ancestors.next();
+                        }
+                        Link ancestor = ancestors.peek();
+                        int distance = saturatedAdd(link.distance, ancestor.distance);
+                        if (ancestor.isResolved()) {
+                            next.add(Link.resolved(link.id, distance));
+                        } else {
+                            next.add(new Link(link.id, link.managerId, ancestor.ancestor, distance));
+                            pending++;
+                        }
+                    }
+                }
+                bytesSpilled += byAncestor.getBytesWritten();
+                links.delete();
+                links = sortedLinks(next);
+                passes++;
+                phasePasses++;
+            }
+
+            Map<String, Integer> rest = pending > 0 ? resolveInMemory(links) : Map.of();
+
+            try (SpillFile.Cursor<Row> cursor = employees.open();
+                 SpillFile.Cursor<Link> resolved = links.open()) {
+                while (cursor.hasNext()) {
+                    // Both are sorted by ID and hold every employee once
+                    Row row = cursor.next();
+                    Link link = resolved.next();
+                    int depth = link.isResolved() ? link.distance : rest.get(link.id);
+                    if (depth > OrganizationalAnalyzer.MAX_REPORTING_LINE_LENGTH) {
+                        longLines.add(row.withDepth(depth));
+                    }
+                }
+            }
+            links.delete();
+            return passes;
+        }
+
+        /**
+         * Resolves the employees in reporting cycles to the cycle length, as the
+         * in-memory analysis does, and restarts everyone below them from their direct
+         * managers. Called once every pointer left points into a cycle: after
+         * {@code log2(n) + 1} passes each pointer has jumped further than any chain
+         * above a cycle is long, and the pointers of a cycle's members are a rotation
+         * of the cycle, so the pointer targets are exactly the cycle members.
+         */
+        private SpillFile<Link> cutCycles(SpillFile<Link> links) throws IOException {
+            Map<String, Integer> members = new HashMap<>();
+            try (SpillFile.Cursor<Link> cursor = links.open()) {
+                while (cursor.hasNext()) {
+                    Link link = cursor.next();
+                    if (!link.isResolved() && members.putIfAbsent(link.ancestor, members.size()) == null
+                            && members.size() > runSize) {
+                        throw new IllegalArgumentException("More than " + runSize
+                            + " employees are in reporting cycles, more than fit in one run");
+                    }
+                }
+            }
+
+            int[] parent = new int[members.size()];
+            try (SpillFile.Cursor<Link> cursor = links.open()) {
+                while (cursor.hasNext()) {
+                    Link link = cursor.next();
+                    Integer member = members.get(link.id);
+                    if (member != null) {
+                        parent[member] = members.get(link.managerId);
+                    }
+                }
+            }
+            int[] cycleLengths = OrgHierarchy.computeReportingLineLengths(parent);
+
+            pending = 0;
+            SpillFile<Link> cut;
+            try (SpillFile.Cursor<Link> cursor = links.open();
+                 SpillFile.Writer<Link> writer = SpillFile.create(directory, "links", Link.CODEC)) {
+                while (cursor.hasNext()) {
+                    Link link = cursor.next();
+                    Integer member = link.isResolved() ? null : members.get(link.id);
+                    Integer manager = link.isResolved() ? null : members.get(link.managerId);
+                    if (link.isResolved()) {
+                        writer.write(link);
+                    } else if (member != null) {
+                        writer.write(Link.resolved(link.id, cycleLengths[member]));
+                    } else if (manager != null) {
+                        // Directly below a cycle counts as deep as the cycle, like in memory
+                        writer.write(Link.resolved(link.id, cycleLengths[manager]));
+                    } else {
+                        writer.write(new Link(link.id, link.managerId, link.managerId, 1));
+                        pending++;
+                    }
+                }
+                cut = writer.finish();
+            }
+            bytesSpilled += cut.bytes();
+            links.delete();
+            return cut;
+        }
+
+        /**
+         * Resolves the at most {@code runSize} employees left unresolved from their
+         * direct managers, which are either among them or already resolved.
+         */
+        private Map<String, Integer> resolveInMemory(SpillFile<Link> links) throws IOException {
+            List<Link> rest = new ArrayList<>();
+            try (SpillFile.Cursor<Link> cursor = links.open()) {
+                while (cursor.hasNext()) {
+                    Link link = cursor.next();
+                    if (!link.isResolved()) {
+                        rest.add(link);
+                    }
+                }
+            }
+
+            Map<String, Integer> index = new HashMap<>();
+            for (int i = 0; i < rest.size(); i++) {
+                index.put(rest.get(i).id, i);
+            }
+            Map<String, Integer> managerLengths = new HashMap<>();
+            for (Link link : rest) {
+                if (!index.containsKey(link.managerId)) {
+                    managerLengths.put(link.managerId, null);
+                }
+            }
+            try (SpillFile.Cursor<Link> cursor = links.open()) {
+                while (cursor.hasNext()) {
+                    Link link = cursor.next();
+                    if (link.isResolved() && managerLengths.containsKey(link.id)) {
+                        managerLengths.put(link.id, link.distance);
+                    }
+                }
+            }
+
+            int[] parent = new int[rest.size()];
+            int[] topLengths = new int[rest.size()];
+            for (int i = 0; i < rest.size(); i++) {
+                Integer manager = index.get(rest.get(i).managerId);
+                parent[i] = manager == null ? OrgHierarchy.NO_PARENT : manager;
+                topLengths[i] = manager == null ? managerLengths.get(rest.get(i).managerId) + 1 : 0;
+            }
+            int[] lengths = OrgHierarchy.computeReportingLineLengths(parent, topLengths);
+            Map<String, Integer> depths = new HashMap<>();
+            for (int i = 0; i < rest.size(); i++) {
+                depths.put(rest.get(i).id, lengths[i]);
+            }
+            return depths;
+        }
+
+        /**
+         * Writes the links of one pass to a file, counting the bytes spilled on the
+         * way rather than keeping the sorter of every pass.
+         */
+        private SpillFile<Link> sortedLinks(ExternalSorter<Link> sorter) throws IOException {
+            SpillFile<Link> file = sorter.sortedFile();
+            bytesSpilled += sorter.getBytesWritten();
+            return file;
+        }
+
+        private <T> ExternalSorter<T> sorter(String prefix, SpillFile.Codec<T> codec, Comparator<? super T> order) {
+            ExternalSorter<T> sorter = new ExternalSorter<>(directory, prefix, codec, order, runSize);
+            sorters.add(sorter);
+            return sorter;
+        }
+
+        private void drain(ExternalSorter<Row> sorter, Consumer<Row> sink) throws IOException {
+            try (SpillFile.Cursor<Row> cursor = sorter.sorted()) {
+                while (cursor.hasNext()) {
+                    sink.accept(cursor.next());
+                }
+            }
+        }
+    }
+
+    /**
+     * One employee on its way through the passes, with the position of its first
+     * row and, depending on the pass, its reporting line length or salary issue.
+     */
+    private static final class Row {
+        static final SpillFile.Codec<Row> CODEC = new SpillFile.Codec<>() {
+            @Override
+            public void write(DataOutput out, Row row) throws IOException {
+                SpillFile.writeString(out, row.id);
+                SpillFile.writeString(out, row.firstName);
+                SpillFile.writeString(out, row.lastName);
+                out.writeDouble(row.salary);
+                out.writeBoolean(row.managerId != null);
+                if (row.managerId != null) {
+                    SpillFile.writeString(out, row.managerId);
+                }
+                out.writeInt(row.order);
+                out.writeInt(row.depth);
+                out.writeDouble(row.average);
+                out.writeDouble(row.amount);
+            }
+
+            @Override
+            public Row read(DataInput in) throws IOException {
+                String id = SpillFile.readString(in);
+                String firstName = SpillFile.readString(in);
+                String lastName = SpillFile.readString(in);
+                double salary = in.readDouble();
+                String managerId = in.readBoolean() ? SpillFile.readString(in) : null;
+                return new Row(id, firstName, lastName, salary, managerId,
+                               in.readInt(), in.readInt(), in.readDouble(), in.readDouble());
+            }
+        };
+
+        final String id;
+        final String firstName;
+        final String lastName;
+        final double salary;
+        final String managerId;
+        final int order;
+        final int depth;
+        final double average;
+        final double amount;
+
+        Row(Employee employee, int order) {
+            this(employee.getId(), employee.getFirstName(), employee.getLastName(), employee.getSalary(),
+                 employee.getManagerId(), order, 0, 0, 0);
+        }
+
+        private Row(String id, String firstName, String lastName, double salary, String managerId,
+                    int order, int depth, double average, double amount) {
+            this.id = id;
+            this.firstName = firstName;
+            this.lastName = lastName;
+            this.salary = salary;
+            this.managerId = managerId;
+            this.order = order;
+            this.depth = depth;
+            this.average = average;
+            this.amount = amount;
+        }
+
+        Row withOrder(int newOrder) {
+            return new Row(id, firstName, lastName, salary, managerId, newOrder, depth, average, amount);
+        }
+
+        Row withDepth(int newDepth) {
+            return new Row(id, firstName, lastName, salary, managerId, order, newDepth, average, amount);
+        }
+
+        Row withIssue(double newAverage, double newAmount) {
+            return new Row(id, firstName, lastName, salary, managerId, order, depth, newAverage, newAmount);
+        }
+
+        Employee toEmployee() {
+            return new Employee(id, firstName, lastName, salary, managerId);
+        }
+    }
+
+    /**
+     * Pointer from an employee to an ancestor {@code distance} levels up, or, once
+     * resolved, the employee's reporting line length. The direct manager is kept
+     * for employees resolved in memory.
+     */
+    private static final class Link {
+        static final SpillFile.Codec<Link> CODEC = new SpillFile.Codec<>() {
+            @Override
+            public void write(DataOutput out, Link link) throws IOException {
+                SpillFile.writeString(out, link.id);
+                out.writeBoolean(link.ancestor != null);
+                if (link.ancestor != null) {
+                    SpillFile.writeString(out, link.managerId);
+                    SpillFile.writeString(out, link.ancestor);
+                }
+                out.writeInt(link.distance);
+            }
+
+            @Override
+            public Link read(DataInput in) throws IOException {
+                String id = SpillFile.readString(in);
+                if (!in.readBoolean()) {
+                    return resolved(id, in.readInt());
+                }
+                return new Link(id, SpillFile.readString(in), SpillFile.readString(in), in.readInt());
+            }
+        };
+
+        final String id;
+        final String managerId;
+        final String ancestor;
+        final int distance;
+
+        Link(String id, String managerId, String ancestor, int distance) {
+            this.id = id;
+            this.managerId = managerId;
+            this.ancestor = ancestor;
+            this.distance = distance;
+        }
+
+        static Link resolved(String id, int length) {
+            return new Link(id, null, null, length);
+        }
+
+        boolean isResolved() {
+            return ancestor == null;
+        }
+    }
+
+    /**
+     * Adds two distances, staying at {@code Integer.MAX_VALUE} for pointers that
+     * keep going round a cycle.
+     */
+    private static int saturatedAdd(int a, int b) {
+        return (int) Math.min((long) a + b, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Outcome of one analysis.
+     */
+    public static final class Result {
+        private final int employeeCount;
+        private final SalaryAnalysisReport salaryReport;
+        private final ReportingLineAnalysisReport reportingLineReport;
+        private final long bytesSpilled;
+        private final int passes;
+
+        Result(int employeeCount, SalaryAnalysisReport salaryReport,
+               ReportingLineAnalysisReport reportingLineReport, long bytesSpilled, int passes) {
+            this.employeeCount = employeeCount;
+            this.salaryReport = salaryReport;
+            this.reportingLineReport = reportingLineReport;
+            this.bytesSpilled = bytesSpilled;
+            this.passes = passes;
+        }
+
+        /**
+         * Returns the number of distinct employees.
+         */
+        public int getEmployeeCount() {
+            return employeeCount;
+        }
+
+        public SalaryAnalysisReport getSalaryReport() {
+            return salaryReport;
+        }
+
+        public ReportingLineAnalysisReport getReportingLineReport() {
+            return reportingLineReport;
+        }
+
+        /**
+         * Returns the bytes written to the working directory.
+         */
+        public long getBytesSpilled() {
+            return bytesSpilled;
+        }
+
+        /**
+         * Returns the number of pointer-doubling passes made on disk to resolve
+         * reporting line lengths.
+         */
+        public int getPasses() {
+            return passes;
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package com.company.analyzer.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+/**
+ * Sorts more records than fit in memory: sorted runs of at most {@code runSize}
+ * records are spilled to disk and merged back k-way.
+ *
+ * Inputs that fit in one run never touch the disk. Otherwise every record is
+ * written once per merge level, where each level merges up to {@link #MERGE_FAN_IN}
+ * runs, so the I/O is {@code ceil(log_fanIn(runs))} sequential passes plus the
+ * initial spill. The sort is stable: equal records keep their insertion order.
+ */
+final class ExternalSorter<T> implements Closeable {
+
+    /** Runs merged at once; each open run costs one read buffer. */
+    static final int MERGE_FAN_IN = 64;
+
+    private final Path directory;
+    private final String prefix;
+    private final SpillFile.Codec<T> codec;
+    private final Comparator<? super T> order;
+    private final int runSize;
+    private final List<T> buffer = new ArrayList<>();
+    private final List<SpillFile<T>> runs = new ArrayList<>();
+    private long bytesWritten;
+
+    /**
+     * @param directory where runs are spilled
+     * @param prefix file name prefix of the runs
+     * @param runSize records held in memory before a run is spilled
+     */
+    ExternalSorter(Path directory, String prefix, SpillFile.Codec<T> codec, Comparator<? super T> order,
+                   int runSize) {
+        this.directory = directory;
+        this.prefix = prefix;
+        this.codec = codec;
+        this.order = order;
+        this.runSize = runSize;
+    }
+
+    void add(T value) throws IOException {
+        buffer.add(value);
+        if (buffer.size() >= runSize) {
+            spill();
+        }
+    }
+
+    /**
+     * Returns the bytes written to disk so far.
+     */
+    long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    /**
+     * Returns all records in order. The sorter must not be used afterwards,
+     * except to be closed; closing the cursor deletes the runs.
+     */
+    SpillFile.Cursor<T> sorted() throws IOException {
+        if (runs.isEmpty()) {
+            buffer.sort(order);
+            return listCursor(buffer);
+        }
+        if (!buffer.isEmpty()) {
+            spill();
+        }
+        while (runs.size() > MERGE_FAN_IN) {
+            // Consecutive runs are merged into runs that stay in sequence, which keeps ties stable
+            List<SpillFile<T>> merged = new ArrayList<>();
+            for (int i = 0; i < runs.size(); i += MERGE_FAN_IN) {
+                List<SpillFile<T>> group = runs.subList(i, Math.min(i + MERGE_FAN_IN, runs.size()));
+                merged.add(group.size() == 1 ? group.get(0) : mergeToFile(new ArrayList<>(group)));
+            }
+            runs.clear();
+            runs.addAll(merged);
+        }
+
+        List<SpillFile<T>> merged = new ArrayList<>(runs);
+        runs.clear();
+        SpillFile.Cursor<T> cursor = merge(open(merged), order);
+        return new SpillFile.Cursor<>() {
+            @Override
+            public boolean hasNext() {
+                return cursor.hasNext();
+            }
+
+            @Override
+            public T peek() {
+                return cursor.peek();
+            }
+
+            @Override
+            public T next() throws IOException {
+                return cursor.next();
+            }
+
+            @Override
+            public void close() throws IOException {
+                cursor.close();
+                for (SpillFile<T> run : merged) {
+                    run.delete();
+                }
+            }
+        };
+    }
+
+    /**
+     * Returns all records in order as one file, for inputs that are read more than once.
+     */
+    SpillFile<T> sortedFile() throws IOException {
+        if (runs.size() == 1 && buffer.isEmpty()) {
+            return runs.remove(0);
+        }
+        try (SpillFile.Cursor<T> cursor = sorted();
+             SpillFile.Writer<T> writer = SpillFile.create(directory, prefix, codec)) {
+            while (cursor.hasNext()) {
+                writer.write(cursor.next());
+            }
+            SpillFile<T> file = writer.finish();
+            bytesWritten += file.bytes();
+            return file;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        buffer.clear();
+        for (SpillFile<T> run : runs) {
+            run.delete();
+        }
+        runs.clear();
+    }
+
+    /**
+     * Merges cursors that are each in order into one ordered cursor. Ties go to
+     * the cursor listed first, which keeps a merge of consecutive runs stable.
+     */
+    static <T> SpillFile.Cursor<T> merge(List<SpillFile.Cursor<T>> cursors, Comparator<? super T> order) {
+        PriorityQueue<Integer> heads = new PriorityQueue<>((a, b) -> {
+            int c = order.compare(cursors.get(a).peek(), cursors.get(b).peek());
+            return c != 0 ? c : Integer.compare(a, b);
+        });
+        for (int i = 0; i < cursors.size(); i++) {
+            if (cursors.get(i).hasNext()) {
+                heads.add(i);
+            }
+        }
+
+        return new SpillFile.Cursor<>() {
+            @Override
+            public boolean hasNext() {
+                return !heads.isEmpty();
+            }
+
+            @Override
+            public T peek() {
+                if (heads.isEmpty()) {
+                    throw new NoSuchElementException();
+                }
+                return cursors.get(heads.peek()).peek();
+            }
+
+            @Override
+            public T next() throws IOException {
+                if (heads.isEmpty()) {
+                    throw new NoSuchElementException();
+                }
+                int source = heads.poll();
+                T value = cursors.get(source).next();
+                if (cursors.get(source).hasNext()) {
+                    heads.add(source);
+                }
+                return value;
+            }
+
+            @Override
+            public void close() throws IOException {
+                IOException failure = null;
+                for (SpillFile.Cursor<T> cursor : cursors) {
+                    try {
+                        cursor.close();
+                    } catch (IOException e) {
+                        failure = e;
+                    }
+                }
+                if (failure != null) {
+                    throw failure;
+                }
+            }
+        };
+    }
+
+    private void spill() throws IOException {
+        buffer.sort(order);
+        try (SpillFile.Writer<T> writer = SpillFile.create(directory, prefix, codec)) {
+            for (T value : buffer) {
+                writer.write(value);
+            }
+            SpillFile<T> run = writer.finish();
+            bytesWritten += run.bytes();
+            runs.add(run);
+        }
+        buffer.clear();
+    }
+
+    private SpillFile<T> mergeToFile(List<SpillFile<T>> group) throws IOException {
+        try (SpillFile.Cursor<T> cursor = merge(open(group), order);
+             SpillFile.Writer<T> writer = SpillFile.create(directory, prefix, codec)) {
+            while (cursor.hasNext()) {
+                writer.write(cursor.next());
+            }
+            SpillFile<T> file = writer.finish();
+            bytesWritten += file.bytes();
+            for (SpillFile<T> run : group) {
+                run.delete();
+            }
+            return file;
+        }
+    }
+
+    private static <T> List<SpillFile.Cursor<T>> open(List<SpillFile<T>> files) throws IOException {
+        List<SpillFile.Cursor<T>> cursors = new ArrayList<>(files.size());
+        for (SpillFile<T> file : files) {
+            cursors.add(file.open());
+        }
+        return cursors;
+    }
+
+    private static <T> SpillFile.Cursor<T> listCursor(List<T> values) {
+        return new SpillFile.Cursor<>() {
+            private int position;
+
+            @Override
+            public boolean hasNext() {
+                return position < values.size();
+            }
+
+            @Override
+            public T peek() {
+                if (position == values.size()) {
+                    throw new NoSuchElementException();
+                }
+                return values.get(position);
+            }
+
+            @Override
+            public T next() {
+                T value = peek();
+                position++;
+                return value;
+            }
+
+            @Override
+            public void close() {
+                values.clear();
+            }
+        };
+    }
+}
@@ -0,0 +1,173 @@
+package com.company.analyzer.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Feeds a gzip-compressed CSV file to a {@link CsvByteParser}, decompressing on
+ * a separate thread.
+ *
+ * The decompressor fills buffers from a fixed pool and hands them to the parsing
+ * thread through a bounded queue, so inflating the next buffers overlaps with
+ * parsing the current one and throughput approaches that of the slower stage.
+ * Every buffer handed over ends at a line boundary: the partial line at the end
+ * of a buffer is copied to the start of the next one, so the parser never sees
+ * a line split across buffers and the pool is reused without further copies.
+ */
+final class GzipPipeline {
+
+    /** Size of each pooled buffer and thereby the longest line accepted. */
+    static final int BUFFER_SIZE = 1 << 20;
+
+    /** Buffers waiting to be parsed; two more are being filled and parsed. */
+    private static final int QUEUED_BUFFERS = 4;
+
+    private static final int GZIP_MAGIC_1 = 0x1f;
+    private static final int GZIP_MAGIC_2 = 0x8b;
+
+    private GzipPipeline() {
+    }
+
+    /**
+     * Returns true if the file starts with the gzip magic bytes.
+     */
+    static boolean isGzip(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer magic = ByteBuffer.allocate(2);
+            while (magic.hasRemaining() && channel.read(magic) > 0) {
+                // Keep reading until both bytes are in or the file ends
+            }
+            return !magic.hasRemaining()
+                && (magic.get(0) & 0xff) == GZIP_MAGIC_1 && (magic.get(1) & 0xff) == GZIP_MAGIC_2;
+        }
+    }
+
+    /**
+     * Decompresses the file and parses every line of it.
+     *
+     * @throws IOException if the file cannot be read or is not valid gzip
+     * @throws IllegalArgumentException if a row is invalid or a line exceeds {@link #BUFFER_SIZE}
+     */
+    static void parse(Path path, CsvByteParser parser) throws IOException {
+        BlockingQueue<ByteBuffer> free = new ArrayBlockingQueue<>(QUEUED_BUFFERS + 2);
+        for (int i = 0; i < QUEUED_BUFFERS + 2; i++) {
+            free.add(ByteBuffer.allocate(BUFFER_SIZE));
+        }
+        BlockingQueue<Chunk> filled = new ArrayBlockingQueue<>(QUEUED_BUFFERS);
+        Decompressor decompressor = new Decompressor(path, free, filled);
+        Thread thread = new Thread(decompressor, "csv-gunzip");
+        thread.setDaemon(true);
+        thread.start();
+
+        try {
+            while (true) {
+                Chunk chunk = filled.take();
+                if (chunk.failure != null) {
+                    throw chunk.failure;
+                }
+                if (chunk.lineTooLong) {
+                    throw parser.lineTooLong(BUFFER_SIZE);
+                }
+                if (chunk.buffer == null) {
+                    return;
+                }
+                parser.parse(chunk.buffer, 0, chunk.limit);
+                free.put(chunk.buffer);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while reading " + path, e);
+        } finally {
+            // Stops the decompressor if parsing failed; it exits on its next queue operation
+            thread.interrupt();
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * A buffer of whole lines, or the end of input when {@code buffer} is null.
+     */
+    private static final class Chunk {
+        private final ByteBuffer buffer;
+        private final int limit;
+        private final IOException failure;
+        private final boolean lineTooLong;
+
+        private Chunk(ByteBuffer buffer, int limit, IOException failure, boolean lineTooLong) {
+            this.buffer = buffer;
+            this.limit = limit;
+            this.failure = failure;
+            this.lineTooLong = lineTooLong;
+        }
+    }
+
+    private static final class Decompressor implements Runnable {
+        private final Path path;
+        private final BlockingQueue<ByteBuffer> free;
+        private final BlockingQueue<Chunk> filled;
+
+        private Decompressor(Path path, BlockingQueue<ByteBuffer> free, BlockingQueue<Chunk> filled) {
+            this.path = path;
+            this.free = free;
+            this.filled = filled;
+        }
+
+        @Override
+        public void run() {
+            try {
+                try (InputStream in = new GZIPInputStream(Files.newInputStream(path), 1 << 16)) {
+                    pump(in);
+                } catch (IOException e) {
+                    filled.put(new Chunk(null, 0, e, false));
+                }
+            } catch (InterruptedException e) {
+                // The parser stopped early and no longer reads the queue
+            }
+        }
+
+        private void pump(InputStream in) throws IOException, InterruptedException {
+            ByteBuffer buffer = free.take();
+            int length = 0;
+            while (true) {
+                int read = in.read(buffer.array(), length, BUFFER_SIZE - length);
+                if (read > 0) {
+                    length += read;
+                    if (length < BUFFER_SIZE) {
+                        continue;
+                    }
+                }
+                if (read < 0) {
+                    filled.put(new Chunk(buffer, length, null, false));
+                    filled.put(new Chunk(null, 0, null, false));
+                    return;
+                }
+
+                int boundary = CsvByteParser.lastLineBoundary(buffer, length);
+                if (boundary == 0) {
+                    // Lines before this one were handed over already, so the parser's
+                    // line count points at the line that is too long
+                    filled.put(new Chunk(null, 0, null, true));
+                    return;
+                }
+                ByteBuffer next = free.take();
+                int carried = length - boundary;
+                System.arraycopy(buffer.array(), boundary, next.array(), 0, carried);
+                filled.put(new Chunk(buffer, boundary, null, false));
+                buffer = next;
+                length = carried;
+            }
+        }
+    }
+}
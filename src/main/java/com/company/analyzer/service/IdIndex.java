@@ -0,0 +1,97 @@
+package com.company.analyzer.service;
+
+/**
+ * Open-addressing map from employee ID to a dense int index.
+ *
+ * Indexes are handed out in first-seen order starting at 0. Keys and values sit in
+ * two flat arrays, so there are no entry objects or boxed Integers.
+ */
+final class IdIndex {
+
+    private static final int MIN_CAPACITY = 16;
+
+    private String[] keys;
+    private int[] values;
+    private int size;
+
+    IdIndex() {
+        this(MIN_CAPACITY);
+    }
+
+    /**
+     * @param expectedSize number of IDs to hold without rehashing
+     */
+    IdIndex(int expectedSize) {
+        int capacity = MIN_CAPACITY;
+        while (capacity < expectedSize * 2) {
+            capacity <<= 1;
+        }
+        keys = new String[capacity];
+        values = new int[capacity];
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Returns the index of the ID, or -1 if it is unknown.
+     */
+    int indexOf(String id) {
+        int mask = keys.length - 1;
+        for (int slot = hash(id) & mask; ; slot = (slot + 1) & mask) {
+            String key = keys[slot];
+            if (key == null) {
+                return -1;
+            }
+            if (key.equals(id)) {
+                return values[slot];
+            }
+        }
+    }
+
+    /**
+     * Returns the index of the ID, assigning the next free index if it is new.
+     */
+    int getOrAdd(String id) {
+        int mask = keys.length - 1;
+        int slot = hash(id) & mask;
+        for (String key = keys[slot]; key != null; key = keys[slot]) {
+            if (key.equals(id)) {
+                return values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        int index = size++;
+        keys[slot] = id;
+        values[slot] = index;
+        if (size * 2 > keys.length) {
+            rehash(keys.length * 2);
+        }
+        return index;
+    }
+
+    private void rehash(int capacity) {
+        String[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new String[capacity];
+        values = new int[capacity];
+        int mask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != null) {
+                int slot = hash(oldKeys[i]) & mask;
+                while (keys[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private static int hash(String id) {
+        int h = id.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
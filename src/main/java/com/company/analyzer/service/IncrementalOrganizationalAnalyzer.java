@@ -0,0 +1,529 @@
+package com.company.analyzer.service;
+
+import com.company.analyzer.model.Employee;
+import com.company.analyzer.service.OrganizationalAnalyzer.*;
+
+import java.util.*;
+
+import static com.company.analyzer.service.OrganizationalAnalyzer.MAX_MANAGER_SALARY_RATIO;
+import static com.company.analyzer.service.OrganizationalAnalyzer.MAX_REPORTING_LINE_LENGTH;
+import static com.company.analyzer.service.OrganizationalAnalyzer.MIN_MANAGER_SALARY_RATIO;
+
+/**
+ * Analyzer that keeps its salary and reporting line results current while
+ * employees are hired, terminated, paid differently or moved.
+ *
+ * Each event re-evaluates only what it can affect: the salary check of the
+ * employee and of their (old and new) manager, and reporting line lengths inside
+ * the moved subtree. At any point the reports contain the same issues a new
+ * {@link OrganizationalAnalyzer} over {@link #getEmployees()} would find.
+ *
+ * Assumptions:
+ * - Reporting cycles in the initial data are accepted with the lengths of the batch
+ *   analysis; while one remains, every hire, termination and move recomputes all
+ *   reporting lines in O(n). Events that would close a new cycle are rejected
+ * - Subordinates of a terminated manager keep their managerId, so (as in the
+ *   batch analysis) they count as having an unknown manager until reassigned
+ *   or until someone with that ID is hired
+ * - Manager averages are maintained as running totals, so for fractional salaries
+ *   they may differ from a fresh analysis in the last bits
+ *
+ * Not thread-safe.
+ */
+public class IncrementalOrganizationalAnalyzer {
+
+    private final Map<String, Node> nodes = new LinkedHashMap<>();
+    private final Map<String, Team> teams = new HashMap<>();
+    private final TrackedIssues<ManagerSalaryIssue> underpaidManagers = new TrackedIssues<>();
+    private final TrackedIssues<ManagerSalaryIssue> overpaidManagers = new TrackedIssues<>();
+    private final TrackedIssues<ReportingLineIssue> reportingLineIssues = new TrackedIssues<>();
+    private boolean hasCycles;
+
+    /**
+     * @param employees initial organization
+     * @throws IllegalArgumentException on duplicate IDs
+     */
+    public IncrementalOrganizationalAnalyzer(Collection<Employee> employees) {
+        for (Employee employee : employees) {
+            if (nodes.putIfAbsent(employee.getId(), new Node(employee)) != null) {
+                throw new IllegalArgumentException("Duplicate employee ID: " + employee.getId());
+            }
+            if (!employee.isCEO()) {
+                team(employee.getManagerId()).add(employee);
+            }
+        }
+
+        recomputeReportingLines();
+
+        for (String managerId : teams.keySet()) {
+            checkSalary(managerId);
+        }
+        drainChanges();
+    }
+
+    /**
+     * Adds a new employee.
+     *
+     * @throws IllegalArgumentException if the ID is taken or the hire closes a reporting cycle
+     */
+    public void hire(Employee employee) {
+        String id = employee.getId();
+        if (nodes.containsKey(id)) {
+            throw new IllegalArgumentException("Employee already exists: " + id);
+        }
+        // Reports left behind under this ID attach to the new hire
+        rejectCycle(id, employee.getManagerId());
+
+        Node node = new Node(employee);
+        nodes.put(id, node);
+        if (!employee.isCEO()) {
+            team(employee.getManagerId()).add(employee);
+            checkSalary(employee.getManagerId());
+        }
+        if (hasCycles) {
+            recomputeReportingLines();
+        } else {
+            updateReportingLines(node, lengthBelow(employee.getManagerId()));
+        }
+        checkSalary(id);
+    }
+
+    /**
+     * Removes an employee. Their direct reports are left with an unknown manager.
+     *
+     * @throws IllegalArgumentException if the employee does not exist
+     */
+    public void terminate(String id) {
+        Node node = existing(id);
+        nodes.remove(id);
+        reportingLineIssues.remove(id);
+
+        Employee employee = node.employee;
+        if (!employee.isCEO()) {
+            leaveTeam(employee);
+            checkSalary(employee.getManagerId());
+        }
+        checkSalary(id);
+
+        Team reports = teams.get(id);
+        if (hasCycles) {
+            recomputeReportingLines();
+        } else if (reports != null) {
+            for (Employee report : reports.members.values()) {
+                updateReportingLines(nodes.get(report.getId()), 0);
+            }
+        }
+    }
+
+    /**
+     * Changes an employee's salary.
+     *
+     * @throws IllegalArgumentException if the employee does not exist or the salary is negative
+     */
+    public void changeSalary(String id, double salary) {
+        if (salary < 0) {
+            throw new IllegalArgumentException("Salary cannot be negative");
+        }
+        Node node = existing(id);
+        Employee old = node.employee;
+        replace(node, new Employee(id, old.getFirstName(), old.getLastName(), salary, old.getManagerId()));
+
+        checkSalary(id);
+        if (!old.isCEO()) {
+            checkSalary(old.getManagerId());
+        }
+    }
+
+    /**
+     * Moves an employee, with everyone below them, under a new manager.
+     *
+     * @param newManagerId the new manager, or null to make the employee a top-level one
+     * @throws IllegalArgumentException if the employee does not exist or the move closes a reporting cycle
+     */
+    public void reassign(String id, String newManagerId) {
+        Node node = existing(id);
+        rejectCycle(id, newManagerId);
+        Employee old = node.employee;
+        replace(node, new Employee(id, old.getFirstName(), old.getLastName(), old.getSalary(), newManagerId));
+
+        if (!old.isCEO()) {
+            checkSalary(old.getManagerId());
+        }
+        if (!node.employee.isCEO()) {
+            checkSalary(newManagerId);
+        }
+        checkSalary(id);
+        if (hasCycles) {
+            recomputeReportingLines();
+        } else {
+            updateReportingLines(node, lengthBelow(newManagerId));
+        }
+    }
+
+    /**
+     * Returns the current employees, in the order they were added.
+     */
+    public Collection<Employee> getEmployees() {
+        List<Employee> employees = new ArrayList<>(nodes.size());
+        for (Node node : nodes.values()) {
+            employees.add(node.employee);
+        }
+        return employees;
+    }
+
+    /**
+     * Returns the current salary issues.
+     */
+    public SalaryAnalysisReport getSalaryReport() {
+        return new SalaryAnalysisReport(new ArrayList<>(underpaidManagers.current.values()),
+                                        new ArrayList<>(overpaidManagers.current.values()));
+    }
+
+    /**
+     * Returns the current reporting line issues.
+     */
+    public ReportingLineAnalysisReport getReportingLineReport() {
+        return new ReportingLineAnalysisReport(new ArrayList<>(reportingLineIssues.current.values()));
+    }
+
+    /**
+     * Returns the employee with the given ID, or null if there is none.
+     */
+    public Employee getEmployee(String id) {
+        Node node = nodes.get(id);
+        return node == null ? null : node.employee;
+    }
+
+    /**
+     * Returns the issues that appeared or disappeared since the previous call
+     * (or since construction), and starts tracking anew. Only issues touched by
+     * the events in between are compared, so the cost follows the size of the
+     * change, not the number of issues. An issue whose amounts merely changed is
+     * not reported.
+     */
+    public IssueChanges drainChanges() {
+        IssueChanges changes = new IssueChanges(
+            new SalaryAnalysisReport(underpaidManagers.added(), overpaidManagers.added()),
+            new SalaryAnalysisReport(underpaidManagers.resolved(), overpaidManagers.resolved()),
+            new ReportingLineAnalysisReport(reportingLineIssues.added()),
+            new ReportingLineAnalysisReport(reportingLineIssues.resolved()));
+        underpaidManagers.before.clear();
+        overpaidManagers.before.clear();
+        reportingLineIssues.before.clear();
+        return changes;
+    }
+
+    /**
+     * Compares the issues of two analyzers, e.g. before and after a full reload.
+     */
+    public static IssueChanges compare(IncrementalOrganizationalAnalyzer before,
+                                       IncrementalOrganizationalAnalyzer after) {
+        return new IssueChanges(
+            new SalaryAnalysisReport(missingFrom(before.underpaidManagers.current, after.underpaidManagers.current),
+                                     missingFrom(before.overpaidManagers.current, after.overpaidManagers.current)),
+            new SalaryAnalysisReport(missingFrom(after.underpaidManagers.current, before.underpaidManagers.current),
+                                     missingFrom(after.overpaidManagers.current, before.overpaidManagers.current)),
+            new ReportingLineAnalysisReport(
+                missingFrom(before.reportingLineIssues.current, after.reportingLineIssues.current)),
+            new ReportingLineAnalysisReport(
+                missingFrom(after.reportingLineIssues.current, before.reportingLineIssues.current)));
+    }
+
+    /**
+     * Issues of {@code issues} whose employee has none in {@code reference}.
+     */
+    private static <T> List<T> missingFrom(Map<String, T> reference, Map<String, T> issues) {
+        List<T> missing = new ArrayList<>();
+        for (Map.Entry<String, T> entry : issues.entrySet()) {
+            if (!reference.containsKey(entry.getKey())) {
+                missing.add(entry.getValue());
+            }
+        }
+        return missing;
+    }
+
+    /**
+     * Swaps in an updated copy of an employee, moving them between teams if their manager changed.
+     */
+    private void replace(Node node, Employee updated) {
+        if (!node.employee.isCEO()) {
+            leaveTeam(node.employee);
+        }
+        node.employee = updated;
+        if (!updated.isCEO()) {
+            team(updated.getManagerId()).add(updated);
+        }
+        checkReportingLine(node);
+    }
+
+    private void leaveTeam(Employee employee) {
+        Team team = teams.get(employee.getManagerId());
+        team.remove(employee);
+        if (team.members.isEmpty()) {
+            teams.remove(employee.getManagerId());
+        }
+    }
+
+    /**
+     * Re-evaluates the salary of a (possible) manager from their team's running totals.
+     */
+    private void checkSalary(String managerId) {
+        underpaidManagers.remove(managerId);
+        overpaidManagers.remove(managerId);
+
+        Node node = nodes.get(managerId);
+        Team team = teams.get(managerId);
+        if (node == null || team == null) {
+            return;
+        }
+
+        Employee manager = node.employee;
+        double avgSubordinateSalary = team.salaryTotal / team.members.size();
+        double minExpectedSalary = avgSubordinateSalary * MIN_MANAGER_SALARY_RATIO;
+        double maxExpectedSalary = avgSubordinateSalary * MAX_MANAGER_SALARY_RATIO;
+
+        if (manager.getSalary() < minExpectedSalary) {
+            underpaidManagers.put(managerId, new ManagerSalaryIssue(
+                manager, avgSubordinateSalary, minExpectedSalary - manager.getSalary()));
+        } else if (manager.getSalary() > maxExpectedSalary) {
+            overpaidManagers.put(managerId, new ManagerSalaryIssue(
+                manager, avgSubordinateSalary, manager.getSalary() - maxExpectedSalary));
+        }
+    }
+
+    /**
+     * Assigns every reporting line length from scratch: the trees below the top-level
+     * employees are walked down, and whoever is not reached is in or below a cycle
+     * and gets the batch analysis length.
+     */
+    private void recomputeReportingLines() {
+        for (Node node : nodes.values()) {
+            node.reportingLineLength = -1;
+        }
+        int resolved = 0;
+        for (Node node : nodes.values()) {
+            if (!hasKnownManager(node.employee)) {
+                resolved += updateReportingLines(node, 0);
+            }
+        }
+        hasCycles = resolved != nodes.size();
+        if (!hasCycles) {
+            return;
+        }
+
+        // The managers of unreached employees are unreached too
+        List<Node> rest = new ArrayList<>();
+        Map<String, Integer> index = new HashMap<>();
+        for (Node node : nodes.values()) {
+            if (node.reportingLineLength < 0) {
+                index.put(node.employee.getId(), rest.size());
+                rest.add(node);
+            }
+        }
+        int[] parent = new int[rest.size()];
+        for (int i = 0; i < rest.size(); i++) {
+            parent[i] = index.get(rest.get(i).employee.getManagerId());
+        }
+        int[] lengths = OrgHierarchy.computeReportingLineLengths(parent);
+        for (int i = 0; i < rest.size(); i++) {
+            rest.get(i).reportingLineLength = lengths[i];
+            checkReportingLine(rest.get(i));
+        }
+    }
+
+    /**
+     * Assigns reporting line lengths to a node and everyone below it, which must
+     * not include a cycle.
+     *
+     * @return number of nodes updated
+     */
+    private int updateReportingLines(Node root, int length) {
+        int updated = 0;
+        Deque<Node> pending = new ArrayDeque<>();
+        root.reportingLineLength = length;
+        pending.push(root);
+        while (!pending.isEmpty()) {
+            Node node = pending.pop();
+            checkReportingLine(node);
+            updated++;
+
+            Team reports = teams.get(node.employee.getId());
+            if (reports != null) {
+                for (Employee report : reports.members.values()) {
+                    Node child = nodes.get(report.getId());
+                    child.reportingLineLength = node.reportingLineLength + 1;
+                    pending.push(child);
+                }
+            }
+        }
+        return updated;
+    }
+
+    private void checkReportingLine(Node node) {
+        String id = node.employee.getId();
+        if (node.reportingLineLength > MAX_REPORTING_LINE_LENGTH) {
+            reportingLineIssues.put(id, new ReportingLineIssue(node.employee, node.reportingLineLength,
+                node.reportingLineLength - MAX_REPORTING_LINE_LENGTH));
+        } else {
+            reportingLineIssues.remove(id);
+        }
+    }
+
+    /**
+     * Reporting line length of someone placed directly below the given manager.
+     */
+    private int lengthBelow(String managerId) {
+        Node manager = managerId == null ? null : nodes.get(managerId);
+        return manager == null ? 0 : manager.reportingLineLength + 1;
+    }
+
+    /**
+     * Walks up from the prospective manager; meeting the employee means they would manage themselves.
+     * A walk longer than the organization has gone round an existing cycle without them.
+     */
+    private void rejectCycle(String id, String managerId) {
+        String current = managerId;
+        for (int steps = 0; current != null && !current.isEmpty() && steps <= nodes.size(); steps++) {
+            if (current.equals(id)) {
+                throw new IllegalArgumentException(
+                    "Reporting cycle involving employee " + id);
+            }
+            Node node = nodes.get(current);
+            current = node == null ? null : node.employee.getManagerId();
+        }
+    }
+
+    private boolean hasKnownManager(Employee employee) {
+        return !employee.isCEO() && nodes.containsKey(employee.getManagerId());
+    }
+
+    private Node existing(String id) {
+        Node node = nodes.get(id);
+        if (node == null) {
+            throw new IllegalArgumentException("Unknown employee: " + id);
+        }
+        return node;
+    }
+
+    private Team team(String managerId) {
+        return teams.computeIfAbsent(managerId, k -> new Team());
+    }
+
+    /**
+     * Issues by employee ID, remembering what each touched entry was before the
+     * first change since changes were last drained.
+     */
+    private static class TrackedIssues<T> {
+        private final Map<String, T> current = new LinkedHashMap<>();
+        private final Map<String, T> before = new LinkedHashMap<>();
+
+        private void put(String id, T issue) {
+            remember(id);
+            current.put(id, issue);
+        }
+
+        private void remove(String id) {
+            if (current.containsKey(id)) {
+                remember(id);
+                current.remove(id);
+            }
+        }
+
+        private void remember(String id) {
+            if (!before.containsKey(id)) {
+                before.put(id, current.get(id));
+            }
+        }
+
+        private List<T> added() {
+            List<T> added = new ArrayList<>();
+            for (Map.Entry<String, T> entry : before.entrySet()) {
+                T now = current.get(entry.getKey());
+                if (entry.getValue() == null && now != null) {
+                    added.add(now);
+                }
+            }
+            return added;
+        }
+
+        private List<T> resolved() {
+            List<T> resolved = new ArrayList<>();
+            for (Map.Entry<String, T> entry : before.entrySet()) {
+                if (entry.getValue() != null && !current.containsKey(entry.getKey())) {
+                    resolved.add(entry.getValue());
+                }
+            }
+            return resolved;
+        }
+    }
+
+    /**
+     * Current state of one employee.
+     */
+    private static class Node {
+        private Employee employee;
+        private int reportingLineLength = -1;
+
+        private Node(Employee employee) {
+            this.employee = employee;
+        }
+    }
+
+    /**
+     * Direct reports of one manager ID, whether or not that manager exists.
+     */
+    private static class Team {
+        private final Map<String, Employee> members = new LinkedHashMap<>();
+        private double salaryTotal;
+
+        private void add(Employee employee) {
+            members.put(employee.getId(), employee);
+            salaryTotal += employee.getSalary();
+        }
+
+        private void remove(Employee employee) {
+            members.remove(employee.getId());
+            salaryTotal -= employee.getSalary();
+        }
+    }
+
+    /**
+     * Issues that appeared and issues that disappeared between two points in time.
+     */
+    public static class IssueChanges {
+        private final SalaryAnalysisReport newSalaryIssues;
+        private final SalaryAnalysisReport resolvedSalaryIssues;
+        private final ReportingLineAnalysisReport newReportingLineIssues;
+        private final ReportingLineAnalysisReport resolvedReportingLineIssues;
+
+        public IssueChanges(SalaryAnalysisReport newSalaryIssues, SalaryAnalysisReport resolvedSalaryIssues,
+                            ReportingLineAnalysisReport newReportingLineIssues,
+                            ReportingLineAnalysisReport resolvedReportingLineIssues) {
+            this.newSalaryIssues = newSalaryIssues;
+            this.resolvedSalaryIssues = resolvedSalaryIssues;
+            this.newReportingLineIssues = newReportingLineIssues;
+            this.resolvedReportingLineIssues = resolvedReportingLineIssues;
+        }
+
+        public SalaryAnalysisReport getNewSalaryIssues() {
+            return newSalaryIssues;
+        }
+
+        public SalaryAnalysisReport getResolvedSalaryIssues() {
+            return resolvedSalaryIssues;
+        }
+
+        public ReportingLineAnalysisReport getNewReportingLineIssues() {
+            return newReportingLineIssues;
+        }
+
+        public ReportingLineAnalysisReport getResolvedReportingLineIssues() {
+            return resolvedReportingLineIssues;
+        }
+
+        public boolean isEmpty() {
+            return !newSalaryIssues.hasIssues() && !resolvedSalaryIssues.hasIssues()
+                && !newReportingLineIssues.hasIssues() && !resolvedReportingLineIssues.hasIssues();
+        }
+    }
+}
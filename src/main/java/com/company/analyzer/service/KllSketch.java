@@ -0,0 +1,399 @@
+package com.company.analyzer.service;
+
+import java.util.Arrays;
+
+/**
+ * Mergeable quantile sketch (KLL) of a stream of values, using memory that depends
+ * only on {@code k} and not on the number of values.
+ *
+ * Values are kept in levels of compactors; a value on level h stands for 2^h input
+ * values. When the sketch is full, the lowest level over its capacity is sorted
+ * and every other value, starting at a random offset, is promoted to the next level,
+ * the rest dropped. Capacities shrink by 2/3 per level below the top, so about 3k
+ * values are retained in total.
+ *
+ * Until the first compaction, i.e. for up to about k values, every answer is exact.
+ * Afterwards a rank (the fraction of values at or below some value) is off by at
+ * most {@link #getNormalizedRankError()} times the number of values with 99%
+ * probability, about 1.7% for the default k of 200. A quantile is a value whose true
+ * rank is within that error of the one asked for, and a histogram count, being the
+ * difference of two ranks, is within twice that error. Compaction offsets come from
+ * a fixed seed, so the same input in the same order always gives the same sketch.
+ *
+ * Not thread-safe while updated; queries of a sketch that is no longer updated may
+ * run concurrently.
+ */
+public final class KllSketch {
+
+    /** Accuracy parameter giving about 1.7% rank error in about 5 KB. */
+    public static final int DEFAULT_K = 200;
+
+    private static final int MIN_CAPACITY = 8;
+    private static final double CAPACITY_DECAY = 2.0 / 3.0;
+
+    private final int k;
+    private double[][] levels = {new double[MIN_CAPACITY]};
+    private int[] sizes = {0};
+    // Cached since they change only when a level is added or values are appended or compacted
+    private int[] capacities;
+    private int totalCapacity;
+    private int retained;
+    private long n;
+    private double min = Double.NaN;
+    private double max = Double.NaN;
+    private long randomState = 0x9E3779B97F4A7C15L;
+    private volatile SortedView view;
+
+    public KllSketch() {
+        this(DEFAULT_K);
+    }
+
+    /**
+     * @param k accuracy parameter; the rank error shrinks roughly as 1/k
+     * @throws IllegalArgumentException if k is below 8
+     */
+    public KllSketch(int k) {
+        if (k < MIN_CAPACITY) {
+            throw new IllegalArgumentException("k must be at least " + MIN_CAPACITY + ": " + k);
+        }
+        this.k = k;
+        updateCapacities();
+    }
+
+    /**
+     * Returns the rank error that holds with 99% probability for a sketch with the
+     * given k once it has compacted, as a fraction of the number of values.
+     */
+    public static double getNormalizedRankError(int k) {
+        return 2.446 / Math.pow(k, 0.9433);
+    }
+
+    /**
+     * Returns the rank error of this sketch: 0 while it is exact, otherwise
+     * {@link #getNormalizedRankError(int)} of its k.
+     */
+    public double getNormalizedRankError() {
+        return isExact() ? 0 : getNormalizedRankError(k);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the value is NaN
+     */
+    public void update(double value) {
+        if (Double.isNaN(value)) {
+            throw new IllegalArgumentException("Cannot add NaN to a sketch");
+        }
+        updateMinMax(value, value);
+        n++;
+        append(0, value);
+        view = null;
+        if (retained > totalCapacity) {
+            compress();
+        }
+    }
+
+    /**
+     * Adds every value summarized by the other sketch, which is left unchanged.
+     */
+    public void merge(KllSketch other) {
+        if (other.n == 0) {
+            return;
+        }
+        // Copied first, since appending grows the levels of a sketch merged into itself
+        double[][] otherLevels = new double[other.sizes.length][];
+        for (int h = 0; h < otherLevels.length; h++) {
+            otherLevels[h] = Arrays.copyOf(other.levels[h], other.sizes[h]);
+        }
+        updateMinMax(other.min, other.max);
+        n += other.n;
+        for (int h = 0; h < otherLevels.length; h++) {
+            for (double value : otherLevels[h]) {
+                append(h, value);
+            }
+        }
+        view = null;
+        compress();
+    }
+
+    public int getK() {
+        return k;
+    }
+
+    /**
+     * Returns the number of values added, including through merges.
+     */
+    public long getN() {
+        return n;
+    }
+
+    public boolean isEmpty() {
+        return n == 0;
+    }
+
+    /**
+     * Returns true if no values were dropped yet, so every answer is exact.
+     */
+    public boolean isExact() {
+        return sizes.length == 1;
+    }
+
+    /**
+     * Returns the number of values kept in memory.
+     */
+    public int getRetained() {
+        return retained;
+    }
+
+    /**
+     * Returns the smallest value exactly, or NaN if the sketch is empty.
+     */
+    public double getMin() {
+        return min;
+    }
+
+    /**
+     * Returns the largest value exactly, or NaN if the sketch is empty.
+     */
+    public double getMax() {
+        return max;
+    }
+
+    /**
+     * Returns the smallest value whose rank is at least {@code fraction}, e.g. 0.5
+     * for the (lower) median and 0.9 for p90, or NaN if the sketch is empty.
+     * 0 and 1 return the exact minimum and maximum.
+     *
+     * @throws IllegalArgumentException if the fraction is outside [0, 1]
+     */
+    public double getQuantile(double fraction) {
+        if (!(fraction >= 0 && fraction <= 1)) {
+            throw new IllegalArgumentException("Quantile fraction must be in [0, 1]: " + fraction);
+        }
+        if (n == 0) {
+            return Double.NaN;
+        }
+        if (fraction == 0) {
+            return min;
+        }
+        if (fraction == 1) {
+            return max;
+        }
+        SortedView sorted = sortedView();
+        double target = fraction * n;
+        int low = 0;
+        int high = sorted.values.length - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted.cumulativeWeights[mid] >= target) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return sorted.values[low];
+    }
+
+    /**
+     * Returns the fraction of values less than or equal to the given value, or NaN
+     * if the sketch is empty.
+     */
+    public double getRank(double value) {
+        if (n == 0) {
+            return Double.NaN;
+        }
+        return (double) weightAtMost(sortedView(), value) / n;
+    }
+
+    /**
+     * Returns estimated counts of the values in the buckets bounded by the split
+     * points: below the first, from each split point up to the next, and from the
+     * last up. The counts add up to {@link #getN()}.
+     *
+     * @throws IllegalArgumentException if the split points are not strictly increasing
+     */
+    public long[] getHistogram(double... splitPoints) {
+        for (int i = 0; i < splitPoints.length; i++) {
+            if (Double.isNaN(splitPoints[i]) || i > 0 && splitPoints[i] <= splitPoints[i - 1]) {
+                throw new IllegalArgumentException("Split points must be strictly increasing");
+            }
+        }
+        long[] counts = new long[splitPoints.length + 1];
+        if (n == 0) {
+            return counts;
+        }
+        SortedView sorted = sortedView();
+        long below = 0;
+        for (int i = 0; i < splitPoints.length; i++) {
+            long atSplit = weightBelow(sorted, splitPoints[i]);
+            counts[i] = atSplit - below;
+            below = atSplit;
+        }
+        counts[splitPoints.length] = n - below;
+        return counts;
+    }
+
+    private void updateMinMax(double low, double high) {
+        if (n == 0) {
+            min = low;
+            max = high;
+        } else {
+            min = Math.min(min, low);
+            max = Math.max(max, high);
+        }
+    }
+
+    private void append(int level, double value) {
+        while (level >= sizes.length) {
+            addLevel();
+        }
+        if (sizes[level] == levels[level].length) {
+            levels[level] = Arrays.copyOf(levels[level], levels[level].length * 2);
+        }
+        levels[level][sizes[level]++] = value;
+        retained++;
+    }
+
+    private void addLevel() {
+        levels = Arrays.copyOf(levels, levels.length + 1);
+        levels[levels.length - 1] = new double[MIN_CAPACITY];
+        sizes = Arrays.copyOf(sizes, sizes.length + 1);
+        updateCapacities();
+    }
+
+    /**
+     * Recomputes the level capacities, which shrink with a level's distance from the top.
+     */
+    private void updateCapacities() {
+        capacities = new int[sizes.length];
+        totalCapacity = 0;
+        for (int level = 0; level < sizes.length; level++) {
+            int depth = sizes.length - 1 - level;
+            capacities[level] = Math.max(MIN_CAPACITY, (int) Math.ceil(k * Math.pow(CAPACITY_DECAY, depth)));
+            totalCapacity += capacities[level];
+        }
+    }
+
+    /**
+     * Compacts the lowest level over capacity until the sketch fits again.
+     */
+    private void compress() {
+        while (retained > totalCapacity) {
+            int level = 0;
+            while (sizes[level] <= capacities[level]) {
+                level++;
+            }
+            if (level == sizes.length - 1) {
+                // Adding a level also lowers the capacities of those below it
+                addLevel();
+            }
+
+            double[] items = levels[level];
+            int size = sizes[level];
+            Arrays.sort(items, 0, size);
+            // An odd value out stays on this level with its weight unchanged
+            int start = size % 2;
+            int offset = nextBit();
+            for (int i = start + offset; i < size; i += 2) {
+                append(level + 1, items[i]);
+            }
+            retained -= size - start;
+            sizes[level] = start;
+        }
+    }
+
+    private int nextBit() {
+        // xorshift64
+        randomState ^= randomState << 13;
+        randomState ^= randomState >>> 7;
+        randomState ^= randomState << 17;
+        return (int) (randomState >>> 63);
+    }
+
+    private SortedView sortedView() {
+        SortedView sorted = view;
+        if (sorted == null) {
+            // Deterministic result, so a racing duplicate build is harmless
+            sorted = new SortedView(levels, sizes);
+            view = sorted;
+        }
+        return sorted;
+    }
+
+    private static long weightAtMost(SortedView sorted, double value) {
+        int count = upperBound(sorted.values, value);
+        return count == 0 ? 0 : sorted.cumulativeWeights[count - 1];
+    }
+
+    private static long weightBelow(SortedView sorted, double value) {
+        int count = lowerBound(sorted.values, value);
+        return count == 0 ? 0 : sorted.cumulativeWeights[count - 1];
+    }
+
+    private static int upperBound(double[] values, double value) {
+        int low = 0;
+        int high = values.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (values[mid] <= value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static int lowerBound(double[] values, double value) {
+        int low = 0;
+        int high = values.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (values[mid] < value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Retained values in ascending order with the running total of their weights.
+     */
+    private static final class SortedView {
+        private final double[] values;
+        private final long[] cumulativeWeights;
+
+        private SortedView(double[][] levels, int[] sizes) {
+            int total = 0;
+            for (int size : sizes) {
+                total += size;
+            }
+            double[] all = new double[total];
+            int[] levelOf = new int[total];
+            int next = 0;
+            for (int h = 0; h < sizes.length; h++) {
+                for (int i = 0; i < sizes[h]; i++) {
+                    all[next] = levels[h][i];
+                    levelOf[next++] = h;
+                }
+            }
+
+            Integer[] byValue = new Integer[total];
+            for (int i = 0; i < total; i++) {
+                byValue[i] = i;
+            }
+            Arrays.sort(byValue, (a, b) -> Double.compare(all[a], all[b]));
+
+            this.values = new double[total];
+            this.cumulativeWeights = new long[total];
+            long weight = 0;
+            for (int i = 0; i < total; i++) {
+                int source = byValue[i];
+                values[i] = all[source];
+                weight += 1L << levelOf[source];
+                cumulativeWeights[i] = weight;
+            }
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.company.analyzer.service;
+
+import com.company.analyzer.model.Employee;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Employee table that keeps only the location of each name in the mapped CSV file.
+ *
+ * The analyses need IDs, manager IDs and salaries, so only those are decoded while
+ * parsing; first and last names stay as (window, offset, length) references into
+ * the mapped windows and are decoded when an employee is actually looked at, which
+ * for a report is just the employees with issues. The mappings stay valid after
+ * the file channel is closed and are released together with the table.
+ *
+ * A repeated ID replaces the earlier row, as with {@link OrganizationalAnalyzer.Builder}.
+ */
+final class LazyEmployeeTable implements OrgHierarchy.EmployeeTable, CsvByteParser.RowSink {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final IdIndex idIndex = new IdIndex();
+    private final SymbolTable managerIds = new SymbolTable();
+    private final List<ByteBuffer> windows = new ArrayList<>();
+    private ByteBuffer currentWindow;
+    private String[] ids = new String[INITIAL_CAPACITY];
+    private String[] managers = new String[INITIAL_CAPACITY];
+    private double[] salary = new double[INITIAL_CAPACITY];
+    // Per employee: window index << 32 | offset of the first and of the last name
+    private long[] nameAt = new long[2 * INITIAL_CAPACITY];
+    private int[] nameLength = new int[2 * INITIAL_CAPACITY];
+
+    @Override
+    public void accept(ByteBuffer buffer, int[] fieldStart, int[] fieldEnd, double rowSalary) {
+        if (buffer != currentWindow) {
+            // Rows arrive window by window, so a new buffer is always the next window
+            currentWindow = buffer;
+            windows.add(buffer);
+        }
+
+        long window = (long) (windows.size() - 1) << 32;
+        String id = decode(window | fieldStart[0], fieldEnd[0] - fieldStart[0]);
+        int index = idIndex.getOrAdd(id);
+        if (index == salary.length) {
+            grow();
+        }
+        ids[index] = id;
+        managers[index] = fieldStart[4] == fieldEnd[4]
+            ? null : managerIds.intern(buffer, fieldStart[4], fieldEnd[4]);
+        salary[index] = rowSalary;
+        nameAt[2 * index] = window | fieldStart[1];
+        nameLength[2 * index] = fieldEnd[1] - fieldStart[1];
+        nameAt[2 * index + 1] = window | fieldStart[2];
+        nameLength[2 * index + 1] = fieldEnd[2] - fieldStart[2];
+    }
+
+    /**
+     * Builds the analyzer over the rows received so far.
+     */
+    OrganizationalAnalyzer build() {
+        int n = idIndex.size();
+        ids = Arrays.copyOf(ids, n);
+        managers = Arrays.copyOf(managers, n);
+        nameAt = Arrays.copyOf(nameAt, 2 * n);
+        nameLength = Arrays.copyOf(nameLength, 2 * n);
+        return new OrganizationalAnalyzer(new OrgHierarchy(idIndex, this, Arrays.copyOf(salary, n)));
+    }
+
+    @Override
+    public Employee getEmployee(int index) {
+        return new Employee(ids[index], name(2 * index), name(2 * index + 1), salary[index], managers[index]);
+    }
+
+    @Override
+    public String getId(int index) {
+        return ids[index];
+    }
+
+    @Override
+    public String getManagerId(int index) {
+        return managers[index];
+    }
+
+    private String name(int field) {
+        return decode(nameAt[field], nameLength[field]);
+    }
+
+    private String decode(long at, int length) {
+        byte[] bytes = new byte[length];
+        windows.get((int) (at >>> 32)).get((int) at, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private void grow() {
+        int capacity = salary.length * 2;
+        ids = Arrays.copyOf(ids, capacity);
+        managers = Arrays.copyOf(managers, capacity);
+        salary = Arrays.copyOf(salary, capacity);
+        nameAt = Arrays.copyOf(nameAt, 2 * capacity);
+        nameLength = Arrays.copyOf(nameLength, 2 * capacity);
+    }
+}
@@ -0,0 +1,244 @@
+package com.company.analyzer.service;
+
+import com.company.analyzer.model.Employee;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+/**
+ * Changes between two versions of an organization, e.g. consecutive monthly exports.
+ *
+ * Employees are joined by ID through the hash index of the older organization.
+ * The join runs in two passes: the first, parallel for large organizations, only
+ * compares index columns and records which kinds of change each employee has; the
+ * second materializes just the changed employees and streams their changes in
+ * order. An employee whose salary, manager, direct report aggregates and reporting
+ * line length are all unchanged cannot have gained or lost an issue, so its issues
+ * are not evaluated at all.
+ *
+ * Changes are ordered by the newer organization's index, then employees who left
+ * in the older organization's order. Per employee the order is that of {@link Kind}.
+ */
+public final class OrgDiff {
+
+    private static final int PARALLEL_THRESHOLD = 10_000;
+
+    // Issue bits, shifted into place for new and resolved issues
+    private static final int UNDERPAID = 1;
+    private static final int OVERPAID = 2;
+    private static final int LONG_REPORTING_LINE = 4;
+
+    private static final int HIRED = 1;
+    private static final int LEFT = 1 << 1;
+    private static final int MOVED = 1 << 2;
+    private static final int SALARY_CHANGED = 1 << 3;
+    private static final int NEW_SHIFT = 4;
+    private static final int RESOLVED_SHIFT = 7;
+
+    private OrgDiff() {
+    }
+
+    /**
+     * Returns all changes from {@code before} to {@code after}.
+     */
+    public static List<Change> diff(OrganizationalAnalyzer before, OrganizationalAnalyzer after) {
+        List<Change> changes = new ArrayList<>();
+        diff(before, after, changes::add);
+        return changes;
+    }
+
+    /**
+     * Streams all changes from {@code before} to {@code after} to the sink.
+     */
+    public static void diff(OrganizationalAnalyzer before, OrganizationalAnalyzer after,
+                            Consumer<? super Change> sink) {
+        OrgHierarchy oldOrg = before.getHierarchy();
+        OrgHierarchy newOrg = after.getHierarchy();
+        IdIndex oldIds = oldOrg.idIndex();
+        int[] oldLengths = oldOrg.reportingLineLengths();
+        int[] newLengths = newOrg.reportingLineLengths();
+
+        int[] match = new int[newOrg.size()];
+        boolean[] kept = new boolean[oldOrg.size()];
+        short[] flags = new short[newOrg.size()];
+        IntStream indexes = IntStream.range(0, newOrg.size());
+        if (newOrg.size() >= PARALLEL_THRESHOLD) {
+            indexes = indexes.parallel();
+        }
+        indexes.forEach(j -> {
+            int i = oldIds.indexOf(newOrg.getId(j));
+            match[j] = i;
+            if (i < 0) {
+                flags[j] = (short) (HIRED | issues(after, newLengths, j) << NEW_SHIFT);
+                return;
+            }
+            kept[i] = true;
+            flags[j] = (short) compare(before, oldLengths, i, after, newLengths, j);
+        });
+
+        for (int j = 0; j < newOrg.size(); j++) {
+            if (flags[j] != 0) {
+                int i = match[j];
+                emit(sink, flags[j], before, oldLengths, i, i < 0 ? null : oldOrg.getEmployee(i),
+                     after, newLengths, j, newOrg.getEmployee(j));
+            }
+        }
+        for (int i = 0; i < oldOrg.size(); i++) {
+            if (!kept[i]) {
+                int leftFlags = LEFT | issues(before, oldLengths, i) << RESOLVED_SHIFT;
+                emit(sink, leftFlags, before, oldLengths, i, oldOrg.getEmployee(i), after, newLengths, -1, null);
+            }
+        }
+    }
+
+    private static int compare(OrganizationalAnalyzer before, int[] oldLengths, int i,
+                               OrganizationalAnalyzer after, int[] newLengths, int j) {
+        OrgHierarchy oldOrg = before.getHierarchy();
+        OrgHierarchy newOrg = after.getHierarchy();
+        int result = 0;
+        if (!Objects.equals(oldOrg.getManagerId(i), newOrg.getManagerId(j))) {
+            result |= MOVED;
+        }
+        if (Double.compare(oldOrg.salary[i], newOrg.salary[j]) != 0) {
+            result |= SALARY_CHANGED;
+        }
+        boolean sameIssueInputs = result == 0
+            && oldOrg.getDirectReportCount(i) == newOrg.getDirectReportCount(j)
+            && Double.compare(oldOrg.directReportSalaryTotal[i], newOrg.directReportSalaryTotal[j]) == 0
+            && oldLengths[i] == newLengths[j];
+        if (!sameIssueInputs) {
+            int oldIssues = issues(before, oldLengths, i);
+            int newIssues = issues(after, newLengths, j);
+            result |= (newIssues & ~oldIssues) << NEW_SHIFT | (oldIssues & ~newIssues) << RESOLVED_SHIFT;
+        }
+        return result;
+    }
+
+    private static int issues(OrganizationalAnalyzer analyzer, int[] lengths, int index) {
+        OrgHierarchy hierarchy = analyzer.getHierarchy();
+        int result = 0;
+        if (hierarchy.getDirectReportCount(index) > 0) {
+            if (analyzer.isUnderpaid(index)) {
+                result |= UNDERPAID;
+            } else if (analyzer.isOverpaid(index)) {
+                result |= OVERPAID;
+            }
+        }
+        if (hierarchy.parent[index] != OrgHierarchy.NO_PARENT
+                && lengths[index] > OrganizationalAnalyzer.MAX_REPORTING_LINE_LENGTH) {
+            result |= LONG_REPORTING_LINE;
+        }
+        return result;
+    }
+
+    private static void emit(Consumer<? super Change> sink, int flags,
+                             OrganizationalAnalyzer before, int[] oldLengths, int i, Employee oldEmployee,
+                             OrganizationalAnalyzer after, int[] newLengths, int j, Employee newEmployee) {
+        if ((flags & HIRED) != 0) {
+            sink.accept(new Change(Kind.HIRED, null, newEmployee, 0));
+        }
+        if ((flags & LEFT) != 0) {
+            sink.accept(new Change(Kind.LEFT, oldEmployee, null, 0));
+        }
+        if ((flags & MOVED) != 0) {
+            sink.accept(new Change(Kind.MOVED, oldEmployee, newEmployee, 0));
+        }
+        if ((flags & SALARY_CHANGED) != 0) {
+            sink.accept(new Change(Kind.SALARY_CHANGED, oldEmployee, newEmployee,
+                                   newEmployee.getSalary() - oldEmployee.getSalary()));
+        }
+
+        int newIssues = flags >> NEW_SHIFT & 7;
+        int resolvedIssues = flags >> RESOLVED_SHIFT & 7;
+        if ((newIssues & UNDERPAID) != 0) {
+            sink.accept(new Change(Kind.NEW_UNDERPAID, oldEmployee, newEmployee, after.shortfall(j)));
+        }
+        if ((resolvedIssues & UNDERPAID) != 0) {
+            sink.accept(new Change(Kind.RESOLVED_UNDERPAID, oldEmployee, newEmployee, before.shortfall(i)));
+        }
+        if ((newIssues & OVERPAID) != 0) {
+            sink.accept(new Change(Kind.NEW_OVERPAID, oldEmployee, newEmployee, after.excess(j)));
+        }
+        if ((resolvedIssues & OVERPAID) != 0) {
+            sink.accept(new Change(Kind.RESOLVED_OVERPAID, oldEmployee, newEmployee, before.excess(i)));
+        }
+        if ((newIssues & LONG_REPORTING_LINE) != 0) {
+            sink.accept(new Change(Kind.NEW_LONG_REPORTING_LINE, oldEmployee, newEmployee,
+                                   newLengths[j] - OrganizationalAnalyzer.MAX_REPORTING_LINE_LENGTH));
+        }
+        if ((resolvedIssues & LONG_REPORTING_LINE) != 0) {
+            sink.accept(new Change(Kind.RESOLVED_LONG_REPORTING_LINE, oldEmployee, newEmployee,
+                                   oldLengths[i] - OrganizationalAnalyzer.MAX_REPORTING_LINE_LENGTH));
+        }
+    }
+
+    /**
+     * Kinds of change, in the order they are reported for one employee.
+     */
+    public enum Kind {
+        HIRED,
+        LEFT,
+        MOVED,
+        SALARY_CHANGED,
+        NEW_UNDERPAID,
+        RESOLVED_UNDERPAID,
+        NEW_OVERPAID,
+        RESOLVED_OVERPAID,
+        NEW_LONG_REPORTING_LINE,
+        RESOLVED_LONG_REPORTING_LINE
+    }
+
+    /**
+     * One change of one employee.
+     */
+    public static class Change {
+        private final Kind kind;
+        private final Employee before;
+        private final Employee after;
+        private final double amount;
+
+        public Change(Kind kind, Employee before, Employee after, double amount) {
+            this.kind = kind;
+            this.before = before;
+            this.after = after;
+            this.amount = amount;
+        }
+
+        public Kind getKind() {
+            return kind;
+        }
+
+        /**
+         * Returns the employee in the older organization, or null if hired since.
+         */
+        public Employee getBefore() {
+            return before;
+        }
+
+        /**
+         * Returns the employee in the newer organization, or null if they left.
+         */
+        public Employee getAfter() {
+            return after;
+        }
+
+        /**
+         * Returns the newer version of the employee, or the older one if they left.
+         */
+        public Employee getEmployee() {
+            return after != null ? after : before;
+        }
+
+        /**
+         * Returns the salary difference for {@link Kind#SALARY_CHANGED}, the shortfall,
+         * excess or number of extra managers of the issue for the issue kinds, and 0 otherwise.
+         * A resolved issue carries its amount from the older organization.
+         */
+        public double getAmount() {
+            return amount;
+        }
+    }
+}
@@ -0,0 +1,350 @@
+package com.company.analyzer.service;
+
+import com.company.analyzer.model.Employee;
+
+/**
+ * Columnar, int-indexed view of the reporting hierarchy.
+ *
+ * Every distinct employee ID is mapped once to a dense index in first-seen order
+ * (a repeated ID replaces the earlier row). Managers are stored as a parent index
+ * per employee and direct reports in compressed sparse row form: the reports of
+ * employee {@code i} are {@code children[childOffsets[i] .. childOffsets[i + 1])},
+ * in index order.
+ */
+public final class OrgHierarchy {
+
+    /** Parent of the CEO and of employees whose manager ID is unknown. */
+    public static final int NO_PARENT = -1;
+
+    // Node states of the reporting line resolution
+    private static final byte UNVISITED = 0;
+    private static final byte ON_PATH = 1;
+    private static final byte RESOLVED = 2;
+    private static final byte ON_CYCLE = 3;
+
+    private final EmployeeTable employees;
+    private volatile IdIndex idIndex;
+    final int[] parent;
+    final double[] salary;
+    final int[] childOffsets;
+    final int[] children;
+    final double[] directReportSalaryTotal;
+
+    private volatile int[] reportingLineLengths;
+    private volatile SubtreeIndex subtreeIndex;
+    private volatile AncestorIndex ancestorIndex;
+    private volatile SalaryDistributionIndex salaryDistributionIndex;
+
+    /**
+     * @param idIndex index that assigned {@code employees[i]} the index {@code i}
+     * @param employees employees by index, exactly {@code idIndex.size()} of them
+     */
+    OrgHierarchy(IdIndex idIndex, Employee[] employees) {
+        this(idIndex, new ArrayEmployeeTable(employees), salaries(employees));
+    }
+
+    /**
+     * @param idIndex index that assigned employee {@code i} of the table the index {@code i}
+     * @param employees source of IDs, manager IDs and descriptive fields by index
+     * @param salary salaries by index, exactly {@code idIndex.size()} of them; kept as the column
+     */
+    OrgHierarchy(IdIndex idIndex, EmployeeTable employees, double[] salary) {
+        int n = salary.length;
+        this.idIndex = idIndex;
+        this.employees = employees;
+        this.parent = new int[n];
+        this.salary = salary;
+        this.childOffsets = new int[n + 1];
+        this.directReportSalaryTotal = new double[n];
+
+        // Direct report counts and salary totals are aggregated while resolving managers,
+        // the totals with compensated summation as the original stream averages had
+        double[] compensations = new double[n];
+        double[] simpleTotals = new double[n];
+        for (int i = 0; i < n; i++) {
+            String managerId = employees.getManagerId(i);
+            parent[i] = managerId == null || managerId.isEmpty() ? NO_PARENT : idIndex.indexOf(managerId);
+            if (parent[i] != NO_PARENT) {
+                childOffsets[parent[i] + 1]++;
+                CompensatedSum.add(directReportSalaryTotal, compensations, simpleTotals, parent[i], salary[i]);
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            directReportSalaryTotal[i] =
+                CompensatedSum.result(directReportSalaryTotal[i], compensations[i], simpleTotals[i]);
+        }
+        for (int i = 0; i < n; i++) {
+            childOffsets[i + 1] += childOffsets[i];
+        }
+
+        this.children = new int[childOffsets[n]];
+        int[] next = new int[n];
+        for (int i = 0; i < n; i++) {
+            int p = parent[i];
+            if (p != NO_PARENT) {
+                children[childOffsets[p] + next[p]++] = i;
+            }
+        }
+    }
+
+    private static double[] salaries(Employee[] employees) {
+        double[] salary = new double[employees.length];
+        for (int i = 0; i < employees.length; i++) {
+            salary[i] = employees[i].getSalary();
+        }
+        return salary;
+    }
+
+    /**
+     * Wraps precomputed columns, e.g. from a snapshot. The ID index is built
+     * from the table on the first lookup by ID.
+     */
+    OrgHierarchy(EmployeeTable employees, int[] parent, double[] salary, int[] childOffsets,
+                 int[] children, double[] directReportSalaryTotal) {
+        this.employees = employees;
+        this.parent = parent;
+        this.salary = salary;
+        this.childOffsets = childOffsets;
+        this.children = children;
+        this.directReportSalaryTotal = directReportSalaryTotal;
+    }
+
+    /**
+     * Returns the number of employees.
+     */
+    public int size() {
+        return parent.length;
+    }
+
+    /**
+     * Returns the index of the employee with the given ID, or -1 if there is none.
+     */
+    public int indexOf(String id) {
+        return idIndex().indexOf(id);
+    }
+
+    /**
+     * Returns the ID index, built from the table on first use. Once built it is
+     * only read, so it may be shared between threads.
+     */
+    IdIndex idIndex() {
+        IdIndex index = idIndex;
+        if (index == null) {
+            index = new IdIndex(size());
+            for (int i = 0; i < size(); i++) {
+                index.getOrAdd(employees.getId(i));
+            }
+            idIndex = index;
+        }
+        return index;
+    }
+
+    public Employee getEmployee(int index) {
+        return employees.getEmployee(index);
+    }
+
+    public String getId(int index) {
+        return employees.getId(index);
+    }
+
+    /**
+     * Returns the manager ID as given in the input, or null for the CEO, without
+     * materializing the employee.
+     */
+    public String getManagerId(int index) {
+        String managerId = employees.getManagerId(index);
+        return managerId == null || managerId.isEmpty() ? null : managerId;
+    }
+
+    public double getSalary(int index) {
+        return salary[index];
+    }
+
+    /**
+     * Returns the manager's index, or {@link #NO_PARENT} for the CEO and for
+     * employees whose manager is not in the organization.
+     */
+    public int getParent(int index) {
+        return parent[index];
+    }
+
+    public int getDirectReportCount(int index) {
+        return childOffsets[index + 1] - childOffsets[index];
+    }
+
+    /**
+     * Returns the sum of the salaries of an employee's direct reports.
+     */
+    public double getDirectReportSalaryTotal(int index) {
+        return directReportSalaryTotal[index];
+    }
+
+    /**
+     * Returns the index of the k-th direct report of an employee.
+     */
+    public int getDirectReport(int index, int k) {
+        return children[childOffsets[index] + k];
+    }
+
+    /**
+     * Returns the number of managers between an employee and the CEO.
+     * The walk stops at an unknown manager, and a manager reached twice through
+     * a reporting cycle is counted only once.
+     */
+    public int getReportingLineLength(int index) {
+        return reportingLineLengths()[index];
+    }
+
+    /**
+     * Returns the subtree aggregates, built on first use.
+     */
+    public SubtreeIndex getSubtreeIndex() {
+        SubtreeIndex index = subtreeIndex;
+        if (index == null) {
+            // Deterministic result, so a racing duplicate build is harmless
+            index = new SubtreeIndex(this);
+            subtreeIndex = index;
+        }
+        return index;
+    }
+
+    /**
+     * Returns the chain of command index, built on first use.
+     */
+    public AncestorIndex getAncestorIndex() {
+        AncestorIndex index = ancestorIndex;
+        if (index == null) {
+            index = new AncestorIndex(this, getSubtreeIndex());
+            ancestorIndex = index;
+        }
+        return index;
+    }
+
+    /**
+     * Returns the team and organization salary distributions, built on first use.
+     */
+    public SalaryDistributionIndex getSalaryDistributionIndex() {
+        SalaryDistributionIndex index = salaryDistributionIndex;
+        if (index == null) {
+            index = new SalaryDistributionIndex(this);
+            salaryDistributionIndex = index;
+        }
+        return index;
+    }
+
+    /**
+     * Reporting line lengths of all employees, computed on first use.
+     */
+    int[] reportingLineLengths() {
+        int[] lengths = reportingLineLengths;
+        if (lengths == null) {
+            // Deterministic result, so a racing duplicate computation is harmless
+            lengths = computeReportingLineLengths(parent);
+            reportingLineLengths = lengths;
+        }
+        return lengths;
+    }
+
+    /**
+     * Resolves every reporting line length in O(n) by memoizing upwards.
+     *
+     * Each unresolved employee starts a walk that marks nodes ON_PATH until it hits
+     * the top or an already resolved node; meeting an ON_PATH node means the walk
+     * closed a cycle. Lengths are then assigned while unwinding, each node from its
+     * parent's. Walking up from anyone inside a cycle of c managers visits each of
+     * them once, so those nodes get length c, and a node directly below the cycle
+     * gets the same c because its manager is already part of that count.
+     */
+    static int[] computeReportingLineLengths(int[] parent) {
+        return computeReportingLineLengths(parent, null);
+    }
+
+    /**
+     * Same as {@link #computeReportingLineLengths(int[])}, except that an employee
+     * without a parent gets {@code topLengths[i]} instead of 0, e.g. for part of an
+     * organization whose upper levels were resolved elsewhere.
+     */
+    static int[] computeReportingLineLengths(int[] parent, int[] topLengths) {
+        int n = parent.length;
+        int[] lengths = new int[n];
+        byte[] state = new byte[n];
+        int[] path = new int[n];
+        int[] pathPosition = new int[n];
+
+        for (int start = 0; start < n; start++) {
+            if (state[start] != UNVISITED) {
+                continue;
+            }
+
+            int top = 0;
+            int node = start;
+            while (node != NO_PARENT && state[node] == UNVISITED) {
+                state[node] = ON_PATH;
+                pathPosition[node] = top;
+                path[top++] = node;
+                node = parent[node];
+            }
+
+            if (node != NO_PARENT && state[node] == ON_PATH) {
+                int cycleStart = pathPosition[node];
+                int cycleLength = top - cycleStart;
+                for (int k = cycleStart; k < top; k++) {
+                    lengths[path[k]] = cycleLength;
+                    state[path[k]] = ON_CYCLE;
+                }
+                top = cycleStart;
+            }
+
+            for (int k = top - 1; k >= 0; k--) {
+                int employee = path[k];
+                int manager = parent[employee];
+                if (manager == NO_PARENT) {
+                    lengths[employee] = topLengths == null ? 0 : topLengths[employee];
+                } else {
+                    lengths[employee] = lengths[manager] + (state[manager] == ON_CYCLE ? 0 : 1);
+                }
+                state[employee] = RESOLVED;
+            }
+        }
+
+        return lengths;
+    }
+
+    /**
+     * Source of the descriptive employee data behind the index columns.
+     */
+    interface EmployeeTable {
+
+        Employee getEmployee(int index);
+
+        String getId(int index);
+
+        /**
+         * Returns the manager ID, or null (or empty) for the CEO.
+         */
+        String getManagerId(int index);
+    }
+
+    private static final class ArrayEmployeeTable implements EmployeeTable {
+        private final Employee[] employees;
+
+        private ArrayEmployeeTable(Employee[] employees) {
+            this.employees = employees;
+        }
+
+        @Override
+        public Employee getEmployee(int index) {
+            return employees[index];
+        }
+
+        @Override
+        public String getId(int index) {
+            return employees[index].getId();
+        }
+
+        @Override
+        public String getManagerId(int index) {
+            return employees[index].getManagerId();
+        }
+    }
+}
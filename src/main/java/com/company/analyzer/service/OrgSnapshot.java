@@ -0,0 +1,314 @@
+package com.company.analyzer.service;
+
+import com.company.analyzer.model.Employee;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Compact binary snapshot of an analyzed organization, for fast reloads.
+ *
+ * A snapshot stores the hierarchy columns exactly as {@link OrgHierarchy} uses
+ * them, so opening one copies a few primitive arrays out of a memory mapping and
+ * parses no text. The copy is linear in the number of employees and is where the
+ * columns are range-checked, so a corrupt file is rejected when it is opened
+ * rather than failing during analysis. Names and IDs stay in the mapped string
+ * table and are decoded only when an employee is actually looked at.
+ *
+ * Layout (little-endian):
+ * - header: magic "ORGS", version, employee count n, child count c,
+ *   string table size in bytes (long), reserved (long)
+ * - parent int[n], childOffsets int[n + 1], children int[c]
+ * - salary double[n], directReportSalaryTotal double[n]
+ * - string table: UTF-8 bytes of id, firstName, lastName and managerId
+ *   (empty for none) of each employee in index order
+ * - string offsets int[4n + 1] into the string table
+ *
+ * The string table is limited to 2 GB.
+ */
+public final class OrgSnapshot {
+
+    static final int MAGIC = 0x5347524F; // "ORGS" read as a little-endian int
+    static final int VERSION = 1;
+    private static final int HEADER_SIZE = 32;
+    private static final int FIELDS_PER_EMPLOYEE = 4;
+    private static final int WRITE_BUFFER_SIZE = 1 << 20;
+
+    private OrgSnapshot() {
+    }
+
+    /**
+     * Returns true if the file starts with the snapshot magic number.
+     */
+    public static boolean isSnapshot(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer magic = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+            while (magic.hasRemaining() && channel.read(magic) > 0) {
+                // Keep reading until the magic number is complete or the file ends
+            }
+            return !magic.hasRemaining() && magic.getInt(0) == MAGIC;
+        }
+    }
+
+    /**
+     * Writes the analyzer's organization to a snapshot file, replacing any existing file.
+     *
+     * @throws IOException if the file cannot be written
+     * @throws IllegalArgumentException if the names and IDs exceed 2 GB
+     */
+    public static void write(OrganizationalAnalyzer analyzer, Path path) throws IOException {
+        OrgHierarchy hierarchy = analyzer.getHierarchy();
+        int n = hierarchy.size();
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            SectionWriter out = new SectionWriter(channel);
+            out.skip(HEADER_SIZE); // Written last, once the string table size is known
+
+            out.putInts(hierarchy.parent);
+            out.putInts(hierarchy.childOffsets);
+            out.putInts(hierarchy.children);
+            out.putDoubles(hierarchy.salary);
+            out.putDoubles(hierarchy.directReportSalaryTotal);
+
+            int[] stringOffsets = new int[FIELDS_PER_EMPLOYEE * n + 1];
+            long stringTableSize = 0;
+            for (int i = 0; i < n; i++) {
+                Employee employee = hierarchy.getEmployee(i);
+                String managerId = employee.getManagerId();
+                String[] fields = {employee.getId(), employee.getFirstName(), employee.getLastName(),
+                                   managerId == null ? "" : managerId};
+                for (int f = 0; f < FIELDS_PER_EMPLOYEE; f++) {
+                    stringOffsets[FIELDS_PER_EMPLOYEE * i + f] = (int) stringTableSize;
+                    byte[] bytes = fields[f].getBytes(StandardCharsets.UTF_8);
+                    stringTableSize += bytes.length;
+                    if (stringTableSize > Integer.MAX_VALUE) {
+                        throw new IllegalArgumentException("Snapshot string table exceeds 2 GB");
+                    }
+                    out.putBytes(bytes);
+                }
+            }
+            stringOffsets[FIELDS_PER_EMPLOYEE * n] = (int) stringTableSize;
+            out.putInts(stringOffsets);
+            out.flush();
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC).putInt(VERSION).putInt(n).putInt(hierarchy.children.length)
+                  .putLong(stringTableSize).putLong(0L).flip();
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+        }
+    }
+
+    /**
+     * Opens a snapshot file for analysis.
+     *
+     * @throws IOException if the file cannot be read
+     * @throws IllegalArgumentException if the file is not a valid snapshot
+     */
+    public static OrganizationalAnalyzer open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (fileSize < HEADER_SIZE) {
+                throw new IllegalArgumentException("Not an organization snapshot: " + path);
+            }
+            ByteBuffer header = map(channel, 0, HEADER_SIZE);
+            if (header.getInt(0) != MAGIC) {
+                throw new IllegalArgumentException("Not an organization snapshot: " + path);
+            }
+            int version = header.getInt(4);
+            if (version != VERSION) {
+                throw new IllegalArgumentException("Unsupported snapshot version: " + version);
+            }
+            int n = header.getInt(8);
+            int childCount = header.getInt(12);
+            long stringTableSize = header.getLong(16);
+
+            long expectedSize = HEADER_SIZE + 4L * (n + (n + 1L) + childCount) + 8L * 2 * n
+                + stringTableSize + 4L * (FIELDS_PER_EMPLOYEE * (long) n + 1);
+            if (n < 0 || childCount < 0 || stringTableSize < 0 || fileSize != expectedSize) {
+                throw new IllegalArgumentException("Corrupt or truncated snapshot: " + path);
+            }
+
+            long position = HEADER_SIZE;
+            int[] parent = readInts(channel, position, n);
+            position += 4L * n;
+            int[] childOffsets = readInts(channel, position, n + 1);
+            position += 4L * (n + 1);
+            int[] children = readInts(channel, position, childCount);
+            position += 4L * childCount;
+            double[] salary = readDoubles(channel, position, n);
+            position += 8L * n;
+            double[] directReportSalaryTotal = readDoubles(channel, position, n);
+            position += 8L * n;
+            ByteBuffer strings = map(channel, position, stringTableSize);
+            position += stringTableSize;
+            IntBuffer stringOffsets = map(channel, position, 4L * (FIELDS_PER_EMPLOYEE * (long) n + 1))
+                .asIntBuffer();
+            if (!isValid(parent, childOffsets, children, stringOffsets, stringTableSize)) {
+                throw new IllegalArgumentException("Corrupt or truncated snapshot: " + path);
+            }
+
+            SnapshotEmployeeTable table = new SnapshotEmployeeTable(strings, stringOffsets, salary);
+            return new OrganizationalAnalyzer(new OrgHierarchy(
+                table, parent, salary, childOffsets, children, directReportSalaryTotal));
+        }
+    }
+
+    /**
+     * Checks that every index points into its column: parents are employees or
+     * {@link OrgHierarchy#NO_PARENT}, child ranges are ascending and cover the child
+     * column, each child lists its own manager, and string offsets ascend through
+     * the string table.
+     */
+    private static boolean isValid(int[] parent, int[] childOffsets, int[] children, IntBuffer stringOffsets,
+                                   long stringTableSize) {
+        int n = parent.length;
+        for (int p : parent) {
+            if (p < OrgHierarchy.NO_PARENT || p >= n) {
+                return false;
+            }
+        }
+        if (childOffsets[0] != 0 || childOffsets[n] != children.length) {
+            return false;
+        }
+        for (int manager = 0; manager < n; manager++) {
+            if (childOffsets[manager] > childOffsets[manager + 1]) {
+                return false;
+            }
+            for (int c = childOffsets[manager]; c < childOffsets[manager + 1]; c++) {
+                if (children[c] < 0 || children[c] >= n || parent[children[c]] != manager) {
+                    return false;
+                }
+            }
+        }
+        int previous = 0;
+        for (int i = 0; i < stringOffsets.limit(); i++) {
+            int offset = stringOffsets.get(i);
+            if (offset < previous) {
+                return false;
+            }
+            previous = offset;
+        }
+        return stringOffsets.get(0) == 0 && previous == stringTableSize;
+    }
+
+    private static ByteBuffer map(FileChannel channel, long position, long size) throws IOException {
+        return channel.map(FileChannel.MapMode.READ_ONLY, position, size).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static int[] readInts(FileChannel channel, long position, int count) throws IOException {
+        int[] values = new int[count];
+        map(channel, position, 4L * count).asIntBuffer().get(values);
+        return values;
+    }
+
+    private static double[] readDoubles(FileChannel channel, long position, int count) throws IOException {
+        double[] values = new double[count];
+        map(channel, position, 8L * count).asDoubleBuffer().get(values);
+        return values;
+    }
+
+    /**
+     * Decodes employees from the mapped string table on demand.
+     */
+    private static final class SnapshotEmployeeTable implements OrgHierarchy.EmployeeTable {
+        private final ByteBuffer strings;
+        private final IntBuffer offsets;
+        private final double[] salary;
+
+        private SnapshotEmployeeTable(ByteBuffer strings, IntBuffer offsets, double[] salary) {
+            this.strings = strings;
+            this.offsets = offsets;
+            this.salary = salary;
+        }
+
+        @Override
+        public Employee getEmployee(int index) {
+            int field = FIELDS_PER_EMPLOYEE * index;
+            String managerId = string(field + 3);
+            return new Employee(string(field), string(field + 1), string(field + 2), salary[index],
+                                managerId.isEmpty() ? null : managerId);
+        }
+
+        @Override
+        public String getId(int index) {
+            return string(FIELDS_PER_EMPLOYEE * index);
+        }
+
+        @Override
+        public String getManagerId(int index) {
+            String managerId = string(FIELDS_PER_EMPLOYEE * index + 3);
+            return managerId.isEmpty() ? null : managerId;
+        }
+
+        private String string(int field) {
+            int start = offsets.get(field);
+            byte[] bytes = new byte[offsets.get(field + 1) - start];
+            strings.get(start, bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Sequential little-endian writer with one reusable staging buffer.
+     */
+    private static final class SectionWriter {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        private long position;
+
+        private SectionWriter(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        void skip(int bytes) {
+            position += bytes;
+        }
+
+        void putInts(int[] values) throws IOException {
+            for (int value : values) {
+                ensure(4);
+                buffer.putInt(value);
+            }
+        }
+
+        void putDoubles(double[] values) throws IOException {
+            for (double value : values) {
+                ensure(8);
+                buffer.putDouble(value);
+            }
+        }
+
+        void putBytes(byte[] bytes) throws IOException {
+            int offset = 0;
+            while (offset < bytes.length) {
+                ensure(1);
+                int length = Math.min(bytes.length - offset, buffer.remaining());
+                buffer.put(bytes, offset, length);
+                offset += length;
+            }
+        }
+
+        private void ensure(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                flush();
+            }
+        }
+
+        void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer, position);
+            }
+            buffer.clear();
+        }
+    }
+}
@@ -3,71 +3,200 @@ package com.company.analyzer.service;
 import com.company.analyzer.model.Employee;
 
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
  * Service to analyze organizational structure and identify issues.
  */
 public class OrganizationalAnalyzer {
 
-    private static final double MIN_MANAGER_SALARY_RATIO = 1.20; // 20% more
-    private static final double MAX_MANAGER_SALARY_RATIO = 1.50; // 50% more
-    private static final int MAX_REPORTING_LINE_LENGTH = 4;
+    public static final double MIN_MANAGER_SALARY_RATIO = 1.20; // 20% more
+    public static final double MAX_MANAGER_SALARY_RATIO = 1.50; // 50% more
+    public static final int MAX_REPORTING_LINE_LENGTH = 4;
+    private static final int PARALLEL_THRESHOLD = 10_000; // Employees below which a parallel pass doesn't pay off
 
-    private final Map<String, Employee> employeeMap;
-    private final Map<String, List<Employee>> subordinatesMap;
+    private static final Comparator<ManagerSalaryIssue> BY_DIFFERENCE =
+        Comparator.comparingDouble(ManagerSalaryIssue::getDifference);
+    private static final Comparator<ReportingLineIssue> BY_EXCESS =
+        Comparator.comparingInt(ReportingLineIssue::getExcess);
+
+    private final OrgHierarchy hierarchy;
 
     public OrganizationalAnalyzer(List<Employee> employees) {
-        this.employeeMap = new HashMap<>();
-        this.subordinatesMap = new HashMap<>();
-        
-        // Build employee lookup map
-        for (Employee employee : employees) {
-            employeeMap.put(employee.getId(), employee);
-        }
-        
-        // Build subordinates map
-        for (Employee employee : employees) {
-            if (!employee.isCEO()) {
-                subordinatesMap.computeIfAbsent(employee.getManagerId(), k -> new ArrayList<>())
-                              .add(employee);
-            }
+        this(builder().addAll(employees));
+    }
+
+    private OrganizationalAnalyzer(Builder builder) {
+        this(new OrgHierarchy(builder.idIndex, Arrays.copyOf(builder.employees, builder.idIndex.size())));
+    }
+
+    OrganizationalAnalyzer(OrgHierarchy hierarchy) {
+        this.hierarchy = hierarchy;
+    }
+
+    /**
+     * Creates a builder that indexes employees one at a time, e.g. straight from
+     * {@link CsvReaderService#readEmployees(String, java.util.function.Consumer)},
+     * so no intermediate list of the whole organization is needed.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns the number of distinct employees in the organization.
+     */
+    public int getEmployeeCount() {
+        return hierarchy.size();
+    }
+
+    /**
+     * Returns the int-indexed hierarchy the analyses run on.
+     */
+    public OrgHierarchy getHierarchy() {
+        return hierarchy;
+    }
+
+    /**
+     * Returns the managers above an employee, from the direct manager to the top,
+     * e.g. to show the chain behind a {@link ReportingLineIssue}.
+     *
+     * @throws IllegalArgumentException if the employee does not exist
+     */
+    public List<Employee> getChainOfCommand(String employeeId) {
+        int index = hierarchy.indexOf(employeeId);
+        if (index < 0) {
+            throw new IllegalArgumentException("Unknown employee: " + employeeId);
         }
+        return hierarchy.getAncestorIndex().getChainOfCommand(index);
     }
 
     /**
      * Analyzes salary issues and returns a report.
+     * 
+     * Managers are classified from the direct report totals aggregated while the
+     * hierarchy was built; large organizations are classified in parallel. Issues
+     * are listed in the order the managers were first added.
      */
     public SalaryAnalysisReport analyzeSalaries() {
-        List<ManagerSalaryIssue> underpaidManagers = new ArrayList<>();
-        List<ManagerSalaryIssue> overpaidManagers = new ArrayList<>();
+        List<ManagerSalaryIssue> underpaidManagers = managers(true)
+            .filter(this::isUnderpaid)
+            .mapToObj(this::underpaidIssue)
+            .collect(Collectors.toList());
 
-        for (Map.Entry<String, List<Employee>> entry : subordinatesMap.entrySet()) {
-            String managerId = entry.getKey();
-            List<Employee> subordinates = entry.getValue();
-            
-            Employee manager = employeeMap.get(managerId);
-            if (manager == null) {
-                // Invalid data: manager ID not found, skip
-                continue;
+        List<ManagerSalaryIssue> overpaidManagers = managers(true)
+            .filter(this::isOverpaid)
+            .mapToObj(this::overpaidIssue)
+            .collect(Collectors.toList());
+
+        return new SalaryAnalysisReport(underpaidManagers, overpaidManagers);
+    }
+
+    /**
+     * Streams the managers earning less than they should to the sink as they are
+     * found, in the same order as {@link #analyzeSalaries()}, without collecting them.
+     */
+    public void findUnderpaidManagers(Consumer<? super ManagerSalaryIssue> sink) {
+        managers(false).filter(this::isUnderpaid).forEach(manager -> sink.accept(underpaidIssue(manager)));
+    }
+
+    /**
+     * Streams the managers earning more than they should to the sink as they are
+     * found, in the same order as {@link #analyzeSalaries()}, without collecting them.
+     */
+    public void findOverpaidManagers(Consumer<? super ManagerSalaryIssue> sink) {
+        managers(false).filter(this::isOverpaid).forEach(manager -> sink.accept(overpaidIssue(manager)));
+    }
+
+    /**
+     * Returns the k underpaid managers with the largest shortfall, largest first,
+     * keeping only k issues in memory. Ties keep the order of {@link #analyzeSalaries()}.
+     */
+    public List<ManagerSalaryIssue> findTopUnderpaidManagers(int k) {
+        TopK<ManagerSalaryIssue> top = new TopK<>(k, BY_DIFFERENCE);
+        findUnderpaidManagers(top);
+        return top.toList();
+    }
+
+    /**
+     * Returns the k overpaid managers with the largest excess, largest first,
+     * keeping only k issues in memory. Ties keep the order of {@link #analyzeSalaries()}.
+     */
+    public List<ManagerSalaryIssue> findTopOverpaidManagers(int k) {
+        TopK<ManagerSalaryIssue> top = new TopK<>(k, BY_DIFFERENCE);
+        findOverpaidManagers(top);
+        return top.toList();
+    }
+
+    /**
+     * Returns the underpaid managers whose shortfall exceeds the given amount, largest first.
+     */
+    public List<ManagerSalaryIssue> findUnderpaidManagersAbove(double minDifference) {
+        List<ManagerSalaryIssue> issues = new ArrayList<>();
+        findUnderpaidManagers(issue -> {
+            if (issue.getDifference() > minDifference) {
+                issues.add(issue);
             }
+        });
+        issues.sort(BY_DIFFERENCE.reversed());
+        return issues;
+    }
 
-            double avgSubordinateSalary = calculateAverageSalary(subordinates);
-            double minExpectedSalary = avgSubordinateSalary * MIN_MANAGER_SALARY_RATIO;
-            double maxExpectedSalary = avgSubordinateSalary * MAX_MANAGER_SALARY_RATIO;
-
-            if (manager.getSalary() < minExpectedSalary) {
-                double shortfall = minExpectedSalary - manager.getSalary();
-                underpaidManagers.add(new ManagerSalaryIssue(
-                    manager, avgSubordinateSalary, shortfall));
-            } else if (manager.getSalary() > maxExpectedSalary) {
-                double excess = manager.getSalary() - maxExpectedSalary;
-                overpaidManagers.add(new ManagerSalaryIssue(
-                    manager, avgSubordinateSalary, excess));
+    /**
+     * Returns the overpaid managers whose excess exceeds the given amount, largest first.
+     */
+    public List<ManagerSalaryIssue> findOverpaidManagersAbove(double minDifference) {
+        List<ManagerSalaryIssue> issues = new ArrayList<>();
+        findOverpaidManagers(issue -> {
+            if (issue.getDifference() > minDifference) {
+                issues.add(issue);
             }
+        });
+        issues.sort(BY_DIFFERENCE.reversed());
+        return issues;
+    }
+
+    /**
+     * Indexes of all employees with at least one direct report, in index order.
+     */
+    private IntStream managers(boolean allowParallel) {
+        IntStream indexes = IntStream.range(0, hierarchy.size());
+        if (allowParallel && hierarchy.size() >= PARALLEL_THRESHOLD) {
+            indexes = indexes.parallel();
         }
+        return indexes.filter(index -> hierarchy.getDirectReportCount(index) > 0);
+    }
 
-        return new SalaryAnalysisReport(underpaidManagers, overpaidManagers);
+    boolean isUnderpaid(int manager) {
+        return hierarchy.salary[manager] < averageSubordinateSalary(manager) * MIN_MANAGER_SALARY_RATIO;
+    }
+
+    boolean isOverpaid(int manager) {
+        return hierarchy.salary[manager] > averageSubordinateSalary(manager) * MAX_MANAGER_SALARY_RATIO;
+    }
+
+    private ManagerSalaryIssue underpaidIssue(int manager) {
+        return new ManagerSalaryIssue(hierarchy.getEmployee(manager), averageSubordinateSalary(manager),
+                                      shortfall(manager));
+    }
+
+    private ManagerSalaryIssue overpaidIssue(int manager) {
+        return new ManagerSalaryIssue(hierarchy.getEmployee(manager), averageSubordinateSalary(manager),
+                                      excess(manager));
+    }
+
+    double shortfall(int manager) {
+        return averageSubordinateSalary(manager) * MIN_MANAGER_SALARY_RATIO - hierarchy.salary[manager];
+    }
+
+    double excess(int manager) {
+        return hierarchy.salary[manager] - averageSubordinateSalary(manager) * MAX_MANAGER_SALARY_RATIO;
+    }
+
+    private double averageSubordinateSalary(int manager) {
+        return hierarchy.directReportSalaryTotal[manager] / hierarchy.getDirectReportCount(manager);
     }
 
     /**
@@ -75,56 +204,112 @@ public class OrganizationalAnalyzer {
      */
     public ReportingLineAnalysisReport analyzeReportingLines() {
         List<ReportingLineIssue> issues = new ArrayList<>();
+        findReportingLineIssues(issues::add);
+        return new ReportingLineAnalysisReport(issues);
+    }
+
+    /**
+     * Streams employees with too long reporting lines to the sink as they are found,
+     * in the same order as {@link #analyzeReportingLines()}, without collecting them.
+     */
+    public void findReportingLineIssues(Consumer<? super ReportingLineIssue> sink) {
+        int[] reportingLineLengths = hierarchy.reportingLineLengths();
 
-        for (Employee employee : employeeMap.values()) {
-            if (employee.isCEO()) {
+        for (int employee = 0; employee < hierarchy.size(); employee++) {
+            if (hierarchy.parent[employee] == OrgHierarchy.NO_PARENT) {
                 continue; // CEO has no reporting line
             }
 
-            int reportingLineLength = calculateReportingLineLength(employee);
+            int reportingLineLength = reportingLineLengths[employee];
             
             if (reportingLineLength > MAX_REPORTING_LINE_LENGTH) {
                 int excess = reportingLineLength - MAX_REPORTING_LINE_LENGTH;
-                issues.add(new ReportingLineIssue(employee, reportingLineLength, excess));
+                sink.accept(new ReportingLineIssue(
+                    hierarchy.getEmployee(employee), reportingLineLength, excess));
             }
         }
+    }
 
-        return new ReportingLineAnalysisReport(issues);
+    /**
+     * Returns the k employees whose reporting lines are furthest over the limit,
+     * largest excess first, keeping only k issues in memory.
+     */
+    public List<ReportingLineIssue> findTopReportingLineIssues(int k) {
+        TopK<ReportingLineIssue> top = new TopK<>(k, BY_EXCESS);
+        findReportingLineIssues(top);
+        return top.toList();
     }
 
     /**
-     * Calculates the number of managers between an employee and the CEO.
+     * Returns the employees whose reporting lines exceed the limit by more than
+     * the given number of managers, largest excess first.
      */
-    private int calculateReportingLineLength(Employee employee) {
-        int length = 0;
-        String currentManagerId = employee.getManagerId();
-        Set<String> visited = new HashSet<>(); // To detect cycles
-        
-        while (currentManagerId != null && !currentManagerId.isEmpty()) {
-            if (visited.contains(currentManagerId)) {
-                // Cycle detected - treat as invalid structure
-                break;
+    public List<ReportingLineIssue> findReportingLineIssuesAbove(int minExcess) {
+        List<ReportingLineIssue> issues = new ArrayList<>();
+        findReportingLineIssues(issue -> {
+            if (issue.getExcess() > minExcess) {
+                issues.add(issue);
             }
-            visited.add(currentManagerId);
-            
-            Employee manager = employeeMap.get(currentManagerId);
-            if (manager == null) {
-                // Invalid manager reference
-                break;
+        });
+        issues.sort(BY_EXCESS.reversed());
+        return issues;
+    }
+
+    /**
+     * Incrementally builds the lookup indexes of an {@link OrganizationalAnalyzer}.
+     * A builder must not be used after {@link #build()}.
+     */
+    public static class Builder implements Consumer<Employee> {
+        private final IdIndex idIndex = new IdIndex();
+        private Employee[] employees = new Employee[16];
+
+        private Builder() {
+        }
+
+        /**
+         * Indexes one employee. Managers may be added before or after their subordinates;
+         * a repeated ID replaces the earlier employee.
+         */
+        @Override
+        public void accept(Employee employee) {
+            add(employee);
+        }
+
+        /**
+         * Indexes one employee and returns its index; an index below {@link #size()}
+         * before the call means the ID was already present.
+         */
+        int add(Employee employee) {
+            int index = idIndex.getOrAdd(employee.getId());
+            if (index == employees.length) {
+                employees = Arrays.copyOf(employees, employees.length * 2);
             }
-            
-            length++;
-            currentManagerId = manager.getManagerId();
+            employees[index] = employee;
+            return index;
+        }
+
+        /**
+         * Returns the number of distinct IDs added so far.
+         */
+        int size() {
+            return idIndex.size();
         }
-        
-        return length;
-    }
 
-    private double calculateAverageSalary(List<Employee> employees) {
-        return employees.stream()
-                       .mapToDouble(Employee::getSalary)
-                       .average()
-                       .orElse(0.0);
+        /**
+         * Returns the employee currently held at an index below {@link #size()}.
+         */
+        Employee get(int index) {
+            return employees[index];
+        }
+
+        public Builder addAll(Collection<Employee> employees) {
+            employees.forEach(this);
+            return this;
+        }
+
+        public OrganizationalAnalyzer build() {
+            return new OrganizationalAnalyzer(this);
+        }
     }
 
     /**
@@ -155,7 +340,8 @@ public class OrganizationalAnalyzer {
     }
 
     /**
-     * Report of salary analysis results.
+     * Report of salary analysis results. Both lists follow the order in which
+     * the managers were first added to the analyzer.
      */
     public static class SalaryAnalysisReport {
         private final List<ManagerSalaryIssue> underpaidManagers;
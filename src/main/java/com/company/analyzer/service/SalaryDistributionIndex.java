@@ -0,0 +1,108 @@
+package com.company.analyzer.service;
+
+/**
+ * Salary distributions of each manager's direct reports and of the whole
+ * organization as {@link KllSketch}es, for medians, percentiles and histograms
+ * where the averages behind the salary checks hide outliers.
+ *
+ * Team sketches are filled from the direct report lists in one pass; a team of up
+ * to about {@link KllSketch#DEFAULT_K} employees is summarized exactly. The
+ * organization's sketch is merged up the hierarchy in reverse tour order of
+ * {@link SubtreeIndex}: each employee's subtree sketch is merged into the manager's
+ * and then dropped, so only the sketches of subtrees still being collected are held.
+ *
+ * Salaries that are NaN or infinite, which the CSV parser accepts, are left out
+ * of every sketch, so counts can be lower than the headcount.
+ *
+ * The sketches are shared and must not be updated by callers.
+ */
+public final class SalaryDistributionIndex {
+
+    private final OrgHierarchy hierarchy;
+    private final KllSketch[] teams;
+    private final KllSketch organization;
+    private final KllSketch noTeam;
+
+    SalaryDistributionIndex(OrgHierarchy hierarchy) {
+        int n = hierarchy.size();
+        this.hierarchy = hierarchy;
+        this.teams = new KllSketch[n];
+        this.noTeam = new KllSketch();
+
+        for (int manager = 0; manager < n; manager++) {
+            int from = hierarchy.childOffsets[manager];
+            int to = hierarchy.childOffsets[manager + 1];
+            if (from < to) {
+                KllSketch team = new KllSketch();
+                for (int c = from; c < to; c++) {
+                    add(team, hierarchy.salary[hierarchy.children[c]]);
+                }
+                teams[manager] = team;
+            }
+        }
+
+        SubtreeIndex tree = hierarchy.getSubtreeIndex();
+        KllSketch[] subtrees = new KllSketch[n];
+        KllSketch total = new KllSketch();
+        for (int k = n - 1; k >= 0; k--) {
+            int employee = tree.order[k];
+            KllSketch subtree = subtrees[employee];
+            subtrees[employee] = null;
+            int manager = tree.treeParent(employee);
+            KllSketch target = manager == OrgHierarchy.NO_PARENT ? total : subtrees[manager];
+            if (subtree == null) {
+                // Nobody below, so the salary goes straight into the manager's sketch
+                if (target == null) {
+                    target = new KllSketch();
+                    subtrees[manager] = target;
+                }
+                add(target, hierarchy.salary[employee]);
+            } else {
+                add(subtree, hierarchy.salary[employee]);
+                if (target == null) {
+                    subtrees[manager] = subtree;
+                } else {
+                    target.merge(subtree);
+                }
+            }
+        }
+        this.organization = total;
+    }
+
+    /**
+     * Returns the salary distribution of the whole organization.
+     */
+    public KllSketch getOrganizationDistribution() {
+        return organization;
+    }
+
+    /**
+     * Returns the salary distribution of an employee's direct reports, empty for
+     * employees without reports.
+     */
+    public KllSketch getTeamDistribution(int index) {
+        KllSketch team = teams[index];
+        return team == null ? noTeam : team;
+    }
+
+    /**
+     * Builds the salary distribution of everyone below an employee, directly or
+     * not, in one pass over the subtree with the memory of one sketch.
+     */
+    public KllSketch summarizeSubtree(int index) {
+        SubtreeIndex tree = hierarchy.getSubtreeIndex();
+        int from = tree.position[index] + 1;
+        int to = from + tree.getHeadcount(index);
+        KllSketch subtree = new KllSketch();
+        for (int k = from; k < to; k++) {
+            add(subtree, hierarchy.salary[tree.order[k]]);
+        }
+        return subtree;
+    }
+
+    private static void add(KllSketch sketch, double salary) {
+        if (Double.isFinite(salary)) {
+            sketch.update(salary);
+        }
+    }
+}
@@ -0,0 +1,270 @@
+package com.company.analyzer.service;
+
+import com.company.analyzer.model.Employee;
+
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Loads an organization split over several CSV files, e.g. one per business unit.
+ *
+ * Shards are parsed in parallel, one task per file, each streamed into a builder
+ * of its own, and merged into a single {@link OrganizationalAnalyzer} in file name
+ * order, so managers resolve across files exactly as if the files had been
+ * concatenated. A shard's builder is dropped as soon as it is merged. An ID found
+ * more than once, in one file or in several, is reported as a {@link DuplicateId},
+ * and the later row replaces the earlier one.
+ */
+public class ShardedCsvLoader {
+
+    private final CsvReaderService csvReader;
+    private final ForkJoinPool pool;
+
+    public ShardedCsvLoader() {
+        this(new CsvReaderService(), ForkJoinPool.commonPool());
+    }
+
+    public ShardedCsvLoader(CsvReaderService csvReader, ForkJoinPool pool) {
+        this.csvReader = csvReader;
+        this.pool = pool;
+    }
+
+    /**
+     * Returns true if the argument names a directory or contains glob characters.
+     */
+    public static boolean isSharded(String pathOrGlob) {
+        return containsGlob(pathOrGlob) || Files.isDirectory(Path.of(pathOrGlob));
+    }
+
+    /**
+     * Resolves a directory (all *.csv and *.csv.gz files directly in it), a glob such as
+     * {@code exports/unit-*.csv} or a single file to a sorted list of shards.
+     *
+     * @throws IOException if a directory cannot be listed
+     * @throws IllegalArgumentException if nothing matches
+     */
+    public static List<Path> resolveShards(String pathOrGlob) throws IOException {
+        return resolveShards(pathOrGlob, Path.of(""));
+    }
+
+    /**
+     * Same as {@link #resolveShards(String)}, with a relative glob resolved against
+     * the given directory instead of the working directory.
+     */
+    static List<Path> resolveShards(String pathOrGlob, Path workingDirectory) throws IOException {
+        List<Path> shards;
+        if (containsGlob(pathOrGlob)) {
+            // The glob is matched relative to its leading directory, and only as deep as it reaches
+            int separator = globBaseEnd(pathOrGlob);
+            String pattern = pathOrGlob.substring(separator + 1);
+            Path base = workingDirectory.resolve(
+                separator < 0 ? "" : separator == 0 ? "/" : pathOrGlob.substring(0, separator));
+            int depth = pattern.contains("**") ? Integer.MAX_VALUE : pattern.split("/", -1).length;
+            PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + pattern);
+            try (Stream<Path> files = Files.walk(base, depth)) {
+                shards = files.filter(Files::isRegularFile)
+                              .filter(file -> matcher.matches(base.relativize(file)))
+                              .collect(Collectors.toList());
+            }
+        } else if (Files.isDirectory(workingDirectory.resolve(pathOrGlob))) {
+            try (Stream<Path> files = Files.list(workingDirectory.resolve(pathOrGlob))) {
+                shards = files.filter(Files::isRegularFile)
+                              .filter(file -> file.getFileName().toString().endsWith(".csv")
+                                  || file.getFileName().toString().endsWith(".csv.gz"))
+                              .collect(Collectors.toList());
+            }
+        } else {
+            shards = new ArrayList<>(List.of(workingDirectory.resolve(pathOrGlob)));
+        }
+
+        if (shards.isEmpty()) {
+            throw new IllegalArgumentException("No CSV files match " + pathOrGlob);
+        }
+        shards.sort(null);
+        return shards;
+    }
+
+    /**
+     * Resolves and loads the shards named by a directory, glob or file.
+     *
+     * @throws IOException if a file cannot be read
+     * @throws IllegalArgumentException if a file is invalid, with its name
+     */
+    public Result load(String pathOrGlob) throws IOException {
+        return load(resolveShards(pathOrGlob));
+    }
+
+    /**
+     * Loads the shards, merged in the given order.
+     *
+     * @throws IOException if a file cannot be read
+     * @throws IllegalArgumentException if a file is invalid, with its name
+     */
+    public Result load(List<Path> shards) throws IOException {
+        List<ForkJoinTask<ShardResult>> tasks = new ArrayList<>(shards.size());
+        for (Path shard : shards) {
+            tasks.add(pool.submit(() -> readShard(shard)));
+        }
+
+        OrganizationalAnalyzer.Builder builder = OrganizationalAnalyzer.builder();
+        int[] shardOf = new int[16];
+        List<DuplicateId> duplicates = new ArrayList<>();
+        long rows = 0;
+        for (int s = 0; s < tasks.size(); s++) {
+            ShardResult result = tasks.get(s).join();
+            tasks.set(s, null);
+            if (result.ioFailure != null) {
+                throw result.ioFailure;
+            }
+            if (result.formatFailure != null) {
+                throw new IllegalArgumentException(shards.get(s) + ": " + result.formatFailure.getMessage(),
+                                                   result.formatFailure);
+            }
+
+            // Merging is a hash insert per employee; parsing the shards is what runs in parallel
+            rows += result.rows;
+            for (String id : result.repeatedIds) {
+                duplicates.add(new DuplicateId(id, shards.get(s), shards.get(s)));
+            }
+            for (int i = 0; i < result.employees.size(); i++) {
+                Employee employee = result.employees.get(i);
+                int known = builder.size();
+                int index = builder.add(employee);
+                if (index < known) {
+                    if (shardOf[index] != s) {
+                        duplicates.add(new DuplicateId(employee.getId(), shards.get(shardOf[index]), shards.get(s)));
+                    }
+                } else if (index == shardOf.length) {
+                    shardOf = Arrays.copyOf(shardOf, shardOf.length * 2);
+                }
+                shardOf[index] = s;
+            }
+        }
+        return new Result(builder.build(), shards.size(), rows, duplicates);
+    }
+
+    /**
+     * Failures are returned rather than thrown so that they reach the merging
+     * thread unchanged; ForkJoinTask.join may wrap exceptions from other threads.
+     */
+    private ShardResult readShard(Path shard) {
+        ShardResult result = new ShardResult();
+        OrganizationalAnalyzer.Builder employees = OrganizationalAnalyzer.builder();
+        try {
+            csvReader.readEmployeesMapped(shard.toString(), employee -> {
+                int known = employees.size();
+                if (employees.add(employee) < known) {
+                    result.repeatedIds.add(employee.getId());
+                }
+                result.rows++;
+            }, new SymbolTable());
+            result.employees = employees;
+        } catch (IOException e) {
+            result.ioFailure = e;
+        } catch (IllegalArgumentException e) {
+            result.formatFailure = e;
+        }
+        return result;
+    }
+
+    private static boolean containsGlob(String path) {
+        return path.chars().anyMatch(c -> c == '*' || c == '?' || c == '[' || c == '{');
+    }
+
+    /**
+     * Returns the index of the last separator before the first glob character,
+     * which ends the glob's leading directory, or -1 if there is none.
+     */
+    private static int globBaseEnd(String glob) {
+        int firstGlob = 0;
+        while (!containsGlob(String.valueOf(glob.charAt(firstGlob)))) {
+            firstGlob++;
+        }
+        return glob.lastIndexOf('/', firstGlob);
+    }
+
+    private static final class ShardResult {
+        private OrganizationalAnalyzer.Builder employees;
+        private long rows;
+        private final List<String> repeatedIds = new ArrayList<>();
+        private IOException ioFailure;
+        private IllegalArgumentException formatFailure;
+    }
+
+    /**
+     * Outcome of loading a set of shards.
+     */
+    public static class Result {
+        private final OrganizationalAnalyzer analyzer;
+        private final int shardCount;
+        private final long rowCount;
+        private final List<DuplicateId> duplicates;
+
+        public Result(OrganizationalAnalyzer analyzer, int shardCount, long rowCount, List<DuplicateId> duplicates) {
+            this.analyzer = analyzer;
+            this.shardCount = shardCount;
+            this.rowCount = rowCount;
+            this.duplicates = duplicates;
+        }
+
+        public OrganizationalAnalyzer getAnalyzer() {
+            return analyzer;
+        }
+
+        public int getShardCount() {
+            return shardCount;
+        }
+
+        /**
+         * Returns the number of rows read from all shards, duplicates included.
+         */
+        public long getRowCount() {
+            return rowCount;
+        }
+
+        /**
+         * Returns the IDs that appear more than once, in merge order.
+         */
+        public List<DuplicateId> getDuplicates() {
+            return duplicates;
+        }
+    }
+
+    /**
+     * An employee ID present in two shards, or twice in one shard when both files are
+     * the same. The row from {@code duplicateFile} is kept.
+     */
+    public static class DuplicateId {
+        private final String id;
+        private final Path firstFile;
+        private final Path duplicateFile;
+
+        public DuplicateId(String id, Path firstFile, Path duplicateFile) {
+            this.id = id;
+            this.firstFile = firstFile;
+            this.duplicateFile = duplicateFile;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public Path getFirstFile() {
+            return firstFile;
+        }
+
+        public Path getDuplicateFile() {
+            return duplicateFile;
+        }
+    }
+}
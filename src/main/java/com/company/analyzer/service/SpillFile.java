@@ -0,0 +1,181 @@
+package com.company.analyzer.service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.NoSuchElementException;
+
+/**
+ * Temporary file holding a sequence of records, written once and then read
+ * sequentially any number of times.
+ *
+ * Each record is preceded by a marker byte, and a zero byte ends the sequence.
+ */
+final class SpillFile<T> {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final Path path;
+    private final Codec<T> codec;
+    private long count;
+    private long bytes;
+
+    private SpillFile(Path path, Codec<T> codec) {
+        this.path = path;
+        this.codec = codec;
+    }
+
+    /**
+     * Creates an empty spill file in the directory and opens it for writing.
+     */
+    static <T> Writer<T> create(Path directory, String prefix, Codec<T> codec) throws IOException {
+        return new Writer<>(new SpillFile<>(Files.createTempFile(directory, prefix, ".spill"), codec));
+    }
+
+    /**
+     * Returns the number of records written.
+     */
+    long size() {
+        return count;
+    }
+
+    /**
+     * Returns the file size in bytes.
+     */
+    long bytes() {
+        return bytes;
+    }
+
+    /**
+     * Opens a cursor positioned before the first record.
+     */
+    Cursor<T> open() throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), BUFFER_SIZE));
+        return new Cursor<>() {
+            private T next = read();
+
+            private T read() throws IOException {
+                return in.readBoolean() ? codec.read(in) : null;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public T peek() {
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+                return next;
+            }
+
+            @Override
+            public T next() throws IOException {
+                T current = peek();
+                next = read();
+                return current;
+            }
+
+            @Override
+            public void close() throws IOException {
+                in.close();
+            }
+        };
+    }
+
+    void delete() throws IOException {
+        Files.deleteIfExists(path);
+    }
+
+    /**
+     * Writes a string as an int length and its UTF-8 bytes; unlike
+     * {@link DataOutput#writeUTF}, any length fits.
+     */
+    static void writeString(DataOutput out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Reads a string written by {@link #writeString}.
+     */
+    static String readString(DataInput in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Serializes one record type.
+     */
+    interface Codec<T> {
+
+        void write(DataOutput out, T value) throws IOException;
+
+        T read(DataInput in) throws IOException;
+    }
+
+    /**
+     * Sequential reader over records in order.
+     */
+    interface Cursor<T> extends Closeable {
+
+        boolean hasNext();
+
+        /**
+         * Returns the next record without consuming it.
+         */
+        T peek();
+
+        T next() throws IOException;
+    }
+
+    /**
+     * Appends records; closing it finishes the file.
+     */
+    static final class Writer<T> implements Closeable {
+        private final SpillFile<T> file;
+        private final DataOutputStream out;
+        private boolean closed;
+
+        private Writer(SpillFile<T> file) throws IOException {
+            this.file = file;
+            this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file.path), BUFFER_SIZE));
+        }
+
+        void write(T value) throws IOException {
+            out.writeBoolean(true);
+            file.codec.write(out, value);
+            file.count++;
+        }
+
+        /**
+         * Finishes the file and returns it for reading.
+         */
+        SpillFile<T> finish() throws IOException {
+            close();
+            return file;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!closed) {
+                closed = true;
+                out.writeBoolean(false);
+                out.close();
+                file.bytes = Files.size(file.path);
+            }
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.company.analyzer.service;
+
+import com.company.analyzer.model.Employee;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Headcount, payroll and depth of everyone below each employee, answered in O(1).
+ *
+ * Built in two linear passes over {@link OrgHierarchy}: a preorder (Euler) tour
+ * that lays every subtree out as one contiguous range, then a reverse pass that
+ * folds each employee's totals into their manager's. Subtree ranges also answer
+ * "does X report to Y, directly or not" with two comparisons.
+ *
+ * Employees with an unknown manager start their own subtree. A reporting cycle
+ * is cut above one of its members, which then heads the subtree containing the
+ * rest of the cycle and everyone below it.
+ */
+public final class SubtreeIndex {
+
+    private final OrgHierarchy hierarchy;
+    final int[] order;
+    final int[] position;
+    private final int[] headcount;
+    private final double[] payroll;
+    private final int[] maxDepth;
+
+    SubtreeIndex(OrgHierarchy hierarchy) {
+        int n = hierarchy.size();
+        int[] parent = hierarchy.parent;
+        this.hierarchy = hierarchy;
+        this.order = new int[n];
+        this.position = new int[n];
+        this.headcount = new int[n];
+        this.payroll = new double[n];
+        this.maxDepth = new int[n];
+
+        boolean[] visited = new boolean[n];
+        int[] stack = new int[n];
+        int visitedCount = 0;
+        for (int i = 0; i < n; i++) {
+            if (parent[i] == OrgHierarchy.NO_PARENT) {
+                visitedCount = tour(hierarchy, i, visited, stack, visitedCount);
+            }
+        }
+        // Whatever is left hangs off a reporting cycle
+        for (int i = 0; i < n && visitedCount < n; i++) {
+            if (!visited[i]) {
+                visitedCount = tour(hierarchy, cycleMember(parent, i), visited, stack, visitedCount);
+            }
+        }
+
+        // Children come after their manager in the tour, so one reverse pass aggregates everything
+        for (int k = n - 1; k >= 0; k--) {
+            int employee = order[k];
+            int manager = treeParent(employee);
+            if (manager != OrgHierarchy.NO_PARENT) {
+                headcount[manager] += headcount[employee] + 1;
+                payroll[manager] += payroll[employee] + hierarchy.salary[employee];
+                maxDepth[manager] = Math.max(maxDepth[manager], maxDepth[employee] + 1);
+            }
+        }
+    }
+
+    /**
+     * Appends the subtree of {@code root} to the preorder tour, skipping anyone already toured.
+     */
+    private int tour(OrgHierarchy hierarchy, int root, boolean[] visited, int[] stack, int next) {
+        int top = 0;
+        stack[top++] = root;
+        visited[root] = true;
+        while (top > 0) {
+            int employee = stack[--top];
+            position[employee] = next;
+            order[next++] = employee;
+            // Pushed in reverse so that reports are toured in index order
+            for (int c = hierarchy.childOffsets[employee + 1] - 1; c >= hierarchy.childOffsets[employee]; c--) {
+                int report = hierarchy.children[c];
+                if (!visited[report]) {
+                    visited[report] = true;
+                    stack[top++] = report;
+                }
+            }
+        }
+        return next;
+    }
+
+    /**
+     * Walks up from an employee that is not below any top-level employee until a manager repeats.
+     */
+    private static int cycleMember(int[] parent, int start) {
+        int slow = start;
+        int fast = start;
+        do {
+            slow = parent[slow];
+            fast = parent[parent[fast]];
+        } while (slow != fast);
+        return slow;
+    }
+
+    /**
+     * Returns the employee's manager in the toured tree: the real manager, except
+     * {@link OrgHierarchy#NO_PARENT} for employees that head a subtree.
+     */
+    int treeParent(int index) {
+        int manager = hierarchy.parent[index];
+        return manager != OrgHierarchy.NO_PARENT && position[manager] < position[index]
+            ? manager : OrgHierarchy.NO_PARENT;
+    }
+
+    /**
+     * Returns the number of employees below the given one, directly or indirectly.
+     */
+    public int getHeadcount(int index) {
+        return headcount[index];
+    }
+
+    /**
+     * Returns the total salary of everyone below the given employee, excluding them.
+     */
+    public double getPayroll(int index) {
+        return payroll[index];
+    }
+
+    /**
+     * Returns the average salary of everyone below the given employee, or 0 if nobody is.
+     */
+    public double getAverageSalary(int index) {
+        return headcount[index] == 0 ? 0 : payroll[index] / headcount[index];
+    }
+
+    /**
+     * Returns how many levels the deepest reporting chain below the employee has, 0 for no reports.
+     */
+    public int getMaxDepth(int index) {
+        return maxDepth[index];
+    }
+
+    /**
+     * Returns true if the employee reports to the manager, directly or indirectly.
+     */
+    public boolean isBelow(int employee, int manager) {
+        return position[employee] > position[manager]
+            && position[employee] <= position[manager] + headcount[manager];
+    }
+
+    /**
+     * Returns the indexes of everyone below the given employee, in tour order.
+     */
+    public int[] getSubordinates(int index) {
+        int from = position[index] + 1;
+        int[] subordinates = new int[headcount[index]];
+        System.arraycopy(order, from, subordinates, 0, subordinates.length);
+        return subordinates;
+    }
+
+    /**
+     * Returns the subtree totals of every employee with at least one report, in index order.
+     */
+    public List<SubtreeSummary> summarizeManagers() {
+        List<SubtreeSummary> summaries = new ArrayList<>();
+        for (int i = 0; i < order.length; i++) {
+            if (headcount[i] > 0) {
+                summaries.add(new SubtreeSummary(hierarchy.getEmployee(i), headcount[i], payroll[i],
+                                                 getAverageSalary(i), maxDepth[i]));
+            }
+        }
+        return summaries;
+    }
+
+    /**
+     * Totals for everyone below one manager.
+     */
+    public static class SubtreeSummary {
+        private final Employee manager;
+        private final int headcount;
+        private final double payroll;
+        private final double averageSalary;
+        private final int maxDepth;
+
+        public SubtreeSummary(Employee manager, int headcount, double payroll, double averageSalary, int maxDepth) {
+            this.manager = manager;
+            this.headcount = headcount;
+            this.payroll = payroll;
+            this.averageSalary = averageSalary;
+            this.maxDepth = maxDepth;
+        }
+
+        public Employee getManager() {
+            return manager;
+        }
+
+        public int getHeadcount() {
+            return headcount;
+        }
+
+        public double getPayroll() {
+            return payroll;
+        }
+
+        public double getAverageSalary() {
+            return averageSalary;
+        }
+
+        public int getMaxDepth() {
+            return maxDepth;
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.company.analyzer.service;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Deduplicates the repetitive String fields of one load: first names, last
+ * names and manager IDs.
+ *
+ * Equal values come back as the same String instance. Lookups by UTF-8 byte
+ * range compare the raw bytes against the stored key, so a repeated value is
+ * found without decoding or allocating anything. Unlike {@link String#intern()},
+ * the table belongs to the load that created it and becomes garbage with it.
+ * Once {@code maxSize} distinct values are held, further new values are
+ * returned as-is instead of growing the table.
+ *
+ * Not thread-safe; parallel loads use one table per worker.
+ */
+public final class SymbolTable {
+
+    /** Distinct values kept by default before the table stops growing. */
+    public static final int DEFAULT_MAX_SIZE = 1 << 20;
+
+    private static final int MIN_CAPACITY = 64;
+    // Rough HotSpot sizes with compressed oops, for the savings estimate
+    private static final int STRING_SIZE = 24;
+    private static final int ARRAY_HEADER_SIZE = 16;
+
+    private final int maxSize;
+    private byte[][] keys;
+    private String[] values;
+    private int[] hashes;
+    private int size;
+    private long lookups;
+    private long hits;
+    private long savedBytes;
+
+    public SymbolTable() {
+        this(MIN_CAPACITY, DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * @param expectedSize number of distinct values to hold without rehashing
+     * @param maxSize number of distinct values after which the table stops growing
+     */
+    public SymbolTable(int expectedSize, int maxSize) {
+        int capacity = MIN_CAPACITY;
+        while (capacity < Math.min(expectedSize, maxSize) * 2) {
+            capacity <<= 1;
+        }
+        this.maxSize = maxSize;
+        this.keys = new byte[capacity][];
+        this.values = new String[capacity];
+        this.hashes = new int[capacity];
+    }
+
+    /**
+     * Returns the shared instance for the UTF-8 bytes {@code buffer[start, end)}.
+     */
+    public String intern(ByteBuffer buffer, int start, int end) {
+        lookups++;
+        int length = end - start;
+        int hash = 1;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + buffer.get(i);
+        }
+
+        int mask = keys.length - 1;
+        int slot = mix(hash) & mask;
+        for (byte[] key = keys[slot]; key != null; key = keys[slot]) {
+            if (hashes[slot] == hash && key.length == length && equals(key, buffer, start)) {
+                hit(values[slot]);
+                return values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        byte[] key = new byte[length];
+        buffer.get(start, key);
+        String value = new String(key, StandardCharsets.UTF_8);
+        add(slot, key, hash, value);
+        return value;
+    }
+
+    /**
+     * Returns the shared instance equal to {@code value}.
+     */
+    public String intern(String value) {
+        lookups++;
+        // Same hash as the byte form for ASCII; other values may just miss across the two forms
+        int hash = 1;
+        for (int i = 0; i < value.length(); i++) {
+            hash = 31 * hash + (byte) value.charAt(i);
+        }
+
+        int mask = keys.length - 1;
+        int slot = mix(hash) & mask;
+        for (byte[] existing = keys[slot]; existing != null; existing = keys[slot]) {
+            if (hashes[slot] == hash && values[slot].equals(value)) {
+                hit(values[slot]);
+                return values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        add(slot, value.getBytes(StandardCharsets.UTF_8), hash, value);
+        return value;
+    }
+
+    /**
+     * Returns the number of distinct values held.
+     */
+    public int size() {
+        return size;
+    }
+
+    public long getLookups() {
+        return lookups;
+    }
+
+    /**
+     * Returns how many lookups returned an existing instance.
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * Returns an estimate of the heap the hits saved: one String and its
+     * Latin-1 byte array per hit, at typical 64-bit HotSpot object sizes.
+     */
+    public long getSavedBytes() {
+        return savedBytes;
+    }
+
+    private void hit(String value) {
+        hits++;
+        savedBytes += STRING_SIZE + ((ARRAY_HEADER_SIZE + value.length() + 7) & ~7);
+    }
+
+    private void add(int slot, byte[] key, int hash, String value) {
+        if (size >= maxSize) {
+            return;
+        }
+        keys[slot] = key;
+        hashes[slot] = hash;
+        values[slot] = value;
+        size++;
+        if (size * 2 > keys.length) {
+            rehash(keys.length * 2);
+        }
+    }
+
+    private void rehash(int capacity) {
+        byte[][] oldKeys = keys;
+        String[] oldValues = values;
+        int[] oldHashes = hashes;
+        keys = new byte[capacity][];
+        values = new String[capacity];
+        hashes = new int[capacity];
+        int mask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != null) {
+                int slot = mix(oldHashes[i]) & mask;
+                while (keys[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                hashes[slot] = oldHashes[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private static boolean equals(byte[] key, ByteBuffer buffer, int start) {
+        for (int i = 0; i < key.length; i++) {
+            if (key[i] != buffer.get(start + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int mix(int hash) {
+        int h = hash * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,79 @@
+package com.company.analyzer.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.Consumer;
+
+/**
+ * Sink that keeps only the K greatest items it is fed, in O(K) memory.
+ *
+ * Items sit in a min-heap of size K, so each accepted item costs O(log K) and
+ * anything not greater than the current K-th item is dropped in O(1). Equal
+ * items keep the order in which they arrived.
+ *
+ * Not thread-safe.
+ *
+ * @param <T> item type
+ */
+public final class TopK<T> implements Consumer<T> {
+
+    private final int k;
+    private final Comparator<? super T> order;
+    private final PriorityQueue<Entry<T>> heap;
+    private long arrivals;
+
+    /**
+     * @param k maximum number of items to keep
+     * @param order ordering in which greater items are kept
+     */
+    public TopK(int k, Comparator<? super T> order) {
+        if (k < 0) {
+            throw new IllegalArgumentException("K cannot be negative");
+        }
+        this.k = k;
+        this.order = order;
+        // Head is the item to drop first: the smallest, and among equals the latest
+        this.heap = new PriorityQueue<>(Math.max(1, Math.min(k, 1024)), this::compareEntries);
+    }
+
+    @Override
+    public void accept(T item) {
+        Entry<T> entry = new Entry<>(item, arrivals++);
+        if (heap.size() < k) {
+            heap.add(entry);
+        } else if (k > 0 && compareEntries(entry, heap.peek()) > 0) {
+            heap.poll();
+            heap.add(entry);
+        }
+    }
+
+    /**
+     * Returns the kept items, greatest first.
+     */
+    public List<T> toList() {
+        List<Entry<T>> entries = new ArrayList<>(heap);
+        entries.sort((a, b) -> compareEntries(b, a));
+        List<T> items = new ArrayList<>(entries.size());
+        for (Entry<T> entry : entries) {
+            items.add(entry.item);
+        }
+        return items;
+    }
+
+    private int compareEntries(Entry<T> a, Entry<T> b) {
+        int result = order.compare(a.item, b.item);
+        return result != 0 ? result : Long.compare(b.arrival, a.arrival);
+    }
+
+    private static final class Entry<T> {
+        private final T item;
+        private final long arrival;
+
+        private Entry(T item, long arrival) {
+            this.item = item;
+            this.arrival = arrival;
+        }
+    }
+}
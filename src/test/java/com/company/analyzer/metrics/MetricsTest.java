@@ -0,0 +1,94 @@
+package com.company.analyzer.metrics;
+
+import com.company.analyzer.metrics.Metrics.PhaseTiming;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MetricsTest {
+
+    @Test
+    @SuppressWarnings("try")
+    void testPhasesAndCounters() {
+        Metrics metrics = new Metrics(true);
+        try (Metrics.Phase phase = metrics.phase("parse")) {
+            long[] garbage = new long[100_000];
+            assertEquals(0, garbage[0]);
+        }
+        metrics.count(Metrics.ROWS, 3);
+        metrics.count(Metrics.ROWS, 2);
+        metrics.count(Metrics.ISSUES, 1);
+
+        List<PhaseTiming> phases = metrics.getPhases();
+        assertEquals(1, phases.size());
+        assertEquals("parse", phases.get(0).getName());
+        assertTrue(phases.get(0).getNanos() > 0);
+        assertTrue(phases.get(0).getAllocatedBytes() >= 800_000);
+        assertEquals(5L, metrics.getCounters().get(Metrics.ROWS));
+
+        String json = metrics.toJson();
+        assertTrue(json.startsWith("{\"phases\":[{\"name\":\"parse\",\"nanos\":"));
+        assertTrue(json.endsWith(",\"counters\":{\"rows\":5,\"issues\":1}}"));
+        assertTrue(metrics.toSummary().contains("MB allocated"));
+    }
+
+    @Test
+    void testAllocationsNotSampledByDefault() {
+        Metrics metrics = new Metrics(false);
+        metrics.phase("index-build").close();
+
+        assertEquals(-1, metrics.getPhases().get(0).getAllocatedBytes());
+        assertFalse(metrics.toJson().contains("allocatedBytes"));
+        assertFalse(metrics.toSummary().contains("allocated"));
+    }
+
+    @Test
+    void testTotalCountsOverlappingPhasesOnce() {
+        List<PhaseTiming> timings = List.of(
+            new PhaseTiming("parse", 100, 50, -1),
+            new PhaseTiming("parse", 120, 60, -1),
+            new PhaseTiming("diff", 200, 10, -1));
+
+        assertEquals(80 + 10, Metrics.wallNanos(timings));
+    }
+
+    @Test
+    @SuppressWarnings("try")
+    void testAllocationsOfOtherThreadsAreNotCounted() throws InterruptedException {
+        Metrics metrics = new Metrics(true);
+        Thread other = new Thread(() -> {
+            long[] garbage = new long[1_000_000];
+            assertEquals(0, garbage[0]);
+        });
+        try (Metrics.Phase phase = metrics.phase("parse")) {
+            other.start();
+            other.join();
+        }
+
+        assertTrue(metrics.getPhases().get(0).getAllocatedBytes() < 8_000_000);
+    }
+
+    @Test
+    void testPhasesAreFlightRecorderEvents(@TempDir Path dir) throws IOException {
+        Path dump = dir.resolve("phases.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("com.company.analyzer.Phase");
+            recording.start();
+            new Metrics(false).phase("salary-analysis").close();
+            recording.stop();
+            recording.dump(dump);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(dump);
+        assertEquals(1, events.size());
+        assertEquals("salary-analysis", events.get(0).getString("phase"));
+    }
+}
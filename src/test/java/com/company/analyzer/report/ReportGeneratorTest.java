@@ -0,0 +1,56 @@
+package com.company.analyzer.report;
+
+import com.company.analyzer.model.Employee;
+import com.company.analyzer.service.OrganizationalAnalyzer;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReportGeneratorTest {
+
+    private static final OrganizationalAnalyzer ANALYZER = new OrganizationalAnalyzer(Arrays.asList(
+        new Employee("1", "CEO", "Top", 100000, null),
+        new Employee("2", "Mgr", "Under,paid", 45000, "1"),
+        new Employee("3", "Dev", "\"Quoted\"", 50000, "2"),
+        new Employee("4", "Mgr", "Level3", 70000, "3"),
+        new Employee("5", "Mgr", "Level4", 60000, "4"),
+        new Employee("6", "Dev", "Bottom", 40000, "5")
+    ));
+
+    @Test
+    void testCsvFormat() throws IOException {
+        StringWriter out = new StringWriter();
+
+        int issues = ReportGenerator.writeReport(ANALYZER, ReportFormat.CSV.createWriter(out));
+
+        String[] lines = out.toString().split(System.lineSeparator());
+        assertEquals(issues + 1, lines.length);
+        assertEquals(CsvReportWriter.HEADER, lines[0]);
+        assertEquals("UNDERPAID,2,Mgr,\"Under,paid\",45000.0,50000.0,60000.0,15000.0,,", lines[1]);
+        assertEquals("REPORTING_LINE,6,Dev,Bottom,40000.0,,,,5,1", lines[lines.length - 1]);
+    }
+
+    @Test
+    void testJsonLinesFormat() throws IOException {
+        StringWriter out = new StringWriter();
+
+        int issues = ReportGenerator.writeReport(ANALYZER, ReportFormat.fromName("JsonL").createWriter(out));
+
+        String[] lines = out.toString().split(System.lineSeparator());
+        assertEquals(issues + 1, lines.length);
+        assertTrue(lines[1].startsWith("{\"type\":\"UNDERPAID\",\"id\":\"3\",\"firstName\":\"Dev\","
+            + "\"lastName\":\"\\\"Quoted\\\"\""));
+        assertEquals("{\"type\":\"REPORTING_LINE\",\"id\":\"6\",\"firstName\":\"Dev\",\"lastName\":\"Bottom\","
+            + "\"reportingLineLength\":5,\"maxReportingLineLength\":4,\"excess\":1}", lines[lines.length - 2]);
+        assertEquals("{\"type\":\"SUMMARY\",\"employees\":6,\"issues\":" + issues + "}", lines[lines.length - 1]);
+    }
+
+    @Test
+    void testUnknownFormat() {
+        assertThrows(IllegalArgumentException.class, () -> ReportFormat.fromName("xml"));
+    }
+}
@@ -0,0 +1,85 @@
+package com.company.analyzer.report;
+
+import com.company.analyzer.model.Employee;
+import com.company.analyzer.service.OrganizationalAnalyzer;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TextReportWriterTest {
+
+    private static final String N = System.lineSeparator();
+
+    @Test
+    void testReportMatchesOriginalConsoleOutput() throws IOException {
+        OrganizationalAnalyzer analyzer = new OrganizationalAnalyzer(Arrays.asList(
+            new Employee("123", "Joe", "Doe", 60000, null),
+            new Employee("124", "Martin", "Chekov", 45000, "123"),
+            new Employee("125", "Bob", "Ronstad", 47000, "123"),
+            new Employee("300", "Alice", "Hasacat", 50000, "124"),
+            new Employee("305", "Brett", "Hardleaf", 34000, "300")
+        ));
+        StringWriter out = new StringWriter();
+
+        int issues = ReportGenerator.writeReport(analyzer, new TextReportWriter(out));
+
+        assertEquals(1, issues);
+        assertEquals("Analyzing organizational structure for 5 employees..." + N
+            + N
+            + "MANAGERS EARNING LESS THAN THEY SHOULD:" + N
+            + "========================================" + N
+            + "Martin Chekov (ID: 124)" + N
+            + "  Current salary: $45000.00" + N
+            + "  Avg subordinate salary: $50000.00" + N
+            + "  Should earn at least: $60000.00" + N
+            + "  Short by: $15000.00" + N
+            + N
+            + "No managers earning more than they should." + N
+            + N
+            + "No employees with reporting lines too long." + N
+            + N
+            + N
+            + "Analysis complete. Please review the issues above." + N, out.toString());
+    }
+
+    @Test
+    void testReportingLineSection() throws IOException {
+        OrganizationalAnalyzer analyzer = new OrganizationalAnalyzer(Arrays.asList(
+            new Employee("1", "CEO", "Top", 100000, null),
+            new Employee("2", "Mgr", "Level1", 90000, "1"),
+            new Employee("3", "Mgr", "Level2", 80000, "2"),
+            new Employee("4", "Mgr", "Level3", 70000, "3"),
+            new Employee("5", "Mgr", "Level4", 60000, "4"),
+            new Employee("6", "Dev", "Bottom", 50000, "5")
+        ));
+        StringWriter out = new StringWriter();
+
+        ReportGenerator.writeReport(analyzer, new TextReportWriter(out));
+
+        assertTrue(out.toString().contains("EMPLOYEES WITH REPORTING LINES TOO LONG:" + N
+            + "=========================================" + N
+            + "Dev Bottom (ID: 6)" + N
+            + "  Reporting line length: 5 managers" + N
+            + "  Maximum allowed: 4 managers" + N
+            + "  Too long by: 1 manager(s)" + N));
+    }
+
+    @Test
+    void testAmountsRoundLikeStringFormat() {
+        Random random = new Random(5);
+        double[] fixed = {0, 0.005, 0.015, 0.125, 1.005, 2.675, 45000.5, 1e7, 123456789.995, 1e20, 0.1 + 0.2,
+            Double.NaN, Double.POSITIVE_INFINITY};
+        for (double value : fixed) {
+            assertEquals(String.format("%.2f", value), AbstractReportWriter.appendAmount(new StringBuilder(), value).toString());
+        }
+        for (int i = 0; i < 100_000; i++) {
+            double value = random.nextInt(200_000) * (random.nextBoolean() ? 1 : random.nextDouble() * 1.7);
+            assertEquals(String.format("%.2f", value), AbstractReportWriter.appendAmount(new StringBuilder(), value).toString());
+        }
+    }
+}
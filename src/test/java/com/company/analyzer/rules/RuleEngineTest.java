@@ -0,0 +1,117 @@
+package com.company.analyzer.rules;
+
+import com.company.analyzer.model.Employee;
+import com.company.analyzer.service.OrganizationalAnalyzer;
+import com.company.analyzer.service.OrganizationalAnalyzer.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.Random;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RuleEngineTest {
+
+    private static final OrganizationalAnalyzer ANALYZER = new OrganizationalAnalyzer(Arrays.asList(
+        new Employee("1", "CEO", "Top", 100000, null),
+        new Employee("2", "Mgr", "Underpaid", 45000, "1"),
+        new Employee("3", "Dev", "A", 50000, "2"),
+        new Employee("4", "Mgr", "Level3", 70000, "3"),
+        new Employee("5", "Mgr", "Level4", 60000, "4"),
+        new Employee("6", "Dev", "Bottom", 40000, "5"),
+        new Employee("7", "Dev", "B", 50000, "1"),
+        new Employee("8", "Dev", "C", 50000, "1")
+    ));
+
+    @Test
+    void testDefaultRulesMatchAnalyzer() {
+        Random random = new Random(15);
+        List<Employee> employees = new ArrayList<>();
+        employees.add(new Employee("0", "CEO", "Boss", 500000, null));
+        for (int i = 1; i < 5_000; i++) {
+            employees.add(new Employee(String.valueOf(i), "E", "Mp", 20000 + random.nextInt(100000),
+                                       String.valueOf(random.nextInt(i))));
+        }
+        OrganizationalAnalyzer analyzer = new OrganizationalAnalyzer(employees);
+
+        List<String> expected = new ArrayList<>();
+        SalaryAnalysisReport salaries = analyzer.analyzeSalaries();
+        salaries.getUnderpaidManagers().forEach(issue -> expected.add(ManagerSalaryRule.NAME + ":" + issue.getManager().getId()));
+        salaries.getOverpaidManagers().forEach(issue -> expected.add(ManagerSalaryRule.NAME + ":" + issue.getManager().getId()));
+        analyzer.findReportingLineIssues(issue -> expected.add(ReportingLineRule.NAME + ":" + issue.getEmployee().getId()));
+
+        List<String> actual = new ArrayList<>();
+        RuleEngine.fromProperties(new Properties()).evaluate(analyzer,
+            violation -> actual.add(violation.getRule() + ":" + violation.getEmployee().getId()));
+
+        assertFalse(expected.isEmpty());
+        assertEquals(expected.stream().sorted().toList(), actual.stream().sorted().toList());
+    }
+
+    @Test
+    void testConfiguredThresholds() {
+        Properties config = new Properties();
+        config.setProperty("rules", "reporting-line, span-of-control, pay-band");
+        config.setProperty("reporting-line.maxLength", "3");
+        config.setProperty("span-of-control.max", "2");
+        config.setProperty("pay-band.levels", "2");
+        config.setProperty("pay-band.level.1.min", "48000");
+
+        List<RuleViolation> violations = RuleEngine.fromProperties(config).evaluate(ANALYZER);
+
+        List<String> found = new ArrayList<>();
+        violations.forEach(v -> found.add(v.getRule() + ":" + v.getEmployee().getId()));
+        assertEquals(List.of("span-of-control:1", "pay-band:2", "reporting-line:5", "reporting-line:6"), found);
+        assertEquals(1, violations.get(0).getAmount());
+        assertEquals(3000, violations.get(1).getAmount());
+        assertEquals(2, violations.get(3).getAmount());
+    }
+
+    @Test
+    void testCustomRuleSharesTraversal() {
+        int[] visits = {0};
+        OrgRule counting = new OrgRule() {
+            @Override
+            public String getName() {
+                return "counting";
+            }
+
+            @Override
+            public void check(NodeContext node, Consumer<? super RuleViolation> violations) {
+                visits[0]++;
+                if (node.getManagerIndex() != -1 && node.getHierarchy().getSalary(node.getManagerIndex()) < node.getSalary()) {
+                    violations.accept(new RuleViolation(getName(), node.getEmployee(), "Earns more than manager", 0));
+                }
+            }
+        };
+
+        List<RuleViolation> violations = new RuleEngine(List.of(counting, new ReportingLineRule(4))).evaluate(ANALYZER);
+
+        assertEquals(8, visits[0]);
+        List<String> found = new ArrayList<>();
+        violations.forEach(v -> found.add(v.getRule() + ":" + v.getEmployee().getId()));
+        assertEquals(List.of("counting:3", "counting:4", "reporting-line:6"), found);
+    }
+
+    @Test
+    void testInvalidConfiguration() {
+        Properties unknown = new Properties();
+        unknown.setProperty("rules", "no-such-rule");
+        assertThrows(IllegalArgumentException.class, () -> RuleEngine.fromProperties(unknown));
+
+        Properties invalid = new Properties();
+        invalid.setProperty("manager-salary.minRatio", "abc");
+        assertThrows(IllegalArgumentException.class, () -> RuleEngine.fromProperties(invalid));
+
+        Properties negativeLevels = new Properties();
+        negativeLevels.setProperty("rules", "pay-band");
+        negativeLevels.setProperty("pay-band.levels", "-1");
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+            () -> RuleEngine.fromProperties(negativeLevels));
+        assertTrue(e.getMessage().contains("pay-band.levels"));
+    }
+}
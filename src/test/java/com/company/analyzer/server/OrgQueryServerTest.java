@@ -0,0 +1,168 @@
+package com.company.analyzer.server;
+
+import com.company.analyzer.model.Employee;
+import com.company.analyzer.service.OrganizationalAnalyzer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrgQueryServerTest {
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private OrgQueryServer server;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new OrgQueryServer(new OrganizationalAnalyzer(Arrays.asList(
+            new Employee("1", "CEO", "Top", 100000, null),
+            new Employee("2", "Mgr", "Underpaid", 45000, "1"),
+            new Employee("3", "Dev", "\"Quoted\"", 50000, "2"),
+            new Employee("4", "Mgr", "Level3", 70000, "3"),
+            new Employee("5", "Mgr", "Level4", 60000, "4"),
+            new Employee("6", "Dev", "Bottom", 40000, "5")
+        )));
+        server.start(0, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop();
+    }
+
+    @Test
+    void testSalaryIssues() throws Exception {
+        HttpResponse<String> response = get("/salary-issues");
+
+        assertEquals(200, response.statusCode());
+        String[] lines = response.body().split("\n");
+        assertTrue(lines[0].startsWith("{\"type\":\"UNDERPAID\",\"id\":\"2\""));
+        for (String line : lines) {
+            assertFalse(line.contains("REPORTING_LINE"));
+        }
+    }
+
+    @Test
+    void testReportingLineIssues() throws Exception {
+        HttpResponse<String> response = get("/reporting-line-issues");
+
+        assertEquals(200, response.statusCode());
+        assertEquals("{\"type\":\"REPORTING_LINE\",\"id\":\"6\",\"firstName\":\"Dev\",\"lastName\":\"Bottom\","
+            + "\"reportingLineLength\":5,\"maxReportingLineLength\":4,\"excess\":1}\n", response.body());
+    }
+
+    @Test
+    void testEmployeeLookup() throws Exception {
+        HttpResponse<String> response = get("/employees/3");
+
+        assertEquals(200, response.statusCode());
+        assertEquals("{\"id\":\"3\",\"firstName\":\"Dev\",\"lastName\":\"\\\"Quoted\\\"\",\"salary\":50000.0,"
+            + "\"managerId\":\"2\",\"reportingLineLength\":2,\"directReports\":1}\n", response.body());
+        assertTrue(get("/employees/1").body().contains("\"managerId\":null"));
+    }
+
+    @Test
+    void testSalaryDistributions() throws Exception {
+        HttpResponse<String> organization = get("/salary-distribution");
+
+        assertEquals(200, organization.statusCode());
+        assertTrue(organization.body().startsWith("{\"count\":6,\"exact\":true,\"rankError\":0.0,\"min\":40000.0,"
+            + "\"median\":50000.0,\"p90\":100000.0,\"max\":100000.0,"
+            + "\"histogram\":[{\"from\":40000.0,\"to\":46000.0,\"count\":2},"), organization.body());
+
+        assertEquals("{\"count\":1,\"exact\":true,\"rankError\":0.0,\"min\":45000.0,\"median\":45000.0,"
+            + "\"p90\":45000.0,\"max\":45000.0,\"histogram\":[{\"from\":45000.0,\"to\":45000.0,\"count\":1}]}\n",
+            get("/salary-distribution/1").body());
+        assertEquals("{\"count\":0}\n", get("/salary-distribution/6").body());
+    }
+
+    @Test
+    void testErrors() throws Exception {
+        assertEquals(404, get("/employees/999").statusCode());
+        assertEquals(404, get("/salary-distribution/999").statusCode());
+        assertEquals(404, get("/unknown").statusCode());
+
+        HttpResponse<String> post = client.send(HttpRequest.newBuilder(uri("/salary-issues"))
+            .POST(HttpRequest.BodyPublishers.noBody()).build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(405, post.statusCode());
+    }
+
+    @Test
+    void testIdsAreTakenFromDecodedPath() throws Exception {
+        server.stop();
+        server = new OrgQueryServer(new OrganizationalAnalyzer(Arrays.asList(
+            new Employee("1", "CEO", "Top", 100000, null),
+            new Employee("a+b c", "Dev", "Plus", 50000, "1")
+        )));
+        server.start(0, 1);
+
+        assertEquals(200, get("/employees/a+b%20c").statusCode());
+        assertEquals(200, get("/salary-distribution/1").statusCode());
+        assertEquals(404, get("/employees/a%20b%20c").statusCode());
+    }
+
+    @Test
+    void testNearlyEqualSalariesGetOneBucket() throws Exception {
+        double low = 50000;
+        double high = Math.nextUp(Math.nextUp(low));
+        server.stop();
+        server = new OrgQueryServer(new OrganizationalAnalyzer(Arrays.asList(
+            new Employee("1", "CEO", "Top", high, null),
+            new Employee("2", "Dev", "Low", low, "1")
+        )));
+        server.start(0, 1);
+
+        HttpResponse<String> response = get("/salary-distribution");
+
+        assertEquals(200, response.statusCode());
+        assertTrue(response.body().endsWith(",\"histogram\":[{\"from\":" + low + ",\"to\":" + high
+            + ",\"count\":2}]}\n"), response.body());
+    }
+
+    @Test
+    void testNonFiniteSalariesAreWrittenAsNull() throws Exception {
+        server.stop();
+        server = new OrgQueryServer(new OrganizationalAnalyzer(Arrays.asList(
+            new Employee("1", "CEO", "Top", Double.POSITIVE_INFINITY, null),
+            new Employee("2", "Dev", "Unknown", Double.NaN, "1")
+        )));
+        server.start(0, 1);
+
+        assertTrue(get("/employees/1").body().contains("\"salary\":null,"));
+        assertTrue(get("/employees/2").body().contains("\"salary\":null,"));
+        assertEquals("{\"count\":0}\n", get("/salary-distribution").body());
+    }
+
+    @Test
+    void testConcurrentQueries() {
+        List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            String path = i % 2 == 0 ? "/employees/" + (i % 6 + 1) : "/reporting-line-issues";
+            responses.add(client.sendAsync(HttpRequest.newBuilder(uri(path)).build(),
+                                           HttpResponse.BodyHandlers.ofString()));
+        }
+
+        for (CompletableFuture<HttpResponse<String>> response : responses) {
+            assertEquals(200, response.join().statusCode());
+        }
+    }
+
+    private HttpResponse<String> get(String path) throws IOException, InterruptedException {
+        return client.send(HttpRequest.newBuilder(uri(path)).build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + server.getPort() + path);
+    }
+}
@@ -0,0 +1,131 @@
+package com.company.analyzer.service;
+
+import com.company.analyzer.model.Employee;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AncestorIndexTest {
+
+    @Test
+    void testChainOfCommandForReportingLineIssue() {
+        OrganizationalAnalyzer analyzer = new OrganizationalAnalyzer(Arrays.asList(
+            new Employee("1", "CEO", "Top", 200000, null),
+            new Employee("2", "Mgr", "L1", 150000, "1"),
+            new Employee("3", "Mgr", "L2", 120000, "2"),
+            new Employee("4", "Mgr", "L3", 100000, "3"),
+            new Employee("5", "Mgr", "L4", 80000, "4"),
+            new Employee("6", "Dev", "Deep", 60000, "5")
+        ));
+
+        String id = analyzer.analyzeReportingLines().getIssues()
+            .get(0).getEmployee().getId();
+        List<Employee> chain = analyzer.getChainOfCommand(id);
+
+        assertEquals("6", id);
+        assertEquals(5, chain.size());
+        assertEquals("5", chain.get(0).getId());
+        assertEquals("1", chain.get(4).getId());
+        assertTrue(analyzer.getChainOfCommand("1").isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> analyzer.getChainOfCommand("999"));
+    }
+
+    @Test
+    void testQueriesMatchNaiveWalk() {
+        Random random = new Random(13);
+        List<Employee> employees = new ArrayList<>();
+        employees.add(new Employee("E0", "First", "Last", 100000, null));
+        for (int i = 1; i < 3000; i++) {
+            // Mostly deep chains, with a few separate top-level employees
+            String managerId = random.nextInt(100) == 0 ? null : "E" + Math.max(0, i - 1 - random.nextInt(5));
+            employees.add(new Employee("E" + i, "First", "Last", 50000, managerId));
+        }
+        Collections.shuffle(employees, random);
+
+        OrgHierarchy hierarchy = new OrganizationalAnalyzer(employees).getHierarchy();
+        AncestorIndex index = hierarchy.getAncestorIndex();
+        int n = hierarchy.size();
+
+        for (int i = 0; i < n; i++) {
+            List<Integer> chain = naiveChain(hierarchy, i);
+            assertEquals(hierarchy.getReportingLineLength(i), index.getDepth(i));
+            assertArrayEquals(chain.stream().mapToInt(Integer::intValue).toArray(), index.getChain(i));
+            assertEquals(i, index.getManagerAtLevel(i, 0));
+            for (int k = 1; k <= chain.size(); k++) {
+                assertEquals(chain.get(k - 1), index.getManagerAtLevel(i, k));
+            }
+            assertEquals(OrgHierarchy.NO_PARENT, index.getManagerAtLevel(i, chain.size() + 1));
+        }
+
+        for (int q = 0; q < 5000; q++) {
+            int a = random.nextInt(n);
+            int b = random.nextInt(n);
+            assertEquals(naiveCommonManager(hierarchy, a, b), index.getLowestCommonManager(a, b),
+                "common manager of " + a + " and " + b);
+        }
+    }
+
+    @Test
+    void testDeepChain() {
+        int n = 200_000;
+        List<Employee> employees = new ArrayList<>(n);
+        employees.add(new Employee("E0", "First", "Last", 100000, null));
+        for (int i = 1; i < n; i++) {
+            employees.add(new Employee("E" + i, "First", "Last", 50000, "E" + (i - 1)));
+        }
+        employees.add(new Employee("S", "Side", "Branch", 50000, "E1000"));
+
+        OrgHierarchy hierarchy = new OrganizationalAnalyzer(employees).getHierarchy();
+        AncestorIndex index = hierarchy.getAncestorIndex();
+        int last = hierarchy.indexOf("E" + (n - 1));
+
+        assertEquals(n - 1, index.getDepth(last));
+        assertEquals(hierarchy.indexOf("E12345"), index.getManagerAtLevel(last, n - 1 - 12345));
+        assertEquals(hierarchy.indexOf("E1000"), index.getLowestCommonManager(last, hierarchy.indexOf("S")));
+    }
+
+    @Test
+    void testSeparateChainsHaveNoCommonManager() {
+        OrgHierarchy hierarchy = new OrganizationalAnalyzer(Arrays.asList(
+            new Employee("1", "CEO", "Top", 100000, null),
+            new Employee("2", "Dev", "A", 50000, "1"),
+            new Employee("3", "Dev", "Orphan", 50000, "999"),
+            new Employee("4", "Dev", "B", 50000, "3")
+        )).getHierarchy();
+        AncestorIndex index = hierarchy.getAncestorIndex();
+
+        assertEquals(OrgHierarchy.NO_PARENT,
+            index.getLowestCommonManager(hierarchy.indexOf("2"), hierarchy.indexOf("4")));
+        assertEquals(hierarchy.indexOf("3"),
+            index.getLowestCommonManager(hierarchy.indexOf("3"), hierarchy.indexOf("4")));
+    }
+
+    private static List<Integer> naiveChain(OrgHierarchy hierarchy, int index) {
+        List<Integer> chain = new ArrayList<>();
+        for (int m = hierarchy.getParent(index); m != OrgHierarchy.NO_PARENT; m = hierarchy.getParent(m)) {
+            chain.add(m);
+        }
+        return chain;
+    }
+
+    private static int naiveCommonManager(OrgHierarchy hierarchy, int a, int b) {
+        Set<Integer> above = new HashSet<>();
+        for (int m = a; m != OrgHierarchy.NO_PARENT; m = hierarchy.getParent(m)) {
+            above.add(m);
+        }
+        for (int m = b; m != OrgHierarchy.NO_PARENT; m = hierarchy.getParent(m)) {
+            if (above.contains(m)) {
+                return m;
+            }
+        }
+        return OrgHierarchy.NO_PARENT;
+    }
+}
@@ -7,7 +7,9 @@ import org.junit.jupiter.api.io.TempDir;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -129,4 +131,163 @@ class CsvReaderServiceTest {
         assertThrows(IOException.class,
             () -> csvReader.readEmployees("/nonexistent/file.csv"));
     }
+
+    @Test
+    void testMappedReadMatchesBufferedRead(@TempDir Path tempDir) throws IOException {
+        Path csvFile = tempDir.resolve("employees.csv");
+        String content = """
+                Id,firstName,lastName,salary,managerId
+                123,Joe,Doe,60000,
+                
+                124, Martin ,Chekov,45000.50,123
+                125,Bob,Ronstad,1e4,123
+                126,Zoe,Ng,  0047000.125 , 124
+                """;
+        Files.writeString(csvFile, content);
+
+        List<Employee> expected = csvReader.readEmployees(csvFile.toString());
+        List<Employee> actual = csvReader.readEmployeesMapped(csvFile.toString());
+
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            Employee e = expected.get(i);
+            Employee a = actual.get(i);
+            assertEquals(e.getId(), a.getId());
+            assertEquals(e.getFirstName(), a.getFirstName());
+            assertEquals(e.getLastName(), a.getLastName());
+            assertEquals(e.getSalary(), a.getSalary());
+            assertEquals(e.getManagerId(), a.getManagerId());
+        }
+        assertNull(actual.get(0).getManagerId());
+        assertEquals(45000.5, actual.get(1).getSalary());
+    }
+
+    @Test
+    void testMappedReadDecodesUtf8(@TempDir Path tempDir) throws IOException {
+        Path csvFile = tempDir.resolve("employees.csv");
+        Files.writeString(csvFile, "Id,firstName,lastName,salary,managerId\n1,Zo\u00eb,\u00c5ngstr\u00f6m,10,\n");
+
+        List<Employee> employees = csvReader.readEmployeesMapped(csvFile.toString());
+
+        assertEquals("Zo\u00eb", employees.get(0).getFirstName());
+        assertEquals("\u00c5ngstr\u00f6m", employees.get(0).getLastName());
+    }
+
+    @Test
+    void testMappedReadHandlesCarriageReturns(@TempDir Path tempDir) throws IOException {
+        Path csvFile = tempDir.resolve("employees.csv");
+        Files.writeString(csvFile,
+            "Id,firstName,lastName,salary,managerId\r\n123,Joe,Doe,60000,\r124,Martin,Chekov,45000,123");
+
+        List<Employee> employees = csvReader.readEmployeesMapped(csvFile.toString());
+
+        assertEquals(2, employees.size());
+        assertEquals("123", employees.get(1).getManagerId());
+    }
+
+    @Test
+    void testMappedReadReportsSameErrors(@TempDir Path tempDir) throws IOException {
+        String[] badRows = {"123,Joe,Doe,invalid,", "123,Joe,Doe,-1000,", "123,Joe,Doe", ",Joe,Doe,60000,",
+            "123, ,Doe,60000,"};
+        for (String badRow : badRows) {
+            Path csvFile = tempDir.resolve("bad.csv");
+            Files.writeString(csvFile,
+                "Id,firstName,lastName,salary,managerId\n\n1,A,B,10,\n" + badRow + "\n");
+
+            IllegalArgumentException expected = assertThrows(IllegalArgumentException.class,
+                () -> csvReader.readEmployees(csvFile.toString()));
+            IllegalArgumentException actual = assertThrows(IllegalArgumentException.class,
+                () -> csvReader.readEmployeesMapped(csvFile.toString()));
+            assertEquals(expected.getMessage(), actual.getMessage());
+            assertTrue(actual.getMessage().startsWith("Invalid CSV format at line 4:"));
+        }
+    }
+
+    @Test
+    void testMappedReadEmptyFile(@TempDir Path tempDir) throws IOException {
+        Path csvFile = tempDir.resolve("empty.csv");
+        Files.writeString(csvFile, "");
+
+        assertThrows(IllegalArgumentException.class,
+            () -> csvReader.readEmployeesMapped(csvFile.toString()));
+        assertThrows(IOException.class,
+            () -> csvReader.readEmployeesMapped("/nonexistent/file.csv"));
+    }
+
+    @Test
+    void testParallelReadPreservesFileOrder(@TempDir Path tempDir) throws IOException {
+        Path csvFile = tempDir.resolve("employees.csv");
+        StringBuilder content = new StringBuilder("Id,firstName,lastName,salary,managerId\r\n1,Ceo,Boss,100000,\r\n");
+        for (int i = 2; i <= 5000; i++) {
+            content.append(i).append(",First").append(i).append(",Last,").append(1000 + i)
+                   .append(',').append(i / 2).append(i % 7 == 0 ? "\r\n\r\n" : "\r\n");
+        }
+        Files.writeString(csvFile, content);
+
+        List<Employee> expected = csvReader.readEmployees(csvFile.toString());
+        List<Employee> actual = csvReader.readEmployeesParallel(csvFile.toString(), new ForkJoinPool(4), 1024);
+
+        assertEquals(5000, actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getId(), actual.get(i).getId());
+            assertEquals(expected.get(i).getSalary(), actual.get(i).getSalary());
+            assertEquals(expected.get(i).getManagerId(), actual.get(i).getManagerId());
+        }
+        assertEquals(3, csvReader.readEmployeesParallel(createSmallCsv(tempDir)).size());
+    }
+
+    @Test
+    void testParallelReadReportsGlobalLineNumber(@TempDir Path tempDir) throws IOException {
+        Path csvFile = tempDir.resolve("employees.csv");
+        StringBuilder content = new StringBuilder("Id,firstName,lastName,salary,managerId\n");
+        for (int i = 1; i <= 3000; i++) {
+            content.append(i).append(",A,B,").append(i == 2345 || i == 2900 ? "oops" : "10").append(",\n");
+            if (i % 100 == 0) {
+                content.append('\n');
+            }
+        }
+        Files.writeString(csvFile, content);
+
+        IllegalArgumentException expected = assertThrows(IllegalArgumentException.class,
+            () -> csvReader.readEmployees(csvFile.toString()));
+        IllegalArgumentException actual = assertThrows(IllegalArgumentException.class,
+            () -> csvReader.readEmployeesParallel(csvFile.toString(), new ForkJoinPool(4), 512));
+
+        assertEquals("Invalid CSV format at line 2369: Invalid salary value: oops", expected.getMessage());
+        assertEquals(expected.getMessage(), actual.getMessage());
+    }
+
+    @Test
+    void testStreamingReadDeliversRowsInOrder(@TempDir Path tempDir) throws IOException {
+        String csvFile = createSmallCsv(tempDir);
+
+        List<String> ids = new ArrayList<>();
+        csvReader.readEmployees(csvFile, employee -> ids.add(employee.getId()));
+        List<String> mappedIds = new ArrayList<>();
+        csvReader.readEmployeesMapped(csvFile, employee -> mappedIds.add(employee.getId()));
+
+        assertEquals(List.of("123", "124", "125"), ids);
+        assertEquals(ids, mappedIds);
+    }
+
+    @Test
+    void testStreamingReadIntoAnalyzer(@TempDir Path tempDir) throws IOException {
+        OrganizationalAnalyzer.Builder builder = OrganizationalAnalyzer.builder();
+        csvReader.readEmployees(createSmallCsv(tempDir), builder);
+
+        OrganizationalAnalyzer analyzer = builder.build();
+
+        assertEquals(3, analyzer.getEmployeeCount());
+        assertFalse(analyzer.analyzeReportingLines().hasIssues());
+    }
+
+    private static String createSmallCsv(Path tempDir) throws IOException {
+        Path csvFile = tempDir.resolve("small.csv");
+        Files.writeString(csvFile, """
+                Id,firstName,lastName,salary,managerId
+                123,Joe,Doe,60000,
+                124,Martin,Chekov,45000,123
+                125,Bob,Ronstad,47000,123""");
+        return csvFile.toString();
+    }
 }
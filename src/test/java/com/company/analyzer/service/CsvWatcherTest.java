@@ -0,0 +1,172 @@
+package com.company.analyzer.service;
+
+import com.company.analyzer.service.CsvWatcher.Update;
+import com.company.analyzer.service.IncrementalOrganizationalAnalyzer.IssueChanges;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvWatcherTest {
+
+    private static final String ORGANIZATION = """
+        Id,firstName,lastName,salary,managerId
+        123,Joe,Doe,60000,
+        124,Martin,Chekov,45000,123
+        125,Bob,Ronstad,47000,123
+        300,Alice,Hasacat,50000,124
+        """;
+
+    @Test
+    void testAppendedRowsProduceIssueDiff(@TempDir Path dir) throws IOException {
+        Path file = write(dir, ORGANIZATION);
+        CsvWatcher watcher = new CsvWatcher(file);
+        assertEquals(1, watcher.getAnalyzer().getSalaryReport().getUnderpaidManagers().size());
+
+        append(file, "301,New,Report,20000,124\n400,Deep,One,30000,300\n");
+        Update update = watcher.refresh();
+
+        // Martin's team average drops to 35000, which resolves his underpayment;
+        // Alice now manages a 30000 report, so she is paid too much
+        IssueChanges changes = update.getChanges();
+        assertFalse(update.isReloaded());
+        assertEquals(2, update.getRowsApplied());
+        assertEquals("124", changes.getResolvedSalaryIssues().getUnderpaidManagers().get(0).getManager().getId());
+        assertEquals("300", changes.getNewSalaryIssues().getOverpaidManagers().get(0).getManager().getId());
+        assertFalse(changes.getNewReportingLineIssues().hasIssues());
+
+        assertTrue(watcher.refresh().getChanges().isEmpty());
+    }
+
+    @Test
+    void testPartialLineWaitsForTerminator(@TempDir Path dir) throws IOException {
+        Path file = write(dir, ORGANIZATION);
+        CsvWatcher watcher = new CsvWatcher(file);
+
+        append(file, "301,New,Rep");
+        assertEquals(0, watcher.refresh().getRowsApplied());
+
+        append(file, "ort,20000,124\n");
+        Update update = watcher.refresh();
+        assertEquals(1, update.getRowsApplied());
+        assertEquals("Report", watcher.getAnalyzer().getEmployee("301").getLastName());
+    }
+
+    @Test
+    void testRepeatedIdUpdatesEmployee(@TempDir Path dir) throws IOException {
+        Path file = write(dir, ORGANIZATION);
+        CsvWatcher watcher = new CsvWatcher(file);
+
+        append(file, "124,Martin,Chekov,70000,123\n");
+        IssueChanges changes = watcher.refresh().getChanges();
+
+        assertEquals(70000.0, watcher.getAnalyzer().getEmployee("124").getSalary());
+        assertEquals(1, changes.getResolvedSalaryIssues().getUnderpaidManagers().size());
+        assertEquals("123", changes.getNewSalaryIssues().getUnderpaidManagers().get(0).getManager().getId());
+    }
+
+    @Test
+    void testCycleRowIsRejected(@TempDir Path dir) throws IOException {
+        Path file = write(dir, ORGANIZATION);
+        CsvWatcher watcher = new CsvWatcher(file);
+
+        append(file, "124,Martin,Chekov,45000,300\n500,Ok,Row,1000,125\n");
+        Update update = watcher.refresh();
+
+        assertEquals(1, update.getRowsApplied());
+        assertEquals(1, update.getRejectedRows().size());
+        assertTrue(update.getRejectedRows().get(0).startsWith("Line 6: Reporting cycle"));
+        assertEquals("123", watcher.getAnalyzer().getEmployee("124").getManagerId());
+    }
+
+    @Test
+    void testCyclicFileIsWatched(@TempDir Path dir) throws IOException {
+        Path file = write(dir, ORGANIZATION + """
+            1,Cy,One,50000,2
+            2,Cy,Two,50000,1
+            3,Below,One,40000,2
+            4,Below,Two,40000,3
+            5,Below,Three,40000,4
+            6,Below,Four,40000,5
+            """);
+        CsvWatcher watcher = new CsvWatcher(file);
+
+        List<OrganizationalAnalyzer.ReportingLineIssue> issues =
+            watcher.getAnalyzer().getReportingLineReport().getIssues();
+        assertEquals(1, issues.size());
+        assertEquals("6", issues.get(0).getEmployee().getId());
+        assertEquals(5, issues.get(0).getReportingLineLength());
+
+        // Moving the chain below the cycle under the CEO shortens it
+        append(file, "3,Below,One,40000,123\n");
+        Update update = watcher.refresh();
+        assertEquals(1, update.getRowsApplied());
+        assertEquals("6", update.getChanges().getResolvedReportingLineIssues().getIssues().get(0)
+            .getEmployee().getId());
+    }
+
+    @Test
+    void testInvalidRowIsRejectedAndSkipped(@TempDir Path dir) throws IOException {
+        Path file = write(dir, ORGANIZATION);
+        CsvWatcher watcher = new CsvWatcher(file);
+
+        append(file, "302,Bad,Row,abc,124\n301,New,Report,20000,124\n");
+        Update update = watcher.refresh();
+
+        assertEquals(List.of("Line 6: Invalid salary value: abc"), update.getRejectedRows());
+        assertEquals(1, update.getRowsApplied());
+        assertNotNull(watcher.getAnalyzer().getEmployee("301"));
+        assertNull(watcher.getAnalyzer().getEmployee("302"));
+
+        // Later rows are applied without the bad row being parsed again
+        append(file, "303,Next,Report,21000,124\n");
+        update = watcher.refresh();
+        assertTrue(update.getRejectedRows().isEmpty());
+        assertEquals(1, update.getRowsApplied());
+        assertNotNull(watcher.getAnalyzer().getEmployee("303"));
+    }
+
+    @Test
+    void testRewrittenFileIsReloaded(@TempDir Path dir) throws IOException {
+        Path file = write(dir, ORGANIZATION);
+        CsvWatcher watcher = new CsvWatcher(file);
+
+        write(dir, ORGANIZATION.replace("124,Martin,Chekov,45000", "124,Martin,Chekov,65000"));
+        Update update = watcher.refresh();
+
+        assertTrue(update.isReloaded());
+        assertEquals(4, update.getRowsApplied());
+        assertEquals("124", update.getChanges().getResolvedSalaryIssues().getUnderpaidManagers().get(0)
+            .getManager().getId());
+        assertEquals("123", update.getChanges().getNewSalaryIssues().getUnderpaidManagers().get(0)
+            .getManager().getId());
+    }
+
+    @Test
+    void testGzipFileIsRejected(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("org.csv.gz");
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(file))) {
+            out.write(ORGANIZATION.getBytes(StandardCharsets.UTF_8));
+        }
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> new CsvWatcher(file));
+        assertTrue(e.getMessage().contains("gzip"));
+    }
+
+    private static Path write(Path dir, String content) throws IOException {
+        return Files.writeString(dir.resolve("org.csv"), content);
+    }
+
+    private static void append(Path file, String content) throws IOException {
+        Files.writeString(file, content, StandardOpenOption.APPEND);
+    }
+}
@@ -0,0 +1,113 @@
+package com.company.analyzer.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DataQualityValidatorTest {
+
+    @Test
+    void testCleanFile(@TempDir Path tempDir) throws IOException {
+        Path csvFile = tempDir.resolve("employees.csv");
+        Files.writeString(csvFile, """
+            Id,firstName,lastName,salary,managerId
+            123,Joe,Planck,60000,
+            124,Martin,Chekov,45000,123
+            """);
+
+        DataQualityReport report = new DataQualityValidator().validate(csvFile.toString());
+
+        assertTrue(report.isClean());
+        assertEquals(2, report.getRows());
+        assertEquals(List.of("123"), report.getCeoIds());
+    }
+
+    @Test
+    void testCollectsAllProblemsInOnePass(@TempDir Path tempDir) throws IOException {
+        Path csvFile = tempDir.resolve("employees.csv");
+        Files.writeString(csvFile, """
+            Id,firstName,lastName,salary,managerId
+            1,Joe,Planck,60000,
+            2,Martin,Chekov,abc,1
+            3,Bob,Ronstad,47000,999
+            4,Alice,Hasacat,50000,5
+            5,Brett,Hardleaf,34000,6
+            6,Carl,Loop,30000,4
+            7,Dana,Self,30000,7
+            1,Joe,Again,61000,
+            8,Eve,Other,70000,
+            9,Fay,Short,-5,1
+            """);
+
+        DataQualityReport report = new DataQualityValidator().validate(csvFile.toString());
+
+        assertEquals(8, report.getRows());
+        assertEquals(2, report.getRowErrorCount());
+        assertEquals(3, report.getRowErrors().get(0).getLine());
+        assertEquals("Invalid salary value: abc", report.getRowErrors().get(0).getMessage());
+        assertEquals(11, report.getRowErrors().get(1).getLine());
+
+        assertEquals(1, report.getDuplicateIdCount());
+        DataQualityReport.DuplicateId duplicate = report.getDuplicateIds().get(0);
+        assertEquals("1", duplicate.getId());
+        assertEquals(2, duplicate.getFirstLine());
+        assertEquals(9, duplicate.getDuplicateLine());
+
+        assertEquals(1, report.getDanglingManagerCount());
+        assertEquals("999", report.getDanglingManagers().get(0).getManagerId());
+        assertEquals(4, report.getDanglingManagers().get(0).getLine());
+
+        assertEquals(List.of("1", "8"), report.getCeoIds());
+        assertEquals(List.of(List.of("4", "5", "6"), List.of("7")), report.getCycles());
+        // Two row errors, a duplicate, a dangling manager, two CEOs and two cycles
+        assertEquals(8, report.getProblemCount());
+        assertFalse(report.isClean());
+    }
+
+    @Test
+    void testMissingCeoAndCycleBelowEntry(@TempDir Path tempDir) throws IOException {
+        Path csvFile = tempDir.resolve("employees.csv");
+        Files.writeString(csvFile, """
+            Id,firstName,lastName,salary,managerId
+            1,Joe,Planck,60000,2
+            2,Martin,Chekov,45000,3
+            3,Bob,Ronstad,47000,2
+            """);
+
+        DataQualityReport report = new DataQualityValidator().validate(csvFile.toString());
+
+        assertEquals(0, report.getCeoCount());
+        // Employee 1 hangs below the cycle and is not part of it
+        assertEquals(List.of(List.of("2", "3")), report.getCycles());
+        assertEquals(2, report.getProblemCount());
+        assertTrue(report.toSummary().contains("No CEO found"));
+    }
+
+    @Test
+    void testCapsExamplesButCountsAll(@TempDir Path tempDir) throws IOException {
+        StringBuilder csv = new StringBuilder("Id,firstName,lastName,salary,managerId\n1,Joe,Planck,60000,\n");
+        for (int i = 0; i < 50; i++) {
+            csv.append(100 + i).append(",Bad,Row,x,1\n");
+        }
+        Path csvFile = tempDir.resolve("employees.csv");
+        Files.writeString(csvFile, csv);
+
+        DataQualityReport report = new DataQualityValidator(5).validate(csvFile.toString());
+
+        assertEquals(50, report.getRowErrorCount());
+        assertEquals(5, report.getRowErrors().size());
+        assertTrue(report.toSummary().contains("... and 45 more"));
+        assertTrue(report.toJson().startsWith("{\"rows\":1,\"problems\":50,\"rowErrors\":{\"count\":50,"));
+    }
+
+    @Test
+    void testRejectsNegativeCap() {
+        assertThrows(IllegalArgumentException.class, () -> new DataQualityValidator(-1));
+    }
+}
@@ -0,0 +1,262 @@
+package com.company.analyzer.service;
+
+import com.company.analyzer.service.OrganizationalAnalyzer.ManagerSalaryIssue;
+import com.company.analyzer.service.OrganizationalAnalyzer.ReportingLineIssue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExternalOrganizationalAnalyzerTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testMatchesInMemoryAnalysis() throws IOException {
+        Path csv = tempDir.resolve("employees.csv");
+        Files.writeString(csv, """
+            Id,firstName,lastName,salary,managerId
+            123,Joe,Doe,60000,
+            124,Martin,Chekov,45000,123
+            125,Bob,Ronstad,47000,123
+            300,Alice,Hasacat,50000,124
+            305,Brett,Hardleaf,34000,300
+            306,Carl,Deep,30000,305
+            307,Dora,Deeper,28000,306
+            308,Emil,Deepest,26000,307
+            """);
+
+        ExternalOrganizationalAnalyzer.Result result = analyze(csv, 2);
+
+        assertEquals(8, result.getEmployeeCount());
+        assertEquals(List.of("124", "305", "306", "307"), ids(result.getSalaryReport().getUnderpaidManagers()));
+        assertEquals(List.of(), ids(result.getSalaryReport().getOverpaidManagers()));
+        List<ReportingLineIssue> lines = result.getReportingLineReport().getIssues();
+        assertEquals(2, lines.size());
+        assertEquals("307", lines.get(0).getEmployee().getId());
+        assertEquals(5, lines.get(0).getReportingLineLength());
+        assertEquals("308", lines.get(1).getEmployee().getId());
+        assertEquals(2, lines.get(1).getExcess());
+        assertTrue(result.getBytesSpilled() > 0);
+        assertEquals(expected(csv), describe(result));
+    }
+
+    @Test
+    void testMatchesInMemoryAnalysisOfMessyOrganizations() throws IOException {
+        Random random = new Random(42);
+        for (int round = 0; round < 5; round++) {
+            Path csv = tempDir.resolve("random" + round + ".csv");
+            Files.writeString(csv, randomOrganization(random, 1000));
+
+            // Small runs force spills and more runs than one merge pass takes
+            ExternalOrganizationalAnalyzer.Result result = analyze(csv, 7);
+
+            assertEquals(expected(csv), describe(result), "round " + round);
+            assertTrue(result.getPasses() > 0);
+        }
+    }
+
+    @Test
+    void testResolvesEverythingInMemoryWhenItFitsOneRun() throws IOException {
+        Random random = new Random(7);
+        Path csv = tempDir.resolve("small.csv");
+        Files.writeString(csv, randomOrganization(random, 200));
+
+        ExternalOrganizationalAnalyzer.Result result = analyze(csv, 1000);
+
+        assertEquals(expected(csv), describe(result));
+        assertEquals(0, result.getPasses());
+    }
+
+    @Test
+    void testResolvesChainsFarDeeperThanOneRunInLogarithmicPasses() throws IOException {
+        int depth = 3000;
+        StringBuilder content = new StringBuilder("Id,firstName,lastName,salary,managerId\n");
+        for (int i = 0; i < depth; i++) {
+            content.append("D").append(i).append(",First").append(i).append(",Last").append(i)
+                   .append(",50000,").append(i == 0 ? "" : "D" + (i - 1)).append('\n');
+        }
+        Path csv = tempDir.resolve("deep.csv");
+        Files.writeString(csv, content.toString());
+
+        ExternalOrganizationalAnalyzer.Result result = analyze(csv, 16);
+
+        assertEquals(expected(csv), describe(result));
+        List<ReportingLineIssue> lines = result.getReportingLineReport().getIssues();
+        assertEquals(depth - 1, lines.get(lines.size() - 1).getReportingLineLength());
+        // 2^12 - 1 levels are covered after 12 passes
+        assertTrue(result.getPasses() <= 12, "passes " + result.getPasses());
+        assertTrue(result.getBytesSpilled() < 100L * Files.size(csv), "spilled " + result.getBytesSpilled());
+    }
+
+    @Test
+    void testResolvesLargeTreesBelowACycle() throws IOException {
+        Random random = new Random(3);
+        StringBuilder content = new StringBuilder("""
+            Id,firstName,lastName,salary,managerId
+            A,Top,One,90000,B
+            B,Top,Two,90000,A
+            """);
+        for (int i = 0; i < 1997; i++) {
+            String managerId = i < 2 ? (i == 0 ? "A" : "B") : "T" + (i - 1 - random.nextInt(Math.min(i, 3)));
+            content.append('T').append(i).append(",First").append(i).append(",Last").append(i).append(',')
+                   .append(20000 + random.nextInt(100) * 500).append(',').append(managerId).append('\n');
+        }
+        Path csv = tempDir.resolve("headless.csv");
+        Files.writeString(csv, content.toString());
+
+        ExternalOrganizationalAnalyzer.Result result = analyze(csv, 100);
+
+        assertEquals(1999, result.getEmployeeCount());
+        assertEquals(expected(csv), describe(result));
+        assertTrue(result.getReportingLineReport().getIssues().size() > 1000);
+        // 11 passes leave only the cycle and everyone below it, which then goes on after the cut
+        assertTrue(result.getPasses() > 11, "passes " + result.getPasses());
+    }
+
+    @Test
+    void testRejectsCyclesLargerThanOneRun() throws IOException {
+        Path csv = tempDir.resolve("cycle.csv");
+        Files.writeString(csv, """
+            Id,firstName,lastName,salary,managerId
+            1,A,A,1000,
+            2,B,B,1000,4
+            3,C,C,1000,2
+            4,D,D,1000,3
+            """);
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> analyze(csv, 2));
+        assertTrue(e.getMessage().contains("reporting cycles"));
+        try (Stream<Path> files = Files.list(tempDir)) {
+            assertEquals(List.of(csv), files.collect(Collectors.toList()), "working directory is removed");
+        }
+    }
+
+    @Test
+    void testSpillsFieldsLongerThan64KiB() throws IOException {
+        String longName = "N".repeat(70_000);
+        String longId = "M" + "9".repeat(70_000);
+        Path csv = tempDir.resolve("long.csv");
+        Files.writeString(csv, "Id,firstName,lastName,salary,managerId\n"
+            + "1,Ceo,Top,100000,\n"
+            + longId + "," + longName + ",Mgr,30000,1\n"
+            + "3,Dev,One,50000," + longId + "\n"
+            + "4,Dev,Two,52000," + longId + "\n");
+
+        ExternalOrganizationalAnalyzer.Result result = analyze(csv, 1);
+
+        assertEquals(expected(csv), describe(result));
+        ManagerSalaryIssue underpaid = result.getSalaryReport().getUnderpaidManagers().get(0);
+        assertEquals(longId, underpaid.getManager().getId());
+        assertEquals(longName, underpaid.getManager().getFirstName());
+    }
+
+    @Test
+    void testEmptyFile() throws IOException {
+        Path csv = tempDir.resolve("empty.csv");
+        Files.writeString(csv, "Id,firstName,lastName,salary,managerId\n");
+
+        ExternalOrganizationalAnalyzer.Result result = analyze(csv, 4);
+
+        assertEquals(0, result.getEmployeeCount());
+        assertFalse(result.getSalaryReport().hasIssues());
+        assertFalse(result.getReportingLineReport().hasIssues());
+    }
+
+    private ExternalOrganizationalAnalyzer.Result analyze(Path csv, int runSize) throws IOException {
+        return new ExternalOrganizationalAnalyzer(tempDir, runSize).analyze(csv.toString());
+    }
+
+    /**
+     * Rows with deep chains, several CEOs, unknown managers, repeated IDs and a
+     * reporting cycle with employees below it.
+     */
+    private static String randomOrganization(Random random, int n) {
+        List<String> ids = new ArrayList<>();
+        StringBuilder csv = new StringBuilder("Id,firstName,lastName,salary,managerId\n");
+        for (int i = 0; i < n; i++) {
+            String id;
+            String managerId;
+            int kind = random.nextInt(50);
+            if (i > 0 && random.nextInt(20) == 0) {
+                // A repeated ID reports to someone added before it, so it closes no cycle
+                int repeated = random.nextInt(ids.size());
+                id = ids.get(repeated);
+                managerId = repeated == 0 ? "" : ids.get(random.nextInt(repeated));
+            } else {
+                id = "E" + Integer.toString(random.nextInt(1_000_000), 36) + "-" + i;
+                if (i == 0 || kind == 0) {
+                    managerId = "";
+                } else if (kind == 1) {
+                    managerId = "missing-" + random.nextInt(5);
+                } else if (kind < 30) {
+                    managerId = ids.get(Math.max(0, ids.size() - 1 - random.nextInt(3)));
+                } else {
+                    managerId = ids.get(random.nextInt(ids.size()));
+                }
+                ids.add(id);
+            }
+            csv.append(id).append(",First").append(i).append(",Last").append(i).append(',')
+               .append(20000 + random.nextInt(200) * 500).append(',').append(managerId).append('\n');
+        }
+        csv.append("""
+            C1,Cy,One,50000,C3
+            C2,Cy,Two,50000,C1
+            C3,Cy,Three,50000,C2
+            C4,Below,Cycle,40000,C3
+            C5,Further,Below,30000,C4
+            """);
+        return csv.toString();
+    }
+
+    private static List<String> expected(Path csv) throws IOException {
+        OrganizationalAnalyzer.Builder builder = OrganizationalAnalyzer.builder();
+        new CsvReaderService().readEmployees(csv.toString(), builder);
+        OrganizationalAnalyzer analyzer = builder.build();
+        return describe(analyzer.getEmployeeCount(), analyzer.analyzeSalaries().getUnderpaidManagers(),
+                        analyzer.analyzeSalaries().getOverpaidManagers(),
+                        analyzer.analyzeReportingLines().getIssues());
+    }
+
+    private static List<String> describe(ExternalOrganizationalAnalyzer.Result result) {
+        return describe(result.getEmployeeCount(), result.getSalaryReport().getUnderpaidManagers(),
+                        result.getSalaryReport().getOverpaidManagers(), result.getReportingLineReport().getIssues());
+    }
+
+    private static List<String> describe(int employeeCount, List<ManagerSalaryIssue> underpaid,
+                                         List<ManagerSalaryIssue> overpaid, List<ReportingLineIssue> lines) {
+        List<String> description = new ArrayList<>();
+        description.add("employees " + employeeCount);
+        for (ManagerSalaryIssue issue : underpaid) {
+            description.add("underpaid " + describe(issue));
+        }
+        for (ManagerSalaryIssue issue : overpaid) {
+            description.add("overpaid " + describe(issue));
+        }
+        for (ReportingLineIssue issue : lines) {
+            description.add("line " + issue.getEmployee().getId() + " " + issue.getEmployee().getFullName()
+                + " " + issue.getReportingLineLength() + " " + issue.getExcess());
+        }
+        return description;
+    }
+
+    private static String describe(ManagerSalaryIssue issue) {
+        return issue.getManager().getId() + " " + issue.getManager().getFullName() + " "
+            + issue.getManager().getSalary() + " " + issue.getManager().getManagerId() + " "
+            + issue.getAvgSubordinateSalary() + " " + issue.getDifference();
+    }
+
+    private static List<String> ids(List<ManagerSalaryIssue> issues) {
+        return issues.stream().map(issue -> issue.getManager().getId()).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,106 @@
+package com.company.analyzer.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExternalSorterTest {
+
+    /** Pairs of (key, insertion number), sorted by key only. */
+    private static final SpillFile.Codec<int[]> PAIRS = new SpillFile.Codec<>() {
+        @Override
+        public void write(DataOutput out, int[] value) throws IOException {
+            out.writeInt(value[0]);
+            out.writeInt(value[1]);
+        }
+
+        @Override
+        public int[] read(DataInput in) throws IOException {
+            return new int[] {in.readInt(), in.readInt()};
+        }
+    };
+    private static final Comparator<int[]> BY_KEY = Comparator.comparingInt(pair -> pair[0]);
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testSortsStablyAcrossMergePasses() throws IOException {
+        Random random = new Random(1);
+        List<int[]> values = new ArrayList<>();
+        // 3 records per run gives more runs than one merge pass takes
+        try (ExternalSorter<int[]> sorter = new ExternalSorter<>(tempDir, "test", PAIRS, BY_KEY, 3)) {
+            for (int i = 0; i < ExternalSorter.MERGE_FAN_IN * 5; i++) {
+                int[] value = {random.nextInt(50), i};
+                values.add(value);
+                sorter.add(value);
+            }
+            values.sort(BY_KEY);
+
+            List<int[]> sorted = new ArrayList<>();
+            try (SpillFile.Cursor<int[]> cursor = sorter.sorted()) {
+                while (cursor.hasNext()) {
+                    sorted.add(cursor.next());
+                }
+            }
+
+            assertEquals(values.size(), sorted.size());
+            for (int i = 0; i < values.size(); i++) {
+                assertArrayEquals(values.get(i), sorted.get(i), "position " + i);
+            }
+            assertTrue(sorter.getBytesWritten() > 0);
+        }
+        try (Stream<Path> files = Files.list(tempDir)) {
+            assertEquals(0, files.count(), "runs are deleted");
+        }
+    }
+
+    @Test
+    void testSmallInputStaysInMemory() throws IOException {
+        try (ExternalSorter<int[]> sorter = new ExternalSorter<>(tempDir, "test", PAIRS, BY_KEY, 10)) {
+            sorter.add(new int[] {2, 0});
+            sorter.add(new int[] {1, 1});
+
+            try (SpillFile.Cursor<int[]> cursor = sorter.sorted()) {
+                assertArrayEquals(new int[] {1, 1}, cursor.next());
+                assertArrayEquals(new int[] {2, 0}, cursor.peek());
+                assertArrayEquals(new int[] {2, 0}, cursor.next());
+                assertFalse(cursor.hasNext());
+            }
+            assertEquals(0, sorter.getBytesWritten());
+        }
+    }
+
+    @Test
+    void testSortedFileCanBeReadTwice() throws IOException {
+        try (ExternalSorter<int[]> sorter = new ExternalSorter<>(tempDir, "test", PAIRS, BY_KEY, 2)) {
+            for (int i = 0; i < 5; i++) {
+                sorter.add(new int[] {4 - i, i});
+            }
+            SpillFile<int[]> file = sorter.sortedFile();
+
+            assertEquals(5, file.size());
+            for (int pass = 0; pass < 2; pass++) {
+                try (SpillFile.Cursor<int[]> cursor = file.open()) {
+                    for (int key = 0; key < 5; key++) {
+                        assertEquals(key, cursor.next()[0]);
+                    }
+                    assertFalse(cursor.hasNext());
+                }
+            }
+            file.delete();
+        }
+    }
+}
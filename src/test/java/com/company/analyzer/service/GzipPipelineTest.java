@@ -0,0 +1,115 @@
+package com.company.analyzer.service;
+
+import com.company.analyzer.model.Employee;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GzipPipelineTest {
+
+    @Test
+    void testDetectsGzipByMagicBytes(@TempDir Path tempDir) throws IOException {
+        Path plain = tempDir.resolve("employees.gz"); // The name does not matter
+        Files.writeString(plain, "Id,firstName,lastName,salary,managerId\n");
+        Path compressed = gzip(tempDir.resolve("employees.csv"), "Id,firstName,lastName,salary,managerId\n");
+        Path tiny = tempDir.resolve("tiny.csv");
+        Files.write(tiny, new byte[] {0x1f});
+
+        assertFalse(GzipPipeline.isGzip(plain));
+        assertTrue(GzipPipeline.isGzip(compressed));
+        assertFalse(GzipPipeline.isGzip(tiny));
+    }
+
+    @Test
+    void testMatchesPlainReadAcrossBuffers(@TempDir Path tempDir) throws IOException {
+        // Several buffers worth of rows, with mixed line endings straddling buffer ends
+        StringBuilder csv = new StringBuilder("Id,firstName,lastName,salary,managerId\n1,Joe,Planck,60000,\n");
+        for (int i = 2; csv.length() < 3 * GzipPipeline.BUFFER_SIZE; i++) {
+            csv.append(i).append(",Zoë").append(i % 13).append(",Ångström,")
+               .append(40000 + i % 1000).append(',').append(i / 2)
+               .append(i % 3 == 0 ? "\r\n" : i % 3 == 1 ? "\n" : "\r");
+        }
+        Path plain = tempDir.resolve("employees.csv");
+        Files.writeString(plain, csv);
+        Path compressed = gzip(tempDir.resolve("employees.csv.gz"), csv.toString());
+
+        CsvReaderService reader = new CsvReaderService();
+        List<Employee> expected = reader.readEmployeesMapped(plain.toString());
+        List<Employee> actual = new ArrayList<>();
+        long lines = reader.readEmployees(compressed.toString(), actual::add);
+
+        assertEquals(expected.size() + 1, lines);
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getId(), actual.get(i).getId());
+            assertEquals(expected.get(i).getFullName(), actual.get(i).getFullName());
+            assertEquals(expected.get(i).getSalary(), actual.get(i).getSalary());
+            assertEquals(expected.get(i).getManagerId(), actual.get(i).getManagerId());
+        }
+        assertEquals(expected.size(), reader.readEmployeesMapped(compressed.toString()).size());
+        assertEquals(expected.size(), reader.readEmployeesParallel(compressed.toString()).size());
+        assertEquals(expected.size(), reader.readOrganizationLazy(compressed.toString()).getEmployeeCount());
+    }
+
+    @Test
+    void testReportsSameErrors(@TempDir Path tempDir) throws IOException {
+        StringBuilder csv = new StringBuilder("Id,firstName,lastName,salary,managerId\n");
+        for (int i = 1; csv.length() < 2 * GzipPipeline.BUFFER_SIZE; i++) {
+            csv.append(i).append(",First,Last,50000,\n");
+        }
+        csv.append("bad,First,Last,abc,\n");
+        Path plain = tempDir.resolve("employees.csv");
+        Files.writeString(plain, csv);
+        Path compressed = gzip(tempDir.resolve("employees.csv.gz"), csv.toString());
+        CsvReaderService reader = new CsvReaderService();
+
+        IllegalArgumentException expected = assertThrows(IllegalArgumentException.class,
+            () -> reader.readEmployeesMapped(plain.toString()));
+        IllegalArgumentException actual = assertThrows(IllegalArgumentException.class,
+            () -> reader.readEmployees(compressed.toString(), employee -> { }));
+        assertEquals(expected.getMessage(), actual.getMessage());
+
+        DataQualityReport report = new DataQualityValidator().validate(compressed.toString());
+        assertEquals(1, report.getRowErrorCount());
+        assertEquals(csv.toString().split("\n").length, report.getRowErrors().get(0).getLine());
+    }
+
+    @Test
+    void testRejectsOverlongLineEmptyAndCorruptInput(@TempDir Path tempDir) throws IOException {
+        CsvReaderService reader = new CsvReaderService();
+        String longLine = "1,First," + "x".repeat(GzipPipeline.BUFFER_SIZE) + ",50000,\n";
+        Path overlong = gzip(tempDir.resolve("long.csv.gz"), "Id,firstName,lastName,salary,managerId\n" + longLine);
+        IllegalArgumentException tooLong = assertThrows(IllegalArgumentException.class,
+            () -> reader.readEmployees(overlong.toString(), employee -> { }));
+        assertTrue(tooLong.getMessage().startsWith("Invalid CSV format at line 2: Line exceeds"));
+
+        Path empty = gzip(tempDir.resolve("empty.csv.gz"), "");
+        IllegalArgumentException emptyError = assertThrows(IllegalArgumentException.class,
+            () -> reader.readEmployees(empty.toString(), employee -> { }));
+        assertEquals("CSV file is empty", emptyError.getMessage());
+
+        Path corrupt = tempDir.resolve("corrupt.csv.gz");
+        byte[] bytes = Files.readAllBytes(gzip(tempDir.resolve("valid.csv.gz"),
+            "Id,firstName,lastName,salary,managerId\n1,Joe,Planck,60000,\n"));
+        Files.write(corrupt, Arrays.copyOf(bytes, bytes.length / 2));
+        assertThrows(IOException.class, () -> reader.readEmployees(corrupt.toString(), employee -> { }));
+    }
+
+    private static Path gzip(Path path, String content) throws IOException {
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(path))) {
+            out.write(content.getBytes(StandardCharsets.UTF_8));
+        }
+        return path;
+    }
+}
@@ -0,0 +1,212 @@
+package com.company.analyzer.service;
+
+import com.company.analyzer.model.Employee;
+import com.company.analyzer.service.OrganizationalAnalyzer.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IncrementalOrganizationalAnalyzerTest {
+
+    private static List<Employee> sampleOrganization() {
+        return Arrays.asList(
+            new Employee("123", "Joe", "Doe", 60000, null),
+            new Employee("124", "Martin", "Chekov", 45000, "123"),
+            new Employee("125", "Bob", "Ronstad", 47000, "123"),
+            new Employee("300", "Alice", "Hasacat", 50000, "124"),
+            new Employee("305", "Brett", "Hardleaf", 34000, "300")
+        );
+    }
+
+    @Test
+    void testInitialReportsMatchBatchAnalysis() {
+        IncrementalOrganizationalAnalyzer analyzer = new IncrementalOrganizationalAnalyzer(sampleOrganization());
+
+        SalaryAnalysisReport report = analyzer.getSalaryReport();
+        assertEquals(1, report.getUnderpaidManagers().size());
+        assertEquals("124", report.getUnderpaidManagers().get(0).getManager().getId());
+        assertFalse(analyzer.getReportingLineReport().hasIssues());
+    }
+
+    @Test
+    void testChangeSalaryResolvesIssue() {
+        IncrementalOrganizationalAnalyzer analyzer = new IncrementalOrganizationalAnalyzer(sampleOrganization());
+
+        analyzer.changeSalary("124", 65000);
+
+        // Martin is fixed, but raising him lifts the average under Joe
+        List<ManagerSalaryIssue> underpaid = analyzer.getSalaryReport().getUnderpaidManagers();
+        assertEquals(1, underpaid.size());
+        assertEquals("123", underpaid.get(0).getManager().getId());
+        assertEquals(56000.0, underpaid.get(0).getAvgSubordinateSalary());
+    }
+
+    @Test
+    void testDrainChangesReportsOnlyNewAndResolvedIssues() {
+        IncrementalOrganizationalAnalyzer analyzer = new IncrementalOrganizationalAnalyzer(sampleOrganization());
+        assertTrue(analyzer.drainChanges().isEmpty());
+
+        analyzer.changeSalary("124", 65000);
+        analyzer.changeSalary("124", 66000);
+        IncrementalOrganizationalAnalyzer.IssueChanges changes = analyzer.drainChanges();
+
+        assertEquals("124", changes.getResolvedSalaryIssues().getUnderpaidManagers().get(0).getManager().getId());
+        assertEquals("123", changes.getNewSalaryIssues().getUnderpaidManagers().get(0).getManager().getId());
+        assertEquals(1, changes.getNewSalaryIssues().getUnderpaidManagers().size());
+
+        // Joe stays underpaid, only by a different amount
+        analyzer.changeSalary("123", 61000);
+        assertTrue(analyzer.drainChanges().isEmpty());
+    }
+
+    @Test
+    void testHireExtendsReportingLine() {
+        IncrementalOrganizationalAnalyzer analyzer = new IncrementalOrganizationalAnalyzer(sampleOrganization());
+
+        analyzer.hire(new Employee("400", "New", "Hire", 30000, "305"));
+        analyzer.hire(new Employee("401", "Newer", "Hire", 30000, "400"));
+
+        ReportingLineAnalysisReport report = analyzer.getReportingLineReport();
+        assertEquals(1, report.getIssues().size());
+        assertEquals("401", report.getIssues().get(0).getEmployee().getId());
+        assertEquals(5, report.getIssues().get(0).getReportingLineLength());
+    }
+
+    @Test
+    void testReassignMovesWholeSubtree() {
+        IncrementalOrganizationalAnalyzer analyzer = new IncrementalOrganizationalAnalyzer(sampleOrganization());
+        analyzer.hire(new Employee("400", "New", "Hire", 30000, "305"));
+
+        analyzer.reassign("300", "123");
+
+        assertFalse(analyzer.getReportingLineReport().hasIssues());
+        analyzer.reassign("124", "400");
+        analyzer.reassign("125", "124");
+        assertEquals(1, analyzer.getReportingLineReport().getIssues().size());
+        assertEquals(5, analyzer.getReportingLineReport().getIssues().get(0).getReportingLineLength());
+    }
+
+    @Test
+    void testTerminateLeavesReportsWithUnknownManager() {
+        IncrementalOrganizationalAnalyzer analyzer = new IncrementalOrganizationalAnalyzer(sampleOrganization());
+
+        analyzer.terminate("124");
+
+        assertEquals(4, analyzer.getEmployees().size());
+        assertFalse(analyzer.getSalaryReport().hasIssues());
+        analyzer.hire(new Employee("124", "Martin", "Back", 70000, "123"));
+        assertEquals(5, analyzer.getEmployees().size());
+        // Alice reports to the new hire again, who is fairly paid for her; Joe now falls short
+        List<ManagerSalaryIssue> underpaid = analyzer.getSalaryReport().getUnderpaidManagers();
+        assertEquals(1, underpaid.size());
+        assertEquals("123", underpaid.get(0).getManager().getId());
+    }
+
+    @Test
+    void testRejectsInvalidEvents() {
+        IncrementalOrganizationalAnalyzer analyzer = new IncrementalOrganizationalAnalyzer(sampleOrganization());
+
+        assertThrows(IllegalArgumentException.class, () -> analyzer.reassign("124", "305"));
+        assertThrows(IllegalArgumentException.class, () -> analyzer.reassign("999", "123"));
+        assertThrows(IllegalArgumentException.class,
+            () -> analyzer.hire(new Employee("125", "Dup", "Id", 1000, "123")));
+        assertThrows(IllegalArgumentException.class, () -> analyzer.terminate("999"));
+        assertThrows(IllegalArgumentException.class, () -> analyzer.changeSalary("124", -1));
+    }
+
+    @Test
+    void testInitialCyclesMatchBatchAnalysisUntilBroken() {
+        List<Employee> initial = new ArrayList<>(sampleOrganization());
+        initial.add(new Employee("1", "Cy", "One", 50000, "3"));
+        initial.add(new Employee("2", "Cy", "Two", 50000, "1"));
+        initial.add(new Employee("3", "Cy", "Three", 50000, "2"));
+        for (int i = 4; i < 9; i++) {
+            initial.add(new Employee(String.valueOf(i), "Below", "Cycle", 40000, String.valueOf(i - 1)));
+        }
+        IncrementalOrganizationalAnalyzer analyzer = new IncrementalOrganizationalAnalyzer(initial);
+        assertMatchesFreshAnalysis(analyzer);
+
+        analyzer.hire(new Employee("9", "New", "Below", 30000, "8"));
+        assertMatchesFreshAnalysis(analyzer);
+        // Closing a second cycle is still rejected, also through the existing one
+        assertThrows(IllegalArgumentException.class, () -> analyzer.reassign("1", "9"));
+        analyzer.reassign("124", "5");
+        assertMatchesFreshAnalysis(analyzer);
+
+        analyzer.reassign("2", "125");
+        assertMatchesFreshAnalysis(analyzer);
+        analyzer.hire(new Employee("10", "After", "Cycle", 30000, "9"));
+        assertMatchesFreshAnalysis(analyzer);
+        analyzer.terminate("305");
+        assertMatchesFreshAnalysis(analyzer);
+    }
+
+    @Test
+    void testRandomEventsMatchFreshAnalysis() {
+        Random random = new Random(11);
+        List<Employee> initial = new ArrayList<>();
+        initial.add(new Employee("0", "CEO", "Boss", 200000, null));
+        for (int i = 1; i < 300; i++) {
+            initial.add(new Employee(String.valueOf(i), "E", "L", 30000 + random.nextInt(60000),
+                String.valueOf(random.nextInt(i))));
+        }
+        IncrementalOrganizationalAnalyzer analyzer = new IncrementalOrganizationalAnalyzer(initial);
+        int nextId = 300;
+
+        for (int step = 0; step < 2000; step++) {
+            List<Employee> current = new ArrayList<>(analyzer.getEmployees());
+            String someone = current.get(random.nextInt(current.size())).getId();
+            String other = current.get(random.nextInt(current.size())).getId();
+            try {
+                switch (random.nextInt(4)) {
+                    case 0 -> analyzer.hire(new Employee(String.valueOf(nextId++), "N", "H",
+                        30000 + random.nextInt(60000), other));
+                    case 1 -> analyzer.terminate(someone);
+                    case 2 -> analyzer.changeSalary(someone, 30000 + random.nextInt(90000));
+                    default -> analyzer.reassign(someone, other);
+                }
+            } catch (IllegalArgumentException e) {
+                // Cycles are rejected; the state must be unchanged and still consistent
+            }
+
+            if (step % 50 == 0) {
+                assertMatchesFreshAnalysis(analyzer);
+            }
+        }
+        assertMatchesFreshAnalysis(analyzer);
+    }
+
+    private static void assertMatchesFreshAnalysis(IncrementalOrganizationalAnalyzer analyzer) {
+        OrganizationalAnalyzer fresh = new OrganizationalAnalyzer(new ArrayList<>(analyzer.getEmployees()));
+        SalaryAnalysisReport expected = fresh.analyzeSalaries();
+        SalaryAnalysisReport actual = analyzer.getSalaryReport();
+        assertEquals(salaryIssues(expected.getUnderpaidManagers()), salaryIssues(actual.getUnderpaidManagers()));
+        assertEquals(salaryIssues(expected.getOverpaidManagers()), salaryIssues(actual.getOverpaidManagers()));
+        assertEquals(lineIssues(fresh.analyzeReportingLines()), lineIssues(analyzer.getReportingLineReport()));
+    }
+
+    private static Map<String, Double> salaryIssues(List<ManagerSalaryIssue> issues) {
+        Map<String, Double> byId = new HashMap<>();
+        for (ManagerSalaryIssue issue : issues) {
+            byId.put(issue.getManager().getId() + "@" + issue.getManager().getSalary(),
+                Math.rint(issue.getDifference() * 1000) / 1000);
+        }
+        return byId;
+    }
+
+    private static Map<String, Integer> lineIssues(ReportingLineAnalysisReport report) {
+        Map<String, Integer> byId = new HashMap<>();
+        for (ReportingLineIssue issue : report.getIssues()) {
+            byId.put(issue.getEmployee().getId() + "@" + issue.getEmployee().getManagerId(),
+                issue.getReportingLineLength());
+        }
+        return byId;
+    }
+}
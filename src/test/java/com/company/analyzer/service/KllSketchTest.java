@@ -0,0 +1,218 @@
+package com.company.analyzer.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KllSketchTest {
+
+    private static final int N = 200_000;
+
+    @Test
+    void testSmallStreamsAreExact() {
+        KllSketch sketch = new KllSketch();
+        for (int i = 100; i >= 1; i--) {
+            sketch.update(i);
+        }
+
+        assertTrue(sketch.isExact());
+        assertEquals(0, sketch.getNormalizedRankError());
+        assertEquals(100, sketch.getN());
+        assertEquals(1, sketch.getMin());
+        assertEquals(100, sketch.getMax());
+        assertEquals(50, sketch.getQuantile(0.5));
+        assertEquals(90, sketch.getQuantile(0.9));
+        assertEquals(1, sketch.getQuantile(0));
+        assertEquals(100, sketch.getQuantile(1));
+        assertEquals(0.25, sketch.getRank(25));
+        assertEquals(0.25, sketch.getRank(25.5));
+        assertArrayEquals(new long[] {9, 10, 81}, sketch.getHistogram(10, 20));
+    }
+
+    @Test
+    void testEmptySketch() {
+        KllSketch sketch = new KllSketch();
+
+        assertTrue(sketch.isEmpty());
+        assertTrue(Double.isNaN(sketch.getQuantile(0.5)));
+        assertTrue(Double.isNaN(sketch.getRank(1)));
+        assertTrue(Double.isNaN(sketch.getMin()));
+        assertArrayEquals(new long[] {0, 0}, sketch.getHistogram(1));
+    }
+
+    @Test
+    void testRankErrorStaysWithinDocumentedBound() {
+        for (int seed = 0; seed < 6; seed++) {
+            Random random = new Random(seed);
+            double[] values = values(random, seed % 3);
+            KllSketch sketch = new KllSketch();
+            for (double value : values) {
+                sketch.update(value);
+            }
+
+            assertFalse(sketch.isExact());
+            assertWithinBound(sketch, values);
+            // About 3k values are kept however many were added
+            assertTrue(sketch.getRetained() < 4 * KllSketch.DEFAULT_K, "retained " + sketch.getRetained());
+        }
+    }
+
+    @Test
+    void testMergedSketchesStayWithinDocumentedBound() {
+        for (int seed = 0; seed < 6; seed++) {
+            Random random = new Random(seed);
+            double[] values = values(random, seed % 3);
+            // Uneven parts, as teams of very different sizes would be
+            KllSketch[] parts = new KllSketch[40];
+            for (int i = 0; i < parts.length; i++) {
+                parts[i] = new KllSketch();
+            }
+            for (double value : values) {
+                parts[(int) Math.abs(random.nextGaussian() * 8) % parts.length].update(value);
+            }
+            KllSketch merged = new KllSketch();
+            for (KllSketch part : parts) {
+                merged.merge(part);
+            }
+
+            assertEquals(values.length, merged.getN());
+            assertWithinBound(merged, values);
+        }
+    }
+
+    @Test
+    void testMergeIntoItself() {
+        double[] values = values(new Random(4), 1);
+        KllSketch sketch = new KllSketch();
+        for (double value : values) {
+            sketch.update(value);
+        }
+
+        sketch.merge(sketch);
+
+        double[] doubled = Arrays.copyOf(values, 2 * values.length);
+        System.arraycopy(values, 0, doubled, values.length, values.length);
+        assertEquals(doubled.length, sketch.getN());
+        assertWithinBound(sketch, doubled);
+    }
+
+    @Test
+    void testSmallerKTradesAccuracyForMemory() {
+        double[] values = values(new Random(3), 0);
+        KllSketch sketch = new KllSketch(50);
+        for (double value : values) {
+            sketch.update(value);
+        }
+
+        assertTrue(sketch.getNormalizedRankError() > KllSketch.getNormalizedRankError(KllSketch.DEFAULT_K));
+        assertTrue(sketch.getRetained() < 4 * 50);
+        assertWithinBound(sketch, values);
+    }
+
+    @Test
+    void testSameInputGivesSameSketch() {
+        KllSketch first = new KllSketch();
+        KllSketch second = new KllSketch();
+        Random random = new Random(9);
+        for (int i = 0; i < 10_000; i++) {
+            double value = random.nextDouble();
+            first.update(value);
+            second.update(value);
+        }
+
+        for (double fraction = 0.05; fraction < 1; fraction += 0.05) {
+            assertEquals(first.getQuantile(fraction), second.getQuantile(fraction));
+        }
+    }
+
+    @Test
+    void testInvalidArguments() {
+        KllSketch sketch = new KllSketch();
+        sketch.update(1);
+
+        assertThrows(IllegalArgumentException.class, () -> new KllSketch(4));
+        assertThrows(IllegalArgumentException.class, () -> sketch.update(Double.NaN));
+        assertThrows(IllegalArgumentException.class, () -> sketch.getQuantile(1.5));
+        assertThrows(IllegalArgumentException.class, () -> sketch.getQuantile(Double.NaN));
+        assertThrows(IllegalArgumentException.class, () -> sketch.getHistogram(2, 2));
+    }
+
+    /**
+     * Uniform, log-normal (long-tailed like salaries) or heavily repeated values.
+     */
+    private static double[] values(Random random, int distribution) {
+        double[] values = new double[N];
+        for (int i = 0; i < N; i++) {
+            values[i] = switch (distribution) {
+                case 0 -> random.nextDouble() * 100_000;
+                case 1 -> 30_000 * Math.exp(random.nextGaussian() * 0.5);
+                default -> 1_000 * random.nextInt(80);
+            };
+        }
+        return values;
+    }
+
+    /**
+     * Checks ranks, quantiles and a histogram against the exact answers.
+     */
+    private static void assertWithinBound(KllSketch sketch, double[] values) {
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        double epsilon = sketch.getNormalizedRankError();
+        int n = sorted.length;
+
+        for (int percentile = 1; percentile < 100; percentile++) {
+            double value = sorted[percentile * n / 100];
+            double trueRank = (double) countAtMost(sorted, value) / n;
+            assertEquals(trueRank, sketch.getRank(value), epsilon, "rank of p" + percentile);
+
+            double fraction = percentile / 100.0;
+            double quantile = sketch.getQuantile(fraction);
+            double lowRank = (double) countBelow(sorted, quantile) / n;
+            double highRank = (double) countAtMost(sorted, quantile) / n;
+            assertTrue(highRank >= fraction - epsilon && lowRank <= fraction + epsilon,
+                       "p" + percentile + " = " + quantile + " has ranks " + lowRank + ".." + highRank);
+        }
+
+        double[] splits = {sorted[n / 4], sorted[n / 2], sorted[3 * n / 4] + 1};
+        long[] histogram = sketch.getHistogram(splits);
+        assertEquals(n, Arrays.stream(histogram).sum());
+        long below = 0;
+        for (int i = 0; i < splits.length; i++) {
+            long trueCount = countBelow(sorted, splits[i]) - below;
+            below += trueCount;
+            assertEquals(trueCount, histogram[i], 2 * epsilon * n, "bucket " + i);
+        }
+    }
+
+    private static int countAtMost(double[] sorted, double value) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid] <= value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static int countBelow(double[] sorted, double value) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid] < value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
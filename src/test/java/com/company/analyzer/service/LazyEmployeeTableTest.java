@@ -0,0 +1,104 @@
+package com.company.analyzer.service;
+
+import com.company.analyzer.model.Employee;
+import com.company.analyzer.service.OrganizationalAnalyzer.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LazyEmployeeTableTest {
+
+    private static final String CSV = """
+        Id,firstName,lastName,salary,managerId
+        123, Joe ,Doe,60000,
+        124,Martin,Chekov,45000,123
+        125,Zoë,Ångström,47000.5,123\r
+        300,Alice,Hasacat,50000,124
+
+        305,Brett,Hardleaf,34000,300
+        306,Carl,Deep,20000,305
+        307,Dana,Deeper,15000,306
+        400,Olga,Orphan,30000,999
+        """;
+
+    @Test
+    void testMatchesMappedRead(@TempDir Path tempDir) throws IOException {
+        Path csvFile = tempDir.resolve("employees.csv");
+        Files.writeString(csvFile, CSV);
+        CsvReaderService reader = new CsvReaderService();
+
+        List<Employee> employees = reader.readEmployeesMapped(csvFile.toString());
+        OrganizationalAnalyzer eager = new OrganizationalAnalyzer(employees);
+        OrganizationalAnalyzer lazy = reader.readOrganizationLazy(csvFile.toString());
+
+        assertEquals(employees.size(), lazy.getEmployeeCount());
+        OrgHierarchy hierarchy = lazy.getHierarchy();
+        for (int i = 0; i < employees.size(); i++) {
+            Employee expected = employees.get(i);
+            Employee actual = hierarchy.getEmployee(i);
+            assertEquals(expected.getId(), actual.getId());
+            assertEquals(expected.getFullName(), actual.getFullName());
+            assertEquals(expected.getSalary(), actual.getSalary());
+            assertEquals(expected.getManagerId(), actual.getManagerId());
+            assertEquals(eager.getHierarchy().getParent(i), hierarchy.getParent(i));
+        }
+
+        SalaryAnalysisReport expectedSalaries = eager.analyzeSalaries();
+        SalaryAnalysisReport actualSalaries = lazy.analyzeSalaries();
+        assertEquals(names(expectedSalaries.getUnderpaidManagers()), names(actualSalaries.getUnderpaidManagers()));
+        assertEquals(names(expectedSalaries.getOverpaidManagers()), names(actualSalaries.getOverpaidManagers()));
+        assertEquals(eager.analyzeReportingLines().getIssues().size(),
+                     lazy.analyzeReportingLines().getIssues().size());
+        assertEquals("Zoë Ångström", hierarchy.getEmployee(hierarchy.indexOf("125")).getFullName());
+    }
+
+    @Test
+    void testRepeatedIdReplacesEarlierRow(@TempDir Path tempDir) throws IOException {
+        Path csvFile = tempDir.resolve("employees.csv");
+        Files.writeString(csvFile, """
+            Id,firstName,lastName,salary,managerId
+            1,Joe,Doe,60000,
+            2,Martin,Chekov,45000,1
+            2,Marta,Chekova,46000,1
+            """);
+
+        OrganizationalAnalyzer analyzer = new CsvReaderService().readOrganizationLazy(csvFile.toString());
+
+        assertEquals(2, analyzer.getEmployeeCount());
+        Employee replaced = analyzer.getHierarchy().getEmployee(1);
+        assertEquals("Marta Chekova", replaced.getFullName());
+        assertEquals(46000, replaced.getSalary());
+        assertEquals(46000, analyzer.getHierarchy().getDirectReportSalaryTotal(0));
+    }
+
+    @Test
+    void testReportsSameErrors(@TempDir Path tempDir) throws IOException {
+        Path csvFile = tempDir.resolve("employees.csv");
+        Files.writeString(csvFile, """
+            Id,firstName,lastName,salary,managerId
+            1,Joe,Doe,60000,
+            2,Martin,,45000,1
+            """);
+        CsvReaderService reader = new CsvReaderService();
+
+        IllegalArgumentException eager = assertThrows(IllegalArgumentException.class,
+            () -> reader.readEmployees(csvFile.toString()));
+        IllegalArgumentException lazy = assertThrows(IllegalArgumentException.class,
+            () -> reader.readOrganizationLazy(csvFile.toString()));
+        assertEquals(eager.getMessage(), lazy.getMessage());
+
+        Path empty = tempDir.resolve("empty.csv");
+        Files.writeString(empty, "");
+        assertThrows(IllegalArgumentException.class, () -> reader.readOrganizationLazy(empty.toString()));
+    }
+
+    private static List<String> names(List<ManagerSalaryIssue> issues) {
+        return issues.stream().map(issue -> issue.getManager().getFullName()).toList();
+    }
+}
@@ -0,0 +1,105 @@
+package com.company.analyzer.service;
+
+import com.company.analyzer.model.Employee;
+import com.company.analyzer.service.OrgDiff.Change;
+import com.company.analyzer.service.OrgDiff.Kind;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrgDiffTest {
+
+    @Test
+    void testReportsMovesSalaryChangesAndIssues() {
+        OrganizationalAnalyzer before = new OrganizationalAnalyzer(Arrays.asList(
+            new Employee("1", "Ann", "Top", 300000, null),
+            new Employee("2", "Bob", "Mid", 100000, "1"),
+            new Employee("3", "Cat", "Low", 60000, "2"),
+            new Employee("4", "Dan", "Low", 60000, "2")
+        ));
+        OrganizationalAnalyzer after = new OrganizationalAnalyzer(Arrays.asList(
+            new Employee("1", "Ann", "Top", 300000, null),
+            new Employee("2", "Bob", "Mid", 70000, "1"),
+            new Employee("3", "Cat", "Low", 60000, "1"),
+            new Employee("5", "Eve", "New", 60000, "2")
+        ));
+
+        List<Change> changes = OrgDiff.diff(before, after);
+
+        assertEquals(List.of("SALARY_CHANGED 2", "NEW_UNDERPAID 2", "RESOLVED_OVERPAID 2", "MOVED 3",
+                             "HIRED 5", "LEFT 4"), describe(changes));
+        assertEquals(-30000, changes.get(0).getAmount());
+        assertEquals(60000 * 1.2 - 70000, changes.get(1).getAmount(), 1e-9);
+        assertEquals(100000 - 60000 * 1.5, changes.get(2).getAmount(), 1e-9);
+        assertEquals("2", changes.get(3).getBefore().getManagerId());
+        assertEquals("1", changes.get(3).getAfter().getManagerId());
+        assertNull(changes.get(4).getBefore());
+        assertNull(changes.get(5).getAfter());
+    }
+
+    @Test
+    void testReportingLineIssuesFollowMovedSubtrees() {
+        List<Employee> chain = new ArrayList<>();
+        chain.add(new Employee("0", "Chief", "Exec", 1000, null));
+        for (int i = 1; i <= 6; i++) {
+            chain.add(new Employee(String.valueOf(i), "E" + i, "Chain", 1000, String.valueOf(i - 1)));
+        }
+        List<Employee> flattened = new ArrayList<>(chain);
+        // Moving employee 2 under the CEO shortens the lines of everyone below it,
+        // and employee 1 stops being an (underpaid) manager
+        flattened.set(2, new Employee("2", "E2", "Chain", 1000, "0"));
+
+        List<Change> changes = OrgDiff.diff(new OrganizationalAnalyzer(chain), new OrganizationalAnalyzer(flattened));
+
+        assertEquals(List.of("RESOLVED_UNDERPAID 1", "MOVED 2", "RESOLVED_LONG_REPORTING_LINE 5"), describe(changes));
+        assertEquals(1, changes.get(2).getAmount());
+    }
+
+    @Test
+    void testIdenticalOrganizationsHaveNoChanges() {
+        List<Employee> employees = new ArrayList<>();
+        employees.add(new Employee("0", "Chief", "Exec", 500000, null));
+        for (int i = 1; i < 20_000; i++) {
+            employees.add(new Employee(String.valueOf(i), "First" + i, "Last", 1000 + i % 7, String.valueOf(i / 10)));
+        }
+        OrganizationalAnalyzer before = new OrganizationalAnalyzer(employees);
+        List<Employee> reversed = new ArrayList<>(employees);
+        Collections.reverse(reversed);
+
+        assertTrue(OrgDiff.diff(before, new OrganizationalAnalyzer(reversed)).isEmpty());
+    }
+
+    @Test
+    void testParallelJoinKeepsOrder() {
+        List<Employee> employees = new ArrayList<>();
+        List<Employee> changed = new ArrayList<>();
+        employees.add(new Employee("0", "Chief", "Exec", 500000, null));
+        changed.add(employees.get(0));
+        for (int i = 1; i < 20_000; i++) {
+            Employee employee = new Employee(String.valueOf(i), "First", "Last", 1000, "0");
+            employees.add(employee);
+            changed.add(i % 1000 == 0 ? new Employee(employee.getId(), "First", "Last", 2000, "0") : employee);
+        }
+
+        List<Change> changes = OrgDiff.diff(new OrganizationalAnalyzer(employees), new OrganizationalAnalyzer(changed));
+
+        List<String> expected = new ArrayList<>();
+        for (int i = 1000; i < 20_000; i += 1000) {
+            expected.add("SALARY_CHANGED " + i);
+        }
+        assertEquals(expected, describe(changes));
+    }
+
+    private static List<String> describe(List<Change> changes) {
+        List<String> described = new ArrayList<>();
+        for (Change change : changes) {
+            described.add(change.getKind() + " " + change.getEmployee().getId());
+        }
+        return described;
+    }
+}
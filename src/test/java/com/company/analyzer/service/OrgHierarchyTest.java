@@ -0,0 +1,133 @@
+package com.company.analyzer.service;
+
+import com.company.analyzer.model.Employee;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrgHierarchyTest {
+
+    @Test
+    void testDenseIndexesAndDirectReports() {
+        List<Employee> employees = Arrays.asList(
+            new Employee("300", "Alice", "Hasacat", 50000, "124"),
+            new Employee("123", "Joe", "Doe", 60000, null),
+            new Employee("124", "Martin", "Chekov", 45000, "123"),
+            new Employee("125", "Bob", "Ronstad", 47000, "123")
+        );
+
+        OrgHierarchy hierarchy = new OrganizationalAnalyzer(employees).getHierarchy();
+
+        assertEquals(4, hierarchy.size());
+        assertEquals(0, hierarchy.indexOf("300"));
+        assertEquals(3, hierarchy.indexOf("125"));
+        assertEquals(-1, hierarchy.indexOf("999"));
+
+        int ceo = hierarchy.indexOf("123");
+        assertEquals(OrgHierarchy.NO_PARENT, hierarchy.getParent(ceo));
+        assertEquals(2, hierarchy.getDirectReportCount(ceo));
+        assertEquals(hierarchy.indexOf("124"), hierarchy.getDirectReport(ceo, 0));
+        assertEquals(hierarchy.indexOf("125"), hierarchy.getDirectReport(ceo, 1));
+        assertEquals(ceo, hierarchy.getParent(hierarchy.indexOf("124")));
+        assertEquals(47000.0, hierarchy.getSalary(3));
+        assertEquals("Bob", hierarchy.getEmployee(3).getFirstName());
+    }
+
+    @Test
+    void testUnknownManagerHasNoParent() {
+        OrgHierarchy hierarchy = new OrganizationalAnalyzer(Arrays.asList(
+            new Employee("1", "CEO", "Boss", 100000, null),
+            new Employee("2", "Dev", "Orphan", 50000, "999")
+        )).getHierarchy();
+
+        assertEquals(OrgHierarchy.NO_PARENT, hierarchy.getParent(1));
+        assertEquals(0, hierarchy.getDirectReportCount(0));
+    }
+
+    @Test
+    void testRepeatedIdReplacesEarlierRow() {
+        OrgHierarchy hierarchy = new OrganizationalAnalyzer(Arrays.asList(
+            new Employee("1", "CEO", "Boss", 100000, null),
+            new Employee("2", "Old", "Row", 50000, "1"),
+            new Employee("2", "New", "Row", 55000, "1")
+        )).getHierarchy();
+
+        assertEquals(2, hierarchy.size());
+        assertEquals("New", hierarchy.getEmployee(1).getFirstName());
+        assertEquals(1, hierarchy.getDirectReportCount(0));
+    }
+
+    @Test
+    void testIndexSurvivesRehashing() {
+        IdIndex index = new IdIndex();
+        for (int i = 0; i < 10_000; i++) {
+            assertEquals(i, index.getOrAdd("E" + i));
+        }
+        assertEquals(10_000, index.size());
+        assertEquals(4321, index.getOrAdd("E4321"));
+        assertEquals(9999, index.indexOf("E9999"));
+        assertEquals(-1, index.indexOf("E10000"));
+    }
+
+    @Test
+    void testReportingLineLengthsMatchNaiveWalk() {
+        Random random = new Random(42);
+        for (int round = 0; round < 50; round++) {
+            int n = 1 + random.nextInt(200);
+            List<Employee> employees = new ArrayList<>();
+            for (int i = 0; i < n; i++) {
+                // Mostly a tree, with some dangling references and random back edges
+                int choice = random.nextInt(10);
+                String managerId;
+                if (i == 0 || choice == 0) {
+                    managerId = null;
+                } else if (choice == 1) {
+                    managerId = "missing" + i;
+                } else if (choice == 2) {
+                    managerId = String.valueOf(random.nextInt(n));
+                } else {
+                    managerId = String.valueOf(random.nextInt(i));
+                }
+                employees.add(new Employee(String.valueOf(i), "F", "L", 1000, managerId));
+            }
+
+            OrgHierarchy hierarchy = new OrganizationalAnalyzer(employees).getHierarchy();
+            for (int i = 0; i < n; i++) {
+                assertEquals(naiveReportingLineLength(hierarchy, i), hierarchy.getReportingLineLength(i),
+                    "employee " + i + " in round " + round);
+            }
+        }
+    }
+
+    @Test
+    void testDeepChainDoesNotOverflow() {
+        int n = 200_000;
+        int[] parent = new int[n];
+        for (int i = 0; i < n; i++) {
+            parent[i] = i - 1;
+        }
+
+        int[] lengths = OrgHierarchy.computeReportingLineLengths(parent);
+
+        assertEquals(0, lengths[0]);
+        assertEquals(n - 1, lengths[n - 1]);
+    }
+
+    private static int naiveReportingLineLength(OrgHierarchy hierarchy, int employee) {
+        Set<Integer> visited = new HashSet<>();
+        int length = 0;
+        for (int manager = hierarchy.getParent(employee);
+             manager != OrgHierarchy.NO_PARENT && visited.add(manager);
+             manager = hierarchy.getParent(manager)) {
+            length++;
+        }
+        return length;
+    }
+}
@@ -0,0 +1,105 @@
+package com.company.analyzer.service;
+
+import com.company.analyzer.model.Employee;
+import com.company.analyzer.service.OrganizationalAnalyzer.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrgSnapshotTest {
+
+    private static final List<Employee> EMPLOYEES = Arrays.asList(
+        new Employee("123", "Joe", "Doe", 60000, null),
+        new Employee("124", "Martin", "Chekov", 45000, "123"),
+        new Employee("125", "Zoë", "Ångström", 47000.5, "123"),
+        new Employee("300", "Alice", "Hasacat", 50000, "124"),
+        new Employee("305", "Brett", "Hardleaf", 34000, "300"),
+        new Employee("400", "Olga", "Orphan", 30000, "999")
+    );
+
+    @Test
+    void testRoundTripPreservesEmployeesAndAnalyses(@TempDir Path tempDir) throws IOException {
+        Path snapshot = tempDir.resolve("org.snapshot");
+        OrganizationalAnalyzer original = new OrganizationalAnalyzer(EMPLOYEES);
+
+        OrgSnapshot.write(original, snapshot);
+        OrganizationalAnalyzer reopened = OrgSnapshot.open(snapshot);
+
+        assertTrue(OrgSnapshot.isSnapshot(snapshot));
+        assertEquals(EMPLOYEES.size(), reopened.getEmployeeCount());
+        OrgHierarchy hierarchy = reopened.getHierarchy();
+        for (int i = 0; i < EMPLOYEES.size(); i++) {
+            Employee expected = EMPLOYEES.get(i);
+            Employee actual = hierarchy.getEmployee(i);
+            assertEquals(expected.getId(), actual.getId());
+            assertEquals(expected.getFirstName(), actual.getFirstName());
+            assertEquals(expected.getLastName(), actual.getLastName());
+            assertEquals(expected.getSalary(), actual.getSalary());
+            assertEquals(expected.getManagerId(), actual.getManagerId());
+            assertEquals(original.getHierarchy().getParent(i), hierarchy.getParent(i));
+        }
+        assertEquals(3, hierarchy.indexOf("300"));
+        assertEquals(-1, hierarchy.indexOf("999"));
+
+        SalaryAnalysisReport report = reopened.analyzeSalaries();
+        assertEquals(1, report.getUnderpaidManagers().size());
+        assertEquals("124", report.getUnderpaidManagers().get(0).getManager().getId());
+        assertEquals(original.analyzeReportingLines().getIssues().size(),
+                     reopened.analyzeReportingLines().getIssues().size());
+    }
+
+    @Test
+    void testEmptyOrganization(@TempDir Path tempDir) throws IOException {
+        Path snapshot = tempDir.resolve("empty.snapshot");
+
+        OrgSnapshot.write(new OrganizationalAnalyzer(List.of()), snapshot);
+
+        assertEquals(0, OrgSnapshot.open(snapshot).getEmployeeCount());
+    }
+
+    @Test
+    void testRejectsOtherFiles(@TempDir Path tempDir) throws IOException {
+        Path csv = tempDir.resolve("employees.csv");
+        Files.writeString(csv, "Id,firstName,lastName,salary,managerId\n123,Joe,Doe,60000,\n");
+        Path snapshot = tempDir.resolve("org.snapshot");
+        OrgSnapshot.write(new OrganizationalAnalyzer(EMPLOYEES), snapshot);
+        Path truncated = tempDir.resolve("truncated.snapshot");
+        byte[] bytes = Files.readAllBytes(snapshot);
+        Files.write(truncated, Arrays.copyOf(bytes, bytes.length - 3));
+
+        assertFalse(OrgSnapshot.isSnapshot(csv));
+        assertThrows(IllegalArgumentException.class, () -> OrgSnapshot.open(csv));
+        assertThrows(IllegalArgumentException.class, () -> OrgSnapshot.open(truncated));
+    }
+
+    @Test
+    void testRejectsIndexesOutOfRange(@TempDir Path tempDir) throws IOException {
+        Path snapshot = tempDir.resolve("org.snapshot");
+        OrgSnapshot.write(new OrganizationalAnalyzer(EMPLOYEES), snapshot);
+        byte[] bytes = Files.readAllBytes(snapshot);
+
+        // parent[1] is the first int after the header and parent[0]
+        Path badParent = tempDir.resolve("bad-parent.snapshot");
+        byte[] corrupt = bytes.clone();
+        ByteBuffer.wrap(corrupt).order(ByteOrder.LITTLE_ENDIAN).putInt(32 + 4, 1000);
+        Files.write(badParent, corrupt);
+
+        // The last string offset must end the string table
+        Path badString = tempDir.resolve("bad-string.snapshot");
+        corrupt = bytes.clone();
+        ByteBuffer.wrap(corrupt).order(ByteOrder.LITTLE_ENDIAN).putInt(corrupt.length - 4, 1 << 20);
+        Files.write(badString, corrupt);
+
+        assertThrows(IllegalArgumentException.class, () -> OrgSnapshot.open(badParent));
+        assertThrows(IllegalArgumentException.class, () -> OrgSnapshot.open(badString));
+    }
+}
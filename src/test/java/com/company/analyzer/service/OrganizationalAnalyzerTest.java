@@ -4,8 +4,12 @@ import com.company.analyzer.model.Employee;
 import com.company.analyzer.service.OrganizationalAnalyzer.*;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Random;
+import java.util.stream.DoubleStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -176,4 +180,174 @@ class OrganizationalAnalyzerTest {
         assertNotNull(salaryReport);
         assertNotNull(lineReport);
     }
+
+    @Test
+    void testBuilderMatchesListConstructor() {
+        List<Employee> employees = Arrays.asList(
+            new Employee("305", "Brett", "Hardleaf", 34000, "300"),
+            new Employee("300", "Alice", "Hasacat", 50000, "124"),
+            new Employee("124", "Martin", "Chekov", 45000, "123"),
+            new Employee("123", "Joe", "Doe", 60000, null)
+        );
+
+        OrganizationalAnalyzer.Builder builder = OrganizationalAnalyzer.builder();
+        employees.forEach(builder);
+        OrganizationalAnalyzer streamed = builder.build();
+        OrganizationalAnalyzer listed = new OrganizationalAnalyzer(employees);
+
+        assertEquals(4, streamed.getEmployeeCount());
+        assertEquals(listed.analyzeSalaries().getUnderpaidManagers().size(),
+                     streamed.analyzeSalaries().getUnderpaidManagers().size());
+        assertEquals("124", streamed.analyzeSalaries().getUnderpaidManagers().get(0).getManager().getId());
+        assertEquals(0, streamed.analyzeReportingLines().getIssues().size());
+    }
+
+    @Test
+    void testReportingCycleCountsEachManagerOnce() {
+        // 1 -> 2 -> 3 -> 4 -> 5 -> 1 is a cycle of five; 6 and 7 hang below it
+        List<Employee> employees = Arrays.asList(
+            new Employee("1", "Cycle", "One", 50000, "5"),
+            new Employee("2", "Cycle", "Two", 50000, "1"),
+            new Employee("3", "Cycle", "Three", 50000, "2"),
+            new Employee("4", "Cycle", "Four", 50000, "3"),
+            new Employee("5", "Cycle", "Five", 50000, "4"),
+            new Employee("6", "Tail", "One", 50000, "1"),
+            new Employee("7", "Tail", "Two", 50000, "6")
+        );
+
+        ReportingLineAnalysisReport report = new OrganizationalAnalyzer(employees).analyzeReportingLines();
+
+        assertEquals(7, report.getIssues().size());
+        for (ReportingLineIssue issue : report.getIssues()) {
+            int expected = issue.getEmployee().getId().equals("7") ? 6 : 5;
+            assertEquals(expected, issue.getReportingLineLength());
+        }
+    }
+
+    @Test
+    void testLargeSalaryAnalysisIsDeterministicAndInInputOrder() {
+        Random random = new Random(7);
+        List<Employee> employees = new ArrayList<>();
+        employees.add(new Employee("0", "CEO", "Boss", 500000, null));
+        for (int i = 1; i < 50_000; i++) {
+            String managerId = String.valueOf(random.nextInt(i));
+            employees.add(new Employee(String.valueOf(i), "E", "Mp", 20000 + random.nextInt(100000), managerId));
+        }
+
+        OrganizationalAnalyzer analyzer = new OrganizationalAnalyzer(employees);
+        SalaryAnalysisReport first = analyzer.analyzeSalaries();
+        SalaryAnalysisReport second = analyzer.analyzeSalaries();
+
+        assertTrue(first.getUnderpaidManagers().size() > 100);
+        assertTrue(first.getOverpaidManagers().size() > 100);
+        assertIssuesInInputOrder(first.getUnderpaidManagers(), second.getUnderpaidManagers());
+        assertIssuesInInputOrder(first.getOverpaidManagers(), second.getOverpaidManagers());
+
+        // Spot-check against a direct computation
+        ManagerSalaryIssue issue = first.getUnderpaidManagers().get(0);
+        double total = 0;
+        int count = 0;
+        for (Employee employee : employees) {
+            if (issue.getManager().getId().equals(employee.getManagerId())) {
+                total += employee.getSalary();
+                count++;
+            }
+        }
+        assertEquals(total / count, issue.getAvgSubordinateSalary(), 1e-6);
+    }
+
+    @Test
+    void testTopKAndThresholdQueriesMatchFullReport() {
+        Random random = new Random(14);
+        List<Employee> employees = new ArrayList<>();
+        employees.add(new Employee("0", "CEO", "Boss", 500000, null));
+        for (int i = 1; i < 5_000; i++) {
+            String managerId = String.valueOf(random.nextInt(i));
+            // Round salaries produce ties between differences
+            employees.add(new Employee(String.valueOf(i), "E", "Mp", 1000 * (20 + random.nextInt(100)), managerId));
+        }
+        OrganizationalAnalyzer analyzer = new OrganizationalAnalyzer(employees);
+
+        List<ManagerSalaryIssue> underpaid = new ArrayList<>(analyzer.analyzeSalaries().getUnderpaidManagers());
+        underpaid.sort(Comparator.comparingDouble(ManagerSalaryIssue::getDifference).reversed());
+        List<ManagerSalaryIssue> top = analyzer.findTopUnderpaidManagers(100);
+        assertEquals(100, top.size());
+        for (int i = 0; i < top.size(); i++) {
+            assertSame(underpaid.get(i).getManager(), top.get(i).getManager());
+        }
+
+        double threshold = underpaid.get(underpaid.size() / 2).getDifference();
+        List<ManagerSalaryIssue> above = analyzer.findUnderpaidManagersAbove(threshold);
+        assertFalse(above.isEmpty());
+        for (int i = 0; i < above.size(); i++) {
+            assertTrue(above.get(i).getDifference() > threshold);
+            assertSame(underpaid.get(i).getManager(), above.get(i).getManager());
+        }
+
+        assertEquals(analyzer.analyzeSalaries().getOverpaidManagers().size(),
+                     analyzer.findTopOverpaidManagers(Integer.MAX_VALUE).size());
+        assertTrue(analyzer.findTopOverpaidManagers(0).isEmpty());
+        assertTrue(analyzer.findOverpaidManagersAbove(Double.MAX_VALUE).isEmpty());
+    }
+
+    @Test
+    void testTopReportingLineIssues() {
+        OrganizationalAnalyzer analyzer = new OrganizationalAnalyzer(Arrays.asList(
+            new Employee("1", "CEO", "Top", 200000, null),
+            new Employee("2", "E", "L1", 100000, "1"),
+            new Employee("3", "E", "L2", 100000, "2"),
+            new Employee("4", "E", "L3", 100000, "3"),
+            new Employee("5", "E", "L4", 100000, "4"),
+            new Employee("6", "E", "L5", 100000, "5"),
+            new Employee("7", "E", "L6", 100000, "6"),
+            new Employee("8", "E", "L5b", 100000, "5")
+        ));
+
+        List<ReportingLineIssue> top = analyzer.findTopReportingLineIssues(2);
+        assertEquals("7", top.get(0).getEmployee().getId());
+        assertEquals("6", top.get(1).getEmployee().getId());
+
+        List<ReportingLineIssue> above = analyzer.findReportingLineIssuesAbove(1);
+        assertEquals(1, above.size());
+        assertEquals(2, above.get(0).getExcess());
+    }
+
+    @Test
+    void testAveragesMatchStreamAverages() {
+        Random random = new Random(17);
+        List<Employee> employees = new ArrayList<>();
+        List<double[]> teams = new ArrayList<>();
+        employees.add(new Employee("0", "CEO", "Top", 1_000_000_000, null));
+        for (int t = 1; t <= 2000; t++) {
+            // Paid nothing, so every manager is reported with their average
+            employees.add(new Employee(String.valueOf(t), "M", "Gr", 0, "0"));
+            double[] team = new double[2 + random.nextInt(8)];
+            for (int i = 0; i < team.length; i++) {
+                team[i] = random.nextInt(20_000_000) / 100.0;
+                employees.add(new Employee(t + "-" + i, "E", "Mp", team[i], String.valueOf(t)));
+            }
+            teams.add(team);
+        }
+
+        List<ManagerSalaryIssue> underpaid = new OrganizationalAnalyzer(employees).analyzeSalaries()
+            .getUnderpaidManagers();
+
+        assertEquals(2000, underpaid.size());
+        for (ManagerSalaryIssue issue : underpaid) {
+            String id = issue.getManager().getId();
+            double expected = DoubleStream.of(teams.get(Integer.parseInt(id) - 1)).average().getAsDouble();
+            assertEquals(expected, issue.getAvgSubordinateSalary(), 0.0, "team of " + id);
+        }
+    }
+
+    private static void assertIssuesInInputOrder(List<ManagerSalaryIssue> actual, List<ManagerSalaryIssue> repeated) {
+        assertEquals(actual.size(), repeated.size());
+        for (int i = 0; i < actual.size(); i++) {
+            assertEquals(actual.get(i).getManager().getId(), repeated.get(i).getManager().getId());
+            if (i > 0) {
+                assertTrue(Integer.parseInt(actual.get(i - 1).getManager().getId())
+                    < Integer.parseInt(actual.get(i).getManager().getId()));
+            }
+        }
+    }
 }
@@ -0,0 +1,108 @@
+package com.company.analyzer.service;
+
+import com.company.analyzer.model.Employee;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SalaryDistributionIndexTest {
+
+    @Test
+    void testTeamAndOrganizationDistributions() {
+        OrgHierarchy hierarchy = new OrganizationalAnalyzer(Arrays.asList(
+            new Employee("1", "Ann", "Top", 200000, null),
+            new Employee("2", "Bob", "Mid", 90000, "1"),
+            new Employee("3", "Cat", "Mid", 80000, "1"),
+            new Employee("4", "Dan", "Low", 50000, "2"),
+            new Employee("5", "Eve", "Low", 52000, "2"),
+            new Employee("6", "Fay", "Low", 300000, "2")
+        )).getHierarchy();
+        SalaryDistributionIndex index = hierarchy.getSalaryDistributionIndex();
+
+        KllSketch team = index.getTeamDistribution(hierarchy.indexOf("2"));
+        assertEquals(3, team.getN());
+        assertEquals(52000, team.getQuantile(0.5));
+        assertEquals(300000, team.getQuantile(0.9));
+        assertTrue(team.isExact());
+        assertTrue(index.getTeamDistribution(hierarchy.indexOf("4")).isEmpty());
+
+        KllSketch organization = index.getOrganizationDistribution();
+        assertEquals(6, organization.getN());
+        assertEquals(50000, organization.getMin());
+        assertEquals(300000, organization.getMax());
+        assertEquals(80000, organization.getQuantile(0.5));
+
+        KllSketch subtree = index.summarizeSubtree(hierarchy.indexOf("1"));
+        assertEquals(5, subtree.getN());
+        assertEquals(300000, subtree.getMax());
+        assertSame(index, hierarchy.getSalaryDistributionIndex());
+    }
+
+    @Test
+    void testCountsEveryoneOnceDespiteCyclesAndUnknownManagers() {
+        OrgHierarchy hierarchy = new OrganizationalAnalyzer(Arrays.asList(
+            new Employee("1", "Ann", "Top", 100, null),
+            new Employee("2", "Bob", "Lost", 200, "missing"),
+            new Employee("3", "Cat", "Cycle", 300, "4"),
+            new Employee("4", "Dan", "Cycle", 400, "3"),
+            new Employee("5", "Eve", "Below", 500, "4")
+        )).getHierarchy();
+
+        KllSketch organization = hierarchy.getSalaryDistributionIndex().getOrganizationDistribution();
+
+        assertEquals(5, organization.getN());
+        assertArrayEquals(new long[] {1, 1, 1, 1, 1}, organization.getHistogram(150, 250, 350, 450));
+        assertEquals(2, hierarchy.getSalaryDistributionIndex().getTeamDistribution(hierarchy.indexOf("4")).getN());
+    }
+
+    @Test
+    void testSkipsNonFiniteSalaries() {
+        OrgHierarchy hierarchy = new OrganizationalAnalyzer(Arrays.asList(
+            new Employee("1", "Ann", "Top", 100000, null),
+            new Employee("2", "Bob", "Mid", Double.NaN, "1"),
+            new Employee("3", "Cat", "Mid", 60000, "1"),
+            new Employee("4", "Dan", "Low", Double.POSITIVE_INFINITY, "2"),
+            new Employee("5", "Eve", "Low", 40000, "2")
+        )).getHierarchy();
+        SalaryDistributionIndex index = hierarchy.getSalaryDistributionIndex();
+
+        KllSketch organization = index.getOrganizationDistribution();
+        assertEquals(3, organization.getN());
+        assertEquals(40000, organization.getMin());
+        assertEquals(100000, organization.getMax());
+        assertEquals(1, index.getTeamDistribution(hierarchy.indexOf("1")).getN());
+        assertEquals(1, index.getTeamDistribution(hierarchy.indexOf("2")).getN());
+        assertEquals(2, index.summarizeSubtree(hierarchy.indexOf("1")).getN());
+    }
+
+    @Test
+    void testLargeOrganizationStaysWithinRankError() {
+        Random random = new Random(5);
+        List<Employee> employees = new ArrayList<>();
+        double[] salaries = new double[100_000];
+        for (int i = 0; i < salaries.length; i++) {
+            salaries[i] = Math.round(40_000 * Math.exp(random.nextGaussian() * 0.4));
+            String manager = i == 0 ? null : String.valueOf(random.nextInt(i));
+            employees.add(new Employee(String.valueOf(i), "F", "L", salaries[i], manager));
+        }
+        OrgHierarchy hierarchy = new OrganizationalAnalyzer(employees).getHierarchy();
+
+        KllSketch organization = hierarchy.getSalaryDistributionIndex().getOrganizationDistribution();
+
+        Arrays.sort(salaries);
+        assertEquals(salaries.length, organization.getN());
+        assertEquals(salaries[0], organization.getMin());
+        assertEquals(salaries[salaries.length - 1], organization.getMax());
+        for (double fraction : new double[] {0.1, 0.5, 0.9, 0.99}) {
+            double exact = salaries[(int) (fraction * salaries.length)];
+            assertEquals(fraction, organization.getRank(exact), organization.getNormalizedRankError(),
+                         "rank of the exact " + fraction + " quantile");
+        }
+        assertTrue(organization.getRetained() < 4 * KllSketch.DEFAULT_K);
+    }
+}
@@ -0,0 +1,103 @@
+package com.company.analyzer.service;
+
+import com.company.analyzer.service.ShardedCsvLoader.DuplicateId;
+import com.company.analyzer.service.ShardedCsvLoader.Result;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardedCsvLoaderTest {
+
+    private static final String HEADER = "Id,firstName,lastName,salary,managerId\n";
+
+    @Test
+    void testManagersResolveAcrossShards(@TempDir Path dir) throws IOException {
+        Files.writeString(dir.resolve("a-exec.csv"), HEADER + "1,Joe,Doe,200000,\n2,Ann,Lee,120000,1\n");
+        Files.writeString(dir.resolve("b-sales.csv"), HEADER + "10,Bob,Ray,60000,2\n11,Sue,Kim,62000,2\n");
+        Files.writeString(dir.resolve("c-eng.csv"), HEADER + "20,Tim,Fox,70000,3\n3,Eva,Roe,110000,1\n");
+        Files.writeString(dir.resolve("notes.txt"), "not a shard");
+
+        Result result = new ShardedCsvLoader().load(dir.toString());
+        OrgHierarchy hierarchy = result.getAnalyzer().getHierarchy();
+
+        assertEquals(3, result.getShardCount());
+        assertEquals(6, hierarchy.size());
+        assertTrue(result.getDuplicates().isEmpty());
+        // Same order as concatenating the files by name
+        assertEquals(0, hierarchy.indexOf("1"));
+        assertEquals(2, hierarchy.getDirectReportCount(hierarchy.indexOf("2")));
+        assertEquals(hierarchy.indexOf("3"), hierarchy.getParent(hierarchy.indexOf("20")));
+        assertEquals(2, hierarchy.getReportingLineLength(hierarchy.indexOf("20")));
+    }
+
+    @Test
+    void testDuplicateIdsAreReported(@TempDir Path dir) throws IOException {
+        Files.writeString(dir.resolve("unit-1.csv"), HEADER + "1,Joe,Doe,200000,\n2,Ann,Lee,120000,1\n2,Ann,Lee,121000,1\n");
+        Files.writeString(dir.resolve("unit-2.csv"), HEADER + "2,Ann,Other,99000,1\n");
+
+        Result result = new ShardedCsvLoader().load(dir + "/unit-*.csv");
+
+        // The repeat inside unit-1.csv comes first, with the same file on both sides
+        List<DuplicateId> duplicates = result.getDuplicates();
+        assertEquals(2, duplicates.size());
+        assertEquals("2", duplicates.get(0).getId());
+        assertEquals(dir.resolve("unit-1.csv"), duplicates.get(0).getFirstFile());
+        assertEquals(dir.resolve("unit-1.csv"), duplicates.get(0).getDuplicateFile());
+        assertEquals("2", duplicates.get(1).getId());
+        assertEquals(dir.resolve("unit-1.csv"), duplicates.get(1).getFirstFile());
+        assertEquals(dir.resolve("unit-2.csv"), duplicates.get(1).getDuplicateFile());
+        assertEquals(4, result.getRowCount());
+        OrgHierarchy hierarchy = result.getAnalyzer().getHierarchy();
+        assertEquals("Other", hierarchy.getEmployee(hierarchy.indexOf("2")).getLastName());
+    }
+
+    @Test
+    void testResolveShards(@TempDir Path dir) throws IOException {
+        Files.createDirectories(dir.resolve("eu"));
+        Files.writeString(dir.resolve("eu/b.csv"), HEADER);
+        Files.writeString(dir.resolve("eu/a.csv"), HEADER);
+        Files.writeString(dir.resolve("eu/a.txt"), HEADER);
+        Files.writeString(dir.resolve("us.csv"), HEADER);
+
+        assertEquals(List.of(dir.resolve("eu/a.csv"), dir.resolve("eu/b.csv")),
+                     ShardedCsvLoader.resolveShards(dir + "/*/*.csv"));
+        assertEquals(List.of(dir.resolve("us.csv")), ShardedCsvLoader.resolveShards(dir.toString()));
+        assertEquals(List.of(dir.resolve("us.csv")), ShardedCsvLoader.resolveShards(dir + "/us.csv"));
+        assertTrue(ShardedCsvLoader.isSharded(dir.toString()));
+        assertTrue(ShardedCsvLoader.isSharded(dir + "/*.csv"));
+        assertFalse(ShardedCsvLoader.isSharded(dir + "/us.csv"));
+        assertThrows(IllegalArgumentException.class, () -> ShardedCsvLoader.resolveShards(dir + "/*.xml"));
+    }
+
+    @Test
+    void testResolveRelativeGlobs(@TempDir Path dir) throws IOException {
+        Files.createDirectories(dir.resolve("eu/old"));
+        Files.writeString(dir.resolve("a.csv"), HEADER);
+        Files.writeString(dir.resolve("eu/b.csv"), HEADER);
+        Files.writeString(dir.resolve("eu/old/c.csv"), HEADER);
+
+        assertEquals(List.of(dir.resolve("a.csv")), ShardedCsvLoader.resolveShards("*.csv", dir));
+        assertEquals(List.of(dir.resolve("eu/b.csv")), ShardedCsvLoader.resolveShards("eu/*.csv", dir));
+        assertEquals(List.of(dir.resolve("eu/b.csv")), ShardedCsvLoader.resolveShards("*/*.csv", dir));
+        assertEquals(List.of(dir.resolve("eu/b.csv"), dir.resolve("eu/old/c.csv")),
+                     ShardedCsvLoader.resolveShards("eu/**.csv", dir));
+    }
+
+    @Test
+    void testInvalidShardNamesFile(@TempDir Path dir) throws IOException {
+        Files.writeString(dir.resolve("a.csv"), HEADER + "1,Joe,Doe,200000,\n");
+        Files.writeString(dir.resolve("b.csv"), HEADER + "2,Ann,Lee,abc,1\n");
+
+        ShardedCsvLoader loader = new ShardedCsvLoader(new CsvReaderService(), new ForkJoinPool(2));
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> loader.load(dir.toString()));
+
+        assertEquals(dir.resolve("b.csv") + ": Invalid CSV format at line 2: Invalid salary value: abc", e.getMessage());
+    }
+}
@@ -0,0 +1,114 @@
+package com.company.analyzer.service;
+
+import com.company.analyzer.model.Employee;
+import com.company.analyzer.service.SubtreeIndex.SubtreeSummary;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SubtreeIndexTest {
+
+    @Test
+    void testAggregatesOfSmallOrganization() {
+        OrgHierarchy hierarchy = new OrganizationalAnalyzer(Arrays.asList(
+            new Employee("1", "CEO", "Top", 200000, null),
+            new Employee("2", "Mgr", "A", 90000, "1"),
+            new Employee("3", "Mgr", "B", 80000, "1"),
+            new Employee("4", "Dev", "A1", 60000, "2"),
+            new Employee("5", "Dev", "A2", 50000, "2"),
+            new Employee("6", "Dev", "A1a", 40000, "4")
+        )).getHierarchy();
+        SubtreeIndex index = hierarchy.getSubtreeIndex();
+
+        int ceo = hierarchy.indexOf("1");
+        assertEquals(5, index.getHeadcount(ceo));
+        assertEquals(320000.0, index.getPayroll(ceo));
+        assertEquals(64000.0, index.getAverageSalary(ceo));
+        assertEquals(3, index.getMaxDepth(ceo));
+
+        int managerA = hierarchy.indexOf("2");
+        assertEquals(3, index.getHeadcount(managerA));
+        assertEquals(150000.0, index.getPayroll(managerA));
+        assertEquals(2, index.getMaxDepth(managerA));
+
+        int managerB = hierarchy.indexOf("3");
+        assertEquals(0, index.getHeadcount(managerB));
+        assertEquals(0.0, index.getAverageSalary(managerB));
+        assertEquals(0, index.getMaxDepth(managerB));
+
+        assertTrue(index.isBelow(hierarchy.indexOf("6"), managerA));
+        assertTrue(index.isBelow(hierarchy.indexOf("6"), ceo));
+        assertFalse(index.isBelow(hierarchy.indexOf("6"), managerB));
+        assertFalse(index.isBelow(managerA, managerA));
+
+        List<SubtreeSummary> summaries = index.summarizeManagers();
+        assertEquals(3, summaries.size());
+        assertEquals("1", summaries.get(0).getManager().getId());
+        assertEquals("2", summaries.get(1).getManager().getId());
+        assertEquals("4", summaries.get(2).getManager().getId());
+    }
+
+    @Test
+    void testAggregatesMatchNaiveWalk() {
+        Random random = new Random(11);
+        List<Employee> employees = new ArrayList<>();
+        employees.add(new Employee("E0", "First", "Last", 100000, null));
+        for (int i = 1; i < 2000; i++) {
+            // Managers come from earlier IDs, so there is no cycle; a few are unknown
+            String managerId = random.nextInt(50) == 0 ? "X" + i : "E" + random.nextInt(i);
+            employees.add(new Employee("E" + i, "First", "Last", 1000 + random.nextInt(100000), managerId));
+        }
+        Collections.shuffle(employees, random);
+
+        OrgHierarchy hierarchy = new OrganizationalAnalyzer(employees).getHierarchy();
+        SubtreeIndex index = hierarchy.getSubtreeIndex();
+        int n = hierarchy.size();
+        int[] headcount = new int[n];
+        double[] payroll = new double[n];
+        int[] maxDepth = new int[n];
+        for (int i = 0; i < n; i++) {
+            int depth = 1;
+            for (int m = hierarchy.getParent(i); m != OrgHierarchy.NO_PARENT; m = hierarchy.getParent(m), depth++) {
+                headcount[m]++;
+                payroll[m] += hierarchy.getSalary(i);
+                maxDepth[m] = Math.max(maxDepth[m], depth);
+                assertTrue(index.isBelow(i, m));
+            }
+        }
+
+        for (int i = 0; i < n; i++) {
+            assertEquals(headcount[i], index.getHeadcount(i), "headcount of " + i);
+            assertEquals(payroll[i], index.getPayroll(i), 1e-6, "payroll of " + i);
+            assertEquals(maxDepth[i], index.getMaxDepth(i), "depth of " + i);
+            assertEquals(headcount[i], index.getSubordinates(i).length);
+        }
+    }
+
+    @Test
+    void testCycleIsCutAboveOneMember() {
+        OrgHierarchy hierarchy = new OrganizationalAnalyzer(Arrays.asList(
+            new Employee("1", "CEO", "Top", 100000, null),
+            new Employee("2", "Loop", "A", 50000, "3"),
+            new Employee("3", "Loop", "B", 50000, "2"),
+            new Employee("4", "Dev", "Below", 40000, "3")
+        )).getHierarchy();
+        SubtreeIndex index = hierarchy.getSubtreeIndex();
+
+        int a = hierarchy.indexOf("2");
+        int b = hierarchy.indexOf("3");
+        int head = index.getHeadcount(a) == 2 ? a : b;
+        int other = head == a ? b : a;
+
+        assertEquals(0, index.getHeadcount(hierarchy.indexOf("1")));
+        assertEquals(2, index.getHeadcount(head));
+        assertTrue(index.isBelow(other, head));
+        assertFalse(index.isBelow(head, other));
+        assertTrue(index.isBelow(hierarchy.indexOf("4"), head));
+    }
+}
@@ -0,0 +1,100 @@
+package com.company.analyzer.service;
+
+import com.company.analyzer.model.Employee;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SymbolTableTest {
+
+    @Test
+    void testEqualBytesShareOneInstance() {
+        SymbolTable symbols = new SymbolTable();
+        ByteBuffer buffer = ByteBuffer.wrap("Joe,Joe,Zoë".getBytes(StandardCharsets.UTF_8));
+
+        String first = symbols.intern(buffer, 0, 3);
+        String second = symbols.intern(buffer, 4, 7);
+        String other = symbols.intern(buffer, 8, buffer.limit());
+
+        assertEquals("Joe", first);
+        assertSame(first, second);
+        assertEquals("Zoë", other);
+        assertEquals(2, symbols.size());
+        assertEquals(3, symbols.getLookups());
+        assertEquals(1, symbols.getHits());
+        assertTrue(symbols.getSavedBytes() > 0);
+    }
+
+    @Test
+    void testStringAndByteFormsMeet() {
+        SymbolTable symbols = new SymbolTable();
+        String interned = symbols.intern(new String("Martin"));
+        ByteBuffer buffer = ByteBuffer.wrap("Martin".getBytes(StandardCharsets.UTF_8));
+
+        assertSame(interned, symbols.intern(buffer, 0, buffer.limit()));
+        assertSame(interned, symbols.intern(new String("Martin")));
+        assertEquals(1, symbols.size());
+    }
+
+    @Test
+    void testGrowsPastInitialCapacity() {
+        SymbolTable symbols = new SymbolTable(4, SymbolTable.DEFAULT_MAX_SIZE);
+        List<String> first = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            first.add(symbols.intern("name" + i));
+        }
+        for (int i = 0; i < 10_000; i++) {
+            assertSame(first.get(i), symbols.intern("name" + i));
+        }
+        assertEquals(10_000, symbols.size());
+    }
+
+    @Test
+    void testStopsGrowingAtMaxSize() {
+        SymbolTable symbols = new SymbolTable(0, 2);
+        symbols.intern("a");
+        symbols.intern("b");
+        String c = symbols.intern(new String("c"));
+
+        // Past the cap values are returned as given and not remembered
+        assertEquals("c", c);
+        assertNotSame(c, symbols.intern(new String("c")));
+        assertEquals(2, symbols.size());
+    }
+
+    @Test
+    void testReadersShareNamesAndManagerIds(@TempDir Path tempDir) throws IOException {
+        Path csvFile = tempDir.resolve("employees.csv");
+        Files.writeString(csvFile, """
+            Id,firstName,lastName,salary,managerId
+            1,Joe,Planck,60000,
+            2,Martin,Chekov,45000,1
+            3,Martin,Planck,47000,1
+            """);
+
+        CsvReaderService reader = new CsvReaderService();
+        for (boolean mapped : new boolean[] {false, true}) {
+            SymbolTable symbols = new SymbolTable();
+            List<Employee> employees = new ArrayList<>();
+            if (mapped) {
+                reader.readEmployeesMapped(csvFile.toString(), employees::add, symbols);
+            } else {
+                reader.readEmployees(csvFile.toString(), employees::add, symbols);
+            }
+
+            assertSame(employees.get(1).getFirstName(), employees.get(2).getFirstName());
+            assertSame(employees.get(0).getLastName(), employees.get(2).getLastName());
+            assertSame(employees.get(1).getManagerId(), employees.get(2).getManagerId());
+            assertEquals(3, symbols.getHits());
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.company.analyzer.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TopKTest {
+
+    @Test
+    void testKeepsGreatestInStableOrder() {
+        Random random = new Random(5);
+        List<int[]> items = new ArrayList<>();
+        TopK<int[]> top = new TopK<>(50, Comparator.comparingInt(item -> item[0]));
+        for (int i = 0; i < 10_000; i++) {
+            int[] item = {random.nextInt(200), i};
+            items.add(item);
+            top.accept(item);
+        }
+
+        // List.sort is stable, so equal values stay in arrival order
+        items.sort(Comparator.comparingInt((int[] item) -> item[0]).reversed());
+        List<int[]> kept = top.toList();
+        assertEquals(50, kept.size());
+        for (int i = 0; i < kept.size(); i++) {
+            assertSame(items.get(i), kept.get(i));
+        }
+    }
+
+    @Test
+    void testFewerItemsThanK() {
+        TopK<Integer> top = new TopK<>(10, Comparator.naturalOrder());
+        top.accept(3);
+        top.accept(7);
+        top.accept(5);
+
+        assertEquals(List.of(7, 5, 3), top.toList());
+        assertTrue(new TopK<Integer>(0, Comparator.naturalOrder()).toList().isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> new TopK<Integer>(-1, Comparator.naturalOrder()));
+    }
+}